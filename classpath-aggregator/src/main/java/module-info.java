@@ -0,0 +1,8 @@
+/**
+ * Contains the build-time aggregator of the indexes of classpath resources.
+ */
+module classpath.aggregator {
+    requires transitive classpath.common;
+
+    exports ru.joke.classpath.aggregator;
+}
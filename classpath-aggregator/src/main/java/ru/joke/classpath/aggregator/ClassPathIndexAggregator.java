@@ -0,0 +1,139 @@
+package ru.joke.classpath.aggregator;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.ClassPathResources;
+import ru.joke.classpath.IndexedClassPathResources;
+import ru.joke.classpath.IndexedClassPathStorageException;
+import ru.joke.classpath.services.ClassPathResourcesService;
+import ru.joke.classpath.services.IndexFileDigest;
+import ru.joke.classpath.services.IndexedClassPathLocation;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Build-time aggregator of the indexes of classpath resources.<br>
+ * The aggregator collects the {@link IndexedClassPathLocation#INDEXED_RESOURCES_FILE indexes} of the given
+ * class path entries (JAR files or directories), deduplicates the resources by their {@link ClassPathResource#id()}
+ * and writes all the distinct resources to one {@link IndexedClassPathLocation#AGGREGATED_RESOURCES_FILE aggregated index}
+ * of the application, which is encoded with a single string table for all the resources. The {@link IndexFileDigest digests}
+ * of the indexes of the aggregated class path entries are written to the {@link IndexedClassPathLocation#AGGREGATED_ENTRIES_FILE entries file}
+ * next to the aggregated index. At runtime, the aggregated index is read instead of the indexes of the aggregated
+ * class path entries, the indexes of the other class path entries (including the aggregated entries changed
+ * after the aggregation) are still read.<br>
+ * If the resource with the same identifier is contained in the indexes of several entries, the resource
+ * from the first of them (in the order of the entries) is used, like the class is loaded from the first
+ * class path entry containing it.<br>
+ * The aggregated index is written to the {@link IndexedClassPathLocation#AGGREGATED_RESOURCES_FILE} path
+ * in the output directory, so the directory can be added to the class path of the application or packaged
+ * into the application JAR file. The aggregator can be launched from the command line
+ * via {@link ClassPathIndexAggregatorLauncher}.<br>
+ * This class is thread-safe.
+ *
+ * @author Alik
+ * @see ClassPathResourcesService
+ * @see ClassPathIndexAggregatorLauncher
+ */
+public final class ClassPathIndexAggregator {
+
+    private final ClassPathResourcesService resourcesService;
+
+    /**
+     * Constructs the aggregator.
+     */
+    public ClassPathIndexAggregator() {
+        this(ClassPathResourcesService.getInstance());
+    }
+
+    ClassPathIndexAggregator(final ClassPathResourcesService resourcesService) {
+        this.resourcesService = resourcesService;
+    }
+
+    /**
+     * Collects the distinct resources from the indexes of the given class path entries.
+     *
+     * @param classPathEntries JAR files or directories of the class path; cannot be {@code null}.
+     * @return distinct resources of the indexes; cannot be {@code null}.
+     */
+    public ClassPathResources collect(final List<Path> classPathEntries) {
+        final Map<String, ClassPathResource> resourcesById = new LinkedHashMap<>();
+        for (final var classPathEntry : classPathEntries) {
+            readIndex(classPathEntry).forEach(resource -> resourcesById.putIfAbsent(resource.id(), resource));
+        }
+
+        final var result = new IndexedClassPathResources();
+        result.addAll(resourcesById.values());
+
+        return result;
+    }
+
+    /**
+     * Collects the distinct resources from the indexes of the given class path entries and writes them
+     * to the aggregated index in the output directory along with the digests of the indexes of the aggregated entries.
+     * The previous aggregated index in the output directory is replaced.
+     *
+     * @param classPathEntries JAR files or directories of the class path; cannot be {@code null}.
+     * @param outputDir        output directory; cannot be {@code null}.
+     * @return path of the written aggregated index; cannot be {@code null}.
+     */
+    public Path aggregate(final List<Path> classPathEntries, final Path outputDir) {
+        final var resources = collect(classPathEntries);
+        final var targetPath = outputDir.resolve(IndexedClassPathLocation.AGGREGATED_RESOURCES_FILE);
+        final var entriesPath = outputDir.resolve(IndexedClassPathLocation.AGGREGATED_ENTRIES_FILE);
+
+        try {
+            Files.deleteIfExists(targetPath);
+            Files.deleteIfExists(entriesPath);
+        } catch (IOException ex) {
+            throw new IndexedClassPathStorageException("Unable to replace aggregated index: " + targetPath, ex);
+        }
+
+        this.resourcesService.write(targetPath::toString, resources);
+        writeEntries(classPathEntries, entriesPath);
+
+        return targetPath;
+    }
+
+    private void writeEntries(final List<Path> classPathEntries, final Path entriesPath) {
+        final Set<String> entries = new LinkedHashSet<>();
+        for (final var classPathEntry : classPathEntries) {
+            final var entryName = classPathEntry.toAbsolutePath().normalize().getFileName();
+            indexDigest(classPathEntry).ifPresent(digest -> entries.add(digest + ' ' + entryName));
+        }
+
+        try {
+            Files.createDirectories(entriesPath.getParent());
+            Files.write(entriesPath, entries, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new IndexedClassPathStorageException("Unable to write entries of aggregated index: " + entriesPath, ex);
+        }
+    }
+
+    private Optional<String> indexDigest(final Path classPathEntry) {
+        try (final var classLoader = new URLClassLoader(new URL[] { classPathEntry.toUri().toURL() }, null)) {
+            final var indexUrl = classLoader.findResource(IndexedClassPathLocation.INDEXED_RESOURCES_FILE);
+            return indexUrl == null ? Optional.empty() : Optional.of(IndexFileDigest.compute(indexUrl));
+        } catch (IOException ex) {
+            throw new IndexedClassPathStorageException("Unable to read index of class path entry: " + classPathEntry, ex);
+        }
+    }
+
+    private ClassPathResources readIndex(final Path classPathEntry) {
+        try (final var classLoader = new URLClassLoader(new URL[] { classPathEntry.toUri().toURL() }, null)) {
+            final var location = IndexedClassPathLocation.relativeLocation(Set.of(classLoader));
+            try {
+                return this.resourcesService.read(location, r -> true);
+            } finally {
+                // the class loader of the entry isn't used anymore
+                this.resourcesService.invalidate(location);
+            }
+        } catch (IOException ex) {
+            throw new IndexedClassPathStorageException("Unable to read index of class path entry: " + classPathEntry, ex);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.joke.classpath.aggregator;
+
+import ru.joke.classpath.IndexedClassPathException;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line launcher of the {@link ClassPathIndexAggregator}:
+ * <pre>
+ *     java -p &lt;module path&gt; -m classpath.aggregator/ru.joke.classpath.aggregator.ClassPathIndexAggregatorLauncher \
+ *          &lt;output directory&gt; &lt;class path entry&gt;...
+ * </pre>
+ * Each class path entry argument can contain several entries separated by the {@link File#pathSeparator}.<br>
+ * The launcher exits with the status {@value #SUCCESS_STATUS} if the aggregated index is written,
+ * {@value #USAGE_ERROR_STATUS} if the arguments are invalid and {@value #AGGREGATION_ERROR_STATUS}
+ * if the indexes can't be aggregated.
+ *
+ * @author Alik
+ * @see ClassPathIndexAggregator
+ */
+public final class ClassPathIndexAggregatorLauncher {
+
+    static final int SUCCESS_STATUS = 0;
+    static final int AGGREGATION_ERROR_STATUS = 1;
+    static final int USAGE_ERROR_STATUS = 2;
+
+    private ClassPathIndexAggregatorLauncher() {
+    }
+
+    /**
+     * Aggregates the indexes of the class path entries from the command line.
+     *
+     * @param args output directory and class path entries; cannot be {@code null}.
+     */
+    public static void main(final String[] args) {
+        System.exit(run(new ClassPathIndexAggregator(), args, System.out, System.err));
+    }
+
+    static int run(
+            final ClassPathIndexAggregator aggregator,
+            final String[] args,
+            final PrintStream out,
+            final PrintStream err
+    ) {
+        if (args.length < 2) {
+            err.println("Usage: ClassPathIndexAggregatorLauncher <output directory> <class path entry>...");
+            return USAGE_ERROR_STATUS;
+        }
+
+        final List<Path> classPathEntries = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            for (final var entry : args[i].split(File.pathSeparator)) {
+                if (!entry.isBlank()) {
+                    classPathEntries.add(Path.of(entry));
+                }
+            }
+        }
+
+        try {
+            final var targetPath = aggregator.aggregate(classPathEntries, Path.of(args[0]));
+            out.println("Aggregated index is written to " + targetPath);
+            return SUCCESS_STATUS;
+        } catch (IndexedClassPathException ex) {
+            err.println("Unable to aggregate indexes: " + ex.getMessage());
+            return AGGREGATION_ERROR_STATUS;
+        }
+    }
+}
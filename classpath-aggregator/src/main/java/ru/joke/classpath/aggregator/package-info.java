@@ -0,0 +1,6 @@
+/**
+ * Defines the aggregator merging the indexes of the application dependencies into one index.
+ *
+ * @see ru.joke.classpath.aggregator.ClassPathIndexAggregator
+ */
+package ru.joke.classpath.aggregator;
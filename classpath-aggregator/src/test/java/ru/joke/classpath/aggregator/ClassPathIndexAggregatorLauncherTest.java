@@ -0,0 +1,71 @@
+package ru.joke.classpath.aggregator;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.IndexedClassPathStorageException;
+import ru.joke.classpath.services.IndexedClassPathLocation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ClassPathIndexAggregatorLauncherTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    @Test
+    void testRun() throws IOException {
+        final var firstEntry = Files.createTempDirectory("cp-entry");
+        final var secondEntry = Files.createTempDirectory("cp-entry");
+        final var outputDir = Files.createTempDirectory("cp-aggregated");
+        final var aggregator = mock(ClassPathIndexAggregator.class);
+        final var targetPath = outputDir.resolve(IndexedClassPathLocation.AGGREGATED_RESOURCES_FILE);
+        when(aggregator.aggregate(List.of(firstEntry, secondEntry), outputDir)).thenReturn(targetPath);
+
+        final int status = run(aggregator, outputDir.toString(), firstEntry + File.pathSeparator + secondEntry);
+
+        assertEquals(ClassPathIndexAggregatorLauncher.SUCCESS_STATUS, status, "Status must be successful");
+        assertTrue(this.out.toString(StandardCharsets.UTF_8).contains(targetPath.toString()), "Target path must be printed");
+        assertEquals(0, this.err.size(), "Errors must not be printed");
+    }
+
+    @Test
+    void testRunWithoutClassPathEntries() {
+        final var aggregator = mock(ClassPathIndexAggregator.class);
+
+        final int status = run(aggregator, "output");
+
+        assertEquals(ClassPathIndexAggregatorLauncher.USAGE_ERROR_STATUS, status, "Status must be usage error");
+        assertTrue(this.err.toString(StandardCharsets.UTF_8).startsWith("Usage"), "Usage must be printed");
+        verifyNoInteractions(aggregator);
+    }
+
+    @Test
+    void testRunWhenAggregationFailed() {
+        final var aggregator = mock(ClassPathIndexAggregator.class);
+        when(aggregator.aggregate(anyList(), any(Path.class))).thenThrow(new IndexedClassPathStorageException("test", new IOException()));
+
+        final int status = run(aggregator, "output", "entry");
+
+        assertEquals(ClassPathIndexAggregatorLauncher.AGGREGATION_ERROR_STATUS, status, "Status must be aggregation error");
+        assertTrue(this.err.toString(StandardCharsets.UTF_8).contains("test"), "Error must be printed");
+        assertEquals(0, this.out.size(), "Result must not be printed");
+    }
+
+    private int run(final ClassPathIndexAggregator aggregator, final String... args) {
+        return ClassPathIndexAggregatorLauncher.run(
+                aggregator,
+                args,
+                new PrintStream(this.out, true, StandardCharsets.UTF_8),
+                new PrintStream(this.err, true, StandardCharsets.UTF_8)
+        );
+    }
+}
@@ -0,0 +1,193 @@
+package ru.joke.classpath.aggregator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.IndexedClassPathResources;
+import ru.joke.classpath.PackageResource;
+import ru.joke.classpath.services.ClassPathResourcesService;
+import ru.joke.classpath.services.IndexedClassPathLocation;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassPathIndexAggregatorTest {
+
+    private ClassPathResourcesService resourcesService;
+    private ClassPathIndexAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        this.resourcesService = ClassPathResourcesService.getInstance();
+        this.aggregator = new ClassPathIndexAggregator(this.resourcesService);
+    }
+
+    @Test
+    void testCollectDistinctResources() throws IOException {
+        final var firstEntry = createDirectoryEntry(createPackageResource("p1"), createPackageResource("p2"));
+        final var secondEntry = createJarEntry(createPackageResource("p2"), createPackageResource("p3"));
+        final var entryWithoutIndex = Files.createTempDirectory("cp-entry");
+
+        final var resources = this.aggregator.collect(List.of(firstEntry, secondEntry, entryWithoutIndex));
+
+        final var expectedResources = new IndexedClassPathResources();
+        expectedResources.add(createPackageResource("p1"));
+        expectedResources.add(createPackageResource("p2"));
+        expectedResources.add(createPackageResource("p3"));
+        assertEquals(expectedResources, resources, "Distinct resources of all indexes must be collected");
+    }
+
+    @Test
+    void testAggregatedIndexReadInsteadOfEntryIndexes() throws IOException {
+        final var firstEntry = createDirectoryEntry(createPackageResource("p1"));
+        final var secondEntry = createJarEntry(createPackageResource("p2"));
+        final var outputDir = Files.createTempDirectory("cp-aggregated");
+        Files.createDirectories(outputDir.resolve(IndexedClassPathLocation.CONFIGURATION_DIR));
+        Files.writeString(outputDir.resolve(IndexedClassPathLocation.AGGREGATED_RESOURCES_FILE), "obsolete");
+
+        final var targetPath = this.aggregator.aggregate(List.of(firstEntry, secondEntry), outputDir);
+        assertEquals(outputDir.resolve(IndexedClassPathLocation.AGGREGATED_RESOURCES_FILE), targetPath, "Target path must be equal");
+
+        // only the first entry is in the class path, the resources of the second entry are read from the aggregated index
+        try (final var classLoader = new URLClassLoader(new URL[] { outputDir.toUri().toURL(), firstEntry.toUri().toURL() }, null)) {
+            final var location = IndexedClassPathLocation.relativeLocation(Set.of(classLoader));
+            final var resources = this.resourcesService.read(location, r -> true);
+            this.resourcesService.invalidate(location);
+
+            final var expectedResources = new IndexedClassPathResources();
+            expectedResources.add(createPackageResource("p1"));
+            expectedResources.add(createPackageResource("p2"));
+            assertEquals(expectedResources, resources, "Resources must be read from the aggregated index");
+        }
+    }
+
+    @Test
+    void testAggregatedIndexMergedWithIndexesOfNotAggregatedEntries() throws IOException {
+        final var aggregatedEntry = createDirectoryEntry(createPackageResource("p1"));
+        final var extraEntry = createJarEntry(createPackageResource("p2"));
+        final var outputDir = Files.createTempDirectory("cp-aggregated");
+        this.aggregator.aggregate(List.of(aggregatedEntry), outputDir);
+
+        // the index of the aggregated entry is changed after the aggregation, so it isn't covered anymore
+        createDirectoryEntry(aggregatedEntry, createPackageResource("p3"));
+
+        final var classPath = new URL[] { outputDir.toUri().toURL(), aggregatedEntry.toUri().toURL(), extraEntry.toUri().toURL() };
+        try (final var classLoader = new URLClassLoader(classPath, null)) {
+            final var location = IndexedClassPathLocation.relativeLocation(Set.of(classLoader));
+            final var resources = this.resourcesService.read(location, r -> true);
+            this.resourcesService.invalidate(location);
+
+            final var expectedResources = new IndexedClassPathResources();
+            expectedResources.add(createPackageResource("p1"));
+            expectedResources.add(createPackageResource("p2"));
+            expectedResources.add(createPackageResource("p3"));
+            assertEquals(expectedResources, resources, "Resources of the not aggregated entries must be read along with aggregated index");
+        }
+    }
+
+    @Test
+    void testEntriesWithSameNameDistinguishedFromAggregatedEntry() throws IOException {
+        final var aggregatedEntry = createDirectoryEntry(
+                Files.createDirectories(Files.createTempDirectory("cp-module1").resolve("classes")),
+                createPackageResource("p1")
+        );
+        final var extraEntry = createDirectoryEntry(
+                Files.createDirectories(Files.createTempDirectory("cp-module2").resolve("classes")),
+                createPackageResource("p2")
+        );
+        final var outputDir = Files.createTempDirectory("cp-aggregated");
+        this.aggregator.aggregate(List.of(aggregatedEntry), outputDir);
+
+        final var classPath = new URL[] { outputDir.toUri().toURL(), aggregatedEntry.toUri().toURL(), extraEntry.toUri().toURL() };
+        try (final var classLoader = new URLClassLoader(classPath, null)) {
+            final var location = IndexedClassPathLocation.relativeLocation(Set.of(classLoader));
+            final var resources = this.resourcesService.read(location, r -> true);
+            this.resourcesService.invalidate(location);
+
+            final var expectedResources = new IndexedClassPathResources();
+            expectedResources.add(createPackageResource("p1"));
+            expectedResources.add(createPackageResource("p2"));
+            assertEquals(expectedResources, resources, "Resources of the entry with the same name as the aggregated entry must be read");
+        }
+    }
+
+    private Path createDirectoryEntry(final PackageResource... resources) throws IOException {
+        return createDirectoryEntry(Files.createTempDirectory("cp-entry"), resources);
+    }
+
+    private Path createDirectoryEntry(final Path entryDir, final PackageResource... resources) throws IOException {
+        final var indexedResources = new IndexedClassPathResources();
+        indexedResources.addAll(Arrays.asList(resources));
+        this.resourcesService.write(
+                () -> entryDir.resolve(IndexedClassPathLocation.INDEXED_RESOURCES_FILE).toString(),
+                indexedResources
+        );
+
+        return entryDir;
+    }
+
+    private Path createJarEntry(final PackageResource... resources) throws IOException {
+        final var indexDir = createDirectoryEntry(resources);
+        final var jarFile = Files.createTempFile("cp-entry", ".jar");
+
+        try (final var jarStream = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            jarStream.putNextEntry(new JarEntry(IndexedClassPathLocation.INDEXED_RESOURCES_FILE));
+            jarStream.write(Files.readAllBytes(indexDir.resolve(IndexedClassPathLocation.INDEXED_RESOURCES_FILE)));
+            jarStream.closeEntry();
+        }
+
+        return jarFile;
+    }
+
+    private PackageResource createPackageResource(final String name) {
+        return new PackageResource() {
+
+            @Override
+            public Optional<Package> asPackage(ClassLoader loader) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public Set<String> aliases() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public String module() {
+                return "";
+            }
+
+            @Override
+            public Set<ClassReference<?>> annotations() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Set<Modifier> modifiers() {
+                return EnumSet.noneOf(Modifier.class);
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hashCode(id());
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj == this || obj instanceof PackageResource f && Objects.equals(f.id(), id());
+            }
+        };
+    }
+}
@@ -3,5 +3,5 @@
  */
 module classpath.common {
     exports ru.joke.classpath;
-    exports ru.joke.classpath.services to classpath.indexer, classpath.scanner;
+    exports ru.joke.classpath.services to classpath.indexer, classpath.scanner, classpath.aggregator;
 }
\ No newline at end of file
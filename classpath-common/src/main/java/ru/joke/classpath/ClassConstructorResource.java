@@ -1,5 +1,7 @@
 package ru.joke.classpath;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 
 /**
@@ -38,6 +40,40 @@ public interface ClassConstructorResource <T> extends ClassMemberResource.Execut
      */
     Constructor<T> asConstructor(ClassLoader loader) throws ClassNotFoundException, NoSuchMethodException;
 
+    /**
+     * Returns a method handle creating the instances via the constructor; the handle is created via the given lookup.<br>
+     * If the declaring class is not loaded, it loads the class using the class loader of the lookup class.
+     *
+     * @param lookup lookup having the access to the constructor; cannot be {@code null}.
+     *
+     * @return method handle; cannot be {@code null}.
+     * @throws ClassNotFoundException if the owner class cannot be loaded by the {@link ClassLoader} of the lookup class
+     * @throws NoSuchMethodException if the specified constructor cannot be found in the owner class
+     * @throws IllegalAccessException if the lookup has no access to the constructor
+     * @see MethodHandles.Lookup#unreflectConstructor(Constructor)
+     */
+    default MethodHandle asMethodHandle(MethodHandles.Lookup lookup) throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException {
+        return asMethodHandle(lookup.lookupClass().getClassLoader(), lookup);
+    }
+
+    /**
+     * Returns a method handle creating the instances via the constructor; the handle is created via the given lookup.<br>
+     * If the declaring class is not loaded, it loads the class using the given class loader.
+     * The implementations cache the handles per the class loader and the lookup class and modes.
+     *
+     * @param loader target classloader; cannot be {@code null}.
+     * @param lookup lookup having the access to the constructor; cannot be {@code null}.
+     *
+     * @return method handle; cannot be {@code null}.
+     * @throws ClassNotFoundException if the owner class cannot be loaded by the given {@link ClassLoader}
+     * @throws NoSuchMethodException if the specified constructor cannot be found in the owner class
+     * @throws IllegalAccessException if the lookup has no access to the constructor
+     * @see MethodHandles.Lookup#unreflectConstructor(Constructor)
+     */
+    default MethodHandle asMethodHandle(ClassLoader loader, MethodHandles.Lookup lookup) throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException {
+        return lookup.unreflectConstructor(asConstructor(loader));
+    }
+
     @Override
     default Type type() {
         return Type.CONSTRUCTOR;
@@ -1,5 +1,7 @@
 package ru.joke.classpath;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
 
 /**
@@ -37,6 +39,40 @@ public interface ClassFieldResource extends ClassMemberResource {
      */
     Field asField(ClassLoader loader) throws ClassNotFoundException, NoSuchFieldException;
 
+    /**
+     * Returns a variable handle of the field created via the given lookup.<br>
+     * If the declaring class is not loaded, it loads the class using the class loader of the lookup class.
+     *
+     * @param lookup lookup having the access to the field; cannot be {@code null}.
+     *
+     * @return variable handle; cannot be {@code null}.
+     * @throws ClassNotFoundException if the owner class cannot be loaded by the {@link ClassLoader} of the lookup class
+     * @throws NoSuchFieldException if the specified field cannot be found in the owner class
+     * @throws IllegalAccessException if the lookup has no access to the field
+     * @see MethodHandles.Lookup#unreflectVarHandle(Field)
+     */
+    default VarHandle asVarHandle(MethodHandles.Lookup lookup) throws ClassNotFoundException, NoSuchFieldException, IllegalAccessException {
+        return asVarHandle(lookup.lookupClass().getClassLoader(), lookup);
+    }
+
+    /**
+     * Returns a variable handle of the field created via the given lookup.<br>
+     * If the declaring class is not loaded, it loads the class using the given class loader.
+     * The implementations cache the handles per the class loader and the lookup class and modes.
+     *
+     * @param loader target classloader; cannot be {@code null}.
+     * @param lookup lookup having the access to the field; cannot be {@code null}.
+     *
+     * @return variable handle; cannot be {@code null}.
+     * @throws ClassNotFoundException if the owner class cannot be loaded by the given {@link ClassLoader}
+     * @throws NoSuchFieldException if the specified field cannot be found in the owner class
+     * @throws IllegalAccessException if the lookup has no access to the field
+     * @see MethodHandles.Lookup#unreflectVarHandle(Field)
+     */
+    default VarHandle asVarHandle(ClassLoader loader, MethodHandles.Lookup lookup) throws ClassNotFoundException, NoSuchFieldException, IllegalAccessException {
+        return lookup.unreflectVarHandle(asField(loader));
+    }
+
     @Override
     default ClassPathResource.Type type() {
         return ClassPathResource.Type.FIELD;
@@ -1,7 +1,10 @@
 package ru.joke.classpath;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * A collection container of classpath resources that have been previously indexed or are to be indexed.<br>
@@ -20,4 +23,43 @@ public interface ClassPathResources extends Collection<ClassPathResource> {
      * {@link Optional#empty()} will be returned.
      */
     Optional<ClassPathResource> any();
+
+    /**
+     * Loads the classes of all {@link ClassResource class resources} of the collection via the given class loader
+     * in bulk; the other resources are skipped.<br>
+     * The classes are loaded concurrently on the calling thread and on the given executor if the loader is
+     * {@link ClassLoader#isRegisteredAsParallelCapable() parallel capable}, and on the calling thread only otherwise.
+     * The method returns after all classes are loaded or failed to load; if any of the classes can't be loaded,
+     * the errors of all failed classes are reported at once via the single exception.
+     *
+     * @param loader   target classloader; cannot be {@code null}.
+     * @param executor executor for the concurrent loading; cannot be {@code null}.
+     * @return loaded classes of the resources in the iteration order of the collection; cannot be {@code null}.
+     * @throws IndexedClassPathException if any of the classes can't be loaded; the errors of the classes
+     *                                   ({@link ClassNotFoundException} or {@link LinkageError}) are suppressed
+     *                                   by the exception
+     * @see ClassResource#asClass(ClassLoader)
+     */
+    default Map<ClassResource<?>, Class<?>> loadClasses(final ClassLoader loader, final Executor executor) {
+        return new ClassesLoader(this, loader).load(executor);
+    }
+
+    /**
+     * Returns an unmodifiable set view of the given resources; the view can be shared between the consumers safely
+     * if the viewed collection isn't modified. If the resources aren't a set, they are copied to the set first.
+     *
+     * @param resources viewed resources; cannot be {@code null}.
+     * @return unmodifiable view of the resources; cannot be {@code null}.
+     */
+    static ClassPathResources unmodifiable(final ClassPathResources resources) {
+        if (resources instanceof UnmodifiableClassPathResources) {
+            return resources;
+        } else if (resources instanceof Set<?>) {
+            return new UnmodifiableClassPathResources(resources);
+        }
+
+        final var copy = new IndexedClassPathResources();
+        copy.addAll(resources);
+        return new UnmodifiableClassPathResources(copy);
+    }
 }
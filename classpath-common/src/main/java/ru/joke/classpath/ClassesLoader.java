@@ -0,0 +1,122 @@
+package ru.joke.classpath;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loader of the classes of the {@link ClassResource class resources} in bulk.<br>
+ * The classes are loaded by the workers claiming the resources one by one from the shared counter:
+ * the calling thread is one of the workers, the others are run on the executor, so the slow classes
+ * don't delay the rest of the resources and the loading is completed even if the executor doesn't run
+ * the workers in time. The calling thread waits only for the resources claimed by the workers already running,
+ * the workers which aren't started before all the resources are claimed are cancelled, so the loading doesn't
+ * deadlock on a saturated executor or when it is called from a task of the same executor. If the loader isn't {@link ClassLoader#isRegisteredAsParallelCapable() parallel capable},
+ * it loads the classes under the lock of the loader itself, so the classes are loaded on the calling thread only.
+ *
+ * @author Alik
+ * @see ClassPathResources#loadClasses(ClassLoader, Executor)
+ */
+final class ClassesLoader {
+
+    private final List<ClassResource<?>> resources;
+    private final ClassLoader loader;
+    private final Class<?>[] classes;
+    private final Throwable[] errors;
+    private final AtomicInteger nextIndex;
+    private final CountDownLatch remainingResources;
+
+    ClassesLoader(final Collection<ClassPathResource> resources, final ClassLoader loader) {
+        this.resources = new ArrayList<>(resources.size());
+        for (final var resource : resources) {
+            if (resource instanceof ClassResource<?> classResource) {
+                this.resources.add(classResource);
+            }
+        }
+
+        this.loader = Objects.requireNonNull(loader, "loader");
+        this.classes = new Class<?>[this.resources.size()];
+        this.errors = new Throwable[this.resources.size()];
+        this.nextIndex = new AtomicInteger();
+        this.remainingResources = new CountDownLatch(this.resources.size());
+    }
+
+    Map<ClassResource<?>, Class<?>> load(final Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+
+        final int workersCount = this.loader.isRegisteredAsParallelCapable()
+                ? Math.min(this.resources.size(), Runtime.getRuntime().availableProcessors())
+                : 1;
+        final List<CompletableFuture<Void>> workers = new ArrayList<>(workersCount);
+        for (int i = 1; i < workersCount; i++) {
+            try {
+                workers.add(CompletableFuture.runAsync(this::loadRemaining, executor));
+            } catch (RejectedExecutionException ex) {
+                // the saturated executor doesn't accept the workers, the rest of the resources is loaded by the caller
+                break;
+            }
+        }
+
+        loadRemaining();
+
+        // all the resources are claimed, so the workers which aren't started yet have nothing to load
+        workers.forEach(worker -> worker.cancel(false));
+        awaitClaimedResources();
+
+        return collectResult();
+    }
+
+    private void loadRemaining() {
+        int index;
+        while ((index = this.nextIndex.getAndIncrement()) < this.classes.length) {
+            try {
+                this.classes[index] = this.resources.get(index).asClass(this.loader);
+            } catch (ClassNotFoundException | RuntimeException | Error ex) {
+                this.errors[index] = ex;
+            } finally {
+                this.remainingResources.countDown();
+            }
+        }
+    }
+
+    private void awaitClaimedResources() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                this.remainingResources.await();
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<ClassResource<?>, Class<?>> collectResult() {
+        final Map<ClassResource<?>, Class<?>> result = new LinkedHashMap<>(this.classes.length * 4 / 3 + 1);
+        final List<Throwable> errors = new ArrayList<>();
+        for (int i = 0; i < this.classes.length; i++) {
+            if (this.errors[i] instanceof Error error && !(error instanceof LinkageError)) {
+                throw error;
+            } else if (this.errors[i] == null) {
+                result.put(this.resources.get(i), this.classes[i]);
+            } else {
+                errors.add(this.errors[i]);
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            final var failure = new IndexedClassPathException("Unable to load classes of " + errors.size() + " resources");
+            errors.forEach(failure::addSuppressed);
+            throw failure;
+        }
+
+        return result;
+    }
+}
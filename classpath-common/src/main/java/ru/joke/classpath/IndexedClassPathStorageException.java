@@ -10,6 +10,15 @@ package ru.joke.classpath;
  */
 public final class IndexedClassPathStorageException extends IndexedClassPathException {
 
+    /**
+     * Constructs a new exception with the specified detail message.
+     *
+     * @param message the detail message; can be {@code null}.
+     */
+    public IndexedClassPathStorageException(final String message) {
+        super(message);
+    }
+
     /**
      * Constructs a new exception with the specified detail message and cause.
      *
@@ -0,0 +1,43 @@
+package ru.joke.classpath;
+
+import java.util.*;
+
+/**
+ * Unmodifiable set view of the {@link ClassPathResources} having the semantics of the set.
+ *
+ * @author Alik
+ * @see ClassPathResources#unmodifiable(ClassPathResources)
+ */
+final class UnmodifiableClassPathResources extends AbstractSet<ClassPathResource> implements ClassPathResources {
+
+    private final ClassPathResources resources;
+
+    UnmodifiableClassPathResources(final ClassPathResources resources) {
+        this.resources = Objects.requireNonNull(resources, "resources");
+    }
+
+    @Override
+    public Optional<ClassPathResource> any() {
+        return this.resources.any();
+    }
+
+    @Override
+    public Iterator<ClassPathResource> iterator() {
+        return Collections.unmodifiableCollection(this.resources).iterator();
+    }
+
+    @Override
+    public int size() {
+        return this.resources.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return this.resources.contains(o);
+    }
+
+    @Override
+    public String toString() {
+        return this.resources.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.joke.classpath.converters;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.converters.internal.DelegateClassPathResourceConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * A converter for a classpath resource to and from its binary representation.<br>
+ * The binary representation of the resource (record) consists of fields written in a fixed order
+ * for each {@link ClassPathResource.Type}: the type, modifiers, module, package, name, aliases,
+ * annotations and then the type-specific fields. All strings are written as identifiers
+ * from the {@link StringTable}, all counts and identifiers are written as {@link VarInts}.
+ *
+ * @param <T> concrete type of the classpath resource
+ *
+ * @author Alik
+ *
+ * @see ClassPathResource
+ * @see StringTable
+ * @see ClassPathResourceConverter
+ */
+public interface BinaryClassPathResourceConverter<T extends ClassPathResource> {
+
+    /**
+     * Writes the binary representation of the given resource to the output. The strings of the resource
+     * are registered in the provided table.
+     *
+     * @param resource    resource to convert; cannot be {@code null}.
+     * @param stringTable table of the strings; cannot be {@code null}.
+     * @param output      target output; cannot be {@code null}.
+     */
+    void write(T resource, StringTable stringTable, ByteArrayOutputStream output);
+
+    /**
+     * Reads the resource from the current position of the input according to the specified table
+     * of the strings. The fields of the resource can be decoded lazily on access, so the content of
+     * the input and the table must not be changed while the resource is in use. The position of the
+     * input may stay unchanged after the call.
+     *
+     * @param input       binary representation of the resource; cannot be {@code null}.
+     * @param stringTable table of the strings; cannot be {@code null}.
+     * @return wrapped classpath resource object; cannot be {@code null}.
+     */
+    Optional<T> read(ByteBuffer input, StringTable stringTable);
+
+    /**
+     * Returns an instance of the converter implementation.
+     *
+     * @return instance of the converter; cannot be {@code null}.
+     */
+    static BinaryClassPathResourceConverter<ClassPathResource> getInstance() {
+        return new DelegateClassPathResourceConverter();
+    }
+}
@@ -25,6 +25,20 @@ public interface Dictionary {
      */
     String map(String str);
 
+    /**
+     * Returns the alias for the value represented by the given range of the characters.<br>
+     * The implementations should override this method to look up the value without creating
+     * the string of the range, the default implementation creates it.
+     *
+     * @param chars characters; cannot be {@code null}.
+     * @param from  start index of the range, inclusive.
+     * @param to    end index of the range, exclusive.
+     * @return the alias; can be {@code null} if no mapping present.
+     */
+    default String map(CharSequence chars, int from, int to) {
+        return map(chars.subSequence(from, to).toString());
+    }
+
     /**
      * Adds a mapping between the given key (alias) and value.
      *
@@ -0,0 +1,42 @@
+package ru.joke.classpath.converters;
+
+/**
+ * An int-indexed table of strings used by the binary representation of the index.<br>
+ * Each distinct string of the index is stored in the table only once, and records of
+ * the index refer to the strings by their identifiers. The empty string always has
+ * the identifier {@link #EMPTY_STRING_ID}.
+ *
+ * @author Alik
+ * @see BinaryClassPathResourceConverter
+ */
+public interface StringTable {
+
+    /**
+     * Identifier of the empty string.
+     */
+    int EMPTY_STRING_ID = 0;
+
+    /**
+     * Returns the identifier of the given string, registering the string in the table if it is absent.
+     *
+     * @param str string value; cannot be {@code null}.
+     * @return identifier of the string.
+     */
+    int idOf(String str);
+
+    /**
+     * Returns the string with the given identifier.
+     *
+     * @param id identifier of the string.
+     * @return the string; cannot be {@code null}.
+     * @throws IndexOutOfBoundsException if there is no string with the given identifier in the table
+     */
+    String valueOf(int id);
+
+    /**
+     * Returns the size of the table (the count of the strings).
+     *
+     * @return the size of the table.
+     */
+    int size();
+}
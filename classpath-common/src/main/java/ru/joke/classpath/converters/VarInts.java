@@ -0,0 +1,106 @@
+package ru.joke.classpath.converters;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Utilities for writing and reading unsigned variable-length integers (LEB128) used by the binary
+ * representation of the index: each byte holds 7 bits of the value, the high bit of the byte
+ * signals that more bytes follow.
+ *
+ * @author Alik
+ * @see BinaryClassPathResourceConverter
+ */
+public final class VarInts {
+
+    private static final int SEGMENT_BITS = 0x7F;
+    private static final int CONTINUE_BIT = 0x80;
+
+    /**
+     * Writes the given non-negative value to the output.
+     *
+     * @param value  non-negative value to write.
+     * @param output target output; cannot be {@code null}.
+     */
+    public static void write(final int value, final ByteArrayOutputStream output) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value can't be written as varint: " + value);
+        }
+
+        int v = value;
+        while ((v & ~SEGMENT_BITS) != 0) {
+            output.write((v & SEGMENT_BITS) | CONTINUE_BIT);
+            v >>>= 7;
+        }
+
+        output.write(v);
+    }
+
+    /**
+     * Reads the value from the current position of the input and advances the position.
+     *
+     * @param input source input; cannot be {@code null}.
+     * @return read value.
+     */
+    public static int read(final ByteBuffer input) {
+        int result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IllegalStateException("Malformed varint at position " + input.position());
+            }
+
+            b = input.get();
+            result |= (b & SEGMENT_BITS) << shift;
+            shift += 7;
+        } while ((b & CONTINUE_BIT) != 0);
+
+        return result;
+    }
+
+    /**
+     * Reads the value at the given index of the input without changing the position of the input.
+     *
+     * @param input source input; cannot be {@code null}.
+     * @param index index of the first byte of the value.
+     * @return read value.
+     */
+    public static int read(final ByteBuffer input, final int index) {
+        int result = 0;
+        int shift = 0;
+        int i = index;
+        byte b;
+        do {
+            if (shift > 28) {
+                throw new IllegalStateException("Malformed varint at position " + index);
+            }
+
+            b = input.get(i++);
+            result |= (b & SEGMENT_BITS) << shift;
+            shift += 7;
+        } while ((b & CONTINUE_BIT) != 0);
+
+        return result;
+    }
+
+    /**
+     * Skips the value at the given index of the input without changing the position of the input.
+     *
+     * @param input source input; cannot be {@code null}.
+     * @param index index of the first byte of the value.
+     * @return index of the byte following the value.
+     */
+    public static int skip(final ByteBuffer input, final int index) {
+        int i = index;
+        while ((input.get(i++) & CONTINUE_BIT) != 0) {
+            if (i - index > 4) {
+                throw new IllegalStateException("Malformed varint at position " + index);
+            }
+        }
+
+        return i;
+    }
+
+    private VarInts() {}
+}
@@ -0,0 +1,199 @@
+package ru.joke.classpath.converters.internal;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.converters.StringTable;
+import ru.joke.classpath.converters.VarInts;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Base flyweight view of the resource over its binary record in the index buffer.<br>
+ * The view holds only the buffer, the table of the strings and the offset of the record; the fields
+ * are decoded on access. The strings are taken from the shared table, so only the fields requiring
+ * allocation (collections and class references) are cached after the first access. The content of
+ * the buffer is read with absolute operations only, so one buffer can be shared by the views safely.
+ */
+abstract class AbsBinaryResourceView implements ClassPathResource {
+
+    private static final ClassPathResource.Modifier[] modifiersValues = ClassPathResource.Modifier.values();
+
+    private static final int MODIFIERS_FIELD = 0;
+    private static final int MODULE_FIELD = 1;
+    private static final int PACKAGE_FIELD = 2;
+    private static final int NAME_FIELD = 3;
+    private static final int ALIASES_FIELD = 4;
+    private static final int ANNOTATIONS_FIELD = 5;
+    private static final int EXTENDED_INFO_FIELD = 6;
+
+    protected final ByteBuffer buffer;
+    protected final StringTable stringTable;
+    protected final int offset;
+
+    private volatile Set<Modifier> modifiers;
+    private volatile Set<String> aliases;
+    private volatile Set<ClassReference<?>> annotations;
+    private int hash;
+
+    protected AbsBinaryResourceView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        this.buffer = buffer;
+        this.stringTable = stringTable;
+        this.offset = offset;
+    }
+
+    @Override
+    public Set<Modifier> modifiers() {
+        Set<Modifier> result;
+        if ((result = this.modifiers) == null) {
+            this.modifiers = result = decodeModifiers(VarInts.read(this.buffer, fieldIndex(MODIFIERS_FIELD)));
+        }
+
+        return result;
+    }
+
+    @Override
+    public String module() {
+        return stringAt(fieldIndex(MODULE_FIELD));
+    }
+
+    @Override
+    public String packageName() {
+        return stringAt(fieldIndex(PACKAGE_FIELD));
+    }
+
+    @Override
+    public String name() {
+        return stringAt(fieldIndex(NAME_FIELD));
+    }
+
+    @Override
+    public Set<String> aliases() {
+        Set<String> result;
+        if ((result = this.aliases) == null) {
+            this.aliases = result = decodeAliases();
+        }
+
+        return result;
+    }
+
+    @Override
+    public Set<ClassReference<?>> annotations() {
+        Set<ClassReference<?>> result;
+        if ((result = this.annotations) == null) {
+            this.annotations = result = Set.copyOf(refsAt(fieldIndex(ANNOTATIONS_FIELD)));
+        }
+
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        int result;
+        if ((result = this.hash) == 0) {
+            this.hash = result = Objects.hashCode(id());
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        } else if (obj instanceof AbsBinaryResourceView view
+                && view.buffer == this.buffer
+                && view.stringTable == this.stringTable) {
+            return view.offset == this.offset;
+        }
+
+        return resourceType().isInstance(obj) && Objects.equals(((ClassPathResource) obj).id(), id());
+    }
+
+    @Override
+    public String toString() {
+        return toStringDescription();
+    }
+
+    protected abstract Class<? extends ClassPathResource> resourceType();
+
+    protected final int extendedInfoIndex() {
+        return fieldIndex(EXTENDED_INFO_FIELD);
+    }
+
+    protected final String stringAt(final int index) {
+        return this.stringTable.valueOf(VarInts.read(this.buffer, index));
+    }
+
+    protected final List<ClassReference<?>> refsAt(final int index) {
+        final int count = VarInts.read(this.buffer, index);
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+
+        final var refs = new ClassReference<?>[count];
+        int i = VarInts.skip(this.buffer, index);
+        for (int j = 0; j < count; j++) {
+            refs[j] = ClassReferenceImpl.of(stringAt(i));
+            i = VarInts.skip(this.buffer, i);
+        }
+
+        return List.of(refs);
+    }
+
+    protected final int skipList(final int index) {
+        final int count = VarInts.read(this.buffer, index);
+
+        int i = VarInts.skip(this.buffer, index);
+        for (int j = 0; j < count; j++) {
+            i = VarInts.skip(this.buffer, i);
+        }
+
+        return i;
+    }
+
+    private int fieldIndex(final int field) {
+        // skip the type of the resource
+        int index = this.offset + 1;
+        for (int i = 0; i < field; i++) {
+            index = i <= NAME_FIELD ? VarInts.skip(this.buffer, index) : skipList(index);
+        }
+
+        return index;
+    }
+
+    private Set<String> decodeAliases() {
+        final int index = fieldIndex(ALIASES_FIELD);
+        final int count = VarInts.read(this.buffer, index);
+        if (count == 0) {
+            return Collections.emptySet();
+        }
+
+        final var strings = new String[count];
+        int i = VarInts.skip(this.buffer, index);
+        for (int j = 0; j < count; j++) {
+            strings[j] = stringAt(i);
+            i = VarInts.skip(this.buffer, i);
+        }
+
+        return Set.copyOf(Arrays.asList(strings));
+    }
+
+    private static Set<Modifier> decodeModifiers(final int mask) {
+        if (mask == 0) {
+            return Collections.emptySet();
+        }
+
+        final var result = EnumSet.noneOf(Modifier.class);
+        for (final var modifier : modifiersValues) {
+            if ((mask & (1 << modifier.ordinal())) != 0) {
+                result.add(modifier);
+            }
+        }
+
+        return Collections.unmodifiableSet(result);
+    }
+}
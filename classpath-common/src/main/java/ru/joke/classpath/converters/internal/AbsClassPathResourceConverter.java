@@ -1,13 +1,16 @@
 package ru.joke.classpath.converters.internal;
 
 import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.converters.BinaryClassPathResourceConverter;
 import ru.joke.classpath.converters.ClassPathResourceConverter;
-import ru.joke.classpath.converters.Dictionary;
+import ru.joke.classpath.converters.StringTable;
+import ru.joke.classpath.converters.VarInts;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.stream.Collectors;
 
-abstract class AbsClassPathResourceConverter<T extends ClassPathResource> implements ClassPathResourceConverter<T> {
+abstract class AbsClassPathResourceConverter<T extends ClassPathResource> implements ClassPathResourceConverter<T>, BinaryClassPathResourceConverter<T> {
 
     protected static final String BLOCK_SEPARATOR = "|";
     protected static final String ELEMENTS_IN_BLOCK_DELIMITER = ";";
@@ -53,44 +56,66 @@ abstract class AbsClassPathResourceConverter<T extends ClassPathResource> implem
             final String resource,
             final ru.joke.classpath.converters.Dictionary dictionary
     ) {
-        final var parts = resource.split("\\" + BLOCK_SEPARATOR, this.componentsCount);
-        if (parts.length < this.componentsCount) {
+        final var cursor = new TextRecordCursor(resource, dictionary);
+        if (!cursor.hasBlocks(this.componentsCount)) {
             return Optional.empty();
         }
 
-        final var modifiers = extractModifiers(parts[1]);
-        final var module = dictionary.map(parts[2]);
-        final var packageName = dictionary.map(parts[3]);
-        final var name = getResourceName(parts[4], dictionary);
-        final var aliases = extractAliases(parts[5], dictionary);
-        final var annotations = Set.copyOf(extractRefs(parts[6], dictionary, ELEMENTS_IN_BLOCK_DELIMITER));
+        cursor.skipBlock();
+        final var modifiers = cursor.nextModifiers();
+        final var module = cursor.nextMapped();
+        final var packageName = cursor.nextMapped();
 
-        return Optional.of(from(modifiers, module, packageName, name, aliases, annotations, parts, dictionary));
+        return Optional.of(from(modifiers, module, packageName, cursor));
+    }
+
+    @Override
+    public void write(
+            final T resource,
+            final StringTable stringTable,
+            final ByteArrayOutputStream output
+    ) {
+        output.write(resource.type().ordinal());
+        VarInts.write(toMask(resource.modifiers()), output);
+        VarInts.write(stringTable.idOf(resource.module()), output);
+        VarInts.write(stringTable.idOf(resource.packageName()), output);
+        VarInts.write(stringTable.idOf(resource.name()), output);
+        writeStrings(resource.aliases(), stringTable, output);
+        writeRefs(resource.annotations(), stringTable, output);
+        writeExtendedInfo(resource, stringTable, output);
+    }
+
+    @Override
+    public Optional<T> read(
+            final ByteBuffer input,
+            final StringTable stringTable
+    ) {
+        return Optional.of(createView(input, stringTable, input.position()));
     }
 
     protected void appendExtendedInfo(T resource, ru.joke.classpath.converters.Dictionary dictionary, StringBuilder sb) {
     }
 
+    protected void writeExtendedInfo(T resource, StringTable stringTable, ByteArrayOutputStream output) {
+    }
+
+    protected T createView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        throw new UnsupportedOperationException();
+    }
+
     protected T from(
             final Set<ClassPathResource.Modifier> modifiers,
             final String module,
             final String packageName,
-            final String name,
-            final Set<String> aliases,
-            final Set<ClassPathResource.ClassReference<?>> annotations,
-            final String[] parts,
-            final ru.joke.classpath.converters.Dictionary dictionary
+            final TextRecordCursor cursor
     ) {
         throw new UnsupportedOperationException();
     }
 
-    protected String getResourceName(
-            final String resourceNameStr,
-            final ru.joke.classpath.converters.Dictionary dictionary
-    ) {
-        return dictionary.map(resourceNameStr);
-    }
-
     protected String getResourceName(
             final T resource,
             final ru.joke.classpath.converters.Dictionary dictionary
@@ -98,23 +123,8 @@ abstract class AbsClassPathResourceConverter<T extends ClassPathResource> implem
         return dictionary.map(resource.name());
     }
 
-    protected final List<ClassPathResource.ClassReference<?>> extractRefs(
-            final String classesStr,
-            final ru.joke.classpath.converters.Dictionary dictionary,
-            final String separator
-    ) {
-        if (classesStr.isBlank()) {
-            return Collections.emptyList();
-        }
-
-        return Arrays.stream(classesStr.split(separator))
-                        .map(dictionary::map)
-                        .map(this::createClassRef)
-                        .collect(Collectors.toUnmodifiableList());
-    }
-
     protected final ClassPathResource.ClassReference<?> createClassRef(final String id) {
-        return new ClassReferenceImpl<>(id);
+        return ClassReferenceImpl.of(id);
     }
 
     protected final StringBuilder append(
@@ -133,19 +143,6 @@ abstract class AbsClassPathResourceConverter<T extends ClassPathResource> implem
         return builder;
     }
 
-    protected final Set<ClassPathResource.Modifier> extractModifiers(final String strModifiers) {
-        if (strModifiers.isBlank()) {
-            return Collections.emptySet();
-        }
-
-        final var modifiers =
-                Arrays.stream(strModifiers.split(ELEMENTS_IN_BLOCK_DELIMITER))
-                        .filter(m -> !m.isBlank())
-                        .map(ClassPathResource.Modifier::from)
-                        .collect(Collectors.toSet());
-        return EnumSet.copyOf(modifiers);
-    }
-
     protected final StringBuilder appendModifiers(
             final Set<ClassPathResource.Modifier> modifiers,
             final StringBuilder builder
@@ -177,18 +174,34 @@ abstract class AbsClassPathResourceConverter<T extends ClassPathResource> implem
         return builder;
     }
 
-    protected final Set<String> extractAliases(
-            final String aliasesStr,
-            final Dictionary dictionary
+    protected final void writeRefs(
+            final Collection<ClassPathResource.ClassReference<?>> classes,
+            final StringTable stringTable,
+            final ByteArrayOutputStream output
+    ) {
+        VarInts.write(classes.size(), output);
+        for (final var clazz : classes) {
+            VarInts.write(stringTable.idOf(clazz.binaryName()), output);
+        }
+    }
+
+    private void writeStrings(
+            final Collection<String> strings,
+            final StringTable stringTable,
+            final ByteArrayOutputStream output
     ) {
-        if (aliasesStr.isBlank()) {
-            return Collections.emptySet();
+        VarInts.write(strings.size(), output);
+        for (final var str : strings) {
+            VarInts.write(stringTable.idOf(str), output);
+        }
+    }
+
+    private int toMask(final Set<ClassPathResource.Modifier> modifiers) {
+        int mask = 0;
+        for (final var modifier : modifiers) {
+            mask |= 1 << modifier.ordinal();
         }
 
-        return Set.of(aliasesStr.split(ELEMENTS_IN_BLOCK_DELIMITER))
-                    .stream()
-                    .filter(s -> !s.isEmpty())
-                    .map(dictionary::map)
-                    .collect(Collectors.toUnmodifiableSet());
+        return mask;
     }
 }
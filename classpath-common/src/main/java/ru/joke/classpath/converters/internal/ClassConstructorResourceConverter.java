@@ -3,9 +3,12 @@ package ru.joke.classpath.converters.internal;
 import ru.joke.classpath.ClassConstructorResource;
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.IndexedClassPathException;
-import ru.joke.classpath.converters.Dictionary;
+import ru.joke.classpath.converters.StringTable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -19,31 +22,50 @@ final class ClassConstructorResourceConverter extends ExecutableClassMemberResou
             final Set<ClassPathResource.Modifier> modifiers,
             final String module,
             final String packageName,
-            final String name,
-            final Set<String> aliases,
-            final Set<ClassPathResource.ClassReference<?>> annotations,
-            final String[] parts,
-            final Dictionary dictionary
+            final TextRecordCursor cursor
     ) {
-        final var nameParts = name.split(MEMBER_OF_CLASS_SEPARATOR, 3);
-        final var className = dictionary.map(nameParts[0]);
-        final var methodName = dictionary.map(nameParts[1]);
-        final var parameters = extractRefs(nameParts[2], dictionary, PARAMETER_TYPES_DELIMITER);
+        final var className = cursor.nextMapped(MEMBER_OF_CLASS_SEPARATOR);
+        final var methodName = cursor.nextMapped(MEMBER_OF_CLASS_SEPARATOR);
+        final var parameters = cursor.nextRefs(PARAMETER_TYPES_DELIMITER);
+        final var aliases = cursor.nextMappedSet();
+        final var annotations = cursor.nextRefSet();
 
         final var ownerClassBinaryName = packageName + CANONICAL_NAME_SEPARATOR + className;
-        final var owner = new ClassReferenceImpl<>(ownerClassBinaryName);
+        final var owner = createClassRef(ownerClassBinaryName);
+
+        return create(modifiers, module, packageName, methodName, aliases, annotations, owner, parameters);
+    }
+
+    @Override
+    protected ClassConstructorResource<?> createView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        return new ClassConstructorResourceView(buffer, stringTable, offset);
+    }
 
+    private ClassConstructorResource<?> create(
+            final Set<ClassPathResource.Modifier> modifiers,
+            final String module,
+            final String packageName,
+            final String methodName,
+            final Set<String> aliases,
+            final Set<ClassPathResource.ClassReference<?>> annotations,
+            final ClassPathResource.ClassReference<?> owner,
+            final List<ClassPathResource.ClassReference<?>> parameters
+    ) {
         return new ClassConstructorResource<>() {
 
-            private final LazyObject<Constructor<Object>, ClassLoader> constructor = new LazyObject<>() {
-                @Override
-                protected Constructor<Object> load(ClassLoader loader) throws Exception {
-                    final var parameterTypes = loadParameters(parameters, loader);
-                    @SuppressWarnings("unchecked")
-                    final var constructor = (Constructor<Object>) owner().toClass(loader).getDeclaredConstructor(parameterTypes);
-                    return constructor;
-                }
-            };
+            private final MemberCache<Constructor<Object>, MethodHandle> constructor = new MemberCache<>(
+                    loader -> {
+                        final var parameterTypes = loadParameters(parameters, loader);
+                        @SuppressWarnings("unchecked")
+                        final var constructor = (Constructor<Object>) owner.toClass(loader).getDeclaredConstructor(parameterTypes);
+                        return constructor;
+                    },
+                    MethodHandles.Lookup::unreflectConstructor
+            );
 
             @Override
             public List<ClassReference<?>> parameters() {
@@ -53,7 +75,7 @@ final class ClassConstructorResourceConverter extends ExecutableClassMemberResou
             @Override
             public Constructor<Object> asConstructor(ClassLoader loader) throws ClassNotFoundException, NoSuchMethodException {
                 try {
-                    return this.constructor.get(loader);
+                    return this.constructor.member(loader);
                 } catch (ClassNotFoundException | NoSuchMethodException e) {
                     throw e;
                 } catch (Exception e) {
@@ -61,6 +83,17 @@ final class ClassConstructorResourceConverter extends ExecutableClassMemberResou
                 }
             }
 
+            @Override
+            public MethodHandle asMethodHandle(ClassLoader loader, MethodHandles.Lookup lookup) throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException {
+                try {
+                    return this.constructor.handle(loader, lookup);
+                } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IndexedClassPathException(e);
+                }
+            }
+
             @Override
             public ClassReference<?> owner() {
                 return owner;
@@ -0,0 +1,58 @@
+package ru.joke.classpath.converters.internal;
+
+import ru.joke.classpath.ClassConstructorResource;
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.IndexedClassPathException;
+import ru.joke.classpath.converters.StringTable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+
+final class ClassConstructorResourceView extends ExecutableClassMemberResourceView implements ClassConstructorResource<Object> {
+
+    private final MemberCache<Constructor<Object>, MethodHandle> constructor = new MemberCache<>(
+            loader -> {
+                @SuppressWarnings("unchecked")
+                final var constructor = (Constructor<Object>) owner().toClass(loader).getDeclaredConstructor(loadParameters(loader));
+                return constructor;
+            },
+            MethodHandles.Lookup::unreflectConstructor
+    );
+
+    ClassConstructorResourceView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        super(buffer, stringTable, offset);
+    }
+
+    @Override
+    public Constructor<Object> asConstructor(ClassLoader loader) throws ClassNotFoundException, NoSuchMethodException {
+        try {
+            return this.constructor.member(loader);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IndexedClassPathException(e);
+        }
+    }
+
+    @Override
+    public MethodHandle asMethodHandle(ClassLoader loader, MethodHandles.Lookup lookup) throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException {
+        try {
+            return this.constructor.handle(loader, lookup);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IndexedClassPathException(e);
+        }
+    }
+
+    @Override
+    protected Class<? extends ClassPathResource> resourceType() {
+        return ClassConstructorResource.class;
+    }
+}
@@ -4,8 +4,14 @@ import ru.joke.classpath.ClassFieldResource;
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.IndexedClassPathException;
 import ru.joke.classpath.converters.Dictionary;
+import ru.joke.classpath.converters.StringTable;
+import ru.joke.classpath.converters.VarInts;
 
+import java.io.ByteArrayOutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.Set;
 
@@ -29,32 +35,57 @@ final class ClassFieldResourceConverter extends AbsClassPathResourceConverter<Cl
             final Set<ClassPathResource.Modifier> modifiers,
             final String module,
             final String packageName,
-            final String name,
-            final Set<String> aliases,
-            final Set<ClassPathResource.ClassReference<?>> annotations,
-            final String[] parts,
-            final Dictionary dictionary
+            final TextRecordCursor cursor
     ) {
-        final var nameParts = name.split(MEMBER_OF_CLASS_SEPARATOR);
-        final var className = dictionary.map(nameParts[0]);
-        final var fieldName = dictionary.map(nameParts[1]);
+        final var className = cursor.nextMapped(MEMBER_OF_CLASS_SEPARATOR);
+        final var fieldName = cursor.nextMapped();
+        final var aliases = cursor.nextMappedSet();
+        final var annotations = cursor.nextRefSet();
 
         final var ownerClassBinaryName = packageName +  CANONICAL_NAME_SEPARATOR + className;
-        final var owner = new ClassReferenceImpl<>(ownerClassBinaryName);
+        final var owner = createClassRef(ownerClassBinaryName);
+
+        return create(modifiers, module, packageName, fieldName, aliases, annotations, owner);
+    }
+
+    @Override
+    protected ClassFieldResource createView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        return new ClassFieldResourceView(buffer, stringTable, offset);
+    }
 
+    @Override
+    protected void writeExtendedInfo(
+            final ClassFieldResource resource,
+            final StringTable stringTable,
+            final ByteArrayOutputStream output
+    ) {
+        VarInts.write(stringTable.idOf(resource.owner().binaryName()), output);
+    }
+
+    private ClassFieldResource create(
+            final Set<ClassPathResource.Modifier> modifiers,
+            final String module,
+            final String packageName,
+            final String fieldName,
+            final Set<String> aliases,
+            final Set<ClassPathResource.ClassReference<?>> annotations,
+            final ClassPathResource.ClassReference<?> owner
+    ) {
         return new ClassFieldResource() {
 
-            private final LazyObject<Field, ClassLoader> field = new LazyObject<>() {
-                @Override
-                protected Field load(ClassLoader loader) throws Exception {
-                    return owner().toClass(loader).getDeclaredField(fieldName);
-                }
-            };
+            private final MemberCache<Field, VarHandle> field = new MemberCache<>(
+                    loader -> owner.toClass(loader).getDeclaredField(fieldName),
+                    MethodHandles.Lookup::unreflectVarHandle
+            );
 
             @Override
             public Field asField(ClassLoader loader) throws NoSuchFieldException, ClassNotFoundException {
                 try {
-                    return this.field.get(loader);
+                    return this.field.member(loader);
                 } catch (NoSuchFieldException | ClassNotFoundException e) {
                     throw e;
                 } catch (Exception e) {
@@ -62,6 +93,17 @@ final class ClassFieldResourceConverter extends AbsClassPathResourceConverter<Cl
                 }
             }
 
+            @Override
+            public VarHandle asVarHandle(ClassLoader loader, MethodHandles.Lookup lookup) throws ClassNotFoundException, NoSuchFieldException, IllegalAccessException {
+                try {
+                    return this.field.handle(loader, lookup);
+                } catch (NoSuchFieldException | ClassNotFoundException | IllegalAccessException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IndexedClassPathException(e);
+                }
+            }
+
             @Override
             public ClassReference<?> owner() {
                 return owner;
@@ -128,12 +170,4 @@ final class ClassFieldResourceConverter extends AbsClassPathResourceConverter<Cl
                 + MEMBER_OF_CLASS_SEPARATOR
                 + dictionary.map(resource.name());
     }
-
-    @Override
-    protected String getResourceName(
-            final String resourceNameStr,
-            final Dictionary dictionary
-    ) {
-        return resourceNameStr;
-    }
 }
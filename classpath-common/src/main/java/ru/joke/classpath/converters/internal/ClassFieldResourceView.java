@@ -0,0 +1,66 @@
+package ru.joke.classpath.converters.internal;
+
+import ru.joke.classpath.ClassFieldResource;
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.IndexedClassPathException;
+import ru.joke.classpath.converters.StringTable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+final class ClassFieldResourceView extends AbsBinaryResourceView implements ClassFieldResource {
+
+    private volatile ClassReference<?> owner;
+
+    private final MemberCache<Field, VarHandle> field = new MemberCache<>(
+            loader -> owner().toClass(loader).getDeclaredField(name()),
+            MethodHandles.Lookup::unreflectVarHandle
+    );
+
+    ClassFieldResourceView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        super(buffer, stringTable, offset);
+    }
+
+    @Override
+    public Field asField(ClassLoader loader) throws NoSuchFieldException, ClassNotFoundException {
+        try {
+            return this.field.member(loader);
+        } catch (NoSuchFieldException | ClassNotFoundException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IndexedClassPathException(e);
+        }
+    }
+
+    @Override
+    public VarHandle asVarHandle(ClassLoader loader, MethodHandles.Lookup lookup) throws ClassNotFoundException, NoSuchFieldException, IllegalAccessException {
+        try {
+            return this.field.handle(loader, lookup);
+        } catch (NoSuchFieldException | ClassNotFoundException | IllegalAccessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IndexedClassPathException(e);
+        }
+    }
+
+    @Override
+    public ClassReference<?> owner() {
+        ClassReference<?> result;
+        if ((result = this.owner) == null) {
+            this.owner = result = ClassReferenceImpl.of(stringAt(extendedInfoIndex()));
+        }
+
+        return result;
+    }
+
+    @Override
+    protected Class<? extends ClassPathResource> resourceType() {
+        return ClassFieldResource.class;
+    }
+}
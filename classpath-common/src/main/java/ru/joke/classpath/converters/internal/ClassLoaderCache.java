@@ -0,0 +1,127 @@
+package ru.joke.classpath.converters.internal;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the values resolved via the class loaders: one value per loader.<br>
+ * The loaders are held weakly, so the cache doesn't prevent them from being unloaded; the entries
+ * of the collected loaders are removed on the subsequent updates of the cache. The values are held weakly too,
+ * so the cached values must be strongly reachable while their loader is reachable (like the classes
+ * loaded via the loader or its parents), otherwise they can be collected and resolved again.<br>
+ * The value of the first loader is stored in the single entry, the values of the other loaders are stored
+ * in the concurrent map created on demand, so the lookups are lock-free and take a constant time.
+ * The value of the bootstrap loader ({@code null}) is held strongly since the bootstrap classes are never unloaded.
+ *
+ * @param <V> type of the values
+ */
+final class ClassLoaderCache<V> {
+
+    private volatile Entry<V> primaryEntry;
+    private volatile V bootstrapValue;
+    private volatile Map<LoaderKey, WeakReference<V>> values;
+    private ReferenceQueue<ClassLoader> collectedLoaders;
+
+    /**
+     * Returns the value cached for the given loader.
+     *
+     * @param loader class loader; can be {@code null} (the bootstrap loader).
+     * @return cached value; can be {@code null} if the value isn't cached.
+     */
+    V get(final ClassLoader loader) {
+        if (loader == null) {
+            return this.bootstrapValue;
+        }
+
+        final var entry = this.primaryEntry;
+        if (entry != null && entry.loader.get() == loader) {
+            return entry.value.get();
+        }
+
+        final var values = this.values;
+        if (values == null) {
+            return null;
+        }
+
+        final var value = values.get(new LoaderKey(loader, null));
+        return value == null ? null : value.get();
+    }
+
+    /**
+     * Caches the value resolved for the given loader; the previous value of the loader is replaced.
+     *
+     * @param loader class loader; can be {@code null} (the bootstrap loader).
+     * @param value  value; cannot be {@code null}.
+     */
+    void put(final ClassLoader loader, final V value) {
+        if (loader == null) {
+            this.bootstrapValue = value;
+            return;
+        }
+
+        synchronized (this) {
+            final var entry = this.primaryEntry;
+            final ClassLoader primaryLoader;
+            if (entry == null || (primaryLoader = entry.loader.get()) == null || primaryLoader == loader) {
+                this.primaryEntry = new Entry<>(loader, value);
+                return;
+            }
+
+            if (this.values == null) {
+                this.collectedLoaders = new ReferenceQueue<>();
+                this.values = new ConcurrentHashMap<>();
+            }
+
+            expungeCollectedLoaders();
+            this.values.put(new LoaderKey(loader, this.collectedLoaders), new WeakReference<>(value));
+        }
+    }
+
+    private void expungeCollectedLoaders() {
+        LoaderKey collectedLoader;
+        while ((collectedLoader = (LoaderKey) this.collectedLoaders.poll()) != null) {
+            this.values.remove(collectedLoader);
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final WeakReference<ClassLoader> loader;
+        private final WeakReference<V> value;
+
+        private Entry(final ClassLoader loader, final V value) {
+            this.loader = new WeakReference<>(loader);
+            this.value = new WeakReference<>(value);
+        }
+    }
+
+    private static final class LoaderKey extends WeakReference<ClassLoader> {
+
+        private final int hash;
+
+        private LoaderKey(final ClassLoader loader, final ReferenceQueue<ClassLoader> queue) {
+            super(loader, queue);
+            this.hash = System.identityHashCode(loader);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            final ClassLoader loader;
+            return o instanceof LoaderKey that
+                    && this.hash == that.hash
+                    && (loader = get()) != null
+                    && loader == that.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
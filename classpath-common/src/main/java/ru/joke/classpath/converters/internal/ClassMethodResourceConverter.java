@@ -3,9 +3,12 @@ package ru.joke.classpath.converters.internal;
 import ru.joke.classpath.ClassMethodResource;
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.IndexedClassPathException;
-import ru.joke.classpath.converters.Dictionary;
+import ru.joke.classpath.converters.StringTable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -24,29 +27,45 @@ final class ClassMethodResourceConverter extends ExecutableClassMemberResourceCo
             final Set<ClassPathResource.Modifier> modifiers,
             final String module,
             final String packageName,
-            final String name,
-            final Set<String> aliases,
-            final Set<ClassPathResource.ClassReference<?>> annotations,
-            final String[] parts,
-            final Dictionary dictionary
+            final TextRecordCursor cursor
     ) {
-        final var nameParts = name.split(MEMBER_OF_CLASS_SEPARATOR, 3);
-        final var className = dictionary.map(nameParts[0]);
-        final var methodName = dictionary.map(nameParts[1]);
-        final var parameters = extractRefs(nameParts[2], dictionary, PARAMETER_TYPES_DELIMITER);
+        final var className = cursor.nextMapped(MEMBER_OF_CLASS_SEPARATOR);
+        final var methodName = cursor.nextMapped(MEMBER_OF_CLASS_SEPARATOR);
+        final var parameters = cursor.nextRefs(PARAMETER_TYPES_DELIMITER);
+        final var aliases = cursor.nextMappedSet();
+        final var annotations = cursor.nextRefSet();
 
         final var ownerClassBinaryName = packageName +  CANONICAL_NAME_SEPARATOR + className;
-        final var owner = new ClassReferenceImpl<>(ownerClassBinaryName);
+        final var owner = createClassRef(ownerClassBinaryName);
+
+        return create(modifiers, module, packageName, methodName, aliases, annotations, owner, parameters);
+    }
+
+    @Override
+    protected ClassMethodResource createView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        return new ClassMethodResourceView(buffer, stringTable, offset);
+    }
 
+    private ClassMethodResource create(
+            final Set<ClassPathResource.Modifier> modifiers,
+            final String module,
+            final String packageName,
+            final String methodName,
+            final Set<String> aliases,
+            final Set<ClassPathResource.ClassReference<?>> annotations,
+            final ClassPathResource.ClassReference<?> owner,
+            final List<ClassPathResource.ClassReference<?>> parameters
+    ) {
         return new ClassMethodResource() {
 
-            private final LazyObject<Method, ClassLoader> method = new LazyObject<>() {
-                @Override
-                protected Method load(ClassLoader loader) throws Exception {
-                    final var parameterTypes = loadParameters(parameters, loader);
-                    return owner().toClass(loader).getDeclaredMethod(methodName, parameterTypes);
-                }
-            };
+            private final MemberCache<Method, MethodHandle> method = new MemberCache<>(
+                    loader -> owner.toClass(loader).getDeclaredMethod(methodName, loadParameters(parameters, loader)),
+                    MethodHandles.Lookup::unreflect
+            );
 
             @Override
             public List<ClassReference<?>> parameters() {
@@ -56,7 +75,7 @@ final class ClassMethodResourceConverter extends ExecutableClassMemberResourceCo
             @Override
             public Method asMethod(ClassLoader loader) throws ClassNotFoundException, NoSuchMethodException {
                 try {
-                    return this.method.get(loader);
+                    return this.method.member(loader);
                 } catch (ClassNotFoundException | NoSuchMethodException e) {
                     throw e;
                 } catch (Exception e) {
@@ -64,6 +83,17 @@ final class ClassMethodResourceConverter extends ExecutableClassMemberResourceCo
                 }
             }
 
+            @Override
+            public MethodHandle asMethodHandle(ClassLoader loader, MethodHandles.Lookup lookup) throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException {
+                try {
+                    return this.method.handle(loader, lookup);
+                } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IndexedClassPathException(e);
+                }
+            }
+
             @Override
             public ClassReference<?> owner() {
                 return owner;
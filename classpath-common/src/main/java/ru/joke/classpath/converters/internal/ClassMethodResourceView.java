@@ -0,0 +1,54 @@
+package ru.joke.classpath.converters.internal;
+
+import ru.joke.classpath.ClassMethodResource;
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.IndexedClassPathException;
+import ru.joke.classpath.converters.StringTable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+final class ClassMethodResourceView extends ExecutableClassMemberResourceView implements ClassMethodResource {
+
+    private final MemberCache<Method, MethodHandle> method = new MemberCache<>(
+            loader -> owner().toClass(loader).getDeclaredMethod(name(), loadParameters(loader)),
+            MethodHandles.Lookup::unreflect
+    );
+
+    ClassMethodResourceView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        super(buffer, stringTable, offset);
+    }
+
+    @Override
+    public Method asMethod(ClassLoader loader) throws ClassNotFoundException, NoSuchMethodException {
+        try {
+            return this.method.member(loader);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IndexedClassPathException(e);
+        }
+    }
+
+    @Override
+    public MethodHandle asMethodHandle(ClassLoader loader, MethodHandles.Lookup lookup) throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException {
+        try {
+            return this.method.handle(loader, lookup);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IndexedClassPathException(e);
+        }
+    }
+
+    @Override
+    protected Class<? extends ClassPathResource> resourceType() {
+        return ClassMethodResource.class;
+    }
+}
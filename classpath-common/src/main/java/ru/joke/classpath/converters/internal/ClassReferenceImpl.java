@@ -1,10 +1,12 @@
 package ru.joke.classpath.converters.internal;
 
 import ru.joke.classpath.ClassPathResource;
-import ru.joke.classpath.IndexedClassPathException;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -23,27 +25,50 @@ final class ClassReferenceImpl<T> implements ClassPathResource.ClassReference<T>
                     void.class
             ).stream().collect(Collectors.toMap(Class::getCanonicalName, Function.identity()));
 
+    private static final Map<String, InternedReference> internedReferences = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ClassReferenceImpl<?>> collectedReferences = new ReferenceQueue<>();
+
     private final String binaryName;
     private final String canonicalName;
-    private final LazyObject<Class<T>, ClassLoader> clazz;
+    private final ClassLoaderCache<Class<T>> classes;
 
     ClassReferenceImpl(final String binaryName) {
         this.binaryName = binaryName;
-        this.canonicalName = binaryName.replace(BINARY_NESTED_ID_SEPARATOR, CANONICAL_NAME_SEPARATOR);
-        this.clazz = new LazyObject<>() {
-            @Override
-            protected Class<T> load(ClassLoader loader) throws Exception {
+        // the names are interned, so the conditions of the scanners match the equal names of the references by the identity
+        this.canonicalName = binaryName.replace(BINARY_NESTED_ID_SEPARATOR, CANONICAL_NAME_SEPARATOR).intern();
+        this.classes = new ClassLoaderCache<>();
+    }
+
+    /**
+     * Returns the canonical reference to the class with the given binary name.<br>
+     * The references are interned: while any loaded resource refers to the class, the same reference
+     * is returned for its binary name, so the resources of the indexes share one reference per class
+     * along with the class resolved by it. The interned references are held weakly, so the references
+     * of the invalidated indexes are collected.
+     *
+     * @param binaryName binary name of the class; cannot be {@code null}.
+     * @param <T>        type of the class
+     * @return reference to the class; cannot be {@code null}.
+     */
+    static <T> ClassReferenceImpl<T> of(final String binaryName) {
+        expungeCollectedReferences();
+
+        while (true) {
+            final var internedReference = internedReferences.computeIfAbsent(
+                    binaryName,
+                    k -> new InternedReference(new ClassReferenceImpl<>(k), collectedReferences)
+            );
+
+            final var result = internedReference.get();
+            if (result != null) {
                 @SuppressWarnings("unchecked")
-                var result = (Class<T>) primitiveTypesMap.get(binaryName);
-                if (result == null) {
-                    @SuppressWarnings("unchecked")
-                    final var loadedClass = (Class<T>) Class.forName(binaryName, false, loader);
-                    result = loadedClass;
-                }
-
-                return result;
+                final var typedResult = (ClassReferenceImpl<T>) result;
+                return typedResult;
             }
-        };
+
+            // the reference is collected before the queue is polled
+            internedReferences.remove(binaryName, internedReference);
+        }
     }
 
     @Override
@@ -58,13 +83,21 @@ final class ClassReferenceImpl<T> implements ClassPathResource.ClassReference<T>
 
     @Override
     public Class<T> toClass(ClassLoader loader) throws ClassNotFoundException {
-        try {
-            return this.clazz.get(loader);
-        } catch (ClassNotFoundException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new IndexedClassPathException(e);
+        @SuppressWarnings("unchecked")
+        final var primitiveType = (Class<T>) primitiveTypesMap.get(this.binaryName);
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+
+        var result = this.classes.get(loader);
+        if (result == null) {
+            // the concurrent resolutions via the same loader return the same class, so the cache isn't locked
+            @SuppressWarnings("unchecked")
+            final var loadedClass = (Class<T>) Class.forName(this.binaryName, false, loader);
+            this.classes.put(loader, result = loadedClass);
         }
+
+        return result;
     }
 
     @Override
@@ -89,4 +122,24 @@ final class ClassReferenceImpl<T> implements ClassPathResource.ClassReference<T>
     public String toString() {
         return "ClassReference{" + "binaryName='" + binaryName + '\'' + '}';
     }
+
+    private static void expungeCollectedReferences() {
+        InternedReference collectedReference;
+        while ((collectedReference = (InternedReference) collectedReferences.poll()) != null) {
+            internedReferences.remove(collectedReference.binaryName, collectedReference);
+        }
+    }
+
+    private static final class InternedReference extends WeakReference<ClassReferenceImpl<?>> {
+
+        private final String binaryName;
+
+        private InternedReference(
+                final ClassReferenceImpl<?> reference,
+                final ReferenceQueue<ClassReferenceImpl<?>> queue
+        ) {
+            super(reference, queue);
+            this.binaryName = reference.binaryName;
+        }
+    }
 }
@@ -3,7 +3,10 @@ package ru.joke.classpath.converters.internal;
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.ClassResource;
 import ru.joke.classpath.converters.Dictionary;
+import ru.joke.classpath.converters.StringTable;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -14,6 +17,8 @@ final class ClassResourceConverter extends AbsClassPathResourceConverter<ClassRe
 
     private static final int COMPONENTS_COUNT = 10;
 
+    private static final ClassResource.Kind[] kinds = ClassResource.Kind.values();
+
     ClassResourceConverter() {
         super(COMPONENTS_COUNT);
     }
@@ -30,23 +35,56 @@ final class ClassResourceConverter extends AbsClassPathResourceConverter<ClassRe
         builder.append(resource.kind().alias());
     }
 
+    @Override
+    protected void writeExtendedInfo(
+            final ClassResource<?> resource,
+            final StringTable stringTable,
+            final ByteArrayOutputStream output
+    ) {
+        writeRefs(resource.interfaces(), stringTable, output);
+        writeRefs(resource.superClasses(), stringTable, output);
+        output.write(resource.kind().ordinal());
+    }
+
     @Override
     protected ClassResource<?> from(
+            final Set<ClassPathResource.Modifier> modifiers,
+            final String module,
+            final String packageName,
+            final TextRecordCursor cursor
+    ) {
+        final var name = cursor.nextMapped();
+        final var aliases = cursor.nextMappedSet();
+        final var annotations = cursor.nextRefSet();
+        final var interfaces = cursor.nextRefSet();
+        final var superClasses = cursor.nextRefs(ELEMENTS_IN_BLOCK_DELIMITER);
+        final var kind = cursor.nextAliased(kinds);
+
+        return create(modifiers, module, packageName, name, aliases, annotations, interfaces, superClasses, kind);
+    }
+
+    @Override
+    protected ClassResource<?> createView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        return new ClassResourceView(buffer, stringTable, offset);
+    }
+
+    private ClassResource<?> create(
             final Set<ClassPathResource.Modifier> modifiers,
             final String module,
             final String packageName,
             final String name,
             final Set<String> aliases,
             final Set<ClassPathResource.ClassReference<?>> annotations,
-            final String[] parts,
-            final Dictionary dictionary
+            final Set<ClassPathResource.ClassReference<?>> interfaces,
+            final List<ClassPathResource.ClassReference<?>> superClasses,
+            final ClassResource.Kind kind
     ) {
-        final var interfaces = Set.copyOf(extractRefs(parts[7], dictionary, ELEMENTS_IN_BLOCK_DELIMITER));
-        final var superClasses = extractRefs(parts[8], dictionary, ELEMENTS_IN_BLOCK_DELIMITER);
-        final var kind = ClassResource.Kind.from(parts[9]);
-
         final var binaryName = packageName +  CANONICAL_NAME_SEPARATOR + name;
-        final var classRef = new ClassReferenceImpl<>(binaryName);
+        final var classRef = ClassReferenceImpl.of(binaryName);
 
         return new ClassResource<>() {
 
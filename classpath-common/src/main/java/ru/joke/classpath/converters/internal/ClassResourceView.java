@@ -0,0 +1,71 @@
+package ru.joke.classpath.converters.internal;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.ClassResource;
+import ru.joke.classpath.converters.StringTable;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+
+import static ru.joke.classpath.ClassPathResource.ClassReference.CANONICAL_NAME_SEPARATOR;
+
+final class ClassResourceView extends AbsBinaryResourceView implements ClassResource<Object> {
+
+    private static final Kind[] kinds = Kind.values();
+
+    private volatile Set<ClassReference<?>> interfaces;
+    private volatile List<ClassReference<?>> superClasses;
+    private volatile ClassReference<Object> classRef;
+
+    ClassResourceView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        super(buffer, stringTable, offset);
+    }
+
+    @Override
+    public Class<Object> asClass(ClassLoader loader) throws ClassNotFoundException {
+        ClassReference<Object> result;
+        if ((result = this.classRef) == null) {
+            final var packageName = packageName();
+            final var binaryName = packageName.isEmpty() ? name() : packageName + CANONICAL_NAME_SEPARATOR + name();
+            this.classRef = result = ClassReferenceImpl.of(binaryName);
+        }
+
+        return result.toClass(loader);
+    }
+
+    @Override
+    public Set<ClassReference<?>> interfaces() {
+        Set<ClassReference<?>> result;
+        if ((result = this.interfaces) == null) {
+            this.interfaces = result = Set.copyOf(refsAt(extendedInfoIndex()));
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<ClassReference<?>> superClasses() {
+        List<ClassReference<?>> result;
+        if ((result = this.superClasses) == null) {
+            this.superClasses = result = refsAt(skipList(extendedInfoIndex()));
+        }
+
+        return result;
+    }
+
+    @Override
+    public Kind kind() {
+        final int index = skipList(skipList(extendedInfoIndex()));
+        return kinds[this.buffer.get(index)];
+    }
+
+    @Override
+    protected Class<? extends ClassPathResource> resourceType() {
+        return ClassResource.class;
+    }
+}
@@ -1,9 +1,10 @@
 package ru.joke.classpath.converters.internal;
 
 import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.converters.BinaryClassPathResourceConverter;
 import ru.joke.classpath.converters.ClassPathResourceConverter;
 
-interface ConcreteClassPathResourceConverter<T extends ClassPathResource> extends ClassPathResourceConverter<T> {
+interface ConcreteClassPathResourceConverter<T extends ClassPathResource> extends ClassPathResourceConverter<T>, BinaryClassPathResourceConverter<T> {
 
     ClassPathResource.Type supportedType();
 }
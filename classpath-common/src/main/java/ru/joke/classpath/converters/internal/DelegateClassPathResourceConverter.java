@@ -2,7 +2,10 @@ package ru.joke.classpath.converters.internal;
 
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.converters.Dictionary;
+import ru.joke.classpath.converters.StringTable;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
@@ -16,6 +19,7 @@ import java.util.stream.Stream;
  *
  * @author Alik
  * @see ru.joke.classpath.converters.ClassPathResourceConverter
+ * @see ru.joke.classpath.converters.BinaryClassPathResourceConverter
  * @see ModuleResourceConverter
  * @see PackageResourceConverter
  * @see ClassResourceConverter
@@ -26,6 +30,7 @@ import java.util.stream.Stream;
 public final class DelegateClassPathResourceConverter extends AbsClassPathResourceConverter<ClassPathResource> {
 
     private static final Map<ClassPathResource.Type, ConcreteClassPathResourceConverter<ClassPathResource>> converters = findConverters();
+    private static final ClassPathResource.Type[] types = ClassPathResource.Type.values();
 
     /**
      * Constructs the converter.
@@ -53,14 +58,44 @@ public final class DelegateClassPathResourceConverter extends AbsClassPathResour
         return converter.toString(resource, dictionary);
     }
 
+    @Override
+    public void write(
+            final ClassPathResource resource,
+            final StringTable stringTable,
+            final ByteArrayOutputStream output
+    ) {
+        final var converter = converters.get(resource.type());
+        converter.write(resource, stringTable, output);
+    }
+
+    @Override
+    public Optional<ClassPathResource> read(
+            final ByteBuffer input,
+            final StringTable stringTable
+    ) {
+        final int typeOrdinal = input.get(input.position());
+        if (typeOrdinal < 0 || typeOrdinal >= types.length) {
+            return Optional.empty();
+        }
+
+        final var converter = converters.get(types[typeOrdinal]);
+        return converter.read(input, stringTable);
+    }
+
     private Optional<ClassPathResource.Type> detectType(final String resource) {
         final int typeSeparatorIdx = resource.indexOf(BLOCK_SEPARATOR);
         if (typeSeparatorIdx == -1) {
             return Optional.empty();
         }
 
-        final var type = ClassPathResource.Type.from(resource.substring(0, typeSeparatorIdx));
-        return Optional.ofNullable(type);
+        for (final var type : types) {
+            final var alias = type.alias();
+            if (alias.length() == typeSeparatorIdx && resource.startsWith(alias)) {
+                return Optional.of(type);
+            }
+        }
+
+        return Optional.empty();
     }
 
     private static Map<ClassPathResource.Type, ConcreteClassPathResourceConverter<ClassPathResource>> findConverters() {
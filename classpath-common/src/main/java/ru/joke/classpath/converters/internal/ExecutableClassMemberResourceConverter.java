@@ -3,7 +3,11 @@ package ru.joke.classpath.converters.internal;
 import ru.joke.classpath.ClassMemberResource;
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.converters.Dictionary;
+import ru.joke.classpath.converters.StringTable;
+import ru.joke.classpath.converters.VarInts;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,6 +33,16 @@ abstract class ExecutableClassMemberResourceConverter<T extends ClassMemberResou
         return parameterTypes;
     }
     
+    @Override
+    protected void writeExtendedInfo(
+            final T resource,
+            final StringTable stringTable,
+            final ByteArrayOutputStream output
+    ) {
+        VarInts.write(stringTable.idOf(resource.owner().binaryName()), output);
+        writeRefs(resource.parameters(), stringTable, output);
+    }
+
     @Override
     protected String getResourceName(
             final ClassMemberResource.Executable resource,
@@ -52,12 +66,4 @@ abstract class ExecutableClassMemberResourceConverter<T extends ClassMemberResou
                 + MEMBER_OF_CLASS_SEPARATOR
                 + parameters;
     }
-
-    @Override
-    protected String getResourceName(
-            final String resourceNameStr,
-            final Dictionary dictionary
-    ) {
-        return resourceNameStr;
-    }
 }
@@ -0,0 +1,52 @@
+package ru.joke.classpath.converters.internal;
+
+import ru.joke.classpath.ClassMemberResource;
+import ru.joke.classpath.converters.StringTable;
+import ru.joke.classpath.converters.VarInts;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+abstract class ExecutableClassMemberResourceView extends AbsBinaryResourceView implements ClassMemberResource.Executable {
+
+    private volatile ClassReference<?> owner;
+    private volatile List<ClassReference<?>> parameters;
+
+    protected ExecutableClassMemberResourceView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        super(buffer, stringTable, offset);
+    }
+
+    @Override
+    public ClassReference<?> owner() {
+        ClassReference<?> result;
+        if ((result = this.owner) == null) {
+            this.owner = result = ClassReferenceImpl.of(stringAt(extendedInfoIndex()));
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<ClassReference<?>> parameters() {
+        List<ClassReference<?>> result;
+        if ((result = this.parameters) == null) {
+            this.parameters = result = refsAt(VarInts.skip(this.buffer, extendedInfoIndex()));
+        }
+
+        return result;
+    }
+
+    protected final Class<?>[] loadParameters(final ClassLoader loader) throws ClassNotFoundException {
+        final var parameters = parameters();
+        final var parameterTypes = new Class<?>[parameters.size()];
+        for (int i = 0; i < parameters.size(); i++) {
+            parameterTypes[i] = parameters.get(i).toClass(loader);
+        }
+
+        return parameterTypes;
+    }
+}
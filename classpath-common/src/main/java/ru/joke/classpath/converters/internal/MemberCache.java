@@ -0,0 +1,171 @@
+package ru.joke.classpath.converters.internal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Member;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the reflective member of the class member resource ({@link java.lang.reflect.Method},
+ * {@link java.lang.reflect.Field} or {@link java.lang.reflect.Constructor}) and its handles
+ * resolved via the class loaders: one member per loader and one handle per loader and lookup.<br>
+ * The resolved members are cached via the {@link ClassLoaderCache}, so the cache doesn't prevent the loaders
+ * from being unloaded. The reflective members aren't referenced by their classes, so the resolved
+ * members and handles are retained by the declaring classes of the members instead: they are reachable while
+ * the declaring class is loaded and aren't collected before the loader. The handles are cached per the class
+ * and the modes of the lookup since the access of the handle depends on them only. The lookup classes are held
+ * weakly, so the lookup class of the child loader (e.g. of the redeployed application) resolving the handle
+ * of the member of the parent loader doesn't prevent its loader from being unloaded; the handles of the collected
+ * lookup classes are removed on the subsequent updates of the cache. The lookup class is still retained
+ * if the handle itself refers to it (like the handles of the caller sensitive methods bound to the caller).
+ *
+ * @param <M> type of the member
+ * @param <H> type of the handle of the member
+ */
+final class MemberCache<M extends Member, H> {
+
+    private static final ClassValue<Map<MemberCache<?, ?>, Object>> retainedMembers = new ClassValue<>() {
+        @Override
+        protected Map<MemberCache<?, ?>, Object> computeValue(Class<?> type) {
+            return Collections.synchronizedMap(new WeakHashMap<>());
+        }
+    };
+
+    private final Resolver<M> resolver;
+    private final HandleFactory<M, H> handleFactory;
+    private final ClassLoaderCache<ResolvedMember<M, H>> resolvedMembers;
+
+    MemberCache(final Resolver<M> resolver, final HandleFactory<M, H> handleFactory) {
+        this.resolver = resolver;
+        this.handleFactory = handleFactory;
+        this.resolvedMembers = new ClassLoaderCache<>();
+    }
+
+    /**
+     * Returns the member resolved via the given loader.
+     *
+     * @param loader class loader; can be {@code null} (the bootstrap loader).
+     * @return resolved member; cannot be {@code null}.
+     * @throws Exception if the member can't be resolved
+     */
+    M member(final ClassLoader loader) throws Exception {
+        return resolve(loader).member;
+    }
+
+    /**
+     * Returns the handle of the member resolved via the given loader; the handle is created via the given lookup.
+     *
+     * @param loader class loader; can be {@code null} (the bootstrap loader).
+     * @param lookup lookup; cannot be {@code null}.
+     * @return handle of the member; cannot be {@code null}.
+     * @throws Exception if the member can't be resolved or the lookup has no access to it
+     */
+    H handle(final ClassLoader loader, final MethodHandles.Lookup lookup) throws Exception {
+        final var resolvedMember = resolve(loader);
+
+        var result = resolvedMember.handle(lookup);
+        if (result == null) {
+            // the cached member can be made accessible by the callers, so the handle is created from the new copy
+            // of the member to check the access of the lookup regardless of the accessible flag
+            result = this.handleFactory.create(lookup, this.resolver.resolve(loader));
+            resolvedMember.putHandle(lookup, result);
+        }
+
+        return result;
+    }
+
+    private ResolvedMember<M, H> resolve(final ClassLoader loader) throws Exception {
+        var result = this.resolvedMembers.get(loader);
+        if (result == null) {
+            final var member = this.resolver.resolve(loader);
+            result = new ResolvedMember<>(member);
+
+            // the concurrently resolved members are equal, the last one replaces the others
+            retainedMembers.get(member.getDeclaringClass()).put(this, result);
+            this.resolvedMembers.put(loader, result);
+        }
+
+        return result;
+    }
+
+    @FunctionalInterface
+    interface Resolver<M> {
+
+        M resolve(ClassLoader loader) throws Exception;
+    }
+
+    @FunctionalInterface
+    interface HandleFactory<M, H> {
+
+        H create(MethodHandles.Lookup lookup, M member) throws Exception;
+    }
+
+    private static final class ResolvedMember<M, H> {
+
+        private final M member;
+        private final Map<LookupKey, H> handles;
+        private final ReferenceQueue<Class<?>> collectedLookupClasses;
+
+        private ResolvedMember(final M member) {
+            this.member = member;
+            this.handles = new ConcurrentHashMap<>(2);
+            this.collectedLookupClasses = new ReferenceQueue<>();
+        }
+
+        private H handle(final MethodHandles.Lookup lookup) {
+            return this.handles.get(new LookupKey(lookup, null));
+        }
+
+        private void putHandle(final MethodHandles.Lookup lookup, final H handle) {
+            LookupKey collectedKey;
+            while ((collectedKey = (LookupKey) this.collectedLookupClasses.poll()) != null) {
+                this.handles.remove(collectedKey);
+            }
+
+            this.handles.putIfAbsent(new LookupKey(lookup, this.collectedLookupClasses), handle);
+        }
+    }
+
+    private static final class LookupKey extends WeakReference<Class<?>> {
+
+        private final WeakReference<Class<?>> previousLookupClass;
+        private final int lookupModes;
+        private final int hash;
+
+        private LookupKey(final MethodHandles.Lookup lookup, final ReferenceQueue<Class<?>> queue) {
+            super(lookup.lookupClass(), queue);
+            final var previousLookupClass = lookup.previousLookupClass();
+            this.previousLookupClass = previousLookupClass == null ? null : new WeakReference<>(previousLookupClass);
+            this.lookupModes = lookup.lookupModes();
+            this.hash = 31 * (31 * System.identityHashCode(lookup.lookupClass()) + System.identityHashCode(previousLookupClass)) + this.lookupModes;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            final Class<?> lookupClass;
+            return o instanceof LookupKey that
+                    && this.hash == that.hash
+                    && this.lookupModes == that.lookupModes
+                    && (lookupClass = get()) != null
+                    && lookupClass == that.get()
+                    && previousLookupClass() == that.previousLookupClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        private Class<?> previousLookupClass() {
+            return this.previousLookupClass == null ? null : this.previousLookupClass.get();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.joke.classpath.converters.internal;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.ModuleResource;
+import ru.joke.classpath.converters.StringTable;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+final class ModuleResourceView extends AbsBinaryResourceView implements ModuleResource {
+
+    ModuleResourceView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        super(buffer, stringTable, offset);
+    }
+
+    @Override
+    public Optional<Module> asModule(ModuleLayer layer) {
+        return layer.findModule(name());
+    }
+
+    @Override
+    public String module() {
+        return name();
+    }
+
+    @Override
+    public String packageName() {
+        return "";
+    }
+
+    @Override
+    public String id() {
+        return name();
+    }
+
+    @Override
+    protected Class<? extends ClassPathResource> resourceType() {
+        return ModuleResource.class;
+    }
+}
@@ -2,8 +2,9 @@ package ru.joke.classpath.converters.internal;
 
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.PackageResource;
-import ru.joke.classpath.converters.Dictionary;
+import ru.joke.classpath.converters.StringTable;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -26,11 +27,30 @@ final class PackageResourceConverter extends AbsClassPathResourceConverter<Packa
             final Set<ClassPathResource.Modifier> modifiers,
             final String module,
             final String packageName,
+            final TextRecordCursor cursor
+    ) {
+        final var name = cursor.nextMapped();
+        final var aliases = cursor.nextMappedSet();
+        final var annotations = cursor.nextRefSet();
+
+        return create(modifiers, module, name, aliases, annotations);
+    }
+
+    @Override
+    protected PackageResource createView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        return new PackageResourceView(buffer, stringTable, offset);
+    }
+
+    private PackageResource create(
+            final Set<ClassPathResource.Modifier> modifiers,
+            final String module,
             final String name,
             final Set<String> aliases,
-            final Set<ClassPathResource.ClassReference<?>> annotations,
-            final String[] parts,
-            final Dictionary dictionary
+            final Set<ClassPathResource.ClassReference<?>> annotations
     ) {
         return new PackageResource() {
             @Override
@@ -0,0 +1,34 @@
+package ru.joke.classpath.converters.internal;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.PackageResource;
+import ru.joke.classpath.converters.StringTable;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+final class PackageResourceView extends AbsBinaryResourceView implements PackageResource {
+
+    PackageResourceView(
+            final ByteBuffer buffer,
+            final StringTable stringTable,
+            final int offset
+    ) {
+        super(buffer, stringTable, offset);
+    }
+
+    @Override
+    public Optional<Package> asPackage(ClassLoader loader) {
+        return Optional.ofNullable(loader.getDefinedPackage(name()));
+    }
+
+    @Override
+    public String packageName() {
+        return "";
+    }
+
+    @Override
+    protected Class<? extends ClassPathResource> resourceType() {
+        return PackageResource.class;
+    }
+}
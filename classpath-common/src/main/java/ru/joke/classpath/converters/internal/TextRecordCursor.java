@@ -0,0 +1,268 @@
+package ru.joke.classpath.converters.internal;
+
+import ru.joke.classpath.AliasedEnum;
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.converters.Dictionary;
+
+import java.util.*;
+
+/**
+ * Cursor over the blocks of one record of the text index.<br>
+ * The record is walked once from the left to the right: each method reads the next block
+ * (separated by {@code |}) or the next element of the current block (separated by the given delimiter)
+ * and moves the cursor past it. The dictionary ids are resolved directly from the characters
+ * of the record via {@link Dictionary#map(CharSequence, int, int)} and the collections are built
+ * with the exact size, so the parsing doesn't create the intermediate strings, arrays or streams.
+ */
+final class TextRecordCursor {
+
+    private static final char BLOCK_SEPARATOR = '|';
+    private static final char ELEMENTS_IN_BLOCK_DELIMITER = ';';
+
+    private static final ClassPathResource.Modifier[] modifiers = ClassPathResource.Modifier.values();
+
+    private final String record;
+    private final Dictionary dictionary;
+    private int position;
+
+    TextRecordCursor(final String record, final Dictionary dictionary) {
+        this.record = record;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Returns whether the record consists of at least the given count of the blocks.
+     *
+     * @param count count of the blocks.
+     * @return {@code true} if the record has enough blocks, {@code false} otherwise.
+     */
+    boolean hasBlocks(final int count) {
+        int blocks = 1;
+        for (int i = this.record.indexOf(BLOCK_SEPARATOR); i >= 0 && blocks < count; i = this.record.indexOf(BLOCK_SEPARATOR, i + 1)) {
+            blocks++;
+        }
+
+        return blocks >= count;
+    }
+
+    /**
+     * Skips the current block.
+     */
+    void skipBlock() {
+        this.position = blockEnd() + 1;
+    }
+
+    /**
+     * Reads the current block as the dictionary id.
+     *
+     * @return value of the id from the dictionary; can be {@code null} if the id is unknown.
+     */
+    String nextMapped() {
+        final int end = blockEnd();
+        final var result = map(this.position, end);
+        this.position = end + 1;
+
+        return result;
+    }
+
+    /**
+     * Reads the next element of the current block as the dictionary id. The cursor is moved past
+     * the delimiter, the block separator following the last element isn't skipped.
+     *
+     * @param delimiter one-character delimiter of the elements of the block; cannot be {@code null}.
+     * @return value of the id from the dictionary; can be {@code null} if the id is unknown.
+     */
+    String nextMapped(final String delimiter) {
+        final char delimiterChar = delimiter.charAt(0);
+        final int end = elementEnd(delimiterChar, blockEnd());
+        final var result = map(this.position, end);
+        this.position = end < this.record.length() && this.record.charAt(end) == delimiterChar ? end + 1 : end;
+
+        return result;
+    }
+
+    /**
+     * Reads the current block as the set of the modifiers.
+     *
+     * @return modifiers; cannot be {@code null}.
+     */
+    Set<ClassPathResource.Modifier> nextModifiers() {
+        final int end = blockEnd();
+        Set<ClassPathResource.Modifier> result = Collections.emptySet();
+        for (int from = this.position; from < end; ) {
+            final int to = elementEnd(ELEMENTS_IN_BLOCK_DELIMITER, from, end);
+            final var modifier = find(modifiers, from, to);
+            if (modifier != null) {
+                if (result.isEmpty()) {
+                    result = EnumSet.noneOf(ClassPathResource.Modifier.class);
+                }
+
+                result.add(modifier);
+            }
+
+            from = to + 1;
+        }
+
+        this.position = end + 1;
+        return result;
+    }
+
+    /**
+     * Reads the current block as the enum element with the alias.
+     *
+     * @param elements elements of the enum; cannot be {@code null}.
+     * @param <T>      type of the enum
+     * @return enum element; can be {@code null} if the alias is unknown.
+     */
+    <T extends Enum<T> & AliasedEnum> T nextAliased(final T[] elements) {
+        final int end = blockEnd();
+        final var result = find(elements, this.position, end);
+        this.position = end + 1;
+
+        return result;
+    }
+
+    /**
+     * Reads the current block as the set of the dictionary ids separated by {@code ;}.
+     *
+     * @return immutable set of the values of the ids; cannot be {@code null}.
+     */
+    Set<String> nextMappedSet() {
+        final int end = blockEnd();
+        if (this.position == end) {
+            this.position = end + 1;
+            return Set.of();
+        }
+
+        final var values = new String[countElements(ELEMENTS_IN_BLOCK_DELIMITER, end)];
+
+        int size = 0;
+        for (int from = this.position; from < end; ) {
+            final int to = elementEnd(ELEMENTS_IN_BLOCK_DELIMITER, from, end);
+            if (to > from) {
+                size = addDistinct(values, size, map(from, to));
+            }
+
+            from = to + 1;
+        }
+
+        this.position = end + 1;
+        return toSet(values, size);
+    }
+
+    /**
+     * Reads the current block as the set of the references to the classes separated by {@code ;}.
+     *
+     * @return immutable set of the references; cannot be {@code null}.
+     */
+    Set<ClassPathResource.ClassReference<?>> nextRefSet() {
+        final int end = blockEnd();
+        if (this.position == end) {
+            this.position = end + 1;
+            return Set.of();
+        }
+
+        final var refs = new ClassPathResource.ClassReference<?>[countElements(ELEMENTS_IN_BLOCK_DELIMITER, end)];
+        int size = 0;
+        for (int from = this.position; from <= end; ) {
+            final int to = elementEnd(ELEMENTS_IN_BLOCK_DELIMITER, from, end);
+            size = addDistinct(refs, size, ClassReferenceImpl.of(map(from, to)));
+            from = to + 1;
+        }
+
+        this.position = end + 1;
+        return toSet(refs, size);
+    }
+
+    /**
+     * Reads the rest of the current block as the list of the references to the classes separated
+     * by the given delimiter. The cursor is moved past the block separator.
+     *
+     * @param delimiter one-character delimiter of the references; cannot be {@code null}.
+     * @return immutable list of the references; cannot be {@code null}.
+     */
+    List<ClassPathResource.ClassReference<?>> nextRefs(final String delimiter) {
+        final char delimiterChar = delimiter.charAt(0);
+        final int end = blockEnd();
+        if (this.position == end) {
+            this.position = end + 1;
+            return List.of();
+        }
+
+        final var refs = new ClassPathResource.ClassReference<?>[countElements(delimiterChar, end)];
+        int size = 0;
+        for (int from = this.position; from <= end; ) {
+            final int to = elementEnd(delimiterChar, from, end);
+            refs[size++] = ClassReferenceImpl.of(map(from, to));
+            from = to + 1;
+        }
+
+        this.position = end + 1;
+        return List.of(refs);
+    }
+
+    private String map(final int from, final int to) {
+        return from == to ? "" : this.dictionary.map(this.record, from, to);
+    }
+
+    private int blockEnd() {
+        return elementEnd(BLOCK_SEPARATOR, this.record.length());
+    }
+
+    private int elementEnd(final char delimiter, final int limit) {
+        return elementEnd(delimiter, this.position, limit);
+    }
+
+    private int elementEnd(final char delimiter, final int from, final int limit) {
+        for (int i = from; i < limit; i++) {
+            if (this.record.charAt(i) == delimiter) {
+                return i;
+            }
+        }
+
+        return limit;
+    }
+
+    private int countElements(final char delimiter, final int end) {
+        int result = 1;
+        for (int i = this.position; i < end; i++) {
+            if (this.record.charAt(i) == delimiter) {
+                result++;
+            }
+        }
+
+        return result;
+    }
+
+    private <T extends Enum<T> & AliasedEnum> T find(final T[] elements, final int from, final int to) {
+        final int length = to - from;
+        for (final var element : elements) {
+            final var alias = element.alias();
+            if (alias.length() == length && this.record.startsWith(alias, from)) {
+                return element;
+            }
+        }
+
+        return null;
+    }
+
+    private static <T> int addDistinct(final T[] values, final int size, final T value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i].equals(value)) {
+                return size;
+            }
+        }
+
+        values[size] = value;
+        return size + 1;
+    }
+
+    private static <T> Set<T> toSet(final T[] values, final int size) {
+        return switch (size) {
+            case 0 -> Set.of();
+            case 1 -> Set.of(values[0]);
+            case 2 -> Set.of(values[0], values[1]);
+            default -> Set.of(size == values.length ? values : Arrays.copyOf(values, size));
+        };
+    }
+}
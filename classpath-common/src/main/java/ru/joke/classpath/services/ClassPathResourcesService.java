@@ -4,7 +4,12 @@ import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.ClassPathResources;
 import ru.joke.classpath.services.internal.DefaultClassPathResourcesService;
 
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * A service for working with indexable classpath resources. It provides an API for writing to and reading from the index.
@@ -13,6 +18,7 @@ import java.util.function.Predicate;
  * @see IndexedClassPathLocation
  * @see ClassPathResource
  * @see ClassPathResources
+ * @see IndexKey
  */
 public interface ClassPathResourcesService {
 
@@ -34,11 +40,91 @@ public interface ClassPathResourcesService {
     ClassPathResources read(IndexedClassPathLocation sourceLocation, Predicate<ClassPathResource> filter);
 
     /**
-     * Returns an instance of the service implementation.
+     * Returns the lazily evaluated stream of classpath resources from the index at the specified location.<br>
+     * Unlike {@link #read(IndexedClassPathLocation, Predicate)}, the matching resources aren't collected:
+     * the resources are tested by the filter on demand during the traversal of the stream, so the short-circuiting
+     * operations (like {@link Stream#findAny()} or {@link Stream#anyMatch(Predicate)}) stop after the first
+     * matching resource without testing the rest of the resources. The index itself is read completely
+     * (or taken from the cache) when the stream is created, only the filtering and the traversal are lazy.
+     *
+     * @param sourceLocation specified location; cannot be {@code null}.
+     * @param filter         filter of the required resources; cannot be {@code null}.
+     * @return sequential stream of the resources from the index matched to the filter; cannot be {@code null}.
+     */
+    default Stream<ClassPathResource> stream(IndexedClassPathLocation sourceLocation, Predicate<ClassPathResource> filter) {
+        return read(sourceLocation, filter).stream();
+    }
+
+    /**
+     * Reads classpath resources from the index at the specified location using the inverted index of the resources.<br>
+     * The required keys are a conjunction of the disjunctions of the keys: the resource is a candidate
+     * for the filter only if it has at least one key from each of the sets. The keys narrow the resources
+     * being tested by the filter, so the keys must be implied by the filter: each resource matched to the filter
+     * must have the required keys. The resources of the indexes without the inverted index are tested by
+     * the filter only.
+     *
+     * @param sourceLocation specified location; cannot be {@code null}.
+     * @param requiredKeys   required keys of the inverted index; cannot be {@code null}.
+     * @param filter         filter of the required resources; cannot be {@code null}.
+     * @return resources from the index matched to the filter; cannot be {@code null}.
+     * @see IndexKey
+     */
+    default ClassPathResources read(
+            IndexedClassPathLocation sourceLocation,
+            Collection<Set<IndexKey>> requiredKeys,
+            Predicate<ClassPathResource> filter
+    ) {
+        return read(sourceLocation, filter);
+    }
+
+    /**
+     * Returns the lazily evaluated stream of classpath resources from the index at the specified location
+     * using the inverted index of the resources: only the resources having the required keys are tested
+     * by the filter (see {@link #read(IndexedClassPathLocation, Collection, Predicate)}).
+     *
+     * @param sourceLocation specified location; cannot be {@code null}.
+     * @param requiredKeys   required keys of the inverted index; cannot be {@code null}.
+     * @param filter         filter of the required resources; cannot be {@code null}.
+     * @return sequential stream of the resources from the index matched to the filter; cannot be {@code null}.
+     * @see #stream(IndexedClassPathLocation, Predicate)
+     */
+    default Stream<ClassPathResource> stream(
+            IndexedClassPathLocation sourceLocation,
+            Collection<Set<IndexKey>> requiredKeys,
+            Predicate<ClassPathResource> filter
+    ) {
+        return read(sourceLocation, requiredKeys, filter).stream();
+    }
+
+    /**
+     * Invalidates the resources of the specified location previously read from the index and cached
+     * by the service, so the next read from this location will load the index again.<br>
+     * By default, does nothing: the implementations which don't cache the read resources have nothing to invalidate.
+     *
+     * @param sourceLocation specified location; cannot be {@code null}.
+     */
+    default void invalidate(IndexedClassPathLocation sourceLocation) {
+    }
+
+    /**
+     * Returns an instance of the service implementation.<br>
+     * All instances share the same process-wide cache of the resources read from the index.
      *
      * @return instance of the service implementation; cannot be {@code null}.
      */
     static ClassPathResourcesService getInstance() {
         return new DefaultClassPathResourcesService();
     }
+
+    /**
+     * Returns an instance of the service implementation which reads the index files of the different
+     * class path entries on the provided executor.<br>
+     * All instances share the same process-wide cache of the resources read from the index.
+     *
+     * @param readingExecutor executor reading the index files; cannot be {@code null}.
+     * @return instance of the service implementation; cannot be {@code null}.
+     */
+    static ClassPathResourcesService getInstance(final Executor readingExecutor) {
+        return new DefaultClassPathResourcesService(Objects.requireNonNull(readingExecutor, "readingExecutor"));
+    }
 }
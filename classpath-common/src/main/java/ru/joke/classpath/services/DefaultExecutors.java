@@ -0,0 +1,51 @@
+package ru.joke.classpath.services;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Factories of the default executors of the library modules.<br>
+ * The virtual threads are available since Java 21 while the library targets Java 17, so the executor
+ * of the virtual threads is created reflectively and the callers fall back to their own executors
+ * of the {@link #daemonThreadFactory(String) daemon threads} on the older runtimes.
+ *
+ * @author Alik
+ */
+public final class DefaultExecutors {
+
+    private DefaultExecutors() {
+    }
+
+    /**
+     * Creates the executor starting a new virtual thread for each task if the virtual threads
+     * are supported by the runtime.
+     *
+     * @return executor of the virtual threads or empty if the runtime doesn't support them; cannot be {@code null}.
+     */
+    public static Optional<Executor> newVirtualThreadPerTaskExecutor() {
+        try {
+            final var factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((Executor) factoryMethod.invoke(null));
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the factory of the daemon threads with the given name, so the threads of the fallback
+     * executors don't prevent the JVM from exiting.
+     *
+     * @param threadName name of the created threads; cannot be {@code null}.
+     * @return thread factory; cannot be {@code null}.
+     */
+    public static ThreadFactory daemonThreadFactory(final String threadName) {
+        return task -> {
+            final var thread = new Thread(task, threadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
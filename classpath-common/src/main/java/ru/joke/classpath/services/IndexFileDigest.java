@@ -0,0 +1,52 @@
+package ru.joke.classpath.services;
+
+import ru.joke.classpath.IndexedClassPathStorageException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Digest of the content of the index file of the class path entry.<br>
+ * The digest identifies the class path entry covered by the {@link IndexedClassPathLocation#AGGREGATED_RESOURCES_FILE aggregated index}
+ * regardless of the path of the entry, which can differ between the build and the runtime or be the same
+ * for the different entries (like the {@code classes} directories of the different modules).
+ *
+ * @author Alik
+ * @see IndexedClassPathLocation#AGGREGATED_ENTRIES_FILE
+ */
+public final class IndexFileDigest {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private IndexFileDigest() {
+    }
+
+    /**
+     * Computes the hex-encoded SHA-256 digest of the content of the index file located by the given URL.
+     *
+     * @param indexUrl URL of the index file; cannot be {@code null}.
+     * @return digest of the index file; cannot be {@code null}.
+     * @throws IndexedClassPathStorageException if the index file can't be read.
+     */
+    public static String compute(final URL indexUrl) {
+        try {
+            final var connection = indexUrl.openConnection();
+            // the shared cached JAR file can be stale or outlive the class loader of the entry
+            connection.setUseCaches(false);
+
+            final var digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            try (final var input = new DigestInputStream(connection.getInputStream(), digest)) {
+                input.transferTo(OutputStream.nullOutputStream());
+            }
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            throw new IndexedClassPathStorageException("Unable to compute digest of index file: " + indexUrl, ex);
+        }
+    }
+}
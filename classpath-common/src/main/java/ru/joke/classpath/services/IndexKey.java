@@ -0,0 +1,123 @@
+package ru.joke.classpath.services;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.ClassResource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A key of the inverted index of the classpath resources. The index maps each key to the resources
+ * having the attribute of the key kind equal to the key value, so the resources with the given
+ * attribute can be found without testing each resource from the index.<br>
+ * The values of the class references (annotations, interfaces and superclasses) are canonical names of the classes.
+ *
+ * @param kind  kind of the resource attribute; cannot be {@code null}.
+ * @param value value of the attribute; cannot be {@code null}.
+ *
+ * @author Alik
+ * @see ClassPathResourcesService
+ */
+public record IndexKey(Kind kind, String value) {
+
+    /**
+     * Kinds of the indexed resource attributes.
+     */
+    public enum Kind {
+
+        /**
+         * Type of the resource, the value is the name of the {@link ClassPathResource.Type} constant.
+         */
+        TYPE,
+
+        /**
+         * Package of the resource.
+         */
+        PACKAGE,
+
+        /**
+         * Module of the resource.
+         */
+        MODULE,
+
+        /**
+         * Alias of the resource.
+         */
+        ALIAS,
+
+        /**
+         * Annotation of the resource.
+         */
+        ANNOTATION,
+
+        /**
+         * Interface implemented by the class resource.
+         */
+        INTERFACE,
+
+        /**
+         * Superclass of the class resource.
+         */
+        SUPERCLASS,
+
+        /**
+         * Modifier of the resource, the value is the name of the {@link ClassPathResource.Modifier} constant.
+         */
+        MODIFIER
+    }
+
+    /**
+     * Returns the key of the given resource type.
+     *
+     * @param type resource type; cannot be {@code null}.
+     * @return key of the type; cannot be {@code null}.
+     */
+    public static IndexKey ofType(final ClassPathResource.Type type) {
+        return new IndexKey(Kind.TYPE, type.name());
+    }
+
+    /**
+     * Returns the key of the given resource modifier.
+     *
+     * @param modifier resource modifier; cannot be {@code null}.
+     * @return key of the modifier; cannot be {@code null}.
+     */
+    public static IndexKey ofModifier(final ClassPathResource.Modifier modifier) {
+        return new IndexKey(Kind.MODIFIER, modifier.name());
+    }
+
+    /**
+     * Returns the key of the given class reference of the specified kind.
+     *
+     * @param kind kind of the key; cannot be {@code null}.
+     * @param type referenced class; cannot be {@code null}.
+     * @return key of the class; cannot be {@code null}.
+     */
+    public static IndexKey ofClass(final Kind kind, final Class<?> type) {
+        final var canonicalName = type.getCanonicalName();
+        return new IndexKey(kind, canonicalName == null ? type.getName() : canonicalName);
+    }
+
+    /**
+     * Collects all keys of the inverted index related to the given resource.
+     *
+     * @param resource resource; cannot be {@code null}.
+     * @return keys of the resource; cannot be {@code null}.
+     */
+    public static Set<IndexKey> keysOf(final ClassPathResource resource) {
+        final Set<IndexKey> result = new HashSet<>();
+        result.add(ofType(resource.type()));
+        result.add(new IndexKey(Kind.PACKAGE, resource.packageName()));
+        result.add(new IndexKey(Kind.MODULE, resource.module()));
+        resource.aliases().forEach(alias -> result.add(new IndexKey(Kind.ALIAS, alias)));
+        resource.modifiers().forEach(modifier -> result.add(ofModifier(modifier)));
+        resource.annotations().forEach(ref -> result.add(new IndexKey(Kind.ANNOTATION, ref.canonicalName())));
+
+        if (resource instanceof ClassResource<?> classResource) {
+            classResource.interfaces().forEach(ref -> result.add(new IndexKey(Kind.INTERFACE, ref.canonicalName())));
+            classResource.superClasses().forEach(ref -> result.add(new IndexKey(Kind.SUPERCLASS, ref.canonicalName())));
+        }
+
+        return result;
+    }
+}
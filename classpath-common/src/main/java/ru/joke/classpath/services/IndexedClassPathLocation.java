@@ -19,6 +19,19 @@ public interface IndexedClassPathLocation {
      * Relative path to the index file.
      */
     String INDEXED_RESOURCES_FILE = CONFIGURATION_DIR + "indexed-resources.index";
+    /**
+     * Relative path to the aggregated index file containing the merged resources of all the indexes
+     * of the application. If the aggregated index is present in the class path, it is read instead of
+     * the {@link #INDEXED_RESOURCES_FILE indexes} of the class path entries covered by it, the indexes
+     * of the other class path entries are read along with it.
+     */
+    String AGGREGATED_RESOURCES_FILE = CONFIGURATION_DIR + "aggregated-resources.index";
+    /**
+     * Relative path to the file listing the class path entries (JAR files or directories) covered by
+     * the {@link #AGGREGATED_RESOURCES_FILE aggregated index}, one entry per line: the {@link IndexFileDigest digest}
+     * of the index of the entry followed by the space and the file name of the entry.
+     */
+    String AGGREGATED_ENTRIES_FILE = CONFIGURATION_DIR + "aggregated-resources.entries";
 
     /**
      * Returns the index file location as a string.
@@ -0,0 +1,278 @@
+package ru.joke.classpath.services;
+
+import ru.joke.classpath.ClassPathResource;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * An inverted index of the classpath resources: the resources and the postings mapping the
+ * {@link IndexKey keys} to the sorted ordinals of the resources having these keys.<br>
+ * The index allows to find the candidates for a query expressed via the required keys (a conjunction
+ * of the disjunctions of the keys) by the lookups and the intersections of the postings instead of
+ * testing each resource. If the index has no postings, each resource is a candidate for any query.<br>
+ * The position of the resource in the index is its dense ordinal, so the sets of the resources can be
+ * represented as the {@link OrdinalBitmap bitmaps} of the ordinals.
+ *
+ * @author Alik
+ * @see IndexKey
+ * @see ClassPathResourcesService
+ */
+public final class InvertedIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final ClassPathResource[] resources;
+    private final Map<IndexKey, int[]> postings;
+    private final Map<IndexKey, OrdinalBitmap> bitmaps;
+    private volatile OrdinalBitmap allOrdinals;
+
+    /**
+     * Constructs the index from the resources and the postings. The ordinals of the resources in the postings
+     * must be sorted in the ascending order; the array of the resources may contain {@code null} elements
+     * (unsupported resources), they are skipped.
+     *
+     * @param resources resources of the index; cannot be {@code null}.
+     * @param postings  postings of the index; can be {@code null} if the resources have no postings.
+     */
+    public InvertedIndex(final ClassPathResource[] resources, final Map<IndexKey, int[]> postings) {
+        this.resources = resources;
+        this.postings = postings;
+        this.bitmaps = postings == null ? null : new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Builds the index of the given resources with the postings of all {@link IndexKey#keysOf(ClassPathResource) keys}
+     * of the resources.
+     *
+     * @param resources resources to index; cannot be {@code null}.
+     * @return built index; cannot be {@code null}.
+     */
+    public static InvertedIndex of(final Collection<ClassPathResource> resources) {
+        final var resourcesArray = resources.toArray(new ClassPathResource[0]);
+        final Map<IndexKey, OrdinalsBuilder> postingBuilders = new HashMap<>();
+
+        for (int i = 0; i < resourcesArray.length; i++) {
+            for (final var key : IndexKey.keysOf(resourcesArray[i])) {
+                postingBuilders.computeIfAbsent(key, k -> new OrdinalsBuilder()).add(i);
+            }
+        }
+
+        final Map<IndexKey, int[]> postings = new HashMap<>(postingBuilders.size() * 4 / 3 + 1);
+        postingBuilders.forEach((key, builder) -> postings.put(key, builder.build()));
+
+        return new InvertedIndex(resourcesArray, postings);
+    }
+
+    /**
+     * Returns whether the index has the postings of the keys.
+     *
+     * @return {@code true} if the index has the postings, {@code false} otherwise.
+     */
+    public boolean hasPostings() {
+        return this.postings != null;
+    }
+
+    /**
+     * Returns the bound of the ordinals of the index: the ordinals of the resources are
+     * from {@code 0} (inclusive) to the bound (exclusive).
+     *
+     * @return bound of the ordinals.
+     */
+    public int ordinalsBound() {
+        return this.resources.length;
+    }
+
+    /**
+     * Returns the number of the supported resources of the index.
+     *
+     * @return number of the resources.
+     */
+    public int size() {
+        return ordinals().cardinality();
+    }
+
+    /**
+     * Returns the resource with the given ordinal.
+     *
+     * @param ordinal ordinal of the resource.
+     * @return resource with the ordinal; can be {@code null} if the resource isn't supported.
+     */
+    public ClassPathResource resource(final int ordinal) {
+        return this.resources[ordinal];
+    }
+
+    /**
+     * Returns the bitmap of the ordinals of all resources of the index.
+     *
+     * @return bitmap of the ordinals; cannot be {@code null}.
+     */
+    public OrdinalBitmap ordinals() {
+        OrdinalBitmap result;
+        if ((result = this.allOrdinals) == null) {
+            final var bitmap = OrdinalBitmap.range(this.resources.length);
+            this.allOrdinals = result = bitmap.filter(ordinal -> this.resources[ordinal] != null);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the bitmap of the ordinals of the resources having the given key. The bitmaps are cached
+     * after the first access.
+     *
+     * @param key key of the index; cannot be {@code null}.
+     * @return bitmap of the ordinals; cannot be {@code null}.
+     * @throws UnsupportedOperationException if the index has no postings
+     * @see #hasPostings()
+     */
+    public OrdinalBitmap ordinals(final IndexKey key) {
+        if (this.postings == null) {
+            throw new UnsupportedOperationException("Index has no postings");
+        }
+
+        final var ordinals = this.postings.get(key);
+        return ordinals == null
+                ? OrdinalBitmap.empty()
+                : this.bitmaps.computeIfAbsent(key, k -> OrdinalBitmap.of(ordinals));
+    }
+
+    /**
+     * Performs the action for each resource of the index.
+     *
+     * @param consumer action; cannot be {@code null}.
+     */
+    public void forEach(final Consumer<ClassPathResource> consumer) {
+        for (final var resource : this.resources) {
+            if (resource != null) {
+                consumer.accept(resource);
+            }
+        }
+    }
+
+    /**
+     * Performs the action for each resource of the index having at least one key from each of the required sets of keys.
+     * If no keys are required or the index has no postings, the action is performed for each resource.
+     *
+     * @param requiredKeys required keys (a conjunction of the disjunctions of the keys); cannot be {@code null}.
+     * @param consumer     action; cannot be {@code null}.
+     */
+    public void forEachCandidate(
+            final Collection<Set<IndexKey>> requiredKeys,
+            final Consumer<ClassPathResource> consumer
+    ) {
+        if (this.postings == null || requiredKeys.isEmpty()) {
+            forEach(consumer);
+            return;
+        }
+
+        for (final int ordinal : findCandidates(requiredKeys)) {
+            final var resource = this.resources[ordinal];
+            if (resource != null) {
+                consumer.accept(resource);
+            }
+        }
+    }
+
+    /**
+     * Returns the ordinals of the resources of the index having at least one key from each of the required sets of keys
+     * in the ascending order. If no keys are required or the index has no postings, the ordinals of all resources
+     * are returned; the ordinals of the unsupported resources aren't skipped.
+     *
+     * @param requiredKeys required keys (a conjunction of the disjunctions of the keys); cannot be {@code null}.
+     * @return ordinals of the candidates; cannot be {@code null}.
+     */
+    public IntStream candidateOrdinals(final Collection<Set<IndexKey>> requiredKeys) {
+        return this.postings == null || requiredKeys.isEmpty()
+                ? IntStream.range(0, this.resources.length)
+                : IntStream.of(findCandidates(requiredKeys));
+    }
+
+    private int[] findCandidates(final Collection<Set<IndexKey>> requiredKeys) {
+        int[] result = null;
+        for (final var anyOfKeys : requiredKeys) {
+            int[] anyOfOrdinals = EMPTY;
+            for (final var key : anyOfKeys) {
+                final var ordinals = this.postings.get(key);
+                if (ordinals != null) {
+                    anyOfOrdinals = union(anyOfOrdinals, ordinals);
+                }
+            }
+
+            result = result == null ? anyOfOrdinals : intersection(result, anyOfOrdinals);
+            if (result.length == 0) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    private static int[] union(final int[] first, final int[] second) {
+        if (first.length == 0) {
+            return second;
+        } else if (second.length == 0) {
+            return first;
+        }
+
+        final var result = new int[first.length + second.length];
+        int i = 0, j = 0, k = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                result[k++] = first[i++];
+            } else if (first[i] > second[j]) {
+                result[k++] = second[j++];
+            } else {
+                result[k++] = first[i++];
+                j++;
+            }
+        }
+
+        while (i < first.length) {
+            result[k++] = first[i++];
+        }
+
+        while (j < second.length) {
+            result[k++] = second[j++];
+        }
+
+        return k == result.length ? result : Arrays.copyOf(result, k);
+    }
+
+    private static int[] intersection(final int[] first, final int[] second) {
+        final var result = new int[Math.min(first.length, second.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[k++] = first[i++];
+                j++;
+            }
+        }
+
+        return k == result.length ? result : Arrays.copyOf(result, k);
+    }
+
+    private static final class OrdinalsBuilder {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        private void add(final int ordinal) {
+            if (this.size == this.ordinals.length) {
+                this.ordinals = Arrays.copyOf(this.ordinals, this.size * 2);
+            }
+
+            this.ordinals[this.size++] = ordinal;
+        }
+
+        private int[] build() {
+            return Arrays.copyOf(this.ordinals, this.size);
+        }
+    }
+}
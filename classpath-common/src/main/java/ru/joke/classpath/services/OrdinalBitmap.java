@@ -0,0 +1,673 @@
+package ru.joke.classpath.services;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * An immutable compressed bitmap of the non-negative ordinals of the resources in the style of the roaring bitmaps.<br>
+ * The ordinals are split into the chunks of 65536 values by the high 16 bits; each chunk is stored in a container:
+ * a sorted array of the low 16 bits for the sparse chunks (up to 4096 values) or a bitmap of 1024 words for the
+ * dense chunks. The logical operations are performed chunk by chunk: word by word for the bitmaps and by the
+ * merging for the arrays, so the sets of the resources are combined in bulk without testing the resources one by one.
+ *
+ * @author Alik
+ * @see InvertedIndex
+ */
+public final class OrdinalBitmap {
+
+    private static final int MAX_ARRAY_CARDINALITY = 4096;
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int BITMAP_WORDS = CHUNK_SIZE / Long.SIZE;
+
+    private static final OrdinalBitmap EMPTY = new OrdinalBitmap(new char[0], new Container[0], 0);
+
+    private final char[] highs;
+    private final Container[] containers;
+    private final int size;
+    private final int cardinality;
+
+    private OrdinalBitmap(final char[] highs, final Container[] containers, final int size) {
+        this.highs = highs;
+        this.containers = containers;
+        this.size = size;
+
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Returns an empty bitmap.
+     *
+     * @return empty bitmap; cannot be {@code null}.
+     */
+    public static OrdinalBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates the bitmap of the ordinals from {@code 0} (inclusive) to the given bound (exclusive).
+     *
+     * @param bound upper bound of the ordinals (exclusive); cannot be negative.
+     * @return bitmap of the ordinals; cannot be {@code null}.
+     */
+    public static OrdinalBitmap range(final int bound) {
+        if (bound <= 0) {
+            return EMPTY;
+        }
+
+        final int chunks = (bound - 1) / CHUNK_SIZE + 1;
+        final var highs = new char[chunks];
+        final var containers = new Container[chunks];
+        for (int i = 0; i < chunks; i++) {
+            final int length = Math.min(CHUNK_SIZE, bound - i * CHUNK_SIZE);
+            final var words = new long[BITMAP_WORDS];
+            Arrays.fill(words, 0, length / Long.SIZE, -1L);
+            if (length % Long.SIZE != 0) {
+                words[length / Long.SIZE] = (1L << length % Long.SIZE) - 1;
+            }
+
+            highs[i] = (char) i;
+            containers[i] = Container.ofBitmap(words);
+        }
+
+        return new OrdinalBitmap(highs, containers, chunks);
+    }
+
+    /**
+     * Creates the bitmap of the given ordinals.
+     *
+     * @param ordinals ordinals sorted in the ascending order without duplicates; cannot be {@code null}.
+     * @return bitmap of the ordinals; cannot be {@code null}.
+     */
+    public static OrdinalBitmap of(final int[] ordinals) {
+        if (ordinals.length == 0) {
+            return EMPTY;
+        }
+
+        final var builder = new Builder(ordinals[ordinals.length - 1] / CHUNK_SIZE + 1);
+        int start = 0;
+        while (start < ordinals.length) {
+            final int high = ordinals[start] >>> 16;
+            int end = start;
+            while (end < ordinals.length && ordinals[end] >>> 16 == high) {
+                end++;
+            }
+
+            final var lows = new char[end - start];
+            for (int i = start; i < end; i++) {
+                lows[i - start] = (char) ordinals[i];
+            }
+
+            builder.add((char) high, Container.ofArray(lows, lows.length));
+            start = end;
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of the ordinals in the bitmap.
+     *
+     * @return number of the ordinals.
+     */
+    public int cardinality() {
+        return this.cardinality;
+    }
+
+    /**
+     * Returns whether the bitmap has no ordinals.
+     *
+     * @return {@code true} if the bitmap is empty, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return this.cardinality == 0;
+    }
+
+    /**
+     * Returns whether the bitmap contains the given ordinal.
+     *
+     * @param ordinal ordinal.
+     * @return {@code true} if the bitmap contains the ordinal, {@code false} otherwise.
+     */
+    public boolean contains(final int ordinal) {
+        if (ordinal < 0) {
+            return false;
+        }
+
+        final int index = Arrays.binarySearch(this.highs, 0, this.size, (char) (ordinal >>> 16));
+        return index >= 0 && this.containers[index].contains((char) ordinal);
+    }
+
+    /**
+     * Returns the intersection of the bitmaps.
+     *
+     * @param other other bitmap; cannot be {@code null}.
+     * @return intersection of the bitmaps; cannot be {@code null}.
+     */
+    public OrdinalBitmap and(final OrdinalBitmap other) {
+        final var builder = new Builder(Math.min(this.size, other.size));
+        int i = 0, j = 0;
+        while (i < this.size && j < other.size) {
+            if (this.highs[i] < other.highs[j]) {
+                i++;
+            } else if (this.highs[i] > other.highs[j]) {
+                j++;
+            } else {
+                builder.add(this.highs[i], this.containers[i++].and(other.containers[j++]));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the union of the bitmaps.
+     *
+     * @param other other bitmap; cannot be {@code null}.
+     * @return union of the bitmaps; cannot be {@code null}.
+     */
+    public OrdinalBitmap or(final OrdinalBitmap other) {
+        if (other.isEmpty()) {
+            return this;
+        } else if (isEmpty()) {
+            return other;
+        }
+
+        final var builder = new Builder(this.size + other.size);
+        int i = 0, j = 0;
+        while (i < this.size && j < other.size) {
+            if (this.highs[i] < other.highs[j]) {
+                builder.add(this.highs[i], this.containers[i++]);
+            } else if (this.highs[i] > other.highs[j]) {
+                builder.add(other.highs[j], other.containers[j++]);
+            } else {
+                builder.add(this.highs[i], this.containers[i++].or(other.containers[j++]));
+            }
+        }
+
+        while (i < this.size) {
+            builder.add(this.highs[i], this.containers[i++]);
+        }
+
+        while (j < other.size) {
+            builder.add(other.highs[j], other.containers[j++]);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the difference of the bitmaps: the ordinals of this bitmap absent in the other bitmap.
+     *
+     * @param other other bitmap; cannot be {@code null}.
+     * @return difference of the bitmaps; cannot be {@code null}.
+     */
+    public OrdinalBitmap andNot(final OrdinalBitmap other) {
+        if (other.isEmpty() || isEmpty()) {
+            return this;
+        }
+
+        final var builder = new Builder(this.size);
+        int i = 0, j = 0;
+        while (i < this.size) {
+            while (j < other.size && other.highs[j] < this.highs[i]) {
+                j++;
+            }
+
+            if (j < other.size && other.highs[j] == this.highs[i]) {
+                builder.add(this.highs[i], this.containers[i++].andNot(other.containers[j++]));
+            } else {
+                builder.add(this.highs[i], this.containers[i++]);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the bitmap of the ordinals of this bitmap matching the predicate.
+     *
+     * @param predicate predicate of the ordinals; cannot be {@code null}.
+     * @return bitmap of the matched ordinals; cannot be {@code null}.
+     */
+    public OrdinalBitmap filter(final IntPredicate predicate) {
+        final var builder = new Builder(this.size);
+        for (int i = 0; i < this.size; i++) {
+            builder.add(this.highs[i], this.containers[i].filter(this.highs[i] << 16, predicate));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Performs the action for each ordinal of the bitmap in the ascending order.
+     *
+     * @param consumer action; cannot be {@code null}.
+     */
+    public void forEach(final IntConsumer consumer) {
+        for (int i = 0; i < this.size; i++) {
+            this.containers[i].forEach(this.highs[i] << 16, consumer);
+        }
+    }
+
+    /**
+     * Performs the action for each ordinal of the bitmap in the ascending order while the action returns {@code true},
+     * so the rest of the ordinals isn't visited after the action returns {@code false}.
+     *
+     * @param action action returning whether the next ordinals have to be visited; cannot be {@code null}.
+     * @return {@code true} if all ordinals are visited, {@code false} if the iteration is stopped by the action.
+     */
+    public boolean forEachWhile(final IntPredicate action) {
+        for (int i = 0; i < this.size; i++) {
+            if (!this.containers[i].forEachWhile(this.highs[i] << 16, action)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the ordinals of the bitmap in the ascending order.
+     *
+     * @return ordinals of the bitmap; cannot be {@code null}.
+     */
+    public int[] toArray() {
+        final var result = new int[this.cardinality];
+        final int[] index = { 0 };
+        forEach(ordinal -> result[index[0]++] = ordinal);
+        return result;
+    }
+
+    /**
+     * Returns the given number of the first ordinals of the bitmap in the ascending order. Only the containers
+     * holding these ordinals are visited.
+     *
+     * @param limit maximal number of the ordinals; cannot be negative.
+     * @return first ordinals of the bitmap; cannot be {@code null}.
+     */
+    public int[] toArray(final int limit) {
+        if (limit >= this.cardinality) {
+            return toArray();
+        }
+
+        final var result = new int[limit];
+        for (int i = 0, filled = 0; filled < limit; i++) {
+            filled = this.containers[i].fill(this.highs[i] << 16, result, filled);
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private static final class Builder {
+
+        private final char[] highs;
+        private final Container[] containers;
+        private int size;
+
+        private Builder(final int capacity) {
+            this.highs = new char[capacity];
+            this.containers = new Container[capacity];
+        }
+
+        private void add(final char high, final Container container) {
+            if (container != null) {
+                this.highs[this.size] = high;
+                this.containers[this.size++] = container;
+            }
+        }
+
+        private OrdinalBitmap build() {
+            return this.size == 0 ? EMPTY : new OrdinalBitmap(this.highs, this.containers, this.size);
+        }
+    }
+
+    private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract Container filter(int base, IntPredicate predicate);
+
+        abstract void forEach(int base, IntConsumer consumer);
+
+        abstract boolean forEachWhile(int base, IntPredicate action);
+
+        abstract int fill(int base, int[] target, int from);
+
+        static Container ofArray(final char[] values, final int length) {
+            if (length == 0) {
+                return null;
+            } else if (length <= MAX_ARRAY_CARDINALITY) {
+                return new ArrayContainer(length == values.length ? values : Arrays.copyOf(values, length));
+            }
+
+            final var words = new long[BITMAP_WORDS];
+            for (int i = 0; i < length; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+
+            return new BitmapContainer(words, length);
+        }
+
+        static Container ofBitmap(final long[] words) {
+            int cardinality = 0;
+            for (final long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+
+            if (cardinality == 0) {
+                return null;
+            } else if (cardinality > MAX_ARRAY_CARDINALITY) {
+                return new BitmapContainer(words, cardinality);
+            }
+
+            final var values = new char[cardinality];
+            int k = 0;
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[k++] = (char) (i * Long.SIZE + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+
+            return new ArrayContainer(values);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private final char[] values;
+
+        private ArrayContainer(final char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return this.values.length;
+        }
+
+        @Override
+        boolean contains(final char value) {
+            return Arrays.binarySearch(this.values, value) >= 0;
+        }
+
+        @Override
+        Container and(final Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                return filter(bitmap, true);
+            }
+
+            final var otherValues = ((ArrayContainer) other).values;
+            final var result = new char[Math.min(this.values.length, otherValues.length)];
+            int i = 0, j = 0, k = 0;
+            while (i < this.values.length && j < otherValues.length) {
+                if (this.values[i] < otherValues[j]) {
+                    i++;
+                } else if (this.values[i] > otherValues[j]) {
+                    j++;
+                } else {
+                    result[k++] = this.values[i++];
+                    j++;
+                }
+            }
+
+            return ofArray(result, k);
+        }
+
+        @Override
+        Container or(final Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+
+            final var otherValues = ((ArrayContainer) other).values;
+            final var result = new char[this.values.length + otherValues.length];
+            int i = 0, j = 0, k = 0;
+            while (i < this.values.length && j < otherValues.length) {
+                if (this.values[i] < otherValues[j]) {
+                    result[k++] = this.values[i++];
+                } else if (this.values[i] > otherValues[j]) {
+                    result[k++] = otherValues[j++];
+                } else {
+                    result[k++] = this.values[i++];
+                    j++;
+                }
+            }
+
+            while (i < this.values.length) {
+                result[k++] = this.values[i++];
+            }
+
+            while (j < otherValues.length) {
+                result[k++] = otherValues[j++];
+            }
+
+            return ofArray(result, k);
+        }
+
+        @Override
+        Container andNot(final Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                return filter(bitmap, false);
+            }
+
+            final var otherValues = ((ArrayContainer) other).values;
+            final var result = new char[this.values.length];
+            int i = 0, j = 0, k = 0;
+            while (i < this.values.length) {
+                while (j < otherValues.length && otherValues[j] < this.values[i]) {
+                    j++;
+                }
+
+                if (j == otherValues.length || otherValues[j] != this.values[i]) {
+                    result[k++] = this.values[i];
+                }
+
+                i++;
+            }
+
+            return k == this.values.length ? this : ofArray(result, k);
+        }
+
+        @Override
+        Container filter(final int base, final IntPredicate predicate) {
+            final var result = new char[this.values.length];
+            int k = 0;
+            for (final char value : this.values) {
+                if (predicate.test(base | value)) {
+                    result[k++] = value;
+                }
+            }
+
+            return k == this.values.length ? this : ofArray(result, k);
+        }
+
+        @Override
+        void forEach(final int base, final IntConsumer consumer) {
+            for (final char value : this.values) {
+                consumer.accept(base | value);
+            }
+        }
+
+        @Override
+        boolean forEachWhile(final int base, final IntPredicate action) {
+            for (final char value : this.values) {
+                if (!action.test(base | value)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        int fill(final int base, final int[] target, final int from) {
+            final int count = Math.min(this.values.length, target.length - from);
+            for (int i = 0; i < count; i++) {
+                target[from + i] = base | this.values[i];
+            }
+
+            return from + count;
+        }
+
+        private Container filter(final BitmapContainer bitmap, final boolean present) {
+            final var result = new char[this.values.length];
+            int k = 0;
+            for (final char value : this.values) {
+                if (bitmap.contains(value) == present) {
+                    result[k++] = value;
+                }
+            }
+
+            return k == this.values.length ? this : ofArray(result, k);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private final int cardinality;
+
+        private BitmapContainer(final long[] words, final int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        boolean contains(final char value) {
+            return (this.words[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        Container and(final Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+
+            final var otherWords = ((BitmapContainer) other).words;
+            final var result = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = this.words[i] & otherWords[i];
+            }
+
+            return ofBitmap(result);
+        }
+
+        @Override
+        Container or(final Container other) {
+            final var result = this.words.clone();
+            if (other instanceof ArrayContainer array) {
+                for (final char value : array.values) {
+                    result[value >>> 6] |= 1L << value;
+                }
+            } else {
+                final var otherWords = ((BitmapContainer) other).words;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] |= otherWords[i];
+                }
+            }
+
+            return ofBitmap(result);
+        }
+
+        @Override
+        Container andNot(final Container other) {
+            final var result = this.words.clone();
+            if (other instanceof ArrayContainer array) {
+                for (final char value : array.values) {
+                    result[value >>> 6] &= ~(1L << value);
+                }
+            } else {
+                final var otherWords = ((BitmapContainer) other).words;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] &= ~otherWords[i];
+                }
+            }
+
+            return ofBitmap(result);
+        }
+
+        @Override
+        Container filter(final int base, final IntPredicate predicate) {
+            final var result = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = this.words[i];
+                while (word != 0) {
+                    final int bit = Long.numberOfTrailingZeros(word);
+                    if (predicate.test(base | i * Long.SIZE + bit)) {
+                        result[i] |= 1L << bit;
+                    }
+
+                    word &= word - 1;
+                }
+            }
+
+            return ofBitmap(result);
+        }
+
+        @Override
+        void forEach(final int base, final IntConsumer consumer) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = this.words[i];
+                while (word != 0) {
+                    consumer.accept(base | i * Long.SIZE + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        boolean forEachWhile(final int base, final IntPredicate action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = this.words[i];
+                while (word != 0) {
+                    if (!action.test(base | i * Long.SIZE + Long.numberOfTrailingZeros(word))) {
+                        return false;
+                    }
+
+                    word &= word - 1;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        int fill(final int base, final int[] target, final int from) {
+            int k = from;
+            for (int i = 0; i < BITMAP_WORDS && k < target.length; i++) {
+                long word = this.words[i];
+                while (word != 0 && k < target.length) {
+                    target[k++] = base | i * Long.SIZE + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+
+            return k;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.converters.StringTable;
+
+import java.util.Arrays;
+
+final class ArrayStringTable implements StringTable {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private String[] strings;
+    private int size;
+    private StringIdMap ids;
+
+    ArrayStringTable() {
+        this.strings = new String[DEFAULT_CAPACITY];
+        this.ids = new StringIdMap(DEFAULT_CAPACITY);
+        idOf("");
+    }
+
+    ArrayStringTable(final String[] strings) {
+        this.strings = strings;
+        this.size = strings.length;
+    }
+
+    @Override
+    public int idOf(final String str) {
+        if (this.ids == null) {
+            this.ids = new StringIdMap(this.size);
+            for (int i = 0; i < this.size; i++) {
+                this.ids.putIfAbsent(this.strings[i], i);
+            }
+        }
+
+        final int id = this.ids.putIfAbsent(str, this.size);
+        if (id != StringIdMap.NO_ID) {
+            return id;
+        }
+
+        if (this.size == this.strings.length) {
+            this.strings = Arrays.copyOf(this.strings, this.size * 2);
+        }
+
+        this.strings[this.size] = str;
+        return this.size++;
+    }
+
+    @Override
+    public String valueOf(final int id) {
+        if (id < 0 || id >= this.size) {
+            throw new IndexOutOfBoundsException("Unknown string id: " + id);
+        }
+
+        return this.strings[id];
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+}
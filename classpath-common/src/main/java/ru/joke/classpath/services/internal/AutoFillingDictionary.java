@@ -1,49 +0,0 @@
-package ru.joke.classpath.services.internal;
-
-import ru.joke.classpath.converters.Dictionary;
-
-import java.util.Map;
-
-final class AutoFillingDictionary implements Dictionary {
-
-    private final Dictionary dictionary;
-
-    AutoFillingDictionary(Dictionary dictionary) {
-        this.dictionary = dictionary;
-    }
-
-    @Override
-    public String map(String str) {
-        if (str == null || str.isEmpty()) {
-            return str;
-        }
-
-        var result = this.dictionary.map(str);
-        if (result == null || result.isEmpty()) {
-            result = String.valueOf(size());
-            this.dictionary.addMapping(str, result);
-        }
-
-        return result;
-    }
-
-    @Override
-    public void addMapping(String key, String value) {
-        this.dictionary.addMapping(key, value);
-    }
-
-    @Override
-    public Map<String, String> toMap() {
-        return this.dictionary.toMap();
-    }
-
-    @Override
-    public int size() {
-        return this.dictionary.size();
-    }
-
-    @Override
-    public Dictionary reversedDictionary() {
-        return new AutoFillingDictionary(this.dictionary.reversedDictionary());
-    }
-}
@@ -0,0 +1,255 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.ClassPathResources;
+import ru.joke.classpath.IndexedClassPathStorageException;
+import ru.joke.classpath.converters.BinaryClassPathResourceConverter;
+import ru.joke.classpath.converters.VarInts;
+import ru.joke.classpath.services.IndexKey;
+import ru.joke.classpath.services.InvertedIndex;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Binary (v2) format of the index. The index consists of one or more segments (segments are appended
+ * when the index is written several times to the same file), each of them has the following layout:
+ * <pre>
+ *     magic          4 bytes, {@code CPIX}
+ *     version        1 byte, {@link #VERSION}
+ *     strings count  varint
+ *     strings        for each string: varint length of the UTF-8 bytes and the bytes
+ *     records count  varint
+ *     records        for each record: varint length of the record and the record
+ *                    written by {@link BinaryClassPathResourceConverter}
+ *     postings count varint
+ *     postings       for each {@link IndexKey}: 1 byte kind of the key, varint string id of the value,
+ *                    varint count of the records and the ascending ordinals of the records
+ *                    with the key, each ordinal is written as a varint delta from the previous one
+ * </pre>
+ * The lengths and the counts of the segment are validated against the remaining bytes of the input, the malformed
+ * segments are reported by {@link IndexedClassPathStorageException}. The records of the resource types unknown
+ * to the {@link BinaryClassPathResourceConverter converter} are skipped along with their ordinals in the postings.
+ */
+final class BinaryIndexFormat {
+
+    static final int MAGIC = 0x43504958;
+    static final byte VERSION = 2;
+    static final int HEADER_LENGTH = Integer.BYTES + Byte.BYTES;
+
+    private final BinaryClassPathResourceConverter<ClassPathResource> converter;
+
+    BinaryIndexFormat(final BinaryClassPathResourceConverter<ClassPathResource> converter) {
+        this.converter = converter;
+    }
+
+    static boolean isBinary(final byte[] header, final int length) {
+        return length >= Integer.BYTES && ByteBuffer.wrap(header, 0, Integer.BYTES).getInt() == MAGIC;
+    }
+
+    byte[] write(final ClassPathResources resources) {
+        final var stringTable = new ArrayStringTable();
+        final var records = new ByteArrayOutputStream();
+        final var record = new ByteArrayOutputStream();
+        final Map<IndexKey, List<Integer>> postings = new LinkedHashMap<>();
+
+        int ordinal = 0;
+        for (final var resource : resources) {
+            record.reset();
+            this.converter.write(resource, stringTable, record);
+
+            VarInts.write(record.size(), records);
+            records.writeBytes(record.toByteArray());
+
+            for (final var key : IndexKey.keysOf(resource)) {
+                postings.computeIfAbsent(key, k -> new ArrayList<>()).add(ordinal);
+            }
+
+            ordinal++;
+        }
+
+        final var postingsOutput = new ByteArrayOutputStream();
+        writePostings(postings, stringTable, postingsOutput);
+
+        final var output = new ByteArrayOutputStream(records.size() + postingsOutput.size() + stringTable.size() * 16);
+        output.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(MAGIC).array());
+        output.write(VERSION);
+
+        VarInts.write(stringTable.size(), output);
+        for (int i = 0; i < stringTable.size(); i++) {
+            final var bytes = stringTable.valueOf(i).getBytes(StandardCharsets.UTF_8);
+            VarInts.write(bytes.length, output);
+            output.writeBytes(bytes);
+        }
+
+        VarInts.write(ordinal, output);
+        output.writeBytes(records.toByteArray());
+        output.writeBytes(postingsOutput.toByteArray());
+
+        return output.toByteArray();
+    }
+
+    void read(
+            final ByteBuffer input,
+            final Consumer<InvertedIndex> segmentConsumer
+    ) {
+        while (input.hasRemaining()) {
+            segmentConsumer.accept(readSegment(input));
+        }
+    }
+
+    private void writePostings(
+            final Map<IndexKey, List<Integer>> postings,
+            final ArrayStringTable stringTable,
+            final ByteArrayOutputStream output
+    ) {
+        VarInts.write(postings.size(), output);
+        for (final var posting : postings.entrySet()) {
+            output.write(posting.getKey().kind().ordinal());
+            VarInts.write(stringTable.idOf(posting.getKey().value()), output);
+
+            final var ordinals = posting.getValue();
+            VarInts.write(ordinals.size(), output);
+
+            int previous = 0;
+            for (final int ordinal : ordinals) {
+                VarInts.write(ordinal - previous, output);
+                previous = ordinal;
+            }
+        }
+    }
+
+    private InvertedIndex readSegment(final ByteBuffer input) {
+        if (input.remaining() < HEADER_LENGTH || input.getInt() != MAGIC) {
+            throw new IndexedClassPathStorageException("Invalid header of the index segment");
+        }
+
+        final var version = input.get();
+        if (version != VERSION) {
+            throw new IndexedClassPathStorageException("Unsupported version of the index: " + version);
+        }
+
+        try {
+            return readSegmentContent(input);
+        } catch (IllegalStateException | IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException ex) {
+            throw new IndexedClassPathStorageException("Malformed index segment", ex);
+        }
+    }
+
+    private InvertedIndex readSegmentContent(final ByteBuffer input) {
+        final var strings = readStrings(input);
+        final var stringTable = new ArrayStringTable(strings);
+
+        final int recordsCount = readLength(input, "records count");
+        final var resources = new ClassPathResource[recordsCount];
+        int[] ordinalsMapping = null;
+        int resourcesCount = 0;
+        for (int i = 0; i < recordsCount; i++) {
+            final int recordLength = readLength(input, "record length");
+            if (recordLength == 0) {
+                throw new IndexedClassPathStorageException("Empty record of the index segment: " + i);
+            }
+
+            final int recordEnd = input.position() + recordLength;
+            final var resource = this.converter.read(input, stringTable);
+            if (resource.isPresent()) {
+                if (ordinalsMapping != null) {
+                    ordinalsMapping[i] = resourcesCount;
+                }
+
+                resources[resourcesCount++] = resource.get();
+            } else if (ordinalsMapping == null) {
+                // the records of the unsupported types (written by the newer versions) are skipped,
+                // so the ordinals of the following records in the postings are shifted
+                ordinalsMapping = new int[recordsCount];
+                Arrays.setAll(ordinalsMapping, ordinal -> ordinal);
+                ordinalsMapping[i] = -1;
+            } else {
+                ordinalsMapping[i] = -1;
+            }
+
+            input.position(recordEnd);
+        }
+
+        final var postings = readPostings(input, strings, recordsCount, ordinalsMapping);
+        return new InvertedIndex(
+                resourcesCount == recordsCount ? resources : Arrays.copyOf(resources, resourcesCount),
+                postings
+        );
+    }
+
+    private Map<IndexKey, int[]> readPostings(
+            final ByteBuffer input,
+            final String[] strings,
+            final int recordsCount,
+            final int[] ordinalsMapping
+    ) {
+        final int postingsCount = readLength(input, "postings count");
+        final int postingsStart = input.position();
+
+        // the postings are only validated and skipped here, they are decoded on the first lookup by the keys
+        for (int i = 0; i < postingsCount; i++) {
+            input.get();
+            final int valueId = VarInts.read(input);
+            if (valueId < 0 || valueId >= strings.length) {
+                throw new IndexedClassPathStorageException("Invalid string id of the key in the postings: " + valueId);
+            }
+
+            final int ordinalsCount = readLength(input, "ordinals count");
+            int ordinal = 0;
+            for (int j = 0; j < ordinalsCount; j++) {
+                final int delta = VarInts.read(input);
+                ordinal += delta;
+                if (delta < 0 || ordinal < 0 || ordinal >= recordsCount) {
+                    throw new IndexedClassPathStorageException("Invalid ordinal of the record in the postings: " + ordinal);
+                }
+            }
+        }
+
+        final var encodedPostings = input.slice(postingsStart, input.position() - postingsStart);
+        return new EncodedPostings(
+                // the heap buffer of the read index file isn't retained by the postings
+                encodedPostings.isDirect() ? encodedPostings : ByteBuffer.wrap(toBytes(encodedPostings)),
+                postingsCount,
+                strings,
+                ordinalsMapping
+        );
+    }
+
+    private byte[] toBytes(final ByteBuffer buffer) {
+        final var result = new byte[buffer.remaining()];
+        buffer.get(result);
+        return result;
+    }
+
+    private String[] readStrings(final ByteBuffer input) {
+        final var strings = new String[readLength(input, "strings count")];
+        for (int i = 0; i < strings.length; i++) {
+            final int length = readLength(input, "string length");
+            if (input.hasArray()) {
+                strings[i] = new String(input.array(), input.arrayOffset() + input.position(), length, StandardCharsets.UTF_8);
+                input.position(input.position() + length);
+            } else {
+                final var bytes = new byte[length];
+                input.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+
+        return strings;
+    }
+
+    private int readLength(final ByteBuffer input, final String description) {
+        // each counted element takes at least one byte, so neither the length nor the count can exceed the remaining bytes
+        final int result = VarInts.read(input);
+        if (result < 0 || result > input.remaining()) {
+            throw new IndexedClassPathStorageException("Invalid " + description + " of the index segment: " + result);
+        }
+
+        return result;
+    }
+}
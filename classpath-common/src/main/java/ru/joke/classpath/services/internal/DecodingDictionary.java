@@ -0,0 +1,139 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.converters.Dictionary;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dictionary of the text index used for decoding: maps the ids to the values.<br>
+ * The values are stored in the array indexed by the ids, the ids are parsed as the ints
+ * directly from the characters of the strings.
+ *
+ * @see EncodingDictionary
+ */
+final class DecodingDictionary implements Dictionary {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private String[] values;
+    private int size;
+
+    DecodingDictionary() {
+        this(new String[DEFAULT_CAPACITY], 0);
+    }
+
+    DecodingDictionary(final String[] values, final int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    public String map(String str) {
+        if (str == null || str.isEmpty()) {
+            return str;
+        }
+
+        final int id = parseId(str, 0, str.length());
+        return id >= 0 && id < this.values.length ? this.values[id] : null;
+    }
+
+    @Override
+    public String map(CharSequence chars, int from, int to) {
+        if (from == to) {
+            return "";
+        }
+
+        final int id = parseId(chars, from, to);
+        return id >= 0 && id < this.values.length ? this.values[id] : null;
+    }
+
+    @Override
+    public void addMapping(String key, String value) {
+        final int id = parseId(key, 0, key.length());
+        if (id < 0) {
+            throw new IllegalArgumentException("Id of the dictionary must be a non-negative int: " + key);
+        }
+
+        addMapping(id, value);
+    }
+
+    /**
+     * Adds the mapping from its string representation in the text index ({@code value:id}).
+     * The representations without the separator or with the invalid id are skipped.
+     *
+     * @param mapping string representation of the mapping; cannot be {@code null}.
+     */
+    void addMapping(final String mapping) {
+        final int separatorIdx = mapping.lastIndexOf(MAP_SEPARATOR);
+        if (separatorIdx == -1) {
+            return;
+        }
+
+        final int id = parseId(mapping, separatorIdx + 1, mapping.length());
+        if (id >= 0 && (id >= this.values.length || this.values[id] == null)) {
+            addMapping(id, mapping.substring(0, separatorIdx));
+        }
+    }
+
+    @Override
+    public Map<String, String> toMap() {
+        final Map<String, String> result = new LinkedHashMap<>(this.size * 2);
+        for (int id = 0; id < this.values.length; id++) {
+            if (this.values[id] != null) {
+                result.put(String.valueOf(id), this.values[id]);
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Dictionary reversedDictionary() {
+        return new EncodingDictionary(this.values.clone());
+    }
+
+    /**
+     * Parses the id from the given range of the characters without creating the intermediate strings.
+     *
+     * @param chars characters; cannot be {@code null}.
+     * @param from  start index of the range, inclusive.
+     * @param to    end index of the range, exclusive.
+     * @return parsed id or {@code -1} if the range isn't a non-negative int.
+     */
+    static int parseId(final CharSequence chars, final int from, final int to) {
+        if (from >= to) {
+            return -1;
+        }
+
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            final int digit = chars.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result > (Integer.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+
+            result = result * 10 + digit;
+        }
+
+        return result;
+    }
+
+    private void addMapping(final int id, final String value) {
+        if (id >= this.values.length) {
+            this.values = Arrays.copyOf(this.values, Math.max(id + 1, this.values.length * 2));
+        }
+
+        if (this.values[id] == null) {
+            this.values[id] = value;
+            this.size++;
+        }
+    }
+}
@@ -4,43 +4,122 @@ import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.ClassPathResources;
 import ru.joke.classpath.IndexedClassPathResources;
 import ru.joke.classpath.IndexedClassPathStorageException;
+import ru.joke.classpath.converters.BinaryClassPathResourceConverter;
 import ru.joke.classpath.converters.ClassPathResourceConverter;
-import ru.joke.classpath.converters.Dictionary;
 import ru.joke.classpath.services.ClassPathResourcesService;
+import ru.joke.classpath.services.IndexFileDigest;
+import ru.joke.classpath.services.IndexKey;
 import ru.joke.classpath.services.IndexedClassPathLocation;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Default implementation of the service {@link ClassPathResourcesService} for working with index.
+ * Default implementation of the service {@link ClassPathResourcesService} for working with index.<br>
+ * The resources read from the index are stored in a process-wide cache shared by all instances of the service,
+ * so repeated reads from the same location with the same set of class loaders cost only a filter pass.<br>
+ * The index is written in the compact binary format; both the binary format and the legacy text format
+ * are supported when reading, the format of each index file is detected by its header. The binary segments
+ * are appended to the existing binary index, the existing legacy text index is rewritten in the binary format
+ * along with its resources.<br>
+ * Binary index files of the exploded class path directories are memory-mapped and decoded directly from
+ * the mapped buffer, so they must not be rewritten in place while the read resources are in use (the access
+ * to the truncated mapped file fails with {@link InternalError}). The index entries stored in JAR files without
+ * compression are read directly from the JAR file without the inflation, the other index files are read from the stream.<br>
+ * The binary index contains the inverted index of the resources, so the reads with the required
+ * {@link IndexKey keys} test only the resources having these keys.<br>
+ * The index files of the different class path entries are read and parsed in parallel; the executor reading
+ * the index files can be provided via {@link #DefaultClassPathResourcesService(Executor)}, by default
+ * the files are read on the virtual threads if they are supported by the runtime.<br>
+ * The resources can be read either into the collection or as the lazily evaluated
+ * {@link #stream(IndexedClassPathLocation, Predicate) stream}, which tests the resources by the filter
+ * on demand and can be stopped after the first matching resource; the index files of the location are still read
+ * and cached completely when the stream is created.<br>
+ * Optionally, the merged index of all the index files of the location can be persisted as a snapshot
+ * to the cache directory provided via {@link #DefaultClassPathResourcesService(Executor, Path)} or
+ * via the system property {@value #SNAPSHOT_DIR_PROPERTY}. The snapshot is keyed by the fingerprint
+ * of the index files (their URLs, sizes and modification times), so the subsequent starts with
+ * the identical class path map the snapshot instead of reading the index files.<br>
+ * If the class path contains the {@link IndexedClassPathLocation#AGGREGATED_RESOURCES_FILE aggregated index}
+ * of the application, it is read instead of the indexes of the class path entries
+ * {@link IndexedClassPathLocation#AGGREGATED_ENTRIES_FILE covered} by it. The entry is covered if the digest
+ * of its index is equal to the digest recorded for the entry with the same file name during the aggregation;
+ * the indexes of the class path entries which aren't covered by the aggregated index (e.g. added to the class path
+ * or changed after the aggregation) are read along with it.
  *
  * @author Alik
  * @see ClassPathResourcesService
  */
 public final class DefaultClassPathResourcesService implements ClassPathResourcesService {
 
-    private static final String DICTIONARY_SEPARATOR = "#####";
+    /**
+     * System property containing the path of the cache directory of the snapshots of the merged indexes.
+     * If the property isn't set, the snapshots are disabled for the services constructed without the cache directory.
+     */
+    public static final String SNAPSHOT_DIR_PROPERTY = "ru.joke.classpath.index.snapshotDir";
+
+    private static final int MAX_CACHED_LOCATIONS = 32;
 
-    private final Map<String, ClassPathResources> resourcesByLocation;
-    private final ClassPathResourceConverter<ClassPathResource> converter;
+    private static final IndexedResourcesCache<LoadedIndex> sharedCache = new IndexedResourcesCache<>(MAX_CACHED_LOCATIONS);
+
+    private final IndexedResourcesCache<LoadedIndex> resourcesCache;
+    private final TextIndexFormat textFormat;
+    private final BinaryIndexFormat binaryFormat;
+    private final IndexLoader indexLoader;
+    private final IndexSnapshotStore snapshotStore;
+    private final IndexFileMapper indexFileMapper;
 
     /**
      * Constructs the service.
      */
     public DefaultClassPathResourcesService() {
-        this.resourcesByLocation = new ConcurrentHashMap<>();
-        this.converter = ClassPathResourceConverter.getInstance();
+        this((Executor) null);
+    }
+
+    /**
+     * Constructs the service which reads the index files on the provided executor.
+     *
+     * @param readingExecutor executor reading the index files; if {@code null} then the default executor is used.
+     */
+    public DefaultClassPathResourcesService(final Executor readingExecutor) {
+        this(readingExecutor, defaultSnapshotDir());
+    }
+
+    /**
+     * Constructs the service which reads the index files on the provided executor and persists
+     * the snapshots of the merged indexes to the provided cache directory.
+     *
+     * @param readingExecutor executor reading the index files; if {@code null} then the default executor is used.
+     * @param snapshotDir     cache directory of the snapshots; if {@code null} then the snapshots are disabled.
+     */
+    public DefaultClassPathResourcesService(final Executor readingExecutor, final Path snapshotDir) {
+        this(sharedCache, readingExecutor, snapshotDir);
+    }
+
+    DefaultClassPathResourcesService(final IndexedResourcesCache<LoadedIndex> resourcesCache) {
+        this(resourcesCache, null, null);
+    }
+
+    DefaultClassPathResourcesService(
+            final IndexedResourcesCache<LoadedIndex> resourcesCache,
+            final Executor readingExecutor,
+            final Path snapshotDir
+    ) {
+        this.resourcesCache = resourcesCache;
+        this.textFormat = new TextIndexFormat(ClassPathResourceConverter.getInstance());
+        this.binaryFormat = new BinaryIndexFormat(BinaryClassPathResourceConverter.getInstance());
+        this.indexLoader = new IndexLoader(this.textFormat, this.binaryFormat, readingExecutor);
+        this.snapshotStore = snapshotDir == null ? null : new IndexSnapshotStore(snapshotDir, this.binaryFormat);
+        this.indexFileMapper = new IndexFileMapper();
     }
 
     @Override
@@ -51,81 +130,213 @@ public final class DefaultClassPathResourcesService implements ClassPathResource
 
         final var targetPath = Path.of(targetLocation.getLocation());
 
-        final var dictionary = new AutoFillingDictionary(new MapDictionary(new HashMap<>()));
-
-        final var resourcesOutputData =
-                resources
-                        .stream()
-                        .map(resource -> this.converter.toString(resource, dictionary))
-                        .collect(Collectors.joining(System.lineSeparator()));
-
-        final var result =
-                Dictionary.toString(dictionary, System.lineSeparator())
-                        + DICTIONARY_SEPARATOR
-                        + System.lineSeparator()
-                        + resourcesOutputData;
-
         try {
             final var parentDir = targetPath.getParent().toFile();
             parentDir.mkdirs();
 
-            Files.writeString(
-                    targetPath,
-                    result,
-                    StandardOpenOption.WRITE, StandardOpenOption.APPEND, StandardOpenOption.CREATE
-            );
+            // the segments can't be appended to the legacy text index, so it is rewritten in the binary format
+            final var legacyResources = readLegacyIndex(targetPath);
+            if (legacyResources.isEmpty()) {
+                Files.write(
+                        targetPath,
+                        this.binaryFormat.write(resources),
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND, StandardOpenOption.CREATE
+                );
+            } else {
+                final var mergedResources = new IndexedClassPathResources();
+                mergedResources.addAll(resources);
+                mergedResources.addAll(legacyResources.get());
+
+                Files.write(
+                        targetPath,
+                        this.binaryFormat.write(mergedResources),
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE
+                );
+            }
         } catch (IOException ex) {
             throw new IndexedClassPathStorageException("Unable to write indexed class path resources to config file: " + targetPath, ex);
+        } finally {
+            this.resourcesCache.invalidateAll();
         }
     }
 
     @Override
     public ClassPathResources read(IndexedClassPathLocation sourceLocation, Predicate<ClassPathResource> filter) {
-        final ClassPathResources allResources = this.resourcesByLocation.computeIfAbsent(sourceLocation.getLocation(), k -> this.readAll(sourceLocation));
+        final var allResources = this.resourcesCache.get(sourceLocation, this::readAll).all();
         return allResources
                 .stream()
                 .filter(filter)
                 .collect(Collectors.toCollection(IndexedClassPathResources::new));
     }
 
-    private ClassPathResources readAll(final IndexedClassPathLocation location) {
-        final var result = new IndexedClassPathResources();
+    @Override
+    public Stream<ClassPathResource> stream(IndexedClassPathLocation sourceLocation, Predicate<ClassPathResource> filter) {
+        return this.resourcesCache.get(sourceLocation, this::readAll).stream().filter(filter);
+    }
 
-        final var configsUrls = readConfigsFromClassPath(location);
-        for (final var resourceUrl : configsUrls) {
-            try (final var configStream = resourceUrl.openStream();
-                 final var configReader = new BufferedReader(new InputStreamReader(configStream, StandardCharsets.UTF_8))) {
+    @Override
+    public ClassPathResources read(
+            IndexedClassPathLocation sourceLocation,
+            Collection<Set<IndexKey>> requiredKeys,
+            Predicate<ClassPathResource> filter
+    ) {
+        return this.resourcesCache.get(sourceLocation, this::readAll).find(requiredKeys, filter);
+    }
 
-                final Set<String> dictionaryMappings = new HashSet<>();
+    @Override
+    public Stream<ClassPathResource> stream(
+            IndexedClassPathLocation sourceLocation,
+            Collection<Set<IndexKey>> requiredKeys,
+            Predicate<ClassPathResource> filter
+    ) {
+        return this.resourcesCache.get(sourceLocation, this::readAll).stream(requiredKeys).filter(filter);
+    }
 
-                var line = configReader.readLine();
-                while (line != null && !line.equals(DICTIONARY_SEPARATOR)) {
-                    dictionaryMappings.add(line);
-                    line = configReader.readLine();
-                }
+    @Override
+    public void invalidate(IndexedClassPathLocation sourceLocation) {
+        this.resourcesCache.invalidate(sourceLocation);
+    }
 
-                final var sourceDictionary = new MapDictionary(new HashMap<>());
-                sourceDictionary.fill(dictionaryMappings);
+    private LoadedIndex readAll(final IndexedClassPathLocation location) {
+        final List<URL> configsUrls = new ArrayList<>(readConfigsFromClassPath(location));
+        final var fingerprint =
+                this.snapshotStore == null || configsUrls.isEmpty()
+                        ? Optional.<String> empty()
+                        : this.snapshotStore.fingerprint(configsUrls);
+        if (fingerprint.isEmpty()) {
+            return this.indexLoader.load(configsUrls);
+        }
 
-                final var reversedDictionary = sourceDictionary.reversedDictionary();
+        return this.snapshotStore
+                    .load(fingerprint.get())
+                    .orElseGet(() -> {
+                        final var index = this.indexLoader.load(configsUrls);
+                        this.snapshotStore.store(fingerprint.get(), index);
+                        return index;
+                    });
+    }
 
-                while (line != null) {
-                    this.converter.fromString(line, reversedDictionary).ifPresent(result::add);
-                    line = configReader.readLine();
-                }
-            } catch (IOException e) {
-                throw new IndexedClassPathStorageException("Invalid config file provided: " + resourceUrl, e);
+    private Optional<List<ClassPathResource>> readLegacyIndex(final Path indexPath) throws IOException {
+        if (!Files.isRegularFile(indexPath) || Files.size(indexPath) == 0) {
+            return Optional.empty();
+        }
+
+        final var header = new byte[BinaryIndexFormat.HEADER_LENGTH];
+        final int headerLength;
+        try (final var input = Files.newInputStream(indexPath)) {
+            headerLength = input.readNBytes(header, 0, header.length);
+        }
+
+        if (BinaryIndexFormat.isBinary(header, headerLength)) {
+            return Optional.empty();
+        }
+
+        final List<ClassPathResource> result = new ArrayList<>();
+        try (final var reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+            this.textFormat.read(reader, result::add);
+        }
+
+        return Optional.of(result);
+    }
+
+    private static Path defaultSnapshotDir() {
+        final var snapshotDir = System.getProperty(SNAPSHOT_DIR_PROPERTY);
+        return snapshotDir == null || snapshotDir.isBlank() ? null : Path.of(snapshotDir);
+    }
+
+    private Collection<URL> readConfigsFromClassPath(final IndexedClassPathLocation location) {
+        final var classLoaders = location.getTargetClassLoaders();
+        final var configs = readConfigsFromClassPath(classLoaders, location.getLocation());
+        if (!IndexedClassPathLocation.INDEXED_RESOURCES_FILE.equals(location.getLocation())) {
+            return configs;
+        }
+
+        final var aggregatedConfigs = readConfigsFromClassPath(classLoaders, IndexedClassPathLocation.AGGREGATED_RESOURCES_FILE);
+        if (aggregatedConfigs.isEmpty()) {
+            return configs;
+        }
+
+        // the aggregated index replaces the indexes of the covered entries only
+        final var coveredEntries = readAggregatedEntries(classLoaders);
+        final List<URL> result = new ArrayList<>(aggregatedConfigs);
+        for (final var config : configs) {
+            if (!isCoveredByAggregatedIndex(config, location.getLocation(), coveredEntries)) {
+                result.add(config);
             }
         }
 
         return result;
     }
 
-    private Collection<URL> readConfigsFromClassPath(final IndexedClassPathLocation location) {
+    private boolean isCoveredByAggregatedIndex(
+            final URL configUrl,
+            final String location,
+            final Map<String, Set<String>> coveredEntries
+    ) {
+        // the names of the entries can be equal (like the classes directories of the modules), so the name
+        // only selects the entries whose indexes are compared by the digests
+        final var entryName = classPathEntryName(configUrl, location);
+        final var coveredDigests = entryName.map(coveredEntries::get).orElse(null);
+        if (coveredDigests == null) {
+            return false;
+        }
+
+        try {
+            return coveredDigests.contains(IndexFileDigest.compute(configUrl));
+        } catch (IndexedClassPathStorageException ex) {
+            // the index of the entry is read and the failure is reported then
+            return false;
+        }
+    }
+
+    private Map<String, Set<String>> readAggregatedEntries(final Set<ClassLoader> classLoaders) {
+        final Map<String, Set<String>> result = new HashMap<>();
+        for (final var entriesUrl : readConfigsFromClassPath(classLoaders, IndexedClassPathLocation.AGGREGATED_ENTRIES_FILE)) {
+            try (final var input = entriesUrl.openStream()) {
+                new String(input.readAllBytes(), StandardCharsets.UTF_8)
+                        .lines()
+                        .forEach(entry -> {
+                            final int separatorIndex = entry.indexOf(' ');
+                            if (separatorIndex > 0 && separatorIndex < entry.length() - 1) {
+                                result.computeIfAbsent(entry.substring(separatorIndex + 1), k -> new HashSet<>())
+                                        .add(entry.substring(0, separatorIndex));
+                            }
+                        });
+            } catch (IOException ex) {
+                throw new IndexedClassPathStorageException("Unable to read entries of aggregated index: " + entriesUrl, ex);
+            }
+        }
+
+        return result;
+    }
+
+    private Optional<String> classPathEntryName(final URL configUrl, final String location) {
+        try {
+            final var sourceFile = this.indexFileMapper.sourceFile(configUrl);
+            if (sourceFile.isEmpty()) {
+                return Optional.empty();
+            }
+
+            // the source file of the index of the directory entry is the index file itself
+            var entryPath = sourceFile.get();
+            if ("file".equals(configUrl.getProtocol())) {
+                for (int i = 0; i < Path.of(location).getNameCount() && entryPath != null; i++) {
+                    entryPath = entryPath.getParent();
+                }
+            }
+
+            final var entryName = entryPath == null ? null : entryPath.getFileName();
+            return entryName == null ? Optional.empty() : Optional.of(entryName.toString());
+        } catch (IOException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private Collection<URL> readConfigsFromClassPath(final Set<ClassLoader> classLoaders, final String location) {
         try {
             final Map<String, URL> result = new HashMap<>();
-            for (final var cl : location.getTargetClassLoaders()) {
-                Collections.list(cl.getResources(location.getLocation()))
+            for (final var cl : classLoaders) {
+                Collections.list(cl.getResources(location))
                             .forEach(r -> result.putIfAbsent(r.getFile(), r));
             }
 
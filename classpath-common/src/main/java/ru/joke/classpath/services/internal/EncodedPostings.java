@@ -0,0 +1,109 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.converters.VarInts;
+import ru.joke.classpath.services.IndexKey;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Postings of the segment of the {@link BinaryIndexFormat binary index} decoded on demand.<br>
+ * The encoded postings are kept as they are stored in the index (in the mapped buffer of the index file
+ * or in the compact copy of the read bytes) and decoded into the map of the ordinals on the first lookup,
+ * so the segments which are never searched by the keys don't allocate the postings at all.
+ * The encoded postings are released after the decoding. If the records of the segment were skipped,
+ * the ordinals of the postings are mapped to the ordinals of the read resources while decoding.
+ *
+ * @see BinaryIndexFormat
+ */
+final class EncodedPostings extends AbstractMap<IndexKey, int[]> {
+
+    private static final IndexKey.Kind[] keyKinds = IndexKey.Kind.values();
+
+    private final int count;
+    private ByteBuffer encodedPostings;
+    private String[] strings;
+    private int[] ordinalsMapping;
+    private volatile Map<IndexKey, int[]> decodedPostings;
+
+    EncodedPostings(
+            final ByteBuffer encodedPostings,
+            final int count,
+            final String[] strings,
+            final int[] ordinalsMapping
+    ) {
+        this.encodedPostings = encodedPostings;
+        this.count = count;
+        this.strings = strings;
+        this.ordinalsMapping = ordinalsMapping;
+    }
+
+    @Override
+    public int[] get(final Object key) {
+        return decoded().get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return decoded().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return decoded().size();
+    }
+
+    @Override
+    public Set<Entry<IndexKey, int[]>> entrySet() {
+        return decoded().entrySet();
+    }
+
+    private Map<IndexKey, int[]> decoded() {
+        Map<IndexKey, int[]> result;
+        if ((result = this.decodedPostings) == null) {
+            synchronized (this) {
+                if ((result = this.decodedPostings) == null) {
+                    this.decodedPostings = result = decode(this.encodedPostings.duplicate());
+                    this.encodedPostings = null;
+                    this.strings = null;
+                    this.ordinalsMapping = null;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private Map<IndexKey, int[]> decode(final ByteBuffer input) {
+        final Map<IndexKey, int[]> result = new HashMap<>(this.count * 4 / 3 + 1);
+        for (int i = 0; i < this.count; i++) {
+            final int kindOrdinal = input.get();
+            final var value = this.strings[VarInts.read(input)];
+
+            var ordinals = new int[VarInts.read(input)];
+            int ordinal = 0;
+            int ordinalsCount = 0;
+            for (int j = 0; j < ordinals.length; j++) {
+                ordinal += VarInts.read(input);
+                final int mappedOrdinal = this.ordinalsMapping == null ? ordinal : this.ordinalsMapping[ordinal];
+                if (mappedOrdinal >= 0) {
+                    ordinals[ordinalsCount++] = mappedOrdinal;
+                }
+            }
+
+            if (ordinalsCount < ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, ordinalsCount);
+            }
+
+            if (kindOrdinal >= 0 && kindOrdinal < keyKinds.length && ordinalsCount > 0) {
+                result.put(new IndexKey(keyKinds[kindOrdinal], value), ordinals);
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.converters.Dictionary;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dictionary of the text index used for encoding: maps the values to the ids.<br>
+ * The values without the mapping get the next free id on the first lookup. The ids are stored
+ * in the {@link StringIdMap open-addressing map} of the values and their string representations
+ * are created once per id.
+ *
+ * @see DecodingDictionary
+ */
+final class EncodingDictionary implements Dictionary {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final StringIdMap ids;
+    private String[] values;
+    private String[] idStrings;
+    private int nextId;
+
+    EncodingDictionary() {
+        this.ids = new StringIdMap(DEFAULT_CAPACITY);
+        this.values = new String[DEFAULT_CAPACITY];
+        this.idStrings = new String[DEFAULT_CAPACITY];
+    }
+
+    EncodingDictionary(final String[] values) {
+        this.ids = new StringIdMap(values.length);
+        this.values = values;
+        this.idStrings = new String[Math.max(1, values.length)];
+        for (int id = 0; id < values.length; id++) {
+            if (values[id] != null && this.ids.putIfAbsent(values[id], id) == StringIdMap.NO_ID) {
+                this.nextId = id + 1;
+            }
+        }
+    }
+
+    @Override
+    public String map(String str) {
+        if (str == null || str.isEmpty()) {
+            return str;
+        }
+
+        int id = this.ids.get(str);
+        if (id == StringIdMap.NO_ID) {
+            id = this.nextId;
+            addMapping(str, id);
+        }
+
+        return idString(id);
+    }
+
+    @Override
+    public void addMapping(String key, String value) {
+        final int id = DecodingDictionary.parseId(value, 0, value.length());
+        if (id < 0) {
+            throw new IllegalArgumentException("Id of the dictionary must be a non-negative int: " + value);
+        }
+
+        addMapping(key, id);
+    }
+
+    @Override
+    public Map<String, String> toMap() {
+        final Map<String, String> result = new LinkedHashMap<>(this.ids.size() * 2);
+        for (int id = 0; id < this.nextId; id++) {
+            if (this.values[id] != null) {
+                result.put(this.values[id], idString(id));
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public int size() {
+        return this.ids.size();
+    }
+
+    @Override
+    public Dictionary reversedDictionary() {
+        return new DecodingDictionary(Arrays.copyOf(this.values, this.nextId), this.ids.size());
+    }
+
+    private void addMapping(final String value, final int id) {
+        if (this.ids.putIfAbsent(value, id) != StringIdMap.NO_ID) {
+            return;
+        }
+
+        if (id >= this.values.length) {
+            this.values = Arrays.copyOf(this.values, Math.max(id + 1, this.values.length * 2));
+        }
+
+        this.values[id] = value;
+        this.nextId = Math.max(this.nextId, id + 1);
+    }
+
+    private String idString(final int id) {
+        if (id >= this.idStrings.length) {
+            this.idStrings = Arrays.copyOf(this.idStrings, Math.max(id + 1, this.idStrings.length * 2));
+        }
+
+        var result = this.idStrings[id];
+        if (result == null) {
+            this.idStrings[id] = result = String.valueOf(id);
+        }
+
+        return result;
+    }
+}
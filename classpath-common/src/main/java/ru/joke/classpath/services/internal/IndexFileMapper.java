@@ -0,0 +1,244 @@
+package ru.joke.classpath.services.internal;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+
+/**
+ * Maps the index files into memory without copying them to the heap.<br>
+ * Supported sources are files of the exploded class path directories ({@code file:} URLs) and
+ * entries of JAR files stored without compression ({@code jar:file:} URLs). For the other sources
+ * (compressed entries, remote JARs, ZIP64 archives etc.) the mapping isn't possible and the index
+ * has to be read from the stream.<br>
+ * The access to the mapped pages of the file truncated after the mapping fails with {@link InternalError}
+ * (or crashes the process on some platforms), so only the index files of the exploded directories are mapped:
+ * they must not be rewritten in place while the resources read from them are in use. The JAR files are often
+ * replaced in place (e.g. on the redeployment), so the stored JAR entries are only located via the mapped
+ * central directory and then copied to the heap; the change of the JAR file during this is reported
+ * as {@link IOException}.
+ */
+final class IndexFileMapper {
+
+    private static final String FILE_PROTOCOL = "file";
+    private static final String JAR_PROTOCOL = "jar";
+    private static final String JAR_ENTRY_SEPARATOR = "!/";
+
+    private static final int END_OF_CENTRAL_DIR_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIR_LENGTH = 22;
+    private static final int MAX_ARCHIVE_COMMENT_LENGTH = 0xFFFF;
+    private static final int CENTRAL_DIR_ENTRY_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_DIR_ENTRY_LENGTH = 46;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_LENGTH = 30;
+    private static final long ZIP64_MARKER = 0xFFFFFFFFL;
+
+    /**
+     * Maps the index located by the given URL into memory; the stored entries of the JAR files are read
+     * directly via the channel of the JAR file instead.
+     *
+     * @param indexUrl URL of the index; cannot be {@code null}.
+     * @return content of the index or empty if the index can't be mapped or read directly; cannot be {@code null}.
+     * @throws IOException if the index can't be read
+     */
+    Optional<ByteBuffer> map(final URL indexUrl) throws IOException {
+        return switch (indexUrl.getProtocol()) {
+            case FILE_PROTOCOL -> mapFile(indexUrl);
+            case JAR_PROTOCOL -> mapJarEntry(indexUrl);
+            default -> Optional.empty();
+        };
+    }
+
+    /**
+     * Returns the file containing the index located by the given URL: the index file itself
+     * for the {@code file:} URLs and the JAR file for the {@code jar:file:} URLs.
+     *
+     * @param indexUrl URL of the index; cannot be {@code null}.
+     * @return file containing the index or empty if the index isn't stored in the local file; cannot be {@code null}.
+     * @throws IOException if the URL can't be resolved
+     */
+    Optional<Path> sourceFile(final URL indexUrl) throws IOException {
+        return switch (indexUrl.getProtocol()) {
+            case FILE_PROTOCOL -> toPath(indexUrl);
+            case JAR_PROTOCOL -> jarEntry(indexUrl).flatMap(JarEntryLocation::jarPath);
+            default -> Optional.empty();
+        };
+    }
+
+    private Optional<ByteBuffer> mapFile(final URL indexUrl) throws IOException {
+        final var path = toPath(indexUrl);
+        if (path.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try (final var channel = FileChannel.open(path.get(), StandardOpenOption.READ)) {
+            return Optional.of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private Optional<ByteBuffer> mapJarEntry(final URL indexUrl) throws IOException {
+        final var entry = jarEntry(indexUrl);
+        final var jarPath = entry.flatMap(JarEntryLocation::jarPath);
+        if (jarPath.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // the JAR file is opened once: the entry is found in the central directory and its data is mapped
+        // via the same channel, the JAR file isn't opened via the URL connection since it isn't closed by it
+        try (final var channel = FileChannel.open(jarPath.get(), StandardOpenOption.READ)) {
+            return mapStoredEntry(channel, entry.get().entryName());
+        }
+    }
+
+    private Optional<ByteBuffer> mapStoredEntry(final FileChannel channel, final String entryName) throws IOException {
+        try {
+            return readStoredEntry(channel, entryName);
+        } catch (InternalError ex) {
+            // the mapped central directory is truncated by the concurrent rewrite of the JAR file
+            throw new IOException("JAR file is changed while reading the entry: " + entryName, ex);
+        }
+    }
+
+    private Optional<ByteBuffer> readStoredEntry(final FileChannel channel, final String entryName) throws IOException {
+        final long fileSize = channel.size();
+        final int tailLength = (int) Math.min(fileSize, END_OF_CENTRAL_DIR_LENGTH + MAX_ARCHIVE_COMMENT_LENGTH);
+        final var tail = read(channel, fileSize - tailLength, tailLength);
+
+        int endOfCentralDirPos = -1;
+        for (int i = tailLength - END_OF_CENTRAL_DIR_LENGTH; i >= 0; i--) {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIR_SIGNATURE) {
+                endOfCentralDirPos = i;
+                break;
+            }
+        }
+
+        if (endOfCentralDirPos < 0) {
+            return Optional.empty();
+        }
+
+        final long centralDirSize = Integer.toUnsignedLong(tail.getInt(endOfCentralDirPos + 12));
+        final long centralDirOffset = Integer.toUnsignedLong(tail.getInt(endOfCentralDirPos + 16));
+        if (centralDirOffset + centralDirSize > fileSize || centralDirSize > Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+
+        // the central directory is scanned in the mapped buffer without copying it to the heap
+        final var centralDir = channel.map(FileChannel.MapMode.READ_ONLY, centralDirOffset, centralDirSize).order(ByteOrder.LITTLE_ENDIAN);
+        final var entryNameBytes = entryName.getBytes(StandardCharsets.UTF_8);
+
+        int pos = 0;
+        while (pos + CENTRAL_DIR_ENTRY_LENGTH <= centralDirSize && centralDir.getInt(pos) == CENTRAL_DIR_ENTRY_SIGNATURE) {
+            final int nameLength = Short.toUnsignedInt(centralDir.getShort(pos + 28));
+            final int extraLength = Short.toUnsignedInt(centralDir.getShort(pos + 30));
+            final int commentLength = Short.toUnsignedInt(centralDir.getShort(pos + 32));
+
+            if (nameLength == entryNameBytes.length && equalsAt(centralDir, pos + CENTRAL_DIR_ENTRY_LENGTH, entryNameBytes)) {
+                final int method = Short.toUnsignedInt(centralDir.getShort(pos + 10));
+                final long compressedSize = Integer.toUnsignedLong(centralDir.getInt(pos + 20));
+                final long size = Integer.toUnsignedLong(centralDir.getInt(pos + 24));
+                final long localHeaderOffset = Integer.toUnsignedLong(centralDir.getInt(pos + 42));
+                if (method != ZipEntry.STORED || size != compressedSize || size > Integer.MAX_VALUE || localHeaderOffset == ZIP64_MARKER) {
+                    return Optional.empty();
+                }
+
+                final long dataOffset = findDataOffset(channel, localHeaderOffset);
+                if (dataOffset < 0 || dataOffset + size > fileSize) {
+                    return Optional.empty();
+                }
+
+                final var content = read(channel, dataOffset, (int) size);
+                if (content.remaining() != size) {
+                    throw new IOException("JAR file is truncated while reading the entry: " + entryName);
+                }
+
+                return Optional.of(content.order(ByteOrder.BIG_ENDIAN));
+            }
+
+            pos += CENTRAL_DIR_ENTRY_LENGTH + nameLength + extraLength + commentLength;
+        }
+
+        return Optional.empty();
+    }
+
+    private long findDataOffset(final FileChannel channel, final long localHeaderOffset) throws IOException {
+        final var localHeader = read(channel, localHeaderOffset, LOCAL_HEADER_LENGTH);
+        if (localHeader.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            return -1;
+        }
+
+        final int nameLength = Short.toUnsignedInt(localHeader.getShort(26));
+        final int extraLength = Short.toUnsignedInt(localHeader.getShort(28));
+        return localHeaderOffset + LOCAL_HEADER_LENGTH + nameLength + extraLength;
+    }
+
+    private boolean equalsAt(final ByteBuffer buffer, final int offset, final byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private ByteBuffer read(final FileChannel channel, final long position, final int length) throws IOException {
+        final var buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    private Optional<JarEntryLocation> jarEntry(final URL indexUrl) throws IOException {
+        final var spec = indexUrl.getFile();
+        final int separatorIndex = spec.indexOf(JAR_ENTRY_SEPARATOR);
+        if (separatorIndex < 0) {
+            return Optional.empty();
+        }
+
+        final var jarFileUrl = new URL(spec.substring(0, separatorIndex));
+        final var entryName = decode(spec.substring(separatorIndex + JAR_ENTRY_SEPARATOR.length()));
+        return Optional.of(new JarEntryLocation(jarFileUrl, entryName));
+    }
+
+    private String decode(final String entryName) {
+        // the plus sign isn't an escaped space in the URLs
+        return entryName.indexOf('%') < 0
+                ? entryName
+                : URLDecoder.decode(entryName.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private Optional<Path> toPath(final URL url) {
+        try {
+            return Optional.of(Path.of(url.toURI()));
+        } catch (URISyntaxException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private record JarEntryLocation(URL jarFileUrl, String entryName) {
+
+        private Optional<Path> jarPath() {
+            if (!FILE_PROTOCOL.equals(this.jarFileUrl.getProtocol())) {
+                return Optional.empty();
+            }
+
+            try {
+                return Optional.of(Path.of(this.jarFileUrl.toURI()));
+            } catch (URISyntaxException | IllegalArgumentException ex) {
+                return Optional.empty();
+            }
+        }
+    }
+}
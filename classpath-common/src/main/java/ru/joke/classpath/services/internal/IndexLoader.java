@@ -0,0 +1,147 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.IndexedClassPathStorageException;
+import ru.joke.classpath.services.DefaultExecutors;
+import ru.joke.classpath.services.InvertedIndex;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Loads the index files located by the URLs as a pipeline: the content of each index file is read
+ * (mapped into memory or read from the stream) by the reading executor and then parsed by the parsing
+ * executor, so the reading of the files (inflation of the compressed JAR entries) and the parsing of the
+ * already read files proceed concurrently. Each file is loaded into its own partial list of the segments,
+ * the partial lists are merged in the order of the URLs after all files are loaded.<br>
+ * By default, the files are read on the virtual threads if they are supported by the runtime
+ * and on the cached pool of the daemon threads otherwise; the files are parsed on the common fork-join pool.
+ * A single index file is loaded on the calling thread.
+ */
+final class IndexLoader {
+
+    private static final Executor defaultReadingExecutor = createDefaultReadingExecutor();
+
+    private final TextIndexFormat textFormat;
+    private final BinaryIndexFormat binaryFormat;
+    private final IndexFileMapper indexFileMapper;
+    private final Executor readingExecutor;
+    private final Executor parsingExecutor;
+
+    IndexLoader(
+            final TextIndexFormat textFormat,
+            final BinaryIndexFormat binaryFormat,
+            final Executor readingExecutor
+    ) {
+        this(textFormat, binaryFormat, readingExecutor, ForkJoinPool.commonPool());
+    }
+
+    IndexLoader(
+            final TextIndexFormat textFormat,
+            final BinaryIndexFormat binaryFormat,
+            final Executor readingExecutor,
+            final Executor parsingExecutor
+    ) {
+        this.textFormat = textFormat;
+        this.binaryFormat = binaryFormat;
+        this.indexFileMapper = new IndexFileMapper();
+        this.readingExecutor = readingExecutor == null ? defaultReadingExecutor : readingExecutor;
+        this.parsingExecutor = parsingExecutor;
+    }
+
+    LoadedIndex load(final List<URL> indexUrls) {
+        if (indexUrls.size() == 1) {
+            final var indexUrl = indexUrls.get(0);
+            return new LoadedIndex(parse(indexUrl, read(indexUrl)));
+        }
+
+        final List<CompletableFuture<List<InvertedIndex>>> tasks = new ArrayList<>(indexUrls.size());
+        for (final var indexUrl : indexUrls) {
+            final var task =
+                    CompletableFuture.supplyAsync(() -> read(indexUrl), this.readingExecutor)
+                                        .thenApplyAsync(content -> parse(indexUrl, content), this.parsingExecutor);
+            tasks.add(task);
+        }
+
+        final List<InvertedIndex> result = new ArrayList<>();
+        for (final var task : tasks) {
+            result.addAll(join(task));
+        }
+
+        return new LoadedIndex(result);
+    }
+
+    private ByteBuffer read(final URL indexUrl) {
+        try {
+            final var mappedIndex = this.indexFileMapper.map(indexUrl);
+            if (mappedIndex.isPresent()) {
+                return mappedIndex.get();
+            }
+
+            try (final var indexStream = indexUrl.openStream()) {
+                return ByteBuffer.wrap(indexStream.readAllBytes());
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IndexedClassPathStorageException("Invalid config file provided: " + indexUrl, e);
+        }
+    }
+
+    private List<InvertedIndex> parse(final URL indexUrl, final ByteBuffer content) {
+        try {
+            final List<InvertedIndex> result = new ArrayList<>();
+            if (isBinaryFormat(content)) {
+                this.binaryFormat.read(content, result::add);
+            } else {
+                final var bytes = new byte[content.remaining()];
+                content.get(content.position(), bytes);
+
+                final var configReader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+                final List<ClassPathResource> resources = new ArrayList<>();
+                this.textFormat.read(configReader, resources::add);
+
+                result.add(new InvertedIndex(resources.toArray(new ClassPathResource[0]), null));
+            }
+
+            return result;
+        } catch (IOException | RuntimeException e) {
+            throw new IndexedClassPathStorageException("Invalid config file provided: " + indexUrl, e);
+        } catch (InternalError e) {
+            // the mapped index file is truncated after the mapping
+            throw new IndexedClassPathStorageException(
+                    "Invalid config file provided: " + indexUrl,
+                    new IOException("Index file is changed while reading", e)
+            );
+        }
+    }
+
+    private boolean isBinaryFormat(final ByteBuffer content) {
+        final var header = new byte[Math.min(BinaryIndexFormat.HEADER_LENGTH, content.remaining())];
+        content.get(content.position(), header);
+
+        return BinaryIndexFormat.isBinary(header, header.length);
+    }
+
+    private List<InvertedIndex> join(final CompletableFuture<List<InvertedIndex>> task) {
+        try {
+            return task.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            } else if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+
+            throw ex;
+        }
+    }
+
+    private static Executor createDefaultReadingExecutor() {
+        return DefaultExecutors.newVirtualThreadPerTaskExecutor()
+                                .orElseGet(() -> Executors.newCachedThreadPool(DefaultExecutors.daemonThreadFactory("classpath-index-reader")));
+    }
+}
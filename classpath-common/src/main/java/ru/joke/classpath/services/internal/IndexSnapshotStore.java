@@ -0,0 +1,137 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.services.InvertedIndex;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Persistent snapshots of the merged indexes.<br>
+ * The snapshot contains all the distinct resources of the index files located by the set of the URLs
+ * written as one segment of the {@link BinaryIndexFormat binary format}. The snapshot is stored in the
+ * cache directory in the file named by the fingerprint of the index files: the SHA-256 digest of the URLs
+ * of the index files with the sizes and the modification times of the files containing them (the JAR
+ * files for the index entries of the JAR files). So the snapshot is found again only for the identical
+ * class path and is loaded instead of the index files by mapping the snapshot file into memory.<br>
+ * The fingerprint can be computed only for the index files stored in the local files; the snapshot
+ * is an optimization only, so the failures of the writing of the snapshot are ignored and the invalid
+ * snapshot is deleted.
+ */
+final class IndexSnapshotStore {
+
+    private static final String SNAPSHOT_FILE_EXTENSION = ".cpix";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Path cacheDir;
+    private final BinaryIndexFormat binaryFormat;
+    private final IndexFileMapper indexFileMapper;
+
+    IndexSnapshotStore(final Path cacheDir, final BinaryIndexFormat binaryFormat) {
+        this.cacheDir = cacheDir;
+        this.binaryFormat = binaryFormat;
+        this.indexFileMapper = new IndexFileMapper();
+    }
+
+    /**
+     * Computes the fingerprint of the index files located by the given URLs.
+     *
+     * @param indexUrls URLs of the index files; cannot be {@code null}.
+     * @return fingerprint of the index files or empty if any of the files isn't stored in the local file; cannot be {@code null}.
+     */
+    Optional<String> fingerprint(final Collection<URL> indexUrls) {
+        final var sortedUrls = indexUrls
+                                    .stream()
+                                    .sorted(Comparator.comparing(URL::toExternalForm))
+                                    .toList();
+        try {
+            final var digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            digest.update(BinaryIndexFormat.VERSION);
+
+            for (final var indexUrl : sortedUrls) {
+                final var sourceFile = this.indexFileMapper.sourceFile(indexUrl);
+                if (sourceFile.isEmpty()) {
+                    return Optional.empty();
+                }
+
+                digest.update(indexUrl.toExternalForm().getBytes(StandardCharsets.UTF_8));
+                digest.update(
+                        ByteBuffer.allocate(Long.BYTES * 2)
+                                    .putLong(Files.size(sourceFile.get()))
+                                    .putLong(Files.getLastModifiedTime(sourceFile.get()).toMillis())
+                                    .array()
+                );
+            }
+
+            return Optional.of(HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException | NoSuchAlgorithmException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Loads the snapshot with the given fingerprint.
+     *
+     * @param fingerprint fingerprint of the index files; cannot be {@code null}.
+     * @return loaded snapshot or empty if there is no valid snapshot with the fingerprint; cannot be {@code null}.
+     */
+    Optional<LoadedIndex> load(final String fingerprint) {
+        final var snapshotFile = snapshotFile(fingerprint);
+        if (!Files.isRegularFile(snapshotFile)) {
+            return Optional.empty();
+        }
+
+        try (final var channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            final var snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final List<InvertedIndex> segments = new ArrayList<>(1);
+            this.binaryFormat.read(snapshot, segments::add);
+
+            return Optional.of(new LoadedIndex(segments));
+        } catch (IOException | RuntimeException ex) {
+            deleteQuietly(snapshotFile);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the merged index as the snapshot with the given fingerprint.
+     *
+     * @param fingerprint fingerprint of the index files; cannot be {@code null}.
+     * @param index       merged index; cannot be {@code null}.
+     */
+    void store(final String fingerprint, final LoadedIndex index) {
+        final var snapshotFile = snapshotFile(fingerprint);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(this.cacheDir);
+            tempFile = Files.createTempFile(this.cacheDir, fingerprint, null);
+            Files.write(tempFile, this.binaryFormat.write(index.all()));
+            // the readers of the concurrently running processes see either no snapshot or the whole snapshot
+            Files.move(tempFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException ex) {
+            if (tempFile != null) {
+                deleteQuietly(tempFile);
+            }
+        }
+    }
+
+    private Path snapshotFile(final String fingerprint) {
+        return this.cacheDir.resolve(fingerprint + SNAPSHOT_FILE_EXTENSION);
+    }
+
+    private void deleteQuietly(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.services.IndexedClassPathLocation;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of the resources read from the index, keyed by the location and the set of
+ * target class loaders. Values are softly referenced, class loaders are referenced weakly.
+ *
+ * @param <V> type of the cached resources
+ */
+final class IndexedResourcesCache<V> {
+
+    private final Map<Key, Entry<V>> entries;
+
+    IndexedResourcesCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size of the cache must be positive: " + maxSize);
+        }
+
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    V get(
+            final IndexedClassPathLocation location,
+            final Function<IndexedClassPathLocation, V> loader
+    ) {
+        final var key = new Key(location.getLocation(), location.getTargetClassLoaders());
+
+        final Entry<V> entry;
+        synchronized (this.entries) {
+            entry = this.entries.computeIfAbsent(key, k -> new Entry<>());
+        }
+
+        return entry.get(location, loader);
+    }
+
+    void invalidate(final IndexedClassPathLocation location) {
+        final var key = new Key(location.getLocation(), location.getTargetClassLoaders());
+        synchronized (this.entries) {
+            this.entries.remove(key);
+        }
+    }
+
+    void invalidateAll() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private volatile SoftReference<V> resources = new SoftReference<>(null);
+
+        private V get(
+                final IndexedClassPathLocation location,
+                final Function<IndexedClassPathLocation, V> loader
+        ) {
+            V result;
+            if ((result = this.resources.get()) == null) {
+                synchronized (this) {
+                    if ((result = this.resources.get()) == null) {
+                        result = loader.apply(location);
+                        this.resources = new SoftReference<>(result);
+                    }
+                }
+            }
+
+            return result;
+        }
+    }
+
+    private static final class Key {
+
+        private final String location;
+        private final List<WeakReference<ClassLoader>> classLoaders;
+        private final int hash;
+
+        private Key(final String location, final Set<ClassLoader> classLoaders) {
+            this.location = location;
+            this.classLoaders = new ArrayList<>(classLoaders.size());
+
+            int loadersHash = 0;
+            for (final var loader : classLoaders) {
+                this.classLoaders.add(new WeakReference<>(loader));
+                loadersHash += System.identityHashCode(loader);
+            }
+
+            this.hash = 31 * location.hashCode() + loadersHash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key that)
+                    || this.hash != that.hash
+                    || !this.location.equals(that.location)
+                    || this.classLoaders.size() != that.classLoaders.size()) {
+                return false;
+            }
+
+            for (final var loaderRef : this.classLoaders) {
+                final var loader = loaderRef.get();
+                if (loader == null || !that.contains(loader)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        private boolean contains(final ClassLoader loader) {
+            for (final var loaderRef : this.classLoaders) {
+                if (loaderRef.get() == loader) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
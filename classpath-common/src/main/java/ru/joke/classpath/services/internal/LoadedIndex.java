@@ -0,0 +1,103 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.ClassPathResources;
+import ru.joke.classpath.IndexedClassPathResources;
+import ru.joke.classpath.services.IndexKey;
+import ru.joke.classpath.services.InvertedIndex;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Segments of all the index files read from one location.
+ */
+final class LoadedIndex {
+
+    private final List<InvertedIndex> segments;
+    private volatile ClassPathResources allResources;
+
+    LoadedIndex(final List<InvertedIndex> segments) {
+        this.segments = List.copyOf(segments);
+    }
+
+    ClassPathResources all() {
+        ClassPathResources result;
+        if ((result = this.allResources) == null) {
+            final var resources = new IndexedClassPathResources();
+            this.segments.forEach(segment -> segment.forEach(resources::add));
+            this.allResources = result = resources;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the sequential stream of the distinct resources of the index. The stream takes the resources
+     * from the already loaded segments lazily; the size of the stream is known if the resources are already collected
+     * or the index consists of the single segment of the binary format, which has no duplicates.
+     *
+     * @return stream of the resources; cannot be {@code null}.
+     */
+    Stream<ClassPathResource> stream() {
+        final var resources = this.allResources;
+        if (resources != null) {
+            return resources.stream();
+        }
+
+        return distinct(StreamSupport.stream(new SegmentsSpliterator(this.segments), false));
+    }
+
+    /**
+     * Returns the sequential stream of the distinct resources of the index having the required keys.
+     * The candidates of each segment are found by the postings of the segment when the stream reaches the segment.
+     *
+     * @param requiredKeys required keys of the inverted index; cannot be {@code null}.
+     * @return stream of the resources; cannot be {@code null}.
+     */
+    Stream<ClassPathResource> stream(final Collection<Set<IndexKey>> requiredKeys) {
+        if (requiredKeys.isEmpty()) {
+            return stream();
+        }
+
+        final var result =
+                this.segments
+                        .stream()
+                        .flatMap(segment ->
+                                segment.candidateOrdinals(requiredKeys)
+                                        .mapToObj(segment::resource)
+                                        .filter(Objects::nonNull)
+                        );
+        return distinct(result);
+    }
+
+    private Stream<ClassPathResource> distinct(final Stream<ClassPathResource> resources) {
+        return this.segments.isEmpty() || this.segments.size() == 1 && this.segments.get(0).hasPostings()
+                ? resources
+                : resources.distinct();
+    }
+
+    ClassPathResources find(
+            final Collection<Set<IndexKey>> requiredKeys,
+            final Predicate<ClassPathResource> filter
+    ) {
+        final var result = new IndexedClassPathResources();
+        for (final var segment : this.segments) {
+            segment.forEachCandidate(
+                    requiredKeys,
+                    resource -> {
+                        if (filter.test(resource)) {
+                            result.add(resource);
+                        }
+                    }
+            );
+        }
+
+        return result;
+    }
+}
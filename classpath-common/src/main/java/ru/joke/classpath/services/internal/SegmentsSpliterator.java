@@ -0,0 +1,177 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.services.InvertedIndex;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the resources of the segments of the index in the order of the segments and the ordinals.<br>
+ * The resources are taken from the segments one by one on demand, so the traversal can be stopped
+ * after any resource without visiting the rest of the segments. While the spliterator covers the whole
+ * segments, its size is exact ({@link #SIZED}); the spliterator is split by the segments and the last
+ * segment is split by the ranges of the ordinals, the spliterators covering the ranges report only
+ * the estimated size since the ranges can contain the unsupported resources. The size of the segments is computed
+ * only when it is requested, so the traversal without the size doesn't count the resources of the segments.
+ */
+final class SegmentsSpliterator implements Spliterator<ClassPathResource> {
+
+    private static final int MIN_SPLIT_ORDINALS = 1024;
+    private static final long UNKNOWN_SIZE = -1;
+
+    private final List<InvertedIndex> segments;
+    private final int segmentsFence;
+    private int segmentIndex;
+    private int ordinal;
+    private int ordinalsFence;
+    private long size;
+    private boolean sized;
+    private int firstSegmentIndex;
+    private long traversed;
+
+    SegmentsSpliterator(final List<InvertedIndex> segments) {
+        this(segments, 0, segments.size(), 0, segments.isEmpty() ? 0 : segments.get(0).ordinalsBound(), UNKNOWN_SIZE, true);
+    }
+
+    private SegmentsSpliterator(
+            final List<InvertedIndex> segments,
+            final int segmentIndex,
+            final int segmentsFence,
+            final int ordinal,
+            final int ordinalsFence,
+            final long size,
+            final boolean sized
+    ) {
+        this.segments = segments;
+        this.segmentIndex = segmentIndex;
+        this.segmentsFence = segmentsFence;
+        this.ordinal = ordinal;
+        this.ordinalsFence = ordinalsFence;
+        this.size = size;
+        this.sized = sized;
+        this.firstSegmentIndex = segmentIndex;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super ClassPathResource> action) {
+        while (this.segmentIndex < this.segmentsFence) {
+            final var segment = this.segments.get(this.segmentIndex);
+            while (this.ordinal < this.ordinalsFence) {
+                final var resource = segment.resource(this.ordinal++);
+                if (resource != null) {
+                    if (this.size == UNKNOWN_SIZE) {
+                        this.traversed++;
+                    } else {
+                        this.size--;
+                    }
+
+                    action.accept(resource);
+                    return true;
+                }
+            }
+
+            if (++this.segmentIndex < this.segmentsFence) {
+                this.ordinal = 0;
+                this.ordinalsFence = this.segments.get(this.segmentIndex).ordinalsBound();
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super ClassPathResource> action) {
+        while (this.segmentIndex < this.segmentsFence) {
+            final var segment = this.segments.get(this.segmentIndex);
+            for (int i = this.ordinal; i < this.ordinalsFence; i++) {
+                final var resource = segment.resource(i);
+                if (resource != null) {
+                    action.accept(resource);
+                }
+            }
+
+            if (++this.segmentIndex < this.segmentsFence) {
+                this.ordinal = 0;
+                this.ordinalsFence = this.segments.get(this.segmentIndex).ordinalsBound();
+            }
+        }
+
+        this.ordinal = this.ordinalsFence;
+        this.size = 0;
+    }
+
+    @Override
+    public Spliterator<ClassPathResource> trySplit() {
+        final int remainingSegments = this.segmentsFence - this.segmentIndex;
+        if (remainingSegments > 1 && this.ordinal == 0) {
+            final int middle = this.segmentIndex + remainingSegments / 2;
+            // the sizes of the parts aren't computed until they are requested
+            final long prefixSize = this.size == UNKNOWN_SIZE ? UNKNOWN_SIZE : sizeOf(this.segments, this.segmentIndex, middle);
+            final var prefix = new SegmentsSpliterator(
+                    this.segments,
+                    this.segmentIndex,
+                    middle,
+                    0,
+                    this.ordinalsFence,
+                    prefixSize,
+                    this.sized
+            );
+
+            this.segmentIndex = middle;
+            this.firstSegmentIndex = middle;
+            this.traversed = 0;
+            this.ordinalsFence = this.segments.get(middle).ordinalsBound();
+            if (prefixSize != UNKNOWN_SIZE) {
+                this.size -= prefixSize;
+            }
+
+            return prefix;
+        } else if (remainingSegments == 1 && this.ordinalsFence - this.ordinal >= MIN_SPLIT_ORDINALS) {
+            final int middle = (this.ordinal + this.ordinalsFence) >>> 1;
+            final long prefixSize = estimateSize() / 2;
+            final var prefix = new SegmentsSpliterator(
+                    this.segments,
+                    this.segmentIndex,
+                    this.segmentsFence,
+                    this.ordinal,
+                    middle,
+                    prefixSize,
+                    false
+            );
+
+            this.ordinal = middle;
+            this.size -= prefixSize;
+            this.sized = false;
+            return prefix;
+        }
+
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        if (this.size == UNKNOWN_SIZE) {
+            this.size = sizeOf(this.segments, this.firstSegmentIndex, this.segmentsFence) - this.traversed;
+        }
+
+        return this.size;
+    }
+
+    @Override
+    public int characteristics() {
+        return this.sized
+                ? ORDERED | NONNULL | IMMUTABLE | SIZED
+                : ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    private static long sizeOf(final List<InvertedIndex> segments, final int from, final int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result += segments.get(i).size();
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.joke.classpath.services.internal;
+
+/**
+ * Open-addressing hash map of the strings to their non-negative int ids.<br>
+ * The keys and the ids are stored in the parallel arrays and probed linearly, so the lookups
+ * and the insertions don't box the ids and don't allocate the entries. The mappings can't be removed.
+ */
+final class StringIdMap {
+
+    static final int NO_ID = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] keys;
+    private int[] ids;
+    private int size;
+
+    StringIdMap(final int expectedSize) {
+        final int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1);
+        this.keys = new String[capacity];
+        this.ids = new int[capacity];
+    }
+
+    /**
+     * Returns the id of the given key.
+     *
+     * @param key key; cannot be {@code null}.
+     * @return id of the key or {@link #NO_ID} if there is no mapping for the key.
+     */
+    int get(final String key) {
+        final int mask = this.keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            final var candidate = this.keys[i];
+            if (candidate == null) {
+                return NO_ID;
+            } else if (candidate.equals(key)) {
+                return this.ids[i];
+            }
+        }
+    }
+
+    /**
+     * Maps the given key to the given id if there is no mapping for the key yet.
+     *
+     * @param key key; cannot be {@code null}.
+     * @param id  non-negative id.
+     * @return previous id of the key or {@link #NO_ID} if the key is mapped to the given id.
+     */
+    int putIfAbsent(final String key, final int id) {
+        final int mask = this.keys.length - 1;
+        int i = hash(key) & mask;
+        for (var candidate = this.keys[i]; candidate != null; candidate = this.keys[i = (i + 1) & mask]) {
+            if (candidate.equals(key)) {
+                return this.ids[i];
+            }
+        }
+
+        this.keys[i] = key;
+        this.ids[i] = id;
+        // the load factor is kept not greater than 0.5
+        if (++this.size * 2 > this.keys.length) {
+            resize();
+        }
+
+        return NO_ID;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    private void resize() {
+        final var oldKeys = this.keys;
+        final var oldIds = this.ids;
+
+        this.keys = new String[oldKeys.length * 2];
+        this.ids = new int[oldIds.length * 2];
+
+        final int mask = this.keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            final var key = oldKeys[j];
+            if (key == null) {
+                continue;
+            }
+
+            int i = hash(key) & mask;
+            while (this.keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+
+            this.keys[i] = key;
+            this.ids[i] = oldIds[j];
+        }
+    }
+
+    private static int hash(final String key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
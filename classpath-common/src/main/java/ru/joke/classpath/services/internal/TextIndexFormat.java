@@ -0,0 +1,63 @@
+package ru.joke.classpath.services.internal;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.ClassPathResources;
+import ru.joke.classpath.converters.ClassPathResourceConverter;
+import ru.joke.classpath.converters.Dictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Text (v1) format of the index: {@code key:value} lines of the dictionary, the {@link #DICTIONARY_SEPARATOR}
+ * line and then the lines of the resources converted by {@link ClassPathResourceConverter}.
+ * The keys of the dictionary are the values and the values of the dictionary are their int ids.
+ *
+ * @see EncodingDictionary
+ * @see DecodingDictionary
+ */
+final class TextIndexFormat {
+
+    static final String DICTIONARY_SEPARATOR = "#####";
+
+    private final ClassPathResourceConverter<ClassPathResource> converter;
+
+    TextIndexFormat(final ClassPathResourceConverter<ClassPathResource> converter) {
+        this.converter = converter;
+    }
+
+    String write(final ClassPathResources resources) {
+        final var dictionary = new EncodingDictionary();
+
+        final var resourcesOutputData =
+                resources
+                        .stream()
+                        .map(resource -> this.converter.toString(resource, dictionary))
+                        .collect(Collectors.joining(System.lineSeparator()));
+
+        return Dictionary.toString(dictionary, System.lineSeparator())
+                + DICTIONARY_SEPARATOR
+                + System.lineSeparator()
+                + resourcesOutputData;
+    }
+
+    void read(
+            final BufferedReader configReader,
+            final Consumer<ClassPathResource> resourceConsumer
+    ) throws IOException {
+        final var dictionary = new DecodingDictionary();
+
+        var line = configReader.readLine();
+        while (line != null && !line.equals(DICTIONARY_SEPARATOR)) {
+            dictionary.addMapping(line);
+            line = configReader.readLine();
+        }
+
+        while (line != null) {
+            this.converter.fromString(line, dictionary).ifPresent(resourceConsumer);
+            line = configReader.readLine();
+        }
+    }
+}
@@ -3,7 +3,14 @@ package ru.joke.classpath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 
 class IndexedClassPathResourcesTest {
@@ -46,4 +53,102 @@ class IndexedClassPathResourcesTest {
         assertNotNull(coll.any(), "Selection result must be not null");
         assertTrue(coll.any().isEmpty(), "Item must not present");
     }
+
+    @Test
+    void testUnmodifiableView() {
+        final var view = ClassPathResources.unmodifiable(this.resources);
+
+        assertEquals(this.resources, view, "View must be equal to the resources");
+        assertEquals(view, this.resources, "Resources must be equal to the view");
+        assertTrue(view.contains(this.data1), "View must contain resource");
+        assertTrue(view.any().isPresent(), "Selected item must present");
+        assertSame(view, ClassPathResources.unmodifiable(view), "View must not be wrapped twice");
+        assertThrows(UnsupportedOperationException.class, () -> view.add(mock(ClassPathResource.class)));
+        assertThrows(UnsupportedOperationException.class, view::clear);
+    }
+
+    @Test
+    void testLoadClasses() throws Exception {
+        final var loader = getClass().getClassLoader();
+        final var classResource1 = createClassResource(loader, String.class);
+        final var classResource2 = createClassResource(loader, Integer.class);
+        this.resources.add(classResource1);
+        this.resources.add(classResource2);
+
+        final var executor = Executors.newFixedThreadPool(2);
+        try {
+            final var classes = this.resources.loadClasses(loader, executor);
+
+            assertEquals(2, classes.size(), "Classes of class resources only must be loaded");
+            assertSame(String.class, classes.get(classResource1), "Class of resource must be loaded");
+            assertSame(Integer.class, classes.get(classResource2), "Class of resource must be loaded");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testLoadClassesWhenSomeClassesNotFound() throws Exception {
+        final var loader = getClass().getClassLoader();
+        final var classResource = createClassResource(loader, String.class);
+        final var notFoundClassResource1 = mock(ClassResource.class);
+        final var notFoundClassResource2 = mock(ClassResource.class);
+        final var error1 = new ClassNotFoundException("1");
+        final var error2 = new NoClassDefFoundError("2");
+        doThrow(error1).when(notFoundClassResource1).asClass(loader);
+        doThrow(error2).when(notFoundClassResource2).asClass(loader);
+        this.resources.add(classResource);
+        this.resources.add(notFoundClassResource1);
+        this.resources.add(notFoundClassResource2);
+
+        final var ex = assertThrows(IndexedClassPathException.class, () -> this.resources.loadClasses(loader, Runnable::run));
+        final var suppressed = List.of(ex.getSuppressed());
+        assertEquals(2, suppressed.size(), "Errors of all failed classes must be reported");
+        assertTrue(suppressed.contains(error1), "Error of class must be reported");
+        assertTrue(suppressed.contains(error2), "Error of class must be reported");
+    }
+
+    @Test
+    void testLoadClassesFromTaskOfSameSingleThreadExecutor() throws Exception {
+        final var loader = getClass().getClassLoader();
+        final var classResource1 = createClassResource(loader, String.class);
+        final var classResource2 = createClassResource(loader, Integer.class);
+        final var classResource3 = createClassResource(loader, Long.class);
+        this.resources.add(classResource1);
+        this.resources.add(classResource2);
+        this.resources.add(classResource3);
+
+        final var executor = Executors.newSingleThreadExecutor();
+        try {
+            // the workers can't be started while the calling task occupies the only thread of the executor
+            final var classes = executor.submit(() -> this.resources.loadClasses(loader, executor)).get(10, TimeUnit.SECONDS);
+
+            assertEquals(3, classes.size(), "Classes of all resources must be loaded");
+            assertSame(Long.class, classes.get(classResource3), "Class of resource must be loaded");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLoadClassesWhenExecutorRejectsWorkers() throws Exception {
+        final var loader = getClass().getClassLoader();
+        final var classResource1 = createClassResource(loader, String.class);
+        final var classResource2 = createClassResource(loader, Integer.class);
+        this.resources.add(classResource1);
+        this.resources.add(classResource2);
+
+        final var classes = this.resources.loadClasses(loader, task -> {
+            throw new RejectedExecutionException();
+        });
+
+        assertEquals(2, classes.size(), "Classes of all resources must be loaded by the caller");
+        assertSame(Integer.class, classes.get(classResource2), "Class of resource must be loaded");
+    }
+
+    private ClassResource<?> createClassResource(final ClassLoader loader, final Class<?> type) throws ClassNotFoundException {
+        final var result = mock(ClassResource.class);
+        doReturn(type).when(result).asClass(loader);
+        return result;
+    }
 }
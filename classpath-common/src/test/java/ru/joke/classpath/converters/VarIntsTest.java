@@ -0,0 +1,46 @@
+package ru.joke.classpath.converters;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VarIntsTest {
+
+    @Test
+    void testWriteAndRead() {
+        final int[] values = { 0, 1, 127, 128, 300, 16_383, 16_384, Integer.MAX_VALUE };
+        final var output = new ByteArrayOutputStream();
+        for (final int value : values) {
+            VarInts.write(value, output);
+        }
+
+        final var input = ByteBuffer.wrap(output.toByteArray());
+        for (final int value : values) {
+            assertEquals(value, VarInts.read(input), "Read value must be equal to written value");
+        }
+
+        assertFalse(input.hasRemaining(), "All bytes must be read");
+    }
+
+    @Test
+    void testSmallValueTakesOneByte() {
+        final var output = new ByteArrayOutputStream();
+        VarInts.write(127, output);
+
+        assertEquals(1, output.size(), "Value must be written as one byte");
+    }
+
+    @Test
+    void testWriteNegativeValue() {
+        assertThrows(IllegalArgumentException.class, () -> VarInts.write(-1, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void testReadMalformedValue() {
+        final var input = ByteBuffer.wrap(new byte[] { (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 1 });
+        assertThrows(IllegalStateException.class, () -> VarInts.read(input));
+    }
+}
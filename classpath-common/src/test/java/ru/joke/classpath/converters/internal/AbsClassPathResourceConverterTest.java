@@ -1,11 +1,16 @@
 package ru.joke.classpath.converters.internal;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.converters.Dictionary;
+import ru.joke.classpath.test_util.TestArrayDictionary;
 import ru.joke.classpath.test_util.TestDictionary;
+import ru.joke.classpath.test_util.TestStringTable;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
@@ -15,6 +20,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 abstract class AbsClassPathResourceConverterTest<R extends ClassPathResource, C extends ConcreteClassPathResourceConverter<R>> {
 
+    private static final int ALLOCATION_TEST_ITERATIONS = 20_000;
+
     protected C converter;
 
     @BeforeEach
@@ -50,7 +57,57 @@ abstract class AbsClassPathResourceConverterTest<R extends ClassPathResource, C
         assertNotNull(result, "Result of converter must be always not null");
         assertTrue(result.isPresent(), "Result of of converter must present");
 
-        final var resource = result.get();
+        makeChecks(sourceResource, result.get());
+    }
+
+    @Test
+    void testBinaryRoundTrip() throws Exception {
+        final var sourceResource = createTestResource();
+        final var stringTable = new TestStringTable();
+        final var output = new ByteArrayOutputStream();
+
+        this.converter.write(sourceResource, stringTable, output);
+        final var input = ByteBuffer.wrap(output.toByteArray());
+
+        final var result = this.converter.read(input, stringTable);
+        assertNotNull(result, "Result of converter must be always not null");
+        assertTrue(result.isPresent(), "Result of of converter must present");
+
+        input.position(input.limit());
+        makeChecks(sourceResource, result.get());
+
+        final var sameRecord = this.converter.read(input.position(0), stringTable);
+        assertTrue(sameRecord.isPresent(), "Result of of converter must present");
+        assertEquals(result.get(), sameRecord.get(), "Resources of the same record must be equal");
+        assertEquals(result.get().hashCode(), sameRecord.get().hashCode(), "Hash codes of the same record must be equal");
+    }
+
+    // the allocations depend on the JIT and the runtime, so the test is run by the allocation-tests profile only
+    @Test
+    @Tag("allocation")
+    void testFromStringAllocationBudget() throws Exception {
+        final var sourceResource = createTestResource();
+        final var dictionary = new TestArrayDictionary(createDictionary(sourceResource).toMap());
+        final var record = getExpectedStringRepresentation();
+
+        // warm up to let the JIT compile the parser
+        for (int i = 0; i < ALLOCATION_TEST_ITERATIONS; i++) {
+            this.converter.fromString(record, dictionary);
+        }
+
+        final long allocatedBefore = currentThreadAllocatedBytes();
+        for (int i = 0; i < ALLOCATION_TEST_ITERATIONS; i++) {
+            this.converter.fromString(record, dictionary);
+        }
+        final long allocatedPerRecord = (currentThreadAllocatedBytes() - allocatedBefore) / ALLOCATION_TEST_ITERATIONS;
+
+        assertTrue(
+                allocatedPerRecord <= allocationBudgetPerRecord(),
+                "Allocated bytes per record must be within budget: " + allocatedPerRecord
+        );
+    }
+
+    private void makeChecks(R sourceResource, R resource) throws Exception {
         assertEquals(testResourceType(), resource.type(), "Type of resource must be equal");
         assertEquals(sourceResource.name(), resource.name(), "Resource name must be equal");
         assertEquals(sourceResource.id(), resource.id(), "Resource id must be equal");
@@ -111,6 +168,15 @@ abstract class AbsClassPathResourceConverterTest<R extends ClassPathResource, C
     void fillDictionary(Map<String, String> dictionaryMap, R resource) {
     }
 
+    private static long currentThreadAllocatedBytes() throws Exception {
+        // the module doesn't read java.management, so the bean is accessed reflectively
+        final var threadBean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+        final var allocatedBytesMethod = Class.forName("com.sun.management.ThreadMXBean").getMethod("getCurrentThreadAllocatedBytes");
+        return (long) allocatedBytesMethod.invoke(threadBean);
+    }
+
+    abstract long allocationBudgetPerRecord();
+
     abstract void makeTypeSpecificChecks(R expected, R actual) throws Exception;
 
     abstract C createConverter();
@@ -4,11 +4,14 @@ import ru.joke.classpath.ClassConstructorResource;
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.fixtures.TestClass;
 
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.util.*;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class ClassConstructorResourceConverterTest extends AbsClassPathResourceConverterTest<ClassConstructorResource<?>, ClassConstructorResourceConverter> {
 
@@ -31,6 +34,12 @@ class ClassConstructorResourceConverterTest extends AbsClassPathResourceConverte
 
         javaConstructor.setAccessible(true);
         assertNotNull(javaConstructor.newInstance("", "", 0, new String[0], new int[0]));
+        assertSame(javaConstructor, actual.asConstructor(), "Java constructor object must be cached");
+
+        final var lookup = MethodHandles.privateLookupIn(TestClass.StaticNested.Inner.class, MethodHandles.lookup());
+        final var handle = actual.asMethodHandle(lookup);
+        assertSame(handle, actual.asMethodHandle(lookup), "Constructor handle must be cached");
+        assertNotNull(assertDoesNotThrow(() -> handle.invoke("", "", 0, new String[0], new int[0])));
     }
 
     @Override
@@ -121,4 +130,9 @@ class ClassConstructorResourceConverterTest extends AbsClassPathResourceConverte
             }
         });
     }
-}
\ No newline at end of file
+
+    @Override
+    long allocationBudgetPerRecord() {
+        return 1024;
+    }
+}
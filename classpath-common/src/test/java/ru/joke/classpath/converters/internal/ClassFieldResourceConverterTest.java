@@ -6,6 +6,7 @@ import ru.joke.classpath.fixtures.TestAnnotation2;
 import ru.joke.classpath.fixtures.TestClass;
 
 import java.lang.annotation.Inherited;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.util.EnumSet;
 import java.util.LinkedHashSet;
@@ -14,6 +15,8 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ClassFieldResourceConverterTest extends AbsClassPathResourceConverterTest<ClassFieldResource, ClassFieldResourceConverter> {
 
@@ -29,6 +32,13 @@ class ClassFieldResourceConverterTest extends AbsClassPathResourceConverterTest<
         javaField.setAccessible(true);
         final String value = (String) javaField.get(new TestClass.StaticNested.Inner());
         assertEquals("v1", value,"Value of the field must be equal");
+        assertSame(javaField, actual.asField(), "Java field object must be cached");
+
+        final var lookup = MethodHandles.privateLookupIn(TestClass.StaticNested.Inner.class, MethodHandles.lookup());
+        final var handle = actual.asVarHandle(lookup);
+        assertSame(handle, actual.asVarHandle(lookup), "Variable handle must be cached");
+        assertEquals("v1", (String) handle.get(new TestClass.StaticNested.Inner()), "Value of the field must be equal");
+        assertThrows(IllegalAccessException.class, () -> actual.asVarHandle(MethodHandles.lookup()));
     }
 
     @Override
@@ -101,4 +111,9 @@ class ClassFieldResourceConverterTest extends AbsClassPathResourceConverterTest<
         super.fillDictionary(dictionaryMap, resource);
         dictionaryMap.put(String.valueOf(dictionaryMap.size()), resource.owner().binaryName().substring(resource.packageName().length() + 1));
     }
-}
\ No newline at end of file
+
+    @Override
+    long allocationBudgetPerRecord() {
+        return 896;
+    }
+}
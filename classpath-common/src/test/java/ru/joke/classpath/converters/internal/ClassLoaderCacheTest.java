@@ -0,0 +1,47 @@
+package ru.joke.classpath.converters.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassLoaderCacheTest {
+
+    @Test
+    void testValuesCachedPerLoader() {
+        final var cache = new ClassLoaderCache<Class<?>>();
+        final var loader1 = new URLClassLoader(new URL[0]);
+        final var loader2 = new URLClassLoader(new URL[0]);
+        final var loader3 = new URLClassLoader(new URL[0]);
+
+        assertNull(cache.get(loader1), "Value must not be cached");
+
+        cache.put(loader1, String.class);
+        cache.put(loader2, Integer.class);
+        cache.put(loader3, Long.class);
+        cache.put(null, Object.class);
+
+        assertSame(String.class, cache.get(loader1), "Value of the primary loader must be cached");
+        assertSame(Integer.class, cache.get(loader2), "Value of the other loader must be cached");
+        assertSame(Long.class, cache.get(loader3), "Value of the other loader must be cached");
+        assertSame(Object.class, cache.get(null), "Value of the bootstrap loader must be cached");
+        assertNull(cache.get(new URLClassLoader(new URL[0])), "Value of the unknown loader must not be cached");
+    }
+
+    @Test
+    void testValueReplaced() {
+        final var cache = new ClassLoaderCache<Class<?>>();
+        final var loader1 = new URLClassLoader(new URL[0]);
+        final var loader2 = new URLClassLoader(new URL[0]);
+
+        cache.put(loader1, String.class);
+        cache.put(loader2, Integer.class);
+        cache.put(loader1, Long.class);
+        cache.put(loader2, Short.class);
+
+        assertSame(Long.class, cache.get(loader1), "Value of the primary loader must be replaced");
+        assertSame(Short.class, cache.get(loader2), "Value of the other loader must be replaced");
+    }
+}
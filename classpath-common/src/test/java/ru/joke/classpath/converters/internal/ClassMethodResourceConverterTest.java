@@ -6,11 +6,15 @@ import ru.joke.classpath.fixtures.TestAnnotation2;
 import ru.joke.classpath.fixtures.TestClass;
 
 import java.lang.annotation.Inherited;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.*;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ClassMethodResourceConverterTest extends AbsClassPathResourceConverterTest<ClassMethodResource, ClassMethodResourceConverter> {
 
@@ -35,6 +39,14 @@ class ClassMethodResourceConverterTest extends AbsClassPathResourceConverterTest
         javaMethod.setAccessible(true);
         final String value = (String) javaMethod.invoke(new TestClass.StaticNested.Inner(), "", 0, new TestClass.StaticNested(), new String[0], new int[0]);
         assertEquals("v1", value,"Value of the field must be equal");
+        assertSame(javaMethod, actual.asMethod(), "Java method object must be cached");
+
+        final var lookup = MethodHandles.privateLookupIn(TestClass.StaticNested.Inner.class, MethodHandles.lookup());
+        final var handle = actual.asMethodHandle(lookup);
+        assertSame(handle, actual.asMethodHandle(lookup), "Method handle must be cached");
+        final var handleValue = assertDoesNotThrow(() -> handle.invoke(new TestClass.StaticNested.Inner(), "", 0, new TestClass.StaticNested(), new String[0], new int[0]));
+        assertEquals("v1", handleValue, "Value of the field must be equal");
+        assertThrows(IllegalAccessException.class, () -> actual.asMethodHandle(MethodHandles.lookup()));
     }
 
     @Override
@@ -129,4 +141,9 @@ class ClassMethodResourceConverterTest extends AbsClassPathResourceConverterTest
             }
         });
     }
-}
\ No newline at end of file
+
+    @Override
+    long allocationBudgetPerRecord() {
+        return 1536;
+    }
+}
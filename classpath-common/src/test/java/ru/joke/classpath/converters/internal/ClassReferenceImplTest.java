@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 import ru.joke.classpath.fixtures.TestAnnotation;
 import ru.joke.classpath.fixtures.TestClass;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ClassReferenceImplTest {
@@ -42,4 +45,35 @@ class ClassReferenceImplTest {
         assertNotEquals(ref.canonicalName(), ref.binaryName());
         assertEquals(TestClass.StaticNested.class, ref.toClass());
     }
+
+    @Test
+    void testCanonicalNameIsInterned() {
+        final var ref1 = new ClassReferenceImpl<>(new String("ru.joke.classpath.fixtures.TestClass$StaticNested"));
+        final var ref2 = new ClassReferenceImpl<>(new String("ru.joke.classpath.fixtures.TestClass$StaticNested"));
+        assertSame(ref1.canonicalName(), ref2.canonicalName(), "Canonical names of references must be interned");
+        assertSame(TestClass.StaticNested.class.getCanonicalName().intern(), ref1.canonicalName(), "Canonical names of references must be interned");
+    }
+
+    @Test
+    void testReferencesAreInterned() throws ClassNotFoundException {
+        final var ref1 = ClassReferenceImpl.of(new String("ru.joke.classpath.fixtures.TestAnnotation"));
+        final var ref2 = ClassReferenceImpl.of(new String("ru.joke.classpath.fixtures.TestAnnotation"));
+        assertSame(ref1, ref2, "References to the same class must be interned");
+        assertNotSame(ref1, ClassReferenceImpl.of("ru.joke.classpath.fixtures.TestClass"), "References to different classes must be different");
+        assertEquals(new ClassReferenceImpl<>("ru.joke.classpath.fixtures.TestAnnotation"), ref1);
+        assertSame(ref1.toClass(), ref2.toClass());
+    }
+
+    @Test
+    void testClassResolvedPerLoader() throws Exception {
+        final var ref = ClassReferenceImpl.of("ru.joke.classpath.fixtures.TestClass");
+        final var location = TestClass.class.getProtectionDomain().getCodeSource().getLocation();
+
+        try (final var isolatedLoader = new URLClassLoader(new URL[] { location }, null)) {
+            final var isolatedClass = ref.toClass(isolatedLoader);
+            assertSame(isolatedLoader, isolatedClass.getClassLoader(), "Class must be resolved via the given loader");
+            assertSame(TestClass.class, ref.toClass(TestClass.class.getClassLoader()), "Class must be resolved via the given loader");
+            assertSame(isolatedClass, ref.toClass(isolatedLoader), "Resolved class must be cached");
+        }
+    }
 }
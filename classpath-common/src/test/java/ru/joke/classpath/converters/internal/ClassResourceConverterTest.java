@@ -145,4 +145,9 @@ class ClassResourceConverterTest extends AbsClassPathResourceConverterTest<Class
             }
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    long allocationBudgetPerRecord() {
+        return 1408;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.joke.classpath.converters.internal;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.fixtures.TestClass;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberCacheTest {
+
+    @Test
+    void testMemberResolvedOncePerLoader() throws Exception {
+        final var resolutions = new AtomicInteger();
+        final var cache = createCache(resolutions);
+        final var location = TestClass.class.getProtectionDomain().getCodeSource().getLocation();
+
+        try (final var isolatedLoader = new URLClassLoader(new URL[] { location }, null)) {
+            final var constructor = cache.member(getClass().getClassLoader());
+            assertSame(constructor, cache.member(getClass().getClassLoader()), "Member must be cached");
+            assertEquals(1, resolutions.get(), "Member must be resolved once");
+
+            final var isolatedConstructor = cache.member(isolatedLoader);
+            assertSame(isolatedLoader, isolatedConstructor.getDeclaringClass().getClassLoader(), "Member must be resolved via the given loader");
+            assertSame(isolatedConstructor, cache.member(isolatedLoader), "Member must be cached");
+            assertSame(constructor, cache.member(getClass().getClassLoader()), "Member of the other loader must be cached");
+            assertEquals(2, resolutions.get(), "Member must be resolved once per loader");
+        }
+    }
+
+    @Test
+    void testHandleCachedPerLookup() throws Exception {
+        final var cache = createCache(new AtomicInteger());
+        final var loader = getClass().getClassLoader();
+
+        final var handle = cache.handle(loader, MethodHandles.lookup());
+        assertSame(handle, cache.handle(loader, MethodHandles.lookup()), "Handle must be cached for the same lookup class and modes");
+        assertNotSame(handle, cache.handle(loader, MethodHandles.lookup().dropLookupMode(MethodHandles.Lookup.PRIVATE)), "Handle must be created for the other lookup");
+        assertInstanceOf(TestClass.StaticNested.Inner.class, assertDoesNotThrow(() -> handle.invoke()), "Handle must invoke the member");
+    }
+
+    @Test
+    void testLookupClassOfOtherLoaderCollectedAfterHandleResolved() throws Throwable {
+        final MemberCache<Method, MethodHandle> cache = new MemberCache<>(
+                loader -> String.class.getMethod("length"),
+                MethodHandles.Lookup::unreflect
+        );
+
+        final var lookupLoader = resolveHandleViaIsolatedLookupClass(cache);
+        for (int i = 0; i < 50 && lookupLoader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(lookupLoader.get(), "Loader of the lookup class must not be retained by the cached handle");
+        assertEquals(4, (int) cache.handle(getClass().getClassLoader(), MethodHandles.publicLookup()).invokeExact("test"), "Handle must invoke the member");
+    }
+
+    private WeakReference<ClassLoader> resolveHandleViaIsolatedLookupClass(final MemberCache<Method, MethodHandle> cache) throws Exception {
+        final var location = TestClass.class.getProtectionDomain().getCodeSource().getLocation();
+        try (final var isolatedLoader = new URLClassLoader(new URL[] { location }, null)) {
+            final var lookupClass = isolatedLoader.loadClass(TestClass.class.getName());
+            final var lookup = MethodHandles.publicLookup().in(lookupClass);
+
+            final var handle = cache.handle(getClass().getClassLoader(), lookup);
+            assertSame(handle, cache.handle(getClass().getClassLoader(), lookup), "Handle must be cached for the lookup class");
+
+            return new WeakReference<>(isolatedLoader);
+        }
+    }
+
+    private MemberCache<Constructor<?>, MethodHandle> createCache(final AtomicInteger resolutions) {
+        return new MemberCache<>(
+                loader -> {
+                    resolutions.incrementAndGet();
+                    return Class.forName(TestClass.StaticNested.Inner.class.getName(), false, loader).getConstructor();
+                },
+                MethodHandles.Lookup::unreflectConstructor
+        );
+    }
+}
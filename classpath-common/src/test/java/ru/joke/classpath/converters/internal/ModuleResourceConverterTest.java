@@ -77,4 +77,9 @@ class ModuleResourceConverterTest extends AbsClassPathResourceConverterTest<Modu
     String getExpectedStringRepresentation() {
         return EXPECTED_STR;
     }
-}
\ No newline at end of file
+
+    @Override
+    long allocationBudgetPerRecord() {
+        return 640;
+    }
+}
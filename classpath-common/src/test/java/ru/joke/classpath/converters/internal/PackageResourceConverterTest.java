@@ -89,4 +89,9 @@ class PackageResourceConverterTest extends AbsClassPathResourceConverterTest<Pac
     String getExpectedStringRepresentation() {
         return EXPECTED_STR;
     }
-}
\ No newline at end of file
+
+    @Override
+    long allocationBudgetPerRecord() {
+        return 960;
+    }
+}
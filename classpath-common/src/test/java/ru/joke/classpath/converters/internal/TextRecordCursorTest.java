@@ -0,0 +1,52 @@
+package ru.joke.classpath.converters.internal;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.ClassResource;
+import ru.joke.classpath.test_util.TestArrayDictionary;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextRecordCursorTest {
+
+    private final TestArrayDictionary dictionary = new TestArrayDictionary(Map.of("0", "a", "1", "b", "2", "c"));
+
+    @Test
+    void testHasBlocks() {
+        final var cursor = new TextRecordCursor("p|s|0", this.dictionary);
+
+        assertTrue(cursor.hasBlocks(3), "Record must have 3 blocks");
+        assertFalse(cursor.hasBlocks(4), "Record must not have 4 blocks");
+    }
+
+    @Test
+    void testReadBlocks() {
+        final var cursor = new TextRecordCursor("c|pc;st;unknown||0;1;0|2|0;1;0||e", this.dictionary);
+        cursor.skipBlock();
+
+        assertEquals(EnumSet.of(ClassPathResource.Modifier.PUBLIC, ClassPathResource.Modifier.STATIC), cursor.nextModifiers(), "Modifiers must be equal");
+        assertEquals("", cursor.nextMapped(), "Empty block must be read as empty string");
+        assertEquals(Set.of("a", "b"), cursor.nextMappedSet(), "Duplicates must be skipped");
+        assertEquals("c", cursor.nextMapped(), "Value must be equal");
+        assertEquals(2, cursor.nextRefSet().size(), "Duplicated references must be skipped");
+        assertEquals(List.of(), cursor.nextRefs(";"), "Empty block must be read as empty list");
+        assertEquals(ClassResource.Kind.ENUM, cursor.nextAliased(ClassResource.Kind.values()), "Kind must be equal");
+    }
+
+    @Test
+    void testReadElementsOfBlock() {
+        final var cursor = new TextRecordCursor("0#1#2,0|2", this.dictionary);
+
+        assertEquals("a", cursor.nextMapped("#"), "Value must be equal");
+        assertEquals("b", cursor.nextMapped("#"), "Value must be equal");
+
+        final var refs = cursor.nextRefs(",");
+        assertEquals(List.of("c", "a"), refs.stream().map(ClassPathResource.ClassReference::binaryName).toList(), "References must be equal");
+        assertEquals("c", cursor.nextMapped(), "Value of the next block must be equal");
+    }
+}
@@ -2,8 +2,12 @@ package ru.joke.classpath.services;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.*;
 
 class ClassPathResourcesServiceTest {
 
@@ -13,4 +17,14 @@ class ClassPathResourcesServiceTest {
         assertNotNull(service, "Service instance must be not null");
         assertNotEquals(ClassPathResourcesService.getInstance(), service, "New service instance must be not equal");
     }
+
+    @Test
+    void testDefaultInvalidateDoesNothing() {
+        final var service = mock(ClassPathResourcesService.class, CALLS_REAL_METHODS);
+        final var location = IndexedClassPathLocation.relativeLocation(Set.of(getClass().getClassLoader()));
+
+        assertDoesNotThrow(() -> service.invalidate(location), "Default invalidation must not fail");
+        verify(service).invalidate(location);
+        verifyNoMoreInteractions(service);
+    }
 }
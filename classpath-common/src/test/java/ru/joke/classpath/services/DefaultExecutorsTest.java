@@ -0,0 +1,32 @@
+package ru.joke.classpath.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultExecutorsTest {
+
+    @Test
+    void testVirtualThreadPerTaskExecutor() {
+        final boolean virtualThreadsSupported = Runtime.version().feature() >= 21;
+
+        final var executor = DefaultExecutors.newVirtualThreadPerTaskExecutor();
+
+        assertEquals(virtualThreadsSupported, executor.isPresent(), "Executor must be created only if virtual threads are supported");
+        executor.ifPresent(e -> assertEquals(
+                "",
+                CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), e).join(),
+                "Task must be executed on the unnamed virtual thread"
+        ));
+    }
+
+    @Test
+    void testDaemonThreadFactory() {
+        final var thread = DefaultExecutors.daemonThreadFactory("test-thread").newThread(() -> {});
+
+        assertTrue(thread.isDaemon(), "Thread must be daemon");
+        assertEquals("test-thread", thread.getName(), "Thread name must be equal");
+    }
+}
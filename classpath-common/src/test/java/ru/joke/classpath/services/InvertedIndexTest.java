@@ -0,0 +1,106 @@
+package ru.joke.classpath.services;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.ClassPathResource;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InvertedIndexTest {
+
+    @Test
+    void testForEach() {
+        final var resources = createResources();
+        final var index = InvertedIndex.of(resources);
+
+        final List<ClassPathResource> result = new ArrayList<>();
+        index.forEach(result::add);
+
+        assertEquals(resources, result, "All resources must be passed to the consumer");
+    }
+
+    @Test
+    void testForEachCandidateWhenNoKeysRequired() {
+        final var resources = createResources();
+        final var index = InvertedIndex.of(resources);
+
+        assertEquals(resources, findCandidates(index, List.of()), "All resources must be candidates");
+    }
+
+    @Test
+    void testForEachCandidateByConjunctionOfKeys() {
+        final var resources = createResources();
+        final var index = InvertedIndex.of(resources);
+
+        final var publicPackages = List.of(
+                Set.of(IndexKey.ofType(ClassPathResource.Type.PACKAGE)),
+                Set.of(IndexKey.ofModifier(ClassPathResource.Modifier.PUBLIC))
+        );
+        assertEquals(List.of(resources.get(0)), findCandidates(index, publicPackages), "Candidates must be equal");
+
+        final var staticPackages = List.of(
+                Set.of(IndexKey.ofType(ClassPathResource.Type.PACKAGE)),
+                Set.of(IndexKey.ofModifier(ClassPathResource.Modifier.STATIC))
+        );
+        assertEquals(List.of(), findCandidates(index, staticPackages), "Candidates must be empty");
+    }
+
+    @Test
+    void testForEachCandidateByDisjunctionOfKeys() {
+        final var resources = createResources();
+        final var index = InvertedIndex.of(resources);
+
+        final var aliases = List.of(
+                Set.of(new IndexKey(IndexKey.Kind.ALIAS, "a3"), new IndexKey(IndexKey.Kind.ALIAS, "a1"))
+        );
+        assertEquals(List.of(resources.get(0), resources.get(2)), findCandidates(index, aliases), "Candidates must be equal");
+
+        final var unknownAlias = List.of(Set.of(new IndexKey(IndexKey.Kind.ALIAS, "unknown")));
+        assertEquals(List.of(), findCandidates(index, unknownAlias), "Candidates must be empty");
+    }
+
+    @Test
+    void testForEachCandidateWhenIndexHasNoPostings() {
+        final var resources = createResources();
+        final var index = new InvertedIndex(resources.toArray(new ClassPathResource[0]), null);
+
+        final var packageKeys = List.of(Set.of(IndexKey.ofType(ClassPathResource.Type.PACKAGE)));
+        assertEquals(resources, findCandidates(index, packageKeys), "All resources must be candidates");
+    }
+
+    private List<ClassPathResource> findCandidates(
+            final InvertedIndex index,
+            final Collection<Set<IndexKey>> requiredKeys
+    ) {
+        final List<ClassPathResource> result = new ArrayList<>();
+        index.forEachCandidate(requiredKeys, result::add);
+        return result;
+    }
+
+    private List<ClassPathResource> createResources() {
+        return List.of(
+                createResource(ClassPathResource.Type.PACKAGE, "a1", ClassPathResource.Modifier.PUBLIC),
+                createResource(ClassPathResource.Type.PACKAGE, "a2"),
+                createResource(ClassPathResource.Type.MODULE, "a3", ClassPathResource.Modifier.PUBLIC, ClassPathResource.Modifier.STATIC)
+        );
+    }
+
+    private ClassPathResource createResource(
+            final ClassPathResource.Type type,
+            final String alias,
+            final ClassPathResource.Modifier... modifiers
+    ) {
+        final var resource = mock(ClassPathResource.class);
+        when(resource.type()).thenReturn(type);
+        when(resource.packageName()).thenReturn("");
+        when(resource.module()).thenReturn("");
+        when(resource.aliases()).thenReturn(Set.of(alias));
+        when(resource.modifiers()).thenReturn(Set.of(modifiers));
+        when(resource.annotations()).thenReturn(Set.of());
+
+        return resource;
+    }
+}
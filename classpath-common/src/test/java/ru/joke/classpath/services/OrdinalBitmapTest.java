@@ -0,0 +1,138 @@
+package ru.joke.classpath.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.BinaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrdinalBitmapTest {
+
+    @Test
+    void testRange() {
+        assertTrue(OrdinalBitmap.range(0).isEmpty(), "Bitmap must be empty");
+
+        final var bitmap = OrdinalBitmap.range(70_000);
+        assertEquals(70_000, bitmap.cardinality(), "Cardinality must be equal");
+        assertTrue(bitmap.contains(0), "Bitmap must contain first ordinal");
+        assertTrue(bitmap.contains(65_536), "Bitmap must contain ordinal of second chunk");
+        assertTrue(bitmap.contains(69_999), "Bitmap must contain last ordinal");
+        assertFalse(bitmap.contains(70_000), "Bitmap must not contain bound");
+        assertFalse(bitmap.contains(-1), "Bitmap must not contain negative ordinal");
+    }
+
+    @Test
+    void testOf() {
+        final int[] ordinals = { 1, 5, 65_535, 65_536, 200_000 };
+        final var bitmap = OrdinalBitmap.of(ordinals);
+
+        assertEquals(ordinals.length, bitmap.cardinality(), "Cardinality must be equal");
+        assertArrayEquals(ordinals, bitmap.toArray(), "Ordinals must be equal");
+        assertFalse(bitmap.contains(2), "Bitmap must not contain absent ordinal");
+    }
+
+    @Test
+    void testToArrayWithLimit() {
+        final int[] ordinals = { 1, 5, 65_535, 65_536, 200_000 };
+        final var bitmap = OrdinalBitmap.of(ordinals);
+
+        assertArrayEquals(new int[0], bitmap.toArray(0), "No ordinals must be returned");
+        assertArrayEquals(new int[] { 1, 5, 65_535, 65_536 }, bitmap.toArray(4), "First ordinals must be equal");
+        assertArrayEquals(ordinals, bitmap.toArray(10), "All ordinals must be returned");
+
+        final var denseBitmap = OrdinalBitmap.range(70_000);
+        assertArrayEquals(new int[] { 0, 1, 2 }, denseBitmap.toArray(3), "First ordinals of dense bitmap must be equal");
+    }
+
+    @Test
+    void testForEachWhile() {
+        final int[] ordinals = { 1, 5, 65_535, 65_536, 200_000 };
+        final var visited = new ArrayList<Integer>();
+
+        assertFalse(OrdinalBitmap.of(ordinals).forEachWhile(ordinal -> visited.add(ordinal) && ordinal < 65_535), "Iteration must be stopped");
+        assertEquals(List.of(1, 5, 65_535), visited, "Ordinals must be visited until the action stops the iteration");
+
+        visited.clear();
+        assertFalse(OrdinalBitmap.range(70_000).forEachWhile(ordinal -> visited.add(ordinal) && ordinal < 2), "Iteration of dense bitmap must be stopped");
+        assertEquals(List.of(0, 1, 2), visited, "Ordinals of dense bitmap must be visited until the action stops the iteration");
+
+        visited.clear();
+        assertTrue(OrdinalBitmap.of(ordinals).forEachWhile(visited::add), "All ordinals must be visited");
+        assertEquals(5, visited.size(), "All ordinals must be visited");
+    }
+
+    @Test
+    void testOperationsOfSparseBitmaps() {
+        checkOperations(100, 10);
+    }
+
+    @Test
+    void testOperationsOfDenseBitmaps() {
+        checkOperations(150_000, 2);
+    }
+
+    @Test
+    void testOperationsOfMixedBitmaps() {
+        final var random = new Random(42);
+        final var sparse = randomOrdinals(random, 150_000, 100);
+        final var dense = randomOrdinals(random, 150_000, 2);
+
+        checkOperation(sparse, dense, OrdinalBitmap::and, (a, b) -> { a.retainAll(b); return a; });
+        checkOperation(sparse, dense, OrdinalBitmap::or, (a, b) -> { a.addAll(b); return a; });
+        checkOperation(sparse, dense, OrdinalBitmap::andNot, (a, b) -> { a.removeAll(b); return a; });
+        checkOperation(dense, sparse, OrdinalBitmap::andNot, (a, b) -> { a.removeAll(b); return a; });
+    }
+
+    @Test
+    void testFilter() {
+        final var bitmap = OrdinalBitmap.range(100_000);
+        final var even = bitmap.filter(ordinal -> ordinal % 2 == 0);
+
+        assertEquals(50_000, even.cardinality(), "Cardinality must be equal");
+        assertTrue(even.contains(99_998), "Bitmap must contain matched ordinal");
+        assertFalse(even.contains(99_999), "Bitmap must not contain not matched ordinal");
+        assertTrue(bitmap.filter(ordinal -> false).isEmpty(), "Bitmap must be empty");
+    }
+
+    private void checkOperations(final int bound, final int step) {
+        final var random = new Random(bound);
+        final var first = randomOrdinals(random, bound, step);
+        final var second = randomOrdinals(random, bound, step);
+
+        checkOperation(first, second, OrdinalBitmap::and, (a, b) -> { a.retainAll(b); return a; });
+        checkOperation(first, second, OrdinalBitmap::or, (a, b) -> { a.addAll(b); return a; });
+        checkOperation(first, second, OrdinalBitmap::andNot, (a, b) -> { a.removeAll(b); return a; });
+    }
+
+    private void checkOperation(
+            final TreeSet<Integer> first,
+            final TreeSet<Integer> second,
+            final BinaryOperator<OrdinalBitmap> bitmapOperation,
+            final BinaryOperator<TreeSet<Integer>> expectedOperation
+    ) {
+        final var result = bitmapOperation.apply(toBitmap(first), toBitmap(second));
+        final var expected = expectedOperation.apply(new TreeSet<>(first), new TreeSet<>(second));
+
+        assertEquals(expected.size(), result.cardinality(), "Cardinality must be equal");
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), result.toArray(), "Ordinals must be equal");
+    }
+
+    private TreeSet<Integer> randomOrdinals(final Random random, final int bound, final int step) {
+        final TreeSet<Integer> result = new TreeSet<>();
+        for (int i = 0; i < bound; i++) {
+            if (random.nextInt(step) == 0) {
+                result.add(i);
+            }
+        }
+
+        return result;
+    }
+
+    private OrdinalBitmap toBitmap(final TreeSet<Integer> ordinals) {
+        return OrdinalBitmap.of(ordinals.stream().mapToInt(Integer::intValue).toArray());
+    }
+}
@@ -0,0 +1,199 @@
+package ru.joke.classpath.services.internal;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.IndexedClassPathResources;
+import ru.joke.classpath.IndexedClassPathStorageException;
+import ru.joke.classpath.ModuleResource;
+import ru.joke.classpath.PackageResource;
+import ru.joke.classpath.converters.BinaryClassPathResourceConverter;
+import ru.joke.classpath.converters.VarInts;
+import ru.joke.classpath.services.IndexKey;
+import ru.joke.classpath.services.InvertedIndex;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryIndexFormatTest {
+
+    private final BinaryIndexFormat format = new BinaryIndexFormat(BinaryClassPathResourceConverter.getInstance());
+
+    @Test
+    void testRead() {
+        final var resources = createResources();
+
+        final var segments = read(ByteBuffer.wrap(this.format.write(resources)));
+
+        assertEquals(1, segments.size(), "Segments count must be equal");
+        final var readResources = new IndexedClassPathResources();
+        segments.get(0).forEach(readResources::add);
+        assertEquals(resources, readResources, "Resources must be equal");
+    }
+
+    @Test
+    void testReadWhenIndexTruncated() {
+        final var index = this.format.write(createResources());
+
+        for (int length = 1; length < index.length; length++) {
+            final var truncatedIndex = ByteBuffer.wrap(Arrays.copyOf(index, length));
+            assertThrows(IndexedClassPathStorageException.class, () -> read(truncatedIndex), "Truncated index must be rejected: " + length);
+        }
+    }
+
+    @Test
+    void testReadWhenStringLengthExceedsIndex() {
+        final var index = ByteBuffer.allocate(BinaryIndexFormat.HEADER_LENGTH + 3)
+                                    .putInt(BinaryIndexFormat.MAGIC)
+                                    .put(BinaryIndexFormat.VERSION)
+                                    .put((byte) 1)
+                                    .put((byte) 0x7F)
+                                    .put((byte) 'a')
+                                    .flip();
+
+        assertThrows(IndexedClassPathStorageException.class, () -> read(index));
+    }
+
+    @Test
+    void testReadWhenVarIntMalformed() {
+        final var index = ByteBuffer.allocate(BinaryIndexFormat.HEADER_LENGTH + 5)
+                                    .putInt(BinaryIndexFormat.MAGIC)
+                                    .put(BinaryIndexFormat.VERSION)
+                                    .put(new byte[] { -1, -1, -1, -1, -1 })
+                                    .flip();
+
+        final var ex = assertThrows(IndexedClassPathStorageException.class, () -> read(index));
+        assertInstanceOf(IllegalStateException.class, ex.getCause(), "Malformed varint must be the cause");
+    }
+
+    @Test
+    void testReadWhenIndexContainsUnsupportedRecord() {
+        final var index = ByteBuffer.wrap(this.format.write(createResources()));
+
+        // the type of the first record is replaced by the type unknown to the converter
+        index.position(BinaryIndexFormat.HEADER_LENGTH);
+        final int stringsCount = VarInts.read(index);
+        for (int i = 0; i < stringsCount; i++) {
+            final int length = VarInts.read(index);
+            index.position(index.position() + length);
+        }
+
+        VarInts.read(index);
+        VarInts.read(index);
+        final var skippedType = ClassPathResource.Type.values()[index.get(index.position())];
+        index.put(index.position(), Byte.MAX_VALUE);
+
+        final var segments = read(index.rewind());
+
+        assertEquals(1, segments.size(), "Segments count must be equal");
+        final var segment = segments.get(0);
+        assertEquals(1, segment.ordinalsBound(), "Unsupported record must be skipped");
+
+        final var resource = segment.resource(0);
+        assertNotNull(resource, "Supported resource must be read");
+        assertNotEquals(skippedType, resource.type(), "Supported resource must be read");
+        assertArrayEquals(new int[] { 0 }, segment.ordinals(IndexKey.ofType(resource.type())).toArray(), "Ordinals of supported resource must be shifted");
+        assertTrue(segment.ordinals(IndexKey.ofType(skippedType)).isEmpty(), "Ordinals of skipped resource must be removed");
+    }
+
+    private List<InvertedIndex> read(final ByteBuffer index) {
+        final List<InvertedIndex> result = new ArrayList<>();
+        this.format.read(index, result::add);
+
+        return result;
+    }
+
+    private IndexedClassPathResources createResources() {
+        final var result = new IndexedClassPathResources();
+        result.add(createModuleResource());
+        result.add(createPackageResource());
+
+        return result;
+    }
+
+    private PackageResource createPackageResource() {
+        return new PackageResource() {
+
+            @Override
+            public Optional<Package> asPackage(ClassLoader loader) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String name() {
+                return getClass().getPackageName();
+            }
+
+            @Override
+            public Set<String> aliases() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public String module() {
+                return "";
+            }
+
+            @Override
+            public Set<ClassReference<?>> annotations() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Set<Modifier> modifiers() {
+                return EnumSet.noneOf(Modifier.class);
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hashCode(id());
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj == this || obj instanceof PackageResource f && Objects.equals(f.id(), id());
+            }
+        };
+    }
+
+    private ModuleResource createModuleResource() {
+        return new ModuleResource() {
+
+            @Override
+            public String name() {
+                return "test.module";
+            }
+
+            @Override
+            public Set<String> aliases() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Optional<Module> asModule(ModuleLayer layer) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Set<ClassReference<?>> annotations() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Set<Modifier> modifiers() {
+                return EnumSet.noneOf(Modifier.class);
+            }
+
+            @Override
+            public int hashCode() {
+                return Objects.hashCode(id());
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj == this || obj instanceof ModuleResource f && Objects.equals(f.id(), id());
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package ru.joke.classpath.services.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodingDictionaryTest {
+
+    @Test
+    void map() {
+        final var dictionary = new DecodingDictionary();
+        dictionary.addMapping("0", "test");
+        dictionary.addMapping("1", "qq");
+
+        assertEquals("test", dictionary.map("0"), "Value must be equal");
+        assertEquals("qq", dictionary.map("1"), "Value must be equal");
+        assertNull(dictionary.map("2"), "Value must be null");
+        assertNull(dictionary.map("100"), "Value must be null");
+        assertNull(dictionary.map("a"), "Value must be null");
+        assertTrue(dictionary.map("").isEmpty(), "Value must be empty");
+    }
+
+    @Test
+    void addMapping() {
+        final var dictionary = new DecodingDictionary();
+        assertNull(dictionary.map("0"), "Value must be null");
+
+        dictionary.addMapping("0", "test");
+        assertEquals("test", dictionary.map("0"), "Value must be equal");
+
+        dictionary.addMapping("0", "qq");
+        assertEquals("test", dictionary.map("0"), "Value must be equal");
+
+        dictionary.addMapping("1000", "qq");
+        assertEquals("qq", dictionary.map("1000"), "Value must be equal");
+        assertEquals(2, dictionary.size(), "Size must be equal");
+    }
+
+    @Test
+    void addMappingFromText() {
+        final var dictionary = new DecodingDictionary();
+        dictionary.addMapping("ru.joke:test:0");
+        dictionary.addMapping("qq:1");
+        dictionary.addMapping("qq:1");
+        dictionary.addMapping("invalid");
+        dictionary.addMapping("invalid:a");
+
+        assertEquals(Map.of("0", "ru.joke:test", "1", "qq"), dictionary.toMap(), "Map must be equal");
+    }
+
+    @Test
+    void parseId() {
+        assertEquals(123, DecodingDictionary.parseId("a:123", 2, 5), "Id must be equal");
+        assertEquals(Integer.MAX_VALUE, DecodingDictionary.parseId(String.valueOf(Integer.MAX_VALUE), 0, 10), "Id must be equal");
+        assertEquals(-1, DecodingDictionary.parseId("2147483648", 0, 10), "Overflowed id must be invalid");
+        assertEquals(-1, DecodingDictionary.parseId("-1", 0, 2), "Negative id must be invalid");
+        assertEquals(-1, DecodingDictionary.parseId("1", 1, 1), "Empty id must be invalid");
+    }
+
+    @Test
+    void reverseDictionary() {
+        final var dictionary = new DecodingDictionary();
+        dictionary.addMapping("0", "test");
+        dictionary.addMapping("1", "qq");
+
+        final var reversedDictionary = dictionary.reversedDictionary();
+        assertNotNull(reversedDictionary, "Reversed dictionary must be not null");
+        assertEquals(2, reversedDictionary.size(), "Size of reversed dictionary must be equal");
+        assertEquals("0", reversedDictionary.map("test"), "Id must be equal");
+        assertEquals("1", reversedDictionary.map("qq"), "Id must be equal");
+        assertEquals("2", reversedDictionary.map("new"), "Next free id must be assigned");
+    }
+}
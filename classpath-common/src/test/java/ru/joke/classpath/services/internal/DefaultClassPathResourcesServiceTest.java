@@ -5,17 +5,29 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.IndexedClassPathResources;
+import ru.joke.classpath.IndexedClassPathStorageException;
 import ru.joke.classpath.ModuleResource;
 import ru.joke.classpath.PackageResource;
+import ru.joke.classpath.converters.BinaryClassPathResourceConverter;
+import ru.joke.classpath.converters.ClassPathResourceConverter;
+import ru.joke.classpath.services.IndexKey;
 import ru.joke.classpath.services.IndexedClassPathLocation;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 class DefaultClassPathResourcesServiceTest {
 
@@ -72,6 +84,307 @@ class DefaultClassPathResourcesServiceTest {
         assertTrue(filteredResourcesFromFile.contains(packageResource), "Filtered resources must contain package");
     }
 
+    @Test
+    void testStream() {
+        final var resources = new IndexedClassPathResources();
+        final var moduleResource = createModuleResource();
+        resources.add(moduleResource);
+        final var packageResource = createPackageResource();
+        resources.add(packageResource);
+
+        this.service.write(() -> this.indexFile.getAbsolutePath(), resources);
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        assertEquals(resources, this.service.stream(relativeLocation, r -> true).collect(Collectors.toSet()), "Resources must be equal");
+        assertEquals(
+                List.of(packageResource),
+                this.service.stream(relativeLocation, r -> r.type() == ClassPathResource.Type.PACKAGE).toList(),
+                "Filtered resources must be equal"
+        );
+
+        final var testedResources = new AtomicInteger();
+        final var anyResource = this.service.stream(relativeLocation, r -> testedResources.incrementAndGet() > 0).findAny();
+        assertTrue(anyResource.isPresent(), "Resource must be found");
+        assertEquals(1, testedResources.get(), "Stream must be stopped after the first matching resource");
+    }
+
+    @Test
+    void testStreamByIndexKeys() {
+        final var resources = new IndexedClassPathResources();
+        resources.add(createModuleResource());
+        final var packageResource = createPackageResource();
+        resources.add(packageResource);
+
+        this.service.write(() -> this.indexFile.getAbsolutePath(), resources);
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        final List<ClassPathResource> testedResources = new ArrayList<>();
+        final var result = this.service.stream(
+                relativeLocation,
+                List.of(Set.of(IndexKey.ofType(ClassPathResource.Type.PACKAGE))),
+                testedResources::add
+        ).toList();
+
+        assertEquals(List.of(packageResource), result, "Resources must be equal");
+        assertEquals(List.of(packageResource), testedResources, "Only candidates from the index must be tested");
+    }
+
+    @Test
+    void testStreamWhenIndexWrittenSeveralTimes() {
+        final IndexedClassPathLocation location = () -> this.indexFile.getAbsolutePath();
+        final var resources = new IndexedClassPathResources();
+        resources.add(createModuleResource());
+        this.service.write(location, resources);
+        this.service.write(location, resources);
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        assertEquals(1, this.service.stream(relativeLocation, r -> true).count(), "Duplicated resources must be skipped");
+    }
+
+    @Test
+    void testReadFromCache() throws IOException {
+        final var service = new DefaultClassPathResourcesService(new IndexedResourcesCache<>(1));
+        final var resources = new IndexedClassPathResources();
+        resources.add(createModuleResource());
+
+        service.write(() -> this.indexFile.getAbsolutePath(), resources);
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        assertEquals(1, service.read(relativeLocation, r -> true).size(), "Resources count must be equal");
+
+        Files.writeString(this.indexFile.toPath(), "");
+        assertEquals(1, service.read(relativeLocation, r -> true).size(), "Resources must be read from cache");
+
+        service.invalidate(relativeLocation);
+        assertTrue(service.read(relativeLocation, r -> true).isEmpty(), "Resources must be read again after invalidation");
+    }
+
+    @Test
+    void testReadWhenIndexWrittenSeveralTimes() {
+        final IndexedClassPathLocation location = () -> this.indexFile.getAbsolutePath();
+
+        final var moduleResources = new IndexedClassPathResources();
+        moduleResources.add(createModuleResource());
+        this.service.write(location, moduleResources);
+
+        final var packageResources = new IndexedClassPathResources();
+        packageResources.add(createPackageResource());
+        this.service.write(location, packageResources);
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        final var resourcesFromFile = this.service.read(relativeLocation, r -> true);
+        assertEquals(2, resourcesFromFile.size(), "Resources count must be equal");
+        assertTrue(resourcesFromFile.containsAll(moduleResources), "Resources must contain module");
+        assertTrue(resourcesFromFile.containsAll(packageResources), "Resources must contain package");
+    }
+
+    @Test
+    void testReadByIndexKeys() {
+        final var resources = new IndexedClassPathResources();
+        final var moduleResource = createModuleResource();
+        resources.add(moduleResource);
+        final var packageResource = createPackageResource();
+        resources.add(packageResource);
+
+        this.service.write(() -> this.indexFile.getAbsolutePath(), resources);
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        final List<ClassPathResource> testedResources = new ArrayList<>();
+        final var packageKeys = List.of(Set.of(IndexKey.ofType(ClassPathResource.Type.PACKAGE)));
+
+        final var packages = this.service.read(relativeLocation, packageKeys, r -> testedResources.add(r));
+        assertEquals(Set.of(packageResource), packages, "Only package must be found by keys");
+        assertEquals(List.of(packageResource), testedResources, "Only package must be tested by filter");
+
+        final var anyOfKeys = List.of(Set.of(IndexKey.ofType(ClassPathResource.Type.PACKAGE), IndexKey.ofType(ClassPathResource.Type.MODULE)));
+        assertEquals(resources, this.service.read(relativeLocation, anyOfKeys, r -> true), "Any of keys must match both resources");
+
+        final var allOfKeys = List.of(Set.of(IndexKey.ofType(ClassPathResource.Type.PACKAGE)), Set.of(IndexKey.ofType(ClassPathResource.Type.MODULE)));
+        assertTrue(this.service.read(relativeLocation, allOfKeys, r -> true).isEmpty(), "All of keys must match nothing");
+
+        final var moduleKeys = List.of(Set.of(new IndexKey(IndexKey.Kind.MODULE, moduleResource.module())));
+        assertEquals(Set.of(moduleResource), this.service.read(relativeLocation, moduleKeys, r -> true), "Only module must be found by module key");
+    }
+
+    @Test
+    void testReadByIndexKeysFromLegacyTextFormat() throws IOException {
+        final var resources = new IndexedClassPathResources();
+        resources.add(createModuleResource());
+        resources.add(createPackageResource());
+
+        final var textFormat = new TextIndexFormat(ClassPathResourceConverter.getInstance());
+        Files.writeString(this.indexFile.toPath(), textFormat.write(resources));
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        final var packageKeys = List.of(Set.of(IndexKey.ofType(ClassPathResource.Type.PACKAGE)));
+        final var resourcesFromFile = this.service.read(relativeLocation, packageKeys, r -> r.type() == ClassPathResource.Type.PACKAGE);
+        assertEquals(1, resourcesFromFile.size(), "Resources of the text index must be tested by the filter");
+    }
+
+    @Test
+    void testReadLegacyTextFormat() throws IOException {
+        final var resources = new IndexedClassPathResources();
+        resources.add(createModuleResource());
+        resources.add(createPackageResource());
+
+        final var textFormat = new TextIndexFormat(ClassPathResourceConverter.getInstance());
+        Files.writeString(this.indexFile.toPath(), textFormat.write(resources));
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        final var resourcesFromFile = this.service.read(relativeLocation, r -> true);
+        assertEquals(resources, resourcesFromFile, "Resources from the text index must be equal");
+    }
+
+    @Test
+    void testWriteWhenLegacyTextIndexExists() throws IOException {
+        final var legacyResources = new IndexedClassPathResources();
+        legacyResources.add(createModuleResource());
+
+        final var textFormat = new TextIndexFormat(ClassPathResourceConverter.getInstance());
+        Files.writeString(this.indexFile.toPath(), textFormat.write(legacyResources));
+
+        final var packageResources = new IndexedClassPathResources();
+        packageResources.add(createPackageResource());
+        this.service.write(() -> this.indexFile.getAbsolutePath(), packageResources);
+
+        final var header = Arrays.copyOf(Files.readAllBytes(this.indexFile.toPath()), BinaryIndexFormat.HEADER_LENGTH);
+        assertTrue(BinaryIndexFormat.isBinary(header, header.length), "Legacy text index must be rewritten in the binary format");
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        final var resourcesFromFile = this.service.read(relativeLocation, r -> true);
+        assertEquals(2, resourcesFromFile.size(), "Resources count must be equal");
+        assertTrue(resourcesFromFile.containsAll(legacyResources), "Resources of the legacy index must be kept");
+        assertTrue(resourcesFromFile.containsAll(packageResources), "Written resources must be added");
+    }
+
+    @Test
+    void testReadWhenUnsupportedVersion() throws IOException {
+        final var header = ByteBuffer.allocate(BinaryIndexFormat.HEADER_LENGTH)
+                                        .putInt(BinaryIndexFormat.MAGIC)
+                                        .put((byte) (BinaryIndexFormat.VERSION + 1))
+                                        .array();
+        Files.write(this.indexFile.toPath(), header);
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        assertThrows(IndexedClassPathStorageException.class, () -> this.service.read(relativeLocation, r -> true));
+    }
+
+    @Test
+    void testReadIndexesOfSeveralClassPathEntriesOnProvidedExecutor() throws IOException {
+        final var firstDir = Files.createTempDirectory("cp-first");
+        final var secondDir = Files.createTempDirectory("cp-second");
+        final var relativePath = META_INF_DIR + "/" + this.indexFile.getName();
+
+        final var moduleResources = new IndexedClassPathResources();
+        moduleResources.add(createModuleResource());
+        this.service.write(() -> firstDir.resolve(relativePath).toString(), moduleResources);
+
+        final var packageResources = new IndexedClassPathResources();
+        packageResources.add(createPackageResource());
+        final var textFormat = new TextIndexFormat(ClassPathResourceConverter.getInstance());
+        Files.createDirectories(secondDir.resolve(META_INF_DIR));
+        Files.writeString(secondDir.resolve(relativePath), textFormat.write(packageResources));
+
+        final var executedTasks = new AtomicInteger();
+        final Executor executor = task -> {
+            executedTasks.incrementAndGet();
+            new Thread(task).start();
+        };
+
+        try (final var firstLoader = new URLClassLoader(new URL[] { firstDir.toUri().toURL() }, null);
+             final var secondLoader = new URLClassLoader(new URL[] { secondDir.toUri().toURL() }, null)) {
+            final var service = new DefaultClassPathResourcesService(new IndexedResourcesCache<>(1), executor, null);
+            final var location = createLocation(relativePath, firstLoader, secondLoader);
+
+            final var resourcesFromFiles = service.read(location, r -> true);
+            assertEquals(2, resourcesFromFiles.size(), "Resources of both indexes must be read");
+            assertTrue(resourcesFromFiles.containsAll(moduleResources), "Resources must contain module");
+            assertTrue(resourcesFromFiles.containsAll(packageResources), "Resources must contain package");
+            assertEquals(2, executedTasks.get(), "Each index file must be read on the provided executor");
+        }
+    }
+
+    @Test
+    void testReadWhenOneOfSeveralIndexesInvalid() throws IOException {
+        final var firstDir = Files.createTempDirectory("cp-first");
+        final var secondDir = Files.createTempDirectory("cp-second");
+        final var relativePath = META_INF_DIR + "/" + this.indexFile.getName();
+
+        final var resources = new IndexedClassPathResources();
+        resources.add(createModuleResource());
+        this.service.write(() -> firstDir.resolve(relativePath).toString(), resources);
+
+        final var header = ByteBuffer.allocate(BinaryIndexFormat.HEADER_LENGTH)
+                                        .putInt(BinaryIndexFormat.MAGIC)
+                                        .put((byte) (BinaryIndexFormat.VERSION + 1))
+                                        .array();
+        Files.createDirectories(secondDir.resolve(META_INF_DIR));
+        Files.write(secondDir.resolve(relativePath), header);
+
+        try (final var firstLoader = new URLClassLoader(new URL[] { firstDir.toUri().toURL() }, null);
+             final var secondLoader = new URLClassLoader(new URL[] { secondDir.toUri().toURL() }, null)) {
+            final var location = createLocation(relativePath, firstLoader, secondLoader);
+
+            final var service = new DefaultClassPathResourcesService(new IndexedResourcesCache<>(1));
+            final var ex = assertThrows(IndexedClassPathStorageException.class, () -> service.read(location, r -> true));
+            assertTrue(ex.getMessage().contains(secondDir.toString()), "Invalid index file must be reported");
+        }
+    }
+
+    @Test
+    void testReadFromSnapshot() throws IOException {
+        final var snapshotDir = Files.createTempDirectory("cp-snapshots");
+        final var resources = new IndexedClassPathResources();
+        resources.add(createModuleResource());
+        resources.add(createPackageResource());
+        this.service.write(() -> this.indexFile.getAbsolutePath(), resources);
+
+        final IndexedClassPathLocation relativeLocation = () -> META_INF_DIR + "/" + this.indexFile.getName();
+        final var service = new DefaultClassPathResourcesService(new IndexedResourcesCache<>(1), null, snapshotDir);
+        assertEquals(resources, service.read(relativeLocation, r -> true), "Resources must be read from the index");
+
+        final List<Path> snapshots;
+        try (final var files = Files.list(snapshotDir)) {
+            snapshots = files.toList();
+        }
+        assertEquals(1, snapshots.size(), "Snapshot of the merged index must be written");
+
+        // replaces the snapshot to ensure that the restarted service reads the snapshot instead of the index
+        final var packageResources = new IndexedClassPathResources();
+        packageResources.add(createPackageResource());
+        Files.write(snapshots.get(0), new BinaryIndexFormat(BinaryClassPathResourceConverter.getInstance()).write(packageResources));
+
+        final var restartedService = new DefaultClassPathResourcesService(new IndexedResourcesCache<>(1), null, snapshotDir);
+        assertEquals(packageResources, restartedService.read(relativeLocation, r -> true), "Resources must be read from the snapshot");
+        assertEquals(
+                packageResources,
+                restartedService.read(relativeLocation, List.of(Set.of(IndexKey.ofType(ClassPathResource.Type.PACKAGE))), r -> true),
+                "Snapshot must contain the inverted index"
+        );
+
+        final var modifiedResources = new IndexedClassPathResources();
+        modifiedResources.add(createModuleResource());
+        Files.write(this.indexFile.toPath(), new BinaryIndexFormat(BinaryClassPathResourceConverter.getInstance()).write(modifiedResources));
+        Files.setLastModifiedTime(this.indexFile.toPath(), FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        final var serviceWithModifiedIndex = new DefaultClassPathResourcesService(new IndexedResourcesCache<>(1), null, snapshotDir);
+        assertEquals(modifiedResources, serviceWithModifiedIndex.read(relativeLocation, r -> true), "Snapshot of the modified index must not be used");
+    }
+
+    private IndexedClassPathLocation createLocation(final String relativePath, final ClassLoader... loaders) {
+        return new IndexedClassPathLocation() {
+            @Override
+            public String getLocation() {
+                return relativePath;
+            }
+
+            @Override
+            public Set<ClassLoader> getTargetClassLoaders() {
+                return Set.of(loaders);
+            }
+        };
+    }
+
     private PackageResource createPackageResource() {
         return new PackageResource() {
 
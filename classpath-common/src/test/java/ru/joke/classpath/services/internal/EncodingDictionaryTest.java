@@ -0,0 +1,55 @@
+package ru.joke.classpath.services.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodingDictionaryTest {
+
+    @Test
+    void map() {
+        final var dictionary = new EncodingDictionary();
+
+        assertTrue(dictionary.map("").isEmpty(), "Value must be empty");
+        assertNull(dictionary.map(null), "Value must be null");
+        assertEquals(0, dictionary.size(), "Dictionary must be empty");
+        assertEquals("0", dictionary.map("test"), "Id must be assigned");
+        assertEquals("1", dictionary.map("qq"), "Id must be assigned");
+        assertSame(dictionary.map("test"), dictionary.map("test"), "String of the id must be created once");
+        assertEquals(2, dictionary.size(), "Dictionary size must be equal");
+    }
+
+    @Test
+    void addMapping() {
+        final var dictionary = new EncodingDictionary();
+        dictionary.addMapping("test", "5");
+
+        assertEquals("5", dictionary.map("test"), "Id must be equal");
+        assertEquals("6", dictionary.map("qq"), "Next free id must be assigned");
+        assertThrows(IllegalArgumentException.class, () -> dictionary.addMapping("test", "a"));
+    }
+
+    @Test
+    void toMap() {
+        final var dictionary = new EncodingDictionary();
+        dictionary.map("test");
+        dictionary.map("qq");
+
+        assertEquals(Map.of("test", "0", "qq", "1"), dictionary.toMap(), "Map must be equal");
+    }
+
+    @Test
+    void reverseDictionary() {
+        final var dictionary = new EncodingDictionary();
+        dictionary.map("test");
+        dictionary.map("qq");
+
+        final var reversedDictionary = dictionary.reversedDictionary();
+        assertNotNull(reversedDictionary, "Reversed dictionary must be not null");
+        assertEquals(2, reversedDictionary.size(), "Size of reversed dictionary must be equal");
+        assertEquals("test", reversedDictionary.map("0"), "Value must be equal");
+        assertEquals("qq", reversedDictionary.map("1"), "Value must be equal");
+    }
+}
@@ -0,0 +1,139 @@
+package ru.joke.classpath.services.internal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class IndexFileMapperTest {
+
+    private static final String ENTRY_NAME = "META-INF/classpath-index";
+    private static final byte[] CONTENT = "test-index-content".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private IndexFileMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        this.mapper = new IndexFileMapper();
+    }
+
+    @Test
+    void testMapFile() throws IOException {
+        final var indexFile = Files.write(this.tempDir.resolve("index"), CONTENT);
+
+        final var result = this.mapper.map(indexFile.toUri().toURL());
+        assertTrue(result.isPresent(), "File must be mapped");
+        assertArrayEquals(CONTENT, toBytes(result.get()), "Content of the mapped file must be equal");
+    }
+
+    @Test
+    void testMapStoredJarEntry() throws IOException {
+        final var jarFile = createJar(ZipEntry.STORED);
+
+        final var result = this.mapper.map(toEntryUrl(jarFile));
+        assertTrue(result.isPresent(), "Stored JAR entry must be read");
+        assertArrayEquals(CONTENT, toBytes(result.get()), "Content of the read entry must be equal");
+    }
+
+    @Test
+    void testStoredJarEntryNotAffectedByRewriteOfJar() throws IOException {
+        final var jarFile = createJar(ZipEntry.STORED);
+
+        final var result = this.mapper.map(toEntryUrl(jarFile));
+        Files.write(jarFile, new byte[0]);
+
+        assertTrue(result.isPresent(), "Stored JAR entry must be read");
+        assertArrayEquals(CONTENT, toBytes(result.get()), "Content of the entry must not depend on the rewritten JAR file");
+    }
+
+    @Test
+    void testMapCompressedJarEntry() throws IOException {
+        final var jarFile = createJar(ZipEntry.DEFLATED);
+
+        final var result = this.mapper.map(toEntryUrl(jarFile));
+        assertTrue(result.isEmpty(), "Compressed JAR entry can't be mapped");
+    }
+
+    @Test
+    void testSourceFileOfJarEntry() throws IOException {
+        final var jarFile = createJar(ZipEntry.STORED);
+
+        final var result = this.mapper.sourceFile(toEntryUrl(jarFile));
+        assertEquals(jarFile, result.orElseThrow(), "Source file of the entry must be the JAR file");
+    }
+
+    @Test
+    void testMapJarEntriesReleasesFileHandles() throws IOException {
+        final var openFilesDir = Path.of("/proc/self/fd");
+        assumeTrue(Files.isDirectory(openFilesDir), "Open files can't be counted on this platform");
+
+        final var storedJar = createJar(ZipEntry.STORED);
+        final var compressedJar = createJar(ZipEntry.DEFLATED);
+        final long openFilesBefore = countFiles(openFilesDir);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(this.mapper.map(toEntryUrl(storedJar)).isPresent(), "Stored JAR entry must be mapped");
+            assertTrue(this.mapper.map(toEntryUrl(compressedJar)).isEmpty(), "Compressed JAR entry can't be mapped");
+            assertTrue(this.mapper.sourceFile(toEntryUrl(storedJar)).isPresent(), "Source file must be resolved");
+        }
+
+        final long openFilesAfter = countFiles(openFilesDir);
+        assertTrue(openFilesAfter - openFilesBefore < 10, "JAR files must be closed after mapping: " + openFilesBefore + " -> " + openFilesAfter);
+    }
+
+    private long countFiles(final Path dir) throws IOException {
+        try (final var files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    private Path createJar(final int method) throws IOException {
+        final var jarFile = this.tempDir.resolve("test-" + method + ".jar");
+        try (final var output = new JarOutputStream(Files.newOutputStream(jarFile))) {
+            output.putNextEntry(new JarEntry("META-INF/other"));
+            output.write(1);
+            output.closeEntry();
+
+            final var entry = new JarEntry(ENTRY_NAME);
+            entry.setMethod(method);
+            if (method == ZipEntry.STORED) {
+                final var crc = new CRC32();
+                crc.update(CONTENT);
+                entry.setCrc(crc.getValue());
+                entry.setSize(CONTENT.length);
+            }
+
+            output.putNextEntry(entry);
+            output.write(CONTENT);
+            output.closeEntry();
+        }
+
+        return jarFile;
+    }
+
+    private URL toEntryUrl(final Path jarFile) throws IOException {
+        return new URL("jar:" + jarFile.toUri().toURL() + "!/" + ENTRY_NAME);
+    }
+
+    private byte[] toBytes(final ByteBuffer buffer) {
+        final var result = new byte[buffer.remaining()];
+        buffer.get(result);
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+package ru.joke.classpath.services.internal;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.IndexedClassPathResources;
+import ru.joke.classpath.services.IndexedClassPathLocation;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IndexedResourcesCacheTest {
+
+    @Test
+    void testResourcesLoadedOnlyOnceForSameLocation() {
+        final var cache = new IndexedResourcesCache<IndexedClassPathResources>(2);
+        final var loadsCount = new AtomicInteger();
+        final var loaders = Set.of(getClass().getClassLoader());
+
+        final var first = cache.get(IndexedClassPathLocation.relativeLocation(loaders), l -> load(loadsCount));
+        final var second = cache.get(IndexedClassPathLocation.relativeLocation(loaders), l -> load(loadsCount));
+
+        assertSame(first, second, "Cached resources must be same");
+        assertEquals(1, loadsCount.get(), "Resources must be loaded only once");
+        assertEquals(1, cache.size(), "Cache size must be equal");
+    }
+
+    @Test
+    void testResourcesLoadedSeparatelyForDifferentClassLoaders() {
+        final var cache = new IndexedResourcesCache<IndexedClassPathResources>(2);
+        final var loadsCount = new AtomicInteger();
+        final var loader1 = mock(ClassLoader.class);
+        final var loader2 = mock(ClassLoader.class);
+
+        final var first = cache.get(IndexedClassPathLocation.relativeLocation(Set.of(loader1)), l -> load(loadsCount));
+        final var second = cache.get(IndexedClassPathLocation.relativeLocation(Set.of(loader1, loader2)), l -> load(loadsCount));
+        final var third = cache.get(IndexedClassPathLocation.relativeLocation(Set.of(loader2, loader1)), l -> load(loadsCount));
+
+        assertNotSame(first, second, "Resources of different class loaders must be not same");
+        assertSame(second, third, "Resources of same class loaders must be same");
+        assertEquals(2, loadsCount.get(), "Resources must be loaded for each set of class loaders");
+    }
+
+    @Test
+    void testLeastRecentlyUsedLocationEvicted() {
+        final var cache = new IndexedResourcesCache<IndexedClassPathResources>(2);
+        final var loadsCount = new AtomicInteger();
+        final var loaders = Set.of(getClass().getClassLoader());
+        final var location1 = createLocation("1", loaders);
+        final var location2 = createLocation("2", loaders);
+        final var location3 = createLocation("3", loaders);
+
+        cache.get(location1, l -> load(loadsCount));
+        cache.get(location2, l -> load(loadsCount));
+        cache.get(location1, l -> load(loadsCount));
+        cache.get(location3, l -> load(loadsCount));
+
+        assertEquals(2, cache.size(), "Cache size must be limited");
+        assertEquals(3, loadsCount.get(), "Loads count must be equal");
+
+        cache.get(location1, l -> load(loadsCount));
+        assertEquals(3, loadsCount.get(), "Recently used location must be not evicted");
+
+        cache.get(location2, l -> load(loadsCount));
+        assertEquals(4, loadsCount.get(), "Least recently used location must be evicted");
+    }
+
+    @Test
+    void testInvalidation() {
+        final var cache = new IndexedResourcesCache<IndexedClassPathResources>(2);
+        final var loadsCount = new AtomicInteger();
+        final var loaders = Set.of(getClass().getClassLoader());
+        final var location1 = createLocation("1", loaders);
+        final var location2 = createLocation("2", loaders);
+
+        cache.get(location1, l -> load(loadsCount));
+        cache.get(location2, l -> load(loadsCount));
+
+        cache.invalidate(location1);
+        assertEquals(1, cache.size(), "Cache size must be equal");
+
+        cache.get(location1, l -> load(loadsCount));
+        assertEquals(3, loadsCount.get(), "Invalidated location must be loaded again");
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size(), "Cache must be empty");
+    }
+
+    @Test
+    void testInvalidMaxSize() {
+        assertThrows(IllegalArgumentException.class, () -> new IndexedResourcesCache<>(0));
+    }
+
+    private IndexedClassPathResources load(final AtomicInteger loadsCount) {
+        loadsCount.incrementAndGet();
+        return new IndexedClassPathResources();
+    }
+
+    private IndexedClassPathLocation createLocation(final String location, final Set<ClassLoader> loaders) {
+        return new IndexedClassPathLocation() {
+            @Override
+            public String getLocation() {
+                return location;
+            }
+
+            @Override
+            public Set<ClassLoader> getTargetClassLoaders() {
+                return loaders;
+            }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package ru.joke.classpath.services.internal;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.services.InvertedIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SegmentsSpliteratorTest {
+
+    @Test
+    void testTraversalSkipsUnsupportedResources() {
+        final var resources = createResources(3);
+        final var segments = List.of(
+                new InvertedIndex(new ClassPathResource[] { resources.get(0), null }, null),
+                new InvertedIndex(new ClassPathResource[0], null),
+                new InvertedIndex(new ClassPathResource[] { null, resources.get(1), resources.get(2) }, null)
+        );
+        final var spliterator = new SegmentsSpliterator(segments);
+
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED), "Spliterator over whole segments must be sized");
+        assertEquals(3, spliterator.getExactSizeIfKnown(), "Size must be equal");
+        assertEquals(resources, StreamSupport.stream(spliterator, false).toList(), "Resources must be equal");
+    }
+
+    @Test
+    void testEarlyTermination() {
+        final var resources = createResources(3);
+        final var spliterator = new SegmentsSpliterator(List.of(segment(resources)));
+
+        final List<ClassPathResource> result = new ArrayList<>();
+        assertTrue(spliterator.tryAdvance(result::add), "Resource must be taken");
+        assertEquals(List.of(resources.get(0)), result, "Only first resource must be taken");
+        assertEquals(2, spliterator.getExactSizeIfKnown(), "Size of the rest must be equal");
+    }
+
+    @Test
+    void testSizeComputedOnlyOnRequest() {
+        final var resources = createResources(3);
+        final var firstSegment = spy(segment(resources.subList(0, 2)));
+        final var secondSegment = spy(segment(resources.subList(2, 3)));
+        final var spliterator = new SegmentsSpliterator(List.of(firstSegment, secondSegment));
+
+        final List<ClassPathResource> result = new ArrayList<>();
+        assertTrue(spliterator.tryAdvance(result::add), "Resource must be taken");
+        verify(firstSegment, never()).size();
+        verify(secondSegment, never()).size();
+
+        assertEquals(2, spliterator.getExactSizeIfKnown(), "Size of the rest must be equal");
+        spliterator.forEachRemaining(result::add);
+        assertEquals(resources, result, "Resources must be equal");
+    }
+
+    @Test
+    void testSplitBySegments() {
+        final var resources = createResources(4);
+        final var segments = List.of(
+                segment(resources.subList(0, 1)),
+                segment(resources.subList(1, 3)),
+                segment(resources.subList(3, 4))
+        );
+        final var spliterator = new SegmentsSpliterator(segments);
+
+        final var prefix = spliterator.trySplit();
+        assertNotNull(prefix, "Spliterator must be split");
+        assertEquals(1, prefix.getExactSizeIfKnown(), "Size of the prefix must be equal");
+        assertEquals(3, spliterator.getExactSizeIfKnown(), "Size of the rest must be equal");
+
+        final List<ClassPathResource> result = new ArrayList<>();
+        prefix.forEachRemaining(result::add);
+        spliterator.forEachRemaining(result::add);
+        assertEquals(resources, result, "Resources must be equal");
+    }
+
+    @Test
+    void testSplitOfSingleSegment() {
+        final var resources = createResources(2_048);
+        final var spliterator = new SegmentsSpliterator(List.of(segment(resources)));
+
+        final var prefix = spliterator.trySplit();
+        assertNotNull(prefix, "Segment must be split");
+        assertFalse(prefix.hasCharacteristics(Spliterator.SIZED), "Range of the segment must not be sized");
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED), "Range of the segment must not be sized");
+
+        final List<ClassPathResource> result = new ArrayList<>();
+        prefix.forEachRemaining(result::add);
+        spliterator.forEachRemaining(result::add);
+        assertEquals(resources, result, "Resources must be equal");
+        assertEquals(resources, StreamSupport.stream(new SegmentsSpliterator(List.of(segment(resources))), true).toList(), "Parallel traversal must keep the order");
+    }
+
+    private InvertedIndex segment(final List<ClassPathResource> resources) {
+        return new InvertedIndex(resources.toArray(new ClassPathResource[0]), null);
+    }
+
+    private List<ClassPathResource> createResources(final int count) {
+        return IntStream.range(0, count)
+                        .mapToObj(i -> mock(ClassPathResource.class))
+                        .toList();
+    }
+}
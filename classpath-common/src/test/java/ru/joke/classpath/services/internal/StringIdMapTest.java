@@ -0,0 +1,43 @@
+package ru.joke.classpath.services.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringIdMapTest {
+
+    @Test
+    void putIfAbsent() {
+        final var map = new StringIdMap(1);
+
+        assertEquals(StringIdMap.NO_ID, map.putIfAbsent("test", 0), "Key must be added");
+        assertEquals(0, map.putIfAbsent("test", 1), "Previous id must be returned");
+        assertEquals(0, map.get("test"), "Id must be equal");
+        assertEquals(StringIdMap.NO_ID, map.get("qq"), "Id must be absent");
+        assertEquals(1, map.size(), "Size must be equal");
+    }
+
+    @Test
+    void resize() {
+        final var map = new StringIdMap(1);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(StringIdMap.NO_ID, map.putIfAbsent("value" + i, i), "Key must be added");
+        }
+
+        assertEquals(10_000, map.size(), "Size must be equal");
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, map.get("value" + i), "Id must be equal");
+        }
+    }
+
+    @Test
+    void collidingKeys() {
+        // "Aa" and "BB" have the same hash code
+        final var map = new StringIdMap(1);
+        map.putIfAbsent("Aa", 0);
+        map.putIfAbsent("BB", 1);
+
+        assertEquals(0, map.get("Aa"), "Id must be equal");
+        assertEquals(1, map.get("BB"), "Id must be equal");
+    }
+}
@@ -0,0 +1,27 @@
+package ru.joke.classpath.test_util;
+
+import java.util.Map;
+
+/**
+ * Dictionary of the integer ids looking up the ids without allocations.
+ */
+public class TestArrayDictionary extends TestDictionary {
+
+    private final String[] values;
+
+    public TestArrayDictionary(Map<String, String> map) {
+        super(map);
+        this.values = new String[map.size()];
+        map.forEach((id, value) -> this.values[Integer.parseInt(id)] = value);
+    }
+
+    @Override
+    public String map(CharSequence chars, int from, int to) {
+        int id = 0;
+        for (int i = from; i < to; i++) {
+            id = id * 10 + chars.charAt(i) - '0';
+        }
+
+        return id < this.values.length ? this.values[id] : null;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.joke.classpath.test_util;
+
+import ru.joke.classpath.converters.StringTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestStringTable implements StringTable {
+
+    private final List<String> strings = new ArrayList<>(List.of(""));
+
+    @Override
+    public int idOf(String str) {
+        final int id = this.strings.indexOf(str);
+        if (id >= 0) {
+            return id;
+        }
+
+        this.strings.add(str);
+        return this.strings.size() - 1;
+    }
+
+    @Override
+    public String valueOf(int id) {
+        return this.strings.get(id);
+    }
+
+    @Override
+    public int size() {
+        return this.strings.size();
+    }
+}
@@ -1,6 +1,14 @@
 package ru.joke.classpath.scanner;
 
+import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.ClassPathResources;
+import ru.joke.classpath.IndexedClassPathResources;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A representation of a scan engine.<br>
@@ -26,6 +34,93 @@ public interface ClassPathScannerEngine {
      */
     ClassPathResources scan(ClassPathScanner scanner);
 
+    /**
+     * Scans classpath resources based on criteria passed via a scanner object asynchronously
+     * on the {@link ClassPathScannerEngineConfiguration#executor() executor of the engine}.
+     *
+     * @param scanner scanner; cannot be {@code null}.
+     * @return future completed with classpath resources that match the scanner's query; cannot be {@code null}.
+     * @see #scan(ClassPathScanner)
+     */
+    default CompletableFuture<ClassPathResources> scanAsync(ClassPathScanner scanner) {
+        if (scanner == null) {
+            throw new InvalidApiUsageException("Scanner must be not null");
+        }
+
+        return CompletableFuture.supplyAsync(() -> scan(scanner), configuration().executor());
+    }
+
+    /**
+     * Scans classpath resources based on criteria passed via several scanner objects. The engine implementations
+     * evaluate the queries of all scanners in one traversal of the resources instead of scanning the resources
+     * for each scanner separately.
+     *
+     * @param scanners scanners; cannot be {@code null} and cannot contain {@code null} elements.
+     * @return classpath resources that match the query of each scanner (in the order of the scanners); cannot be {@code null}.
+     * @see #scan(ClassPathScanner)
+     */
+    default Map<ClassPathScanner, ClassPathResources> scanAll(Collection<ClassPathScanner> scanners) {
+        if (scanners == null) {
+            throw new InvalidApiUsageException("Scanners must be not null");
+        }
+
+        final Map<ClassPathScanner, ClassPathResources> result = new LinkedHashMap<>();
+        scanners.forEach(scanner -> result.put(scanner, scan(scanner)));
+        return result;
+    }
+
+    /**
+     * Scans at most the given number of classpath resources based on criteria passed via a scanner object.
+     * The scan is stopped after the required number of the matching resources is found.
+     *
+     * @param scanner scanner; cannot be {@code null}.
+     * @param limit   maximal number of the resources; cannot be negative.
+     * @return classpath resources that match the scanner's query; cannot be {@code null}.
+     * @see #scan(ClassPathScanner)
+     */
+    default ClassPathResources scan(ClassPathScanner scanner, int limit) {
+        if (limit < 0) {
+            throw new InvalidApiUsageException("Limit must be not negative: " + limit);
+        }
+
+        final var result = new IndexedClassPathResources();
+        scan(scanner).stream().limit(limit).forEach(result::add);
+        return result;
+    }
+
+    /**
+     * Finds an arbitrary classpath resource that matches the scanner's query.
+     * The scan is stopped after the first matching resource is found.
+     *
+     * @param scanner scanner; cannot be {@code null}.
+     * @return any resource that matches the scanner's query wrapped in {@link Optional}; if there are no such resources,
+     * {@link Optional#empty()} will be returned.
+     */
+    default Optional<ClassPathResource> findAny(ClassPathScanner scanner) {
+        return scan(scanner).any();
+    }
+
+    /**
+     * Returns whether any classpath resource matches the scanner's query.
+     * The scan is stopped after the first matching resource is found.
+     *
+     * @param scanner scanner; cannot be {@code null}.
+     * @return {@code true} if there is a resource that matches the scanner's query, {@code false} otherwise.
+     */
+    default boolean exists(ClassPathScanner scanner) {
+        return findAny(scanner).isPresent();
+    }
+
+    /**
+     * Counts the classpath resources that match the scanner's query without collecting them.
+     *
+     * @param scanner scanner; cannot be {@code null}.
+     * @return number of the resources that match the scanner's query.
+     */
+    default int count(ClassPathScanner scanner) {
+        return scan(scanner).size();
+    }
+
     /**
      * Returns this engine configuration.
      *
@@ -38,4 +133,16 @@ public interface ClassPathScannerEngine {
      * Reloads the engine state (does nothing for stateless engines).
      */
     void reload();
+
+    /**
+     * Reloads the engine state asynchronously on the {@link ClassPathScannerEngineConfiguration#executor() executor
+     * of the engine} (completes immediately for stateless engines).<br>
+     * The scans performed during the reload use the previous state of the engine.
+     *
+     * @return future completed when the new state is available for the scans; cannot be {@code null}.
+     * @see #reload()
+     */
+    default CompletableFuture<Void> reloadAsync() {
+        return CompletableFuture.runAsync(this::reload, configuration().executor());
+    }
 }
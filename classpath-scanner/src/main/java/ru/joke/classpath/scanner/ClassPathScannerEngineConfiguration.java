@@ -1,9 +1,15 @@
 package ru.joke.classpath.scanner;
 
+import ru.joke.classpath.services.DefaultExecutors;
+
 import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Scan engine configuration. Specifies settings for creating the engine and controlling its behavior.<br>
@@ -21,11 +27,21 @@ import java.util.Set;
  *                                                resources that will be scanned.
  * @param enableEagerStatefulEngineInitialization Whether eager initialization of a stateful engine is enabled. If eager
  *                                                initialization is enabled, the set of resources for future scanning
- *                                                will be loaded into memory when the engine is created, reducing the
- *                                                time of the first scan request. Otherwise, the data will be loaded
- *                                                into memory only on the first scan request through this engine.
+ *                                                will be loaded into memory asynchronously (on the executor of the
+ *                                                engine) when the engine is created, reducing the time of the first
+ *                                                scan request. Otherwise, the data will be loaded into memory only
+ *                                                on the first scan request through this engine.
  * @param targetClassLoaders                      The set of class loaders used to load resources from index files
  *                                                in various JARs; cannot be {@code null}.
+ * @param scanResultsCacheSize                    The maximum number of the scan results cached by a stateful engine;
+ *                                                the results of the repeated scans by the equal queries are returned
+ *                                                from the cache, the least recently used results are evicted first;
+ *                                                the queries with the custom filters aren't cached.
+ *                                                {@code 0} disables the cache. Cannot be negative.
+ * @param executor                                The executor of the asynchronous operations of the engine: the
+ *                                                asynchronous scans, reloads and the eager initialization of a stateful
+ *                                                engine. By default, the {@link #defaultExecutor() default executor}
+ *                                                is used. Cannot be {@code null}.
  *
  * @author Alik
  * @see ClassPathScannerEngine
@@ -36,9 +52,16 @@ public record ClassPathScannerEngineConfiguration(
         Optional<ClassPathScanner> defaultScopeFilter,
         boolean disableDefaultScopeOverride,
         boolean enableEagerStatefulEngineInitialization,
-        Set<ClassLoader> targetClassLoaders
+        Set<ClassLoader> targetClassLoaders,
+        int scanResultsCacheSize,
+        Executor executor
 ) {
 
+    /**
+     * Default maximum number of the scan results cached by a stateful engine.
+     */
+    public static final int DEFAULT_SCAN_RESULTS_CACHE_SIZE = 128;
+
     /**
      * Constructs the configuration object with provided parameters.
      *
@@ -53,17 +76,89 @@ public record ClassPathScannerEngineConfiguration(
      *                                                resources that will be scanned.
      * @param enableEagerStatefulEngineInitialization whether eager initialization of a stateful engine is enabled. If eager
      *                                                initialization is enabled, the set of resources for future scanning
-     *                                                will be loaded into memory when the engine is created, reducing the
-     *                                                time of the first scan request. Otherwise, the data will be loaded
-     *                                                into memory only on the first scan request through this engine.
+     *                                                will be loaded into memory asynchronously (on the executor of the
+     *                                                engine) when the engine is created, reducing the time of the first
+     *                                                scan request. Otherwise, the data will be loaded into memory only
+     *                                                on the first scan request through this engine.
      * @param targetClassLoaders                      the set of class loaders used to load resources from index files
      *                                                in various JARs; cannot be {@code null}.
+     * @param scanResultsCacheSize                    the maximum number of the scan results cached by a stateful engine;
+     *                                                {@code 0} disables the cache. Cannot be negative.
+     * @param executor                                the executor of the asynchronous operations of the engine;
+     *                                                cannot be {@code null}.
      */
     public ClassPathScannerEngineConfiguration {
         Objects.requireNonNull(defaultScopeFilter);
+        if (executor == null) {
+            throw new InvalidApiUsageException("Executor must be not null");
+        }
+
         if (targetClassLoaders == null || targetClassLoaders.isEmpty()) {
             throw new InvalidApiUsageException("Class loaders must be not empty");
         }
+
+        if (scanResultsCacheSize < 0) {
+            throw new InvalidApiUsageException("Size of the scan results cache must be not negative");
+        }
+    }
+
+    /**
+     * Constructs the configuration object with provided parameters and the {@link #defaultExecutor() default executor}.
+     *
+     * @param stateful                                whether the engine should retain state.
+     * @param defaultScopeFilter                      a filter for the engine's default scanning scope; cannot be {@code null}.
+     * @param disableDefaultScopeOverride             whether overriding the engine's default scope should be disabled.
+     * @param enableEagerStatefulEngineInitialization whether eager initialization of a stateful engine is enabled.
+     * @param targetClassLoaders                      the set of class loaders used to load resources from index files
+     *                                                in various JARs; cannot be {@code null}.
+     * @param scanResultsCacheSize                    the maximum number of the scan results cached by a stateful engine;
+     *                                                {@code 0} disables the cache. Cannot be negative.
+     */
+    public ClassPathScannerEngineConfiguration(
+            boolean stateful,
+            Optional<ClassPathScanner> defaultScopeFilter,
+            boolean disableDefaultScopeOverride,
+            boolean enableEagerStatefulEngineInitialization,
+            Set<ClassLoader> targetClassLoaders,
+            int scanResultsCacheSize
+    ) {
+        this(
+                stateful,
+                defaultScopeFilter,
+                disableDefaultScopeOverride,
+                enableEagerStatefulEngineInitialization,
+                targetClassLoaders,
+                scanResultsCacheSize,
+                defaultExecutor()
+        );
+    }
+
+    /**
+     * Constructs the configuration object with provided parameters and the default size of the scan results cache.
+     *
+     * @param stateful                                whether the engine should retain state.
+     * @param defaultScopeFilter                      a filter for the engine's default scanning scope; cannot be {@code null}.
+     * @param disableDefaultScopeOverride             whether overriding the engine's default scope should be disabled.
+     * @param enableEagerStatefulEngineInitialization whether eager initialization of a stateful engine is enabled.
+     * @param targetClassLoaders                      the set of class loaders used to load resources from index files
+     *                                                in various JARs; cannot be {@code null}.
+     * @see #DEFAULT_SCAN_RESULTS_CACHE_SIZE
+     */
+    public ClassPathScannerEngineConfiguration(
+            boolean stateful,
+            Optional<ClassPathScanner> defaultScopeFilter,
+            boolean disableDefaultScopeOverride,
+            boolean enableEagerStatefulEngineInitialization,
+            Set<ClassLoader> targetClassLoaders
+    ) {
+        this(
+                stateful,
+                defaultScopeFilter,
+                disableDefaultScopeOverride,
+                enableEagerStatefulEngineInitialization,
+                targetClassLoaders,
+                DEFAULT_SCAN_RESULTS_CACHE_SIZE
+        );
     }
 
     /**
@@ -81,6 +176,18 @@ public record ClassPathScannerEngineConfiguration(
         );
     }
 
+    /**
+     * Returns the default executor of the asynchronous operations of the engines, shared by all engines.<br>
+     * If the virtual threads are supported by the runtime (Java 21+), the executor starts a new virtual thread
+     * for each task; otherwise, the tasks are executed on the pool of the daemon threads bounded by the number
+     * of the available processors, the idle threads of the pool are terminated.
+     *
+     * @return default executor; cannot be {@code null}.
+     */
+    public static Executor defaultExecutor() {
+        return DefaultExecutorHolder.executor;
+    }
+
     /**
      * Returns a builder instance for constructing a configuration object.<br>
      * The returned object is not thread-safe.
@@ -104,6 +211,8 @@ public record ClassPathScannerEngineConfiguration(
         private boolean disableDefaultScopeOverride;
         private boolean enableEagerStatefulEngineInitialization;
         private Set<ClassLoader> targetClassLoaders = Set.of(getClass().getClassLoader());
+        private int scanResultsCacheSize = DEFAULT_SCAN_RESULTS_CACHE_SIZE;
+        private Executor executor;
 
         /**
          * Sets the flag that the engine should be stateful.<br>
@@ -200,6 +309,41 @@ public record ClassPathScannerEngineConfiguration(
             return this;
         }
 
+        /**
+         * Sets the maximum number of the scan results cached by a stateful engine.<br>
+         * By default, {@link ClassPathScannerEngineConfiguration#DEFAULT_SCAN_RESULTS_CACHE_SIZE} results are cached.
+         *
+         * @param size maximum number of the cached results; {@code 0} disables the cache. Cannot be negative.
+         * @return this builder instance for further construction; cannot be {@code null}.
+         * @see ClassPathScannerEngineConfiguration#scanResultsCacheSize()
+         */
+        public Builder scanResultsCacheSize(int size) {
+            if (size < 0) {
+                throw new InvalidApiUsageException("Size of the scan results cache must be not negative");
+            }
+
+            this.scanResultsCacheSize = size;
+            return this;
+        }
+
+        /**
+         * Sets the executor of the asynchronous operations of the engine: the asynchronous scans, reloads
+         * and the eager initialization of a stateful engine.<br>
+         * By default, the {@link ClassPathScannerEngineConfiguration#defaultExecutor()} is used.
+         *
+         * @param executor executor of the asynchronous operations; cannot be {@code null}.
+         * @return this builder instance for further construction; cannot be {@code null}.
+         * @see ClassPathScannerEngineConfiguration#executor()
+         */
+        public Builder executor(Executor executor) {
+            if (executor == null) {
+                throw new InvalidApiUsageException("Executor must be not null");
+            }
+
+            this.executor = executor;
+            return this;
+        }
+
         /**
          * Builds the engine configuration object based on the parameters set in the builder.
          *
@@ -211,8 +355,34 @@ public record ClassPathScannerEngineConfiguration(
                     Optional.ofNullable(this.defaultScopeFilter),
                     this.disableDefaultScopeOverride,
                     this.enableEagerStatefulEngineInitialization,
-                    this.targetClassLoaders
+                    this.targetClassLoaders,
+                    this.scanResultsCacheSize,
+                    this.executor == null ? defaultExecutor() : this.executor
             );
         }
     }
+
+    private static final class DefaultExecutorHolder {
+
+        private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+        private static final Executor executor = createExecutor();
+
+        private static Executor createExecutor() {
+            return DefaultExecutors.newVirtualThreadPerTaskExecutor().orElseGet(() -> {
+                final int threadsCount = Runtime.getRuntime().availableProcessors();
+                final var result = new ThreadPoolExecutor(
+                        threadsCount,
+                        threadsCount,
+                        IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        DefaultExecutors.daemonThreadFactory("classpath-scanner-engine")
+                );
+                result.allowCoreThreadTimeOut(true);
+
+                return result;
+            });
+        }
+    }
 }
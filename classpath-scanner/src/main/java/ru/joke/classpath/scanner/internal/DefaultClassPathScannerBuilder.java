@@ -5,15 +5,23 @@ import ru.joke.classpath.ClassResource;
 import ru.joke.classpath.scanner.ClassPathScanner;
 import ru.joke.classpath.scanner.ClassPathScannerBuilder;
 import ru.joke.classpath.scanner.InvalidApiUsageException;
+import ru.joke.classpath.scanner.internal.query.ConditionNode;
+import ru.joke.classpath.scanner.internal.query.ConditionNode.Operation;
+import ru.joke.classpath.scanner.internal.query.QueryCompiler;
+import ru.joke.classpath.scanner.internal.query.QueryNode;
+import ru.joke.classpath.services.IndexKey;
 
 import java.lang.annotation.Annotation;
-import java.util.Collection;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 /**
- * Default implementation of the classpath resource scanner builder.
+ * Default implementation of the classpath resource scanner builder.<br>
+ * The query tree of the built scanner is {@link QueryCompiler compiled} into one fused predicate which is used
+ * to test the resources by the scanner. The compilation can be disabled to evaluate the query tree directly
+ * (interpretively) via the system property {@value #COMPILE_QUERIES_PROPERTY} set to {@code false}
+ * or via {@link #DefaultClassPathScannerBuilder(boolean)}.
  *
  * @author Alik
  * @see ClassPathScannerBuilder
@@ -21,27 +29,58 @@ import java.util.regex.Pattern;
  */
 public final class DefaultClassPathScannerBuilder implements ClassPathScannerBuilder {
 
+    /**
+     * System property enabling the compilation of the queries of the built scanners; {@code true} by default.
+     */
+    public static final String COMPILE_QUERIES_PROPERTY = "ru.joke.classpath.scanner.compileQueries";
+
+    private final boolean compileQueries;
+
+    /**
+     * Constructs the builder; the compilation of the queries is controlled by the system property
+     * {@value #COMPILE_QUERIES_PROPERTY}.
+     */
+    public DefaultClassPathScannerBuilder() {
+        this(Boolean.parseBoolean(System.getProperty(COMPILE_QUERIES_PROPERTY, Boolean.TRUE.toString())));
+    }
+
+    /**
+     * Constructs the builder.
+     *
+     * @param compileQueries whether the queries of the built scanners should be compiled; if {@code false},
+     *                       the query trees are evaluated directly.
+     */
+    public DefaultClassPathScannerBuilder(final boolean compileQueries) {
+        this.compileQueries = compileQueries;
+    }
+
     @Override
     public Begin begin(boolean overrideDefaultEngineScope) {
-        return new CompoundFilter(null, overrideDefaultEngineScope);
+        return new CompoundFilter(null, overrideDefaultEngineScope, this.compileQueries);
     }
 
     static class CompoundFilter implements Begin, LogicalOperations, End {
 
         private final CompoundFilter parent;
         private final boolean overrideDefaultEngineScope;
+        private final boolean compileQueries;
 
-        private Predicate<ClassPathResource> filter = r -> true;
+        private QueryNode query = ConditionNode.all();
         private Operator operator = Operator.AND;
         private boolean negate;
 
-        private CompoundFilter(final CompoundFilter parent, final boolean overrideDefaultEngineScope) {
+        private CompoundFilter(
+                final CompoundFilter parent,
+                final boolean overrideDefaultEngineScope,
+                final boolean compileQueries
+        ) {
             this.parent = parent;
             this.overrideDefaultEngineScope = overrideDefaultEngineScope;
+            this.compileQueries = compileQueries;
         }
 
         private CompoundFilter(final CompoundFilter parent) {
-            this(parent, false);
+            this(parent, false, false);
         }
 
         @Override
@@ -52,25 +91,39 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
         @Override
         public LogicalOperations includeResourcesInPackage(boolean exactMatch, String packageName) {
             return appendCondition(
+                    Operation.INCLUDE_PACKAGE,
+                    arguments(exactMatch, packageName),
                     r -> exactMatch
                             ? r.packageName().equals(packageName)
-                            : r.packageName().startsWith(packageName)
+                            : r.packageName().startsWith(packageName),
+                    exactMatch ? anyOfKeys(IndexKey.Kind.PACKAGE, packageName) : List.of()
             );
         }
 
         @Override
         public LogicalOperations includeResourcesInPackages(Pattern packagesPattern) {
-            return appendCondition(r -> packagesPattern.matcher(r.packageName()).matches());
+            return appendCondition(
+                    Operation.INCLUDE_PACKAGES_PATTERN,
+                    arguments(packagesPattern),
+                    r -> packagesPattern.matcher(r.packageName()).matches()
+            );
         }
 
         @Override
         public LogicalOperations includeResourcesInPackages(boolean exactMatch, String... packageNames) {
-            return appendCondition(r -> contains(r.packageName(), exactMatch, packageNames));
+            return appendCondition(
+                    Operation.INCLUDE_PACKAGES,
+                    arguments(exactMatch, packageNames),
+                    r -> contains(r.packageName(), exactMatch, packageNames),
+                    exactMatch ? anyOfKeys(IndexKey.Kind.PACKAGE, packageNames) : List.of()
+            );
         }
 
         @Override
         public LogicalOperations excludeResourcesInPackage(boolean exactMatch, String packageName) {
             return appendCondition(
+                    Operation.EXCLUDE_PACKAGE,
+                    arguments(exactMatch, packageName),
                     r -> exactMatch
                             ? !r.packageName().equals(packageName)
                             : !r.packageName().startsWith(packageName)
@@ -79,115 +132,209 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
 
         @Override
         public LogicalOperations excludeResourcesInPackages(boolean exactMatch, String... packageNames) {
-            return appendCondition(r -> !contains(r.packageName(), exactMatch, packageNames));
+            return appendCondition(
+                    Operation.EXCLUDE_PACKAGES,
+                    arguments(exactMatch, packageNames),
+                    r -> !contains(r.packageName(), exactMatch, packageNames)
+            );
         }
 
         @Override
         public LogicalOperations excludeResourcesInPackages(Pattern packagesPattern) {
-            return appendCondition(r -> !packagesPattern.matcher(r.packageName()).matches());
+            return appendCondition(
+                    Operation.EXCLUDE_PACKAGES_PATTERN,
+                    arguments(packagesPattern),
+                    r -> !packagesPattern.matcher(r.packageName()).matches()
+            );
         }
 
         @Override
         public LogicalOperations includeResourcesInModule(String moduleName) {
-            return appendCondition(r -> r.module().equals(moduleName));
+            return appendCondition(
+                    Operation.INCLUDE_MODULE,
+                    arguments(moduleName),
+                    r -> r.module().equals(moduleName),
+                    anyOfKeys(IndexKey.Kind.MODULE, moduleName)
+            );
         }
 
         @Override
         public LogicalOperations includeResourcesInModules(String... moduleNames) {
-            return appendCondition(r -> contains(r.module(), true, moduleNames));
+            return appendCondition(
+                    Operation.INCLUDE_MODULES,
+                    arguments((Object) moduleNames),
+                    r -> contains(r.module(), true, moduleNames),
+                    anyOfKeys(IndexKey.Kind.MODULE, moduleNames)
+            );
         }
 
         @Override
         public LogicalOperations includeResourcesInModules(Pattern modulesPattern) {
-            return appendCondition(r -> modulesPattern.matcher(r.module()).matches());
+            return appendCondition(
+                    Operation.INCLUDE_MODULES_PATTERN,
+                    arguments(modulesPattern),
+                    r -> modulesPattern.matcher(r.module()).matches()
+            );
         }
 
         @Override
         public LogicalOperations excludeResourcesInModule(String moduleName) {
-            return appendCondition(r -> !r.module().equals(moduleName));
+            return appendCondition(
+                    Operation.EXCLUDE_MODULE,
+                    arguments(moduleName),
+                    r -> !r.module().equals(moduleName)
+            );
         }
 
         @Override
         public LogicalOperations excludeResourcesInModules(String... moduleNames) {
-            return appendCondition(r -> !contains(r.module(), true, moduleNames));
+            return appendCondition(
+                    Operation.EXCLUDE_MODULES,
+                    arguments((Object) moduleNames),
+                    r -> !contains(r.module(), true, moduleNames)
+            );
         }
 
         @Override
         public LogicalOperations excludeResourcesInModules(Pattern modulesPattern) {
-            return appendCondition(r -> !modulesPattern.matcher(r.module()).matches());
+            return appendCondition(
+                    Operation.EXCLUDE_MODULES_PATTERN,
+                    arguments(modulesPattern),
+                    r -> !modulesPattern.matcher(r.module()).matches()
+            );
         }
 
         @Override
         public LogicalOperations annotatedBy(Class<? extends Annotation> annotation) {
-            return appendCondition(r -> contains(r.annotations(), annotation));
+            final var annotationName = canonicalName(annotation);
+            return appendCondition(
+                    Operation.ANNOTATED_BY,
+                    arguments(annotation),
+                    r -> contains(r.annotations(), annotationName),
+                    anyOfKeys(IndexKey.Kind.ANNOTATION, annotation)
+            );
         }
 
         @Override
         @SafeVarargs
         public final LogicalOperations annotatedByAnyOf(Class<? extends Annotation>... annotations) {
-            return appendCondition(r -> containsAny(r.annotations(), annotations));
+            final var annotationNames = canonicalNames(annotations);
+            return appendCondition(
+                    Operation.ANNOTATED_BY_ANY_OF,
+                    arguments(arrayArgument(annotations)),
+                    r -> containsAny(r.annotations(), annotationNames),
+                    anyOfKeys(IndexKey.Kind.ANNOTATION, annotations)
+            );
         }
 
         @Override
         @SafeVarargs
         public final LogicalOperations annotatedByAllOf(Class<? extends Annotation>... annotations) {
-            return appendCondition(r -> containsAll(r.annotations(), annotations));
+            final var annotationNames = canonicalNames(annotations);
+            return appendCondition(
+                    Operation.ANNOTATED_BY_ALL_OF,
+                    arguments(arrayArgument(annotations)),
+                    r -> containsAll(r.annotations(), annotationNames),
+                    allOfKeys(IndexKey.Kind.ANNOTATION, annotations)
+            );
         }
 
         @Override
         public LogicalOperations withAlias(String alias) {
-            return appendCondition(r -> r.aliases().contains(alias));
+            return appendCondition(
+                    Operation.WITH_ALIAS,
+                    arguments(alias),
+                    r -> r.aliases().contains(alias),
+                    anyOfKeys(IndexKey.Kind.ALIAS, alias)
+            );
         }
 
         @Override
         public LogicalOperations withAnyOfAliases(Pattern aliasesPattern) {
-            return appendCondition(r -> r.aliases().stream().anyMatch(a -> aliasesPattern.matcher(a).matches()));
+            return appendCondition(
+                    Operation.WITH_ANY_OF_ALIASES_PATTERN,
+                    arguments(aliasesPattern),
+                    r -> r.aliases().stream().anyMatch(a -> aliasesPattern.matcher(a).matches())
+            );
         }
 
         @Override
         public LogicalOperations withAllOfAliases(Pattern aliasesPattern) {
-            return appendCondition(r -> !r.aliases().isEmpty() && r.aliases().stream().allMatch(a -> aliasesPattern.matcher(a).matches()));
+            return appendCondition(
+                    Operation.WITH_ALL_OF_ALIASES_PATTERN,
+                    arguments(aliasesPattern),
+                    r -> !r.aliases().isEmpty() && r.aliases().stream().allMatch(a -> aliasesPattern.matcher(a).matches())
+            );
         }
 
         @Override
         public LogicalOperations withAnyOfAliases(String... aliases) {
-            return appendCondition(r -> containsAny(r.aliases(), aliases));
+            return appendCondition(
+                    Operation.WITH_ANY_OF_ALIASES,
+                    arguments((Object) aliases),
+                    r -> containsAny(r.aliases(), aliases),
+                    anyOfKeys(IndexKey.Kind.ALIAS, aliases)
+            );
         }
 
         @Override
         public LogicalOperations withAllOfAliases(String... aliases) {
-            return appendCondition(r -> containsAll(r.aliases(), aliases));
+            return appendCondition(
+                    Operation.WITH_ALL_OF_ALIASES,
+                    arguments((Object) aliases),
+                    r -> containsAll(r.aliases(), aliases),
+                    allOfKeys(IndexKey.Kind.ALIAS, aliases)
+            );
         }
 
         @Override
         public LogicalOperations implementsInterface(Class<?> interfaceClass) {
+            final var interfaceName = canonicalName(interfaceClass);
             return appendCondition(
-                    r -> r instanceof ClassResource<?> cr && contains(cr.interfaces(), interfaceClass)
+                    Operation.IMPLEMENTS_INTERFACE,
+                    arguments(interfaceClass),
+                    r -> r instanceof ClassResource<?> cr && contains(cr.interfaces(), interfaceName),
+                    anyOfKeys(IndexKey.Kind.INTERFACE, interfaceClass)
             );
         }
 
         @Override
         public LogicalOperations implementsAnyOfInterfaces(Class<?>... interfaceClasses) {
+            final var interfaceNames = canonicalNames(interfaceClasses);
             return appendCondition(
-                    r -> r instanceof ClassResource<?> cr && containsAny(cr.interfaces(), interfaceClasses)
+                    Operation.IMPLEMENTS_ANY_OF_INTERFACES,
+                    arguments((Object) interfaceClasses),
+                    r -> r instanceof ClassResource<?> cr && containsAny(cr.interfaces(), interfaceNames),
+                    anyOfKeys(IndexKey.Kind.INTERFACE, interfaceClasses)
             );
         }
 
         @Override
         public LogicalOperations implementsAllOfInterfaces(Class<?>... interfaceClasses) {
+            final var interfaceNames = canonicalNames(interfaceClasses);
             return appendCondition(
-                    r -> r instanceof ClassResource<?> cr && containsAll(cr.interfaces(), interfaceClasses)
+                    Operation.IMPLEMENTS_ALL_OF_INTERFACES,
+                    arguments((Object) interfaceClasses),
+                    r -> r instanceof ClassResource<?> cr && containsAll(cr.interfaces(), interfaceNames),
+                    allOfKeys(IndexKey.Kind.INTERFACE, interfaceClasses)
             );
         }
 
         @Override
         public LogicalOperations includeResourceType(ClassPathResource.Type type) {
-            return appendCondition(r -> r.type() == type);
+            return appendCondition(
+                    Operation.INCLUDE_RESOURCE_TYPE,
+                    arguments(type),
+                    r -> r.type() == type,
+                    typeKeys(type)
+            );
         }
 
         @Override
         public LogicalOperations includeResourceTypes(ClassPathResource.Type... types) {
             return appendCondition(
+                    Operation.INCLUDE_RESOURCE_TYPES,
+                    arguments((Object) types),
                     r -> {
                         if (types == null || types.length == 0) {
                             return true;
@@ -200,18 +347,25 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
                         }
 
                         return false;
-                    }
+                    },
+                    typeKeys(types)
             );
         }
 
         @Override
         public LogicalOperations excludeResourceType(ClassPathResource.Type type) {
-            return appendCondition(r -> r.type() != type);
+            return appendCondition(
+                    Operation.EXCLUDE_RESOURCE_TYPE,
+                    arguments(type),
+                    r -> r.type() != type
+            );
         }
 
         @Override
         public LogicalOperations excludeResourceTypes(ClassPathResource.Type... types) {
             return appendCondition(
+                    Operation.EXCLUDE_RESOURCE_TYPES,
+                    arguments((Object) types),
                     r -> {
                         if (types == null) {
                             return true;
@@ -230,36 +384,61 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
 
         @Override
         public LogicalOperations extendsBy(Class<?> superClass) {
+            final var superClassName = canonicalName(superClass);
             return appendCondition(
-                    r -> r instanceof ClassResource<?> cr && contains(cr.superClasses(), superClass)
+                    Operation.EXTENDS_BY,
+                    arguments(superClass),
+                    r -> r instanceof ClassResource<?> cr && contains(cr.superClasses(), superClassName),
+                    anyOfKeys(IndexKey.Kind.SUPERCLASS, superClass)
             );
         }
 
         @Override
         public LogicalOperations extendsByAnyOf(Class<?>... superClasses) {
+            final var superClassNames = canonicalNames(superClasses);
             return appendCondition(
-                    r -> r instanceof ClassResource<?> cr && containsAny(cr.superClasses(), superClasses)
+                    Operation.EXTENDS_BY_ANY_OF,
+                    arguments((Object) superClasses),
+                    r -> r instanceof ClassResource<?> cr && containsAny(cr.superClasses(), superClassNames),
+                    anyOfKeys(IndexKey.Kind.SUPERCLASS, superClasses)
             );
         }
 
         @Override
         public LogicalOperations hasModifier(ClassPathResource.Modifier modifier) {
-            return appendCondition(r -> r.modifiers().contains(modifier));
+            return appendCondition(
+                    Operation.HAS_MODIFIER,
+                    arguments(modifier),
+                    r -> r.modifiers().contains(modifier),
+                    modifierKeys(modifier)
+            );
         }
 
         @Override
         public LogicalOperations hasAllOfModifiers(ClassPathResource.Modifier... modifiers) {
-            return appendCondition(r -> containsAll(r.modifiers(), modifiers));
+            return appendCondition(
+                    Operation.HAS_ALL_OF_MODIFIERS,
+                    arguments((Object) modifiers),
+                    r -> containsAll(r.modifiers(), modifiers),
+                    allOfModifierKeys(modifiers)
+            );
         }
 
         @Override
         public LogicalOperations hasAnyOfModifiers(ClassPathResource.Modifier... modifiers) {
-            return appendCondition(r -> containsAny(r.modifiers(), modifiers));
+            return appendCondition(
+                    Operation.HAS_ANY_OF_MODIFIERS,
+                    arguments((Object) modifiers),
+                    r -> containsAny(r.modifiers(), modifiers),
+                    modifierKeys(modifiers)
+            );
         }
 
         @Override
         public LogicalOperations excludeClassKind(ClassResource.Kind kind) {
             return appendCondition(
+                    Operation.EXCLUDE_CLASS_KIND,
+                    arguments(kind),
                     r -> r instanceof ClassResource<?> cr && cr.kind() != kind
             );
         }
@@ -267,6 +446,8 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
         @Override
         public LogicalOperations includeClassKind(ClassResource.Kind kind) {
             return appendCondition(
+                    Operation.INCLUDE_CLASS_KIND,
+                    arguments(kind),
                     r -> r instanceof ClassResource<?> cr && cr.kind() == kind
             );
         }
@@ -274,6 +455,8 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
         @Override
         public LogicalOperations excludeClassKinds(ClassResource.Kind... kinds) {
             return appendCondition(
+                    Operation.EXCLUDE_CLASS_KINDS,
+                    arguments((Object) kinds),
                     r -> {
                         if (r instanceof ClassResource<?> cr) {
                             for (ClassResource.Kind kind : kinds) {
@@ -291,6 +474,8 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
         @Override
         public LogicalOperations includeClassKinds(ClassResource.Kind... kinds) {
             return appendCondition(
+                    Operation.INCLUDE_CLASS_KINDS,
+                    arguments((Object) kinds),
                     r -> {
                         if (r instanceof ClassResource<?> cr) {
                             for (ClassResource.Kind kind : kinds) {
@@ -307,12 +492,12 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
 
         @Override
         public LogicalOperations filter(Predicate<ClassPathResource> filter) {
-            return appendCondition(filter);
+            return appendCondition(ConditionNode.filter(filter));
         }
 
         @Override
         public LogicalOperations all() {
-            return appendCondition(r -> true);
+            return appendCondition(ConditionNode.all());
         }
 
         @Override
@@ -341,7 +526,7 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
                 return this;
             }
 
-            this.parent.appendCondition(this.filter);
+            this.parent.appendCondition(this.query);
             this.negate = false;
             return this.parent;
         }
@@ -352,7 +537,8 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
                 throw new InvalidApiUsageException("Query creation must be called after the end of the main begin expression");
             }
 
-            final var resultFilter = this.negate ? this.filter.negate() : this.filter;
+            final var resultQuery = this.negate ? QueryNode.not(this.query) : this.query;
+            final Predicate<ClassPathResource> resultPredicate = this.compileQueries ? QueryCompiler.compile(resultQuery) : resultQuery;
             return new PredicateBasedClassPathScanner() {
 
                 @Override
@@ -360,17 +546,46 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
                     return overrideDefaultEngineScope;
                 }
 
+                @Override
+                public QueryNode query() {
+                    return resultQuery;
+                }
+
+                @Override
+                public Collection<Set<IndexKey>> requiredIndexKeys() {
+                    return resultQuery.requiredIndexKeys();
+                }
+
                 @Override
                 public boolean test(ClassPathResource resource) {
-                    return resultFilter.test(resource);
+                    return resultPredicate.test(resource);
                 }
             };
         }
 
-        private CompoundFilter appendCondition(final Predicate<ClassPathResource> condition) {
-            this.filter = switch (this.operator) {
-                case OR -> this.filter.or(this.negate ? condition.negate() : condition);
-                case AND -> this.filter.and(this.negate ? condition.negate() : condition);
+        private CompoundFilter appendCondition(
+                final Operation operation,
+                final List<?> arguments,
+                final Predicate<ClassPathResource> condition
+        ) {
+            return appendCondition(operation, arguments, condition, List.of());
+        }
+
+        private CompoundFilter appendCondition(
+                final Operation operation,
+                final List<?> arguments,
+                final Predicate<ClassPathResource> condition,
+                final List<Set<IndexKey>> conditionIndexKeys
+        ) {
+            // the conditions expressed via the keys are matched exactly by the resources having these keys
+            return appendCondition(new ConditionNode(operation, arguments, condition, conditionIndexKeys, true));
+        }
+
+        private CompoundFilter appendCondition(final QueryNode condition) {
+            final var node = this.negate ? QueryNode.not(condition) : condition;
+            this.query = switch (this.operator) {
+                case OR -> QueryNode.or(this.query, node);
+                case AND -> QueryNode.and(this.query, node);
                 case NOT -> throw new InvalidApiUsageException("Unsupported operator");
             };
             this.negate = false;
@@ -378,12 +593,132 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
             return this;
         }
 
+        private List<?> arguments(final Object... arguments) {
+            return Arrays.asList(arguments);
+        }
+
+        private Object arrayArgument(final Class<?>... classes) {
+            // the array of the reifiable type is passed as the single argument instead of the generic varargs array
+            return classes;
+        }
+
+        private List<Set<IndexKey>> anyOfKeys(final IndexKey.Kind kind, final String... values) {
+            if (values == null || values.length == 0) {
+                return List.of();
+            }
+
+            final Set<IndexKey> keys = new HashSet<>(values.length);
+            for (final var value : values) {
+                keys.add(new IndexKey(kind, value));
+            }
+
+            return List.of(Set.copyOf(keys));
+        }
+
+        private List<Set<IndexKey>> anyOfKeys(final IndexKey.Kind kind, final Class<?>... types) {
+            if (types == null || types.length == 0) {
+                return List.of();
+            }
+
+            final Set<IndexKey> keys = new HashSet<>(types.length);
+            for (final var type : types) {
+                if (type.getCanonicalName() == null) {
+                    // the references to the classes without canonical names aren't matched by the conditions
+                    continue;
+                }
+
+                keys.add(IndexKey.ofClass(kind, type));
+            }
+
+            return List.of(Set.copyOf(keys));
+        }
+
+        private List<Set<IndexKey>> allOfKeys(final IndexKey.Kind kind, final String... values) {
+            final List<Set<IndexKey>> result = new ArrayList<>(values.length);
+            for (final var value : values) {
+                result.add(Set.of(new IndexKey(kind, value)));
+            }
+
+            return List.copyOf(result);
+        }
+
+        private List<Set<IndexKey>> allOfKeys(final IndexKey.Kind kind, final Class<?>... types) {
+            final List<Set<IndexKey>> result = new ArrayList<>(types.length);
+            for (final var type : types) {
+                result.add(type.getCanonicalName() == null ? Set.of() : Set.of(IndexKey.ofClass(kind, type)));
+            }
+
+            return List.copyOf(result);
+        }
+
+        private List<Set<IndexKey>> typeKeys(final ClassPathResource.Type... types) {
+            if (types == null || types.length == 0) {
+                return List.of();
+            }
+
+            final Set<IndexKey> keys = new HashSet<>(types.length);
+            for (final var type : types) {
+                if (type != null) {
+                    keys.add(IndexKey.ofType(type));
+                }
+            }
+
+            return List.of(Set.copyOf(keys));
+        }
+
+        private List<Set<IndexKey>> modifierKeys(final ClassPathResource.Modifier... modifiers) {
+            if (modifiers == null || modifiers.length == 0) {
+                return List.of();
+            }
+
+            final Set<IndexKey> keys = new HashSet<>(modifiers.length);
+            for (final var modifier : modifiers) {
+                if (modifier != null) {
+                    keys.add(IndexKey.ofModifier(modifier));
+                }
+            }
+
+            return List.of(Set.copyOf(keys));
+        }
+
+        private List<Set<IndexKey>> allOfModifierKeys(final ClassPathResource.Modifier... modifiers) {
+            final List<Set<IndexKey>> result = new ArrayList<>(modifiers.length);
+            for (final var modifier : modifiers) {
+                result.add(modifier == null ? Set.of() : Set.of(IndexKey.ofModifier(modifier)));
+            }
+
+            return List.copyOf(result);
+        }
+
+        private String canonicalName(final Class<?> type) {
+            final var result = type.getCanonicalName();
+            return result == null ? null : result.intern();
+        }
+
+        private String[] canonicalNames(final Class<?>... types) {
+            final var result = new String[types.length];
+            for (int i = 0; i < types.length; i++) {
+                result[i] = canonicalName(types[i]);
+            }
+
+            return result;
+        }
+
         private boolean contains(
                 final Collection<ClassPathResource.ClassReference<?>> refs,
-                final Class<?> type
+                final String canonicalName
         ) {
+            if (canonicalName == null) {
+                return false;
+            }
+
             for (final var ref : refs) {
-                if (ref.canonicalName().equals(type.getCanonicalName())) {
+                final var refName = ref.canonicalName();
+                // the names of the loaded references are interned, so the equal names are usually the same objects
+                // and are matched without comparing the contents; the different names are rejected by the cached
+                // hashes of the names and compared by the contents only if the hashes collide
+                if (refName == canonicalName
+                        || refName.hashCode() == canonicalName.hashCode() && refName.equals(canonicalName)) {
                     return true;
                 }
             }
@@ -393,10 +728,10 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
 
         private boolean containsAll(
                 final Set<ClassPathResource.ClassReference<?>> refs,
-                final Class<?>... types
+                final String[] canonicalNames
         ) {
-            for (final var type : types) {
-                if (!contains(refs, type)) {
+            for (final var canonicalName : canonicalNames) {
+                if (!contains(refs, canonicalName)) {
                     return false;
                 }
             }
@@ -406,14 +741,14 @@ public final class DefaultClassPathScannerBuilder implements ClassPathScannerBui
 
         private boolean containsAny(
                 final Collection<ClassPathResource.ClassReference<?>> refs,
-                final Class<?>... types
+                final String[] canonicalNames
         ) {
-            if (types.length == 0) {
+            if (canonicalNames.length == 0) {
                 return true;
             }
 
-            for (final var type : types) {
-                if (contains(refs, type)) {
+            for (final var canonicalName : canonicalNames) {
+                if (contains(refs, canonicalName)) {
                     return true;
                 }
             }
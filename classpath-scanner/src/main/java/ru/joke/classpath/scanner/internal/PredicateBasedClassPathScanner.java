@@ -2,7 +2,12 @@ package ru.joke.classpath.scanner.internal;
 
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.scanner.ClassPathScanner;
+import ru.joke.classpath.scanner.internal.query.ConditionNode;
+import ru.joke.classpath.scanner.internal.query.QueryNode;
+import ru.joke.classpath.services.IndexKey;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.function.Predicate;
 
 /**
@@ -12,4 +17,27 @@ import java.util.function.Predicate;
  * @see ClassPathScanner
  */
 public interface PredicateBasedClassPathScanner extends ClassPathScanner, Predicate<ClassPathResource> {
+
+    /**
+     * Returns the query tree of the scanner which can be inspected by the engines.
+     * By default, the scanner is represented as an opaque {@link ConditionNode#filter(Predicate) custom filter}.
+     *
+     * @return query tree of the scanner; cannot be {@code null}.
+     * @see QueryNode
+     */
+    default QueryNode query() {
+        return ConditionNode.filter(this);
+    }
+
+    /**
+     * Returns the keys of the inverted index which each resource matched to the scanner has:
+     * a conjunction of the disjunctions of the keys. If the scanner can't be expressed
+     * via the keys, an empty collection is returned.
+     *
+     * @return required keys of the inverted index; cannot be {@code null}.
+     * @see ru.joke.classpath.services.ClassPathResourcesService#read(ru.joke.classpath.services.IndexedClassPathLocation, Collection, Predicate)
+     */
+    default Collection<Set<IndexKey>> requiredIndexKeys() {
+        return query().requiredIndexKeys();
+    }
 }
@@ -4,8 +4,13 @@ import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.scanner.ClassPathScanner;
 import ru.joke.classpath.scanner.ClassPathScannerEngine;
 import ru.joke.classpath.scanner.ClassPathScannerEngineConfiguration;
+import ru.joke.classpath.scanner.InvalidApiUsageException;
 import ru.joke.classpath.scanner.internal.PredicateBasedClassPathScanner;
+import ru.joke.classpath.scanner.internal.query.QueryNode;
+import ru.joke.classpath.services.IndexKey;
 
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 abstract sealed class AbsClassPathScannerEngine implements ClassPathScannerEngine
@@ -26,6 +31,11 @@ abstract sealed class AbsClassPathScannerEngine implements ClassPathScannerEngin
     public void reload() {
     }
 
+    @Override
+    public CompletableFuture<Void> reloadAsync() {
+        return CompletableFuture.completedFuture(null);
+    }
+
     protected Predicate<ClassPathResource> buildFinalFilter(ClassPathScanner scanner) {
         return this.configuration.defaultScopeFilter()
                                     .filter(f -> !scanner.overrideDefaultEngineScope() || this.configuration.disableDefaultScopeOverride())
@@ -34,6 +44,52 @@ abstract sealed class AbsClassPathScannerEngine implements ClassPathScannerEngin
                                     .orElse(checkScanner(scanner));
     }
 
+    protected QueryNode buildFinalQuery(ClassPathScanner scanner) {
+        final var scannerQuery = checkScanner(scanner).query();
+        return this.configuration.defaultScopeFilter()
+                                    .filter(f -> !scanner.overrideDefaultEngineScope() || this.configuration.disableDefaultScopeOverride())
+                                    .map(this::checkScanner)
+                                    .map(scope -> QueryNode.and(scope.query(), scannerQuery))
+                                    .orElse(scannerQuery);
+    }
+
+    protected Collection<Set<IndexKey>> buildFinalIndexKeys(ClassPathScanner scanner) {
+        final var scannerKeys = checkScanner(scanner).requiredIndexKeys();
+        final var scopeKeys =
+                this.configuration.defaultScopeFilter()
+                                    .filter(f -> !scanner.overrideDefaultEngineScope() || this.configuration.disableDefaultScopeOverride())
+                                    .map(this::checkScanner)
+                                    .map(PredicateBasedClassPathScanner::requiredIndexKeys)
+                                    .orElse(List.of());
+        if (scopeKeys.isEmpty()) {
+            return scannerKeys;
+        } else if (scannerKeys.isEmpty()) {
+            return scopeKeys;
+        }
+
+        final List<Set<IndexKey>> result = new ArrayList<>(scopeKeys);
+        result.addAll(scannerKeys);
+        return result;
+    }
+
+    protected List<ClassPathScanner> checkScanners(Collection<ClassPathScanner> scanners) {
+        if (scanners == null) {
+            throw new InvalidApiUsageException("Scanners must be not null");
+        }
+
+        final List<ClassPathScanner> result = new ArrayList<>(scanners.size());
+        for (final var scanner : scanners) {
+            if (scanner == null) {
+                throw new InvalidApiUsageException("Scanner must be not null");
+            }
+
+            checkScanner(scanner);
+            result.add(scanner);
+        }
+
+        return result;
+    }
+
     protected PredicateBasedClassPathScanner checkScanner(ClassPathScanner scanner) {
         if (!(scanner instanceof PredicateBasedClassPathScanner ps)) {
             throw new ClassCastException();
@@ -0,0 +1,98 @@
+package ru.joke.classpath.scanner.internal.engines;
+
+import ru.joke.classpath.ClassPathResources;
+import ru.joke.classpath.scanner.internal.query.AndNode;
+import ru.joke.classpath.scanner.internal.query.ConditionNode;
+import ru.joke.classpath.scanner.internal.query.NotNode;
+import ru.joke.classpath.scanner.internal.query.OrNode;
+import ru.joke.classpath.scanner.internal.query.QueryNode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the scan results with the eviction of the least recently used results.<br>
+ * The results are keyed by the structural equality of the query of the scanner and the flag of the
+ * overriding of the default engine scope. The cached results are unmodifiable, so they are shared
+ * between the callers. The results are computed outside the lock: the concurrent scans by the equal
+ * queries can compute the result several times, but only the first computed result is cached.<br>
+ * The queries containing the {@link ConditionNode.Operation#FILTER custom filters} aren't cached: the filters
+ * are compared by the identity only and can depend on the mutable state, so their results can't be reused.
+ * The results of such queries and all the results of the disabled cache (of the zero size) are returned
+ * as they are computed, as the new modifiable collections.
+ */
+final class ScanResultsCache {
+
+    private final int maxSize;
+    private final Map<Key, ClassPathResources> results;
+
+    ScanResultsCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ClassPathResources> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    ClassPathResources get(final QueryNode query, final boolean overrideDefaultEngineScope) {
+        if (!isCacheable(query)) {
+            return null;
+        }
+
+        synchronized (this.results) {
+            return this.results.get(new Key(query, overrideDefaultEngineScope));
+        }
+    }
+
+    ClassPathResources computeIfAbsent(
+            final QueryNode query,
+            final boolean overrideDefaultEngineScope,
+            final Supplier<ClassPathResources> resultSupplier
+    ) {
+        if (!isCacheable(query)) {
+            return resultSupplier.get();
+        }
+
+        final var key = new Key(query, overrideDefaultEngineScope);
+        synchronized (this.results) {
+            final var result = this.results.get(key);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        final var result = ClassPathResources.unmodifiable(resultSupplier.get());
+        synchronized (this.results) {
+            final var cachedResult = this.results.putIfAbsent(key, result);
+            return cachedResult == null ? result : cachedResult;
+        }
+    }
+
+    int size() {
+        synchronized (this.results) {
+            return this.results.size();
+        }
+    }
+
+    private boolean isCacheable(final QueryNode query) {
+        return this.maxSize > 0 && !containsFilter(query);
+    }
+
+    private static boolean containsFilter(final QueryNode query) {
+        if (query instanceof ConditionNode condition) {
+            return condition.operation() == ConditionNode.Operation.FILTER;
+        } else if (query instanceof AndNode andNode) {
+            return andNode.operands().stream().anyMatch(ScanResultsCache::containsFilter);
+        } else if (query instanceof OrNode orNode) {
+            return orNode.operands().stream().anyMatch(ScanResultsCache::containsFilter);
+        } else {
+            return query instanceof NotNode notNode && containsFilter(notNode.operand());
+        }
+    }
+
+    private record Key(QueryNode query, boolean overrideDefaultEngineScope) {
+    }
+}
@@ -1,27 +1,67 @@
 package ru.joke.classpath.scanner.internal.engines;
 
+import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.ClassPathResources;
 import ru.joke.classpath.IndexedClassPathResources;
 import ru.joke.classpath.scanner.ClassPathScanner;
 import ru.joke.classpath.scanner.ClassPathScannerEngineConfiguration;
 import ru.joke.classpath.scanner.InvalidApiUsageException;
+import ru.joke.classpath.scanner.internal.query.BitmapQueryEvaluator;
+import ru.joke.classpath.scanner.internal.query.QueryNode;
 import ru.joke.classpath.services.ClassPathResourcesService;
 import ru.joke.classpath.services.IndexedClassPathLocation;
+import ru.joke.classpath.services.InvertedIndex;
+import ru.joke.classpath.services.OrdinalBitmap;
 
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 
 /**
  * Stateful scan engine implementation.<br>
  * The engine stores the resource index in memory after the first search to accelerate subsequent queries.
- * If the engine is configured for eager initialization, the index will be scanned upon engine creation,
- * rather than during the first search.
+ * If the engine is configured for eager initialization, the index will be scanned asynchronously on the
+ * {@link ClassPathScannerEngineConfiguration#executor() executor of the engine} upon engine creation,
+ * rather than during the first search; the scans started before the end of the initialization wait for it.
+ * If the executor rejects the initialization or the initialization fails, the failure is logged and the index
+ * is scanned by the first search.<br>
+ * The stored resources are indexed in memory by the type, package, module, aliases, modifiers, annotations,
+ * interfaces and superclasses of the resources. The query tree of the scanner is evaluated over the bitmaps
+ * of the ordinals of the stored resources: the conditions expressed via the keys of the index are resolved
+ * by the postings of the keys and combined by the bitmap operations, the other conditions test only
+ * the resources which can still be matched by the query. The queries without the conditions resolved by the keys
+ * and the queries of the {@link #scanAll(Collection) batch scan} which can't be resolved by the keys entirely
+ * test the candidates by the scanners themselves, i.e. by the
+ * {@link ru.joke.classpath.scanner.internal.query.QueryCompiler compiled queries} of the scanners.<br>
+ * The results of the scans are cached by the structure of the query of the scanner (see
+ * {@link ClassPathScannerEngineConfiguration#scanResultsCacheSize()}), so the repeated scans by the equal
+ * queries return the same unmodifiable result. The queries with the custom filters aren't cached; their results
+ * and the results of the engine with the disabled cache are the new modifiable collections, as the results
+ * of the stateless engine. The cache is invalidated on {@link #reload()}.<br>
+ * The loaded resources, their index and the cache of the results form an immutable snapshot. The reload
+ * builds a new snapshot while the scans keep using the previous one and then publishes the new snapshot
+ * atomically, so the scans are blocked only until the first snapshot is loaded.<br>
+ * The {@link #findAny(ClassPathScanner) findAny}, {@link #exists(ClassPathScanner) exists},
+ * {@link #count(ClassPathScanner) count} and {@link #scan(ClassPathScanner, int) limited scan} operations
+ * use the cached result of the equal query if it exists; otherwise they are answered without collecting
+ * the resources, and their results aren't cached. The {@code findAny} and {@code exists} operations and the limited
+ * scan test the candidates in the order of the ordinals only until the required number of the resources is matched
+ * (see {@link BitmapQueryEvaluator#evaluate(QueryNode, Predicate, int)}); the count is
+ * the cardinality of the bitmap of all matched ordinals.<br>
+ * The {@link #scanAll(Collection) batch scan} takes the cached results of the scanners and evaluates the queries
+ * of the other scanners together: the stored resources are tested by these queries in one pass (see
+ * {@link BitmapQueryEvaluator#evaluateAll(List)}), the results are cached.
  *
  * @author Alik
  * @see ru.joke.classpath.scanner.ClassPathScannerEngine
  */
 public final class StatefulClassPathScannerEngine extends AbsClassPathScannerEngine {
 
+    private static final System.Logger logger = System.getLogger(StatefulClassPathScannerEngine.class.getName());
+
     private final DefaultEngineScopeLoader scannedResourcesAccessor;
 
     /**
@@ -34,45 +74,163 @@ public final class StatefulClassPathScannerEngine extends AbsClassPathScannerEng
         super(configuration);
         this.scannedResourcesAccessor = new DefaultEngineScopeLoader();
         if (configuration.enableEagerStatefulEngineInitialization()) {
-            this.scannedResourcesAccessor.get();
+            initializeEagerly(configuration.executor());
         }
     }
 
     @Override
     public ClassPathResources scan(ClassPathScanner scanner) {
-        if (scanner == null) {
-            throw new InvalidApiUsageException("Scanner must be not null");
+        final var scope = scope(scanner);
+        return scope.results().computeIfAbsent(
+                checkScanner(scanner).query(),
+                scanner.overrideDefaultEngineScope(),
+                () -> toResources(scope.index(), evaluateOrdinals(scope.index(), scanner))
+        );
+    }
+
+    @Override
+    public Map<ClassPathScanner, ClassPathResources> scanAll(Collection<ClassPathScanner> scanners) {
+        final var checkedScanners = checkScanners(scanners);
+        final var scope = this.scannedResourcesAccessor.get();
+
+        final Map<ClassPathScanner, ClassPathResources> result = new LinkedHashMap<>();
+        final List<ClassPathScanner> evaluatedScanners = new ArrayList<>();
+        final List<QueryNode> evaluatedQueries = new ArrayList<>();
+        final List<Predicate<ClassPathResource>> evaluatedFilters = new ArrayList<>();
+        for (final var scanner : checkedScanners) {
+            final var cachedResult = scope.results().get(checkScanner(scanner).query(), scanner.overrideDefaultEngineScope());
+            result.put(scanner, cachedResult);
+            if (cachedResult == null) {
+                evaluatedScanners.add(scanner);
+                evaluatedQueries.add(buildFinalQuery(scanner));
+                evaluatedFilters.add(buildFinalFilter(scanner));
+            }
+        }
+
+        final var ordinals = new BitmapQueryEvaluator(scope.index()).evaluateAll(evaluatedQueries, evaluatedFilters);
+        for (int i = 0; i < evaluatedScanners.size(); i++) {
+            final var scanner = evaluatedScanners.get(i);
+            final var scannerOrdinals = ordinals.get(i);
+            result.put(
+                    scanner,
+                    scope.results().computeIfAbsent(
+                            checkScanner(scanner).query(),
+                            scanner.overrideDefaultEngineScope(),
+                            () -> toResources(scope.index(), scannerOrdinals)
+                    )
+            );
+        }
+
+        return result;
+    }
+
+    @Override
+    public ClassPathResources scan(ClassPathScanner scanner, int limit) {
+        if (limit < 0) {
+            throw new InvalidApiUsageException("Limit must be not negative: " + limit);
+        }
+
+        final var scope = scope(scanner);
+        final var cachedResult = scope.results().get(checkScanner(scanner).query(), scanner.overrideDefaultEngineScope());
+        final var result = new IndexedClassPathResources();
+        if (cachedResult != null) {
+            cachedResult.stream().limit(limit).forEach(result::add);
+            return result;
+        }
+
+        for (final int ordinal : evaluateFirstOrdinals(scope.index(), scanner, limit)) {
+            result.add(scope.index().resource(ordinal));
         }
 
-        final var filter = buildFinalFilter(scanner);
-        final var resources = this.scannedResourcesAccessor.get();
-        return resources
-                .stream()
-                .filter(filter)
-                .collect(Collectors.toCollection(IndexedClassPathResources::new));
+        return result;
+    }
+
+    @Override
+    public Optional<ClassPathResource> findAny(ClassPathScanner scanner) {
+        final var scope = scope(scanner);
+        final var cachedResult = scope.results().get(checkScanner(scanner).query(), scanner.overrideDefaultEngineScope());
+        if (cachedResult != null) {
+            return cachedResult.any();
+        }
+
+        final var ordinals = evaluateFirstOrdinals(scope.index(), scanner, 1);
+        return ordinals.length == 0 ? Optional.empty() : Optional.of(scope.index().resource(ordinals[0]));
+    }
+
+    @Override
+    public int count(ClassPathScanner scanner) {
+        final var scope = scope(scanner);
+        final var cachedResult = scope.results().get(checkScanner(scanner).query(), scanner.overrideDefaultEngineScope());
+        return cachedResult == null
+                ? evaluateOrdinals(scope.index(), scanner).cardinality()
+                : cachedResult.size();
     }
 
     @Override
     public void reload() {
-        synchronized (this.scannedResourcesAccessor) {
-            this.scannedResourcesAccessor.resources = null;
+        this.scannedResourcesAccessor.reload();
+    }
+
+    @Override
+    public CompletableFuture<Void> reloadAsync() {
+        return CompletableFuture.runAsync(this.scannedResourcesAccessor::reload, this.configuration.executor());
+    }
+
+    private EngineScope scope(final ClassPathScanner scanner) {
+        if (scanner == null) {
+            throw new InvalidApiUsageException("Scanner must be not null");
         }
-        if (this.configuration.enableEagerStatefulEngineInitialization()) {
-            this.scannedResourcesAccessor.get();
+
+        return this.scannedResourcesAccessor.get();
+    }
+
+    private OrdinalBitmap evaluateOrdinals(final InvertedIndex index, final ClassPathScanner scanner) {
+        return new BitmapQueryEvaluator(index).evaluate(buildFinalQuery(scanner), buildFinalFilter(scanner));
+    }
+
+    private int[] evaluateFirstOrdinals(final InvertedIndex index, final ClassPathScanner scanner, final int limit) {
+        return new BitmapQueryEvaluator(index).evaluate(buildFinalQuery(scanner), buildFinalFilter(scanner), limit);
+    }
+
+    private ClassPathResources toResources(final InvertedIndex index, final OrdinalBitmap ordinals) {
+        final var result = new IndexedClassPathResources();
+        ordinals.forEach(ordinal -> result.add(index.resource(ordinal)));
+
+        return result;
+    }
+
+    private record EngineScope(InvertedIndex index, ScanResultsCache results) {
+    }
+
+    private void initializeEagerly(final Executor executor) {
+        final CompletableFuture<EngineScope> initialization;
+        try {
+            initialization = CompletableFuture.supplyAsync(this.scannedResourcesAccessor, executor);
+        } catch (RejectedExecutionException ex) {
+            logger.log(System.Logger.Level.DEBUG, "Eager initialization of engine is rejected by executor, the scope will be loaded lazily", ex);
+            return;
         }
+
+        // the scans started before the end of the initialization wait for it; if the initialization fails,
+        // the scope is loaded again by the first scan
+        initialization.whenComplete((scope, ex) -> {
+            if (ex != null) {
+                logger.log(System.Logger.Level.WARNING, "Eager initialization of engine failed, the scope will be loaded lazily", ex);
+            }
+        });
     }
 
-    private class DefaultEngineScopeLoader implements Supplier<ClassPathResources> {
+    private class DefaultEngineScopeLoader implements Supplier<EngineScope> {
 
-        private volatile ClassPathResources resources;
+        private volatile EngineScope scope;
 
         @Override
-        public ClassPathResources get() {
-            ClassPathResources result;
-            if ((result = this.resources) == null) {
+        public EngineScope get() {
+            EngineScope result;
+            if ((result = this.scope) == null) {
                 synchronized (this) {
-                    if ((result = this.resources) == null) {
-                        this.resources = result = findResourcesInDefaultScope();
+                    if ((result = this.scope) == null) {
+                        this.scope = result = loadScope();
                     }
                 }
             }
@@ -80,6 +238,21 @@ public final class StatefulClassPathScannerEngine extends AbsClassPathScannerEng
             return result;
         }
 
+        private synchronized void reload() {
+            ClassPathResourcesService.getInstance().invalidate(IndexedClassPathLocation.relativeLocation(configuration.targetClassLoaders()));
+            // the not loaded yet scope will be loaded on the first access
+            if (this.scope != null || configuration.enableEagerStatefulEngineInitialization()) {
+                this.scope = loadScope();
+            }
+        }
+
+        private EngineScope loadScope() {
+            return new EngineScope(
+                    InvertedIndex.of(findResourcesInDefaultScope()),
+                    new ScanResultsCache(configuration.scanResultsCacheSize())
+            );
+        }
+
         private ClassPathResources findResourcesInDefaultScope() {
             final var resourcesService = ClassPathResourcesService.getInstance();
             final var initScopeFilter =
@@ -1,15 +1,29 @@
 package ru.joke.classpath.scanner.internal.engines;
 
+import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.ClassPathResources;
+import ru.joke.classpath.IndexedClassPathResources;
 import ru.joke.classpath.scanner.InvalidApiUsageException;
 import ru.joke.classpath.services.ClassPathResourcesService;
 import ru.joke.classpath.services.IndexedClassPathLocation;
 import ru.joke.classpath.scanner.ClassPathScanner;
 import ru.joke.classpath.scanner.ClassPathScannerEngineConfiguration;
 
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * Stateless scan engine implementation.<br>
- * The engine does not store any data in memory.
+ * The engine does not store any data in memory. If the scanner can be expressed via the keys of the inverted
+ * index, only the resources having these keys are tested by the scanner.<br>
+ * The {@link #findAny(ClassPathScanner) findAny}, {@link #exists(ClassPathScanner) exists},
+ * {@link #count(ClassPathScanner) count} and {@link #scan(ClassPathScanner, int) limited scan} operations
+ * test the resources of the index lazily and stop after the required number of the matching resources
+ * without collecting the resources.<br>
+ * The {@link #scanAll(Collection) batch scan} tests each resource of the index by the filters of all
+ * scanners in one traversal of the index.
  *
  * @author Alik
  * @see ru.joke.classpath.scanner.ClassPathScannerEngine
@@ -33,9 +47,79 @@ public final class StatelessClassPathScannerEngine extends AbsClassPathScannerEn
         }
 
         final var filter = buildFinalFilter(scanner);
-        return ClassPathResourcesService.getInstance().read(
-                IndexedClassPathLocation.relativeLocation(configuration.targetClassLoaders()),
-                filter
-        );
+        final var indexKeys = buildFinalIndexKeys(scanner);
+        final var resourcesService = ClassPathResourcesService.getInstance();
+        final var location = IndexedClassPathLocation.relativeLocation(configuration.targetClassLoaders());
+
+        return indexKeys.isEmpty()
+                ? resourcesService.read(location, filter)
+                : resourcesService.read(location, indexKeys, filter);
+    }
+
+    @Override
+    public Map<ClassPathScanner, ClassPathResources> scanAll(Collection<ClassPathScanner> scanners) {
+        final var checkedScanners = checkScanners(scanners);
+        final List<Predicate<ClassPathResource>> filters = new ArrayList<>(checkedScanners.size());
+        final List<ClassPathResources> results = new ArrayList<>(checkedScanners.size());
+        for (final var scanner : checkedScanners) {
+            filters.add(buildFinalFilter(scanner));
+            results.add(new IndexedClassPathResources());
+        }
+
+        if (!checkedScanners.isEmpty()) {
+            final var location = IndexedClassPathLocation.relativeLocation(configuration.targetClassLoaders());
+            ClassPathResourcesService.getInstance()
+                                        .stream(location, r -> true)
+                                        .forEach(resource -> {
+                                            for (int i = 0; i < filters.size(); i++) {
+                                                if (filters.get(i).test(resource)) {
+                                                    results.get(i).add(resource);
+                                                }
+                                            }
+                                        });
+        }
+
+        final Map<ClassPathScanner, ClassPathResources> result = new LinkedHashMap<>();
+        for (int i = 0; i < checkedScanners.size(); i++) {
+            result.put(checkedScanners.get(i), results.get(i));
+        }
+
+        return result;
+    }
+
+    @Override
+    public ClassPathResources scan(ClassPathScanner scanner, int limit) {
+        if (limit < 0) {
+            throw new InvalidApiUsageException("Limit must be not negative: " + limit);
+        }
+
+        return stream(scanner)
+                .limit(limit)
+                .collect(Collectors.toCollection(IndexedClassPathResources::new));
+    }
+
+    @Override
+    public Optional<ClassPathResource> findAny(ClassPathScanner scanner) {
+        return stream(scanner).findAny();
+    }
+
+    @Override
+    public int count(ClassPathScanner scanner) {
+        return Math.toIntExact(stream(scanner).count());
+    }
+
+    private Stream<ClassPathResource> stream(final ClassPathScanner scanner) {
+        if (scanner == null) {
+            throw new InvalidApiUsageException("Scanner must be not null");
+        }
+
+        final var filter = buildFinalFilter(scanner);
+        final var indexKeys = buildFinalIndexKeys(scanner);
+        final var resourcesService = ClassPathResourcesService.getInstance();
+        final var location = IndexedClassPathLocation.relativeLocation(configuration.targetClassLoaders());
+
+        return indexKeys.isEmpty()
+                ? resourcesService.stream(location, filter)
+                : resourcesService.stream(location, indexKeys, filter);
     }
 }
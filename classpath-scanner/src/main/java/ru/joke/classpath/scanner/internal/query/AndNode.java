@@ -0,0 +1,51 @@
+package ru.joke.classpath.scanner.internal.query;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.services.IndexKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Conjunction of the query nodes: the resource is matched if it's matched by each of the operands.
+ * The operands are evaluated in the order of their declaration.
+ *
+ * @param operands operands of the conjunction; cannot be {@code null} or empty.
+ *
+ * @author Alik
+ * @see QueryNode#and(QueryNode, QueryNode)
+ */
+public record AndNode(List<QueryNode> operands) implements QueryNode {
+
+    public AndNode {
+        operands = List.copyOf(operands);
+    }
+
+    @Override
+    public boolean test(ClassPathResource resource) {
+        for (final var operand : this.operands) {
+            if (!operand.test(resource)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the required keys of all operands: the resource matched by the conjunction
+     * has the required keys of each operand.
+     *
+     * @return required keys of the inverted index; cannot be {@code null}.
+     */
+    @Override
+    public List<Set<IndexKey>> requiredIndexKeys() {
+        final List<Set<IndexKey>> result = new ArrayList<>();
+        for (final var operand : this.operands) {
+            result.addAll(operand.requiredIndexKeys());
+        }
+
+        return List.copyOf(result);
+    }
+}
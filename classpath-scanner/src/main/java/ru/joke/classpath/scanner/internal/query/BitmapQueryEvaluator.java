@@ -0,0 +1,300 @@
+package ru.joke.classpath.scanner.internal.query;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.services.IndexKey;
+import ru.joke.classpath.services.InvertedIndex;
+import ru.joke.classpath.services.OrdinalBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates the query tree over the {@link InvertedIndex} as the operations on the bitmaps of the ordinals
+ * of the resources.<br>
+ * Each node is evaluated against the bitmap of the candidates: the conditions
+ * {@link ConditionNode#evaluableByIndex() evaluable by the index} are intersected with the postings of their
+ * keys, the other conditions test only the resources of the candidates. The conjunction narrows the candidates
+ * operand by operand (the conditions evaluable by the index first), the disjunction evaluates each operand
+ * only against the candidates not matched yet, and the negation subtracts the matched resources from the candidates.<br>
+ * The query without the conditions evaluable by the index is tested as a whole against the candidates
+ * selected by its {@link QueryNode#requiredIndexKeys() required keys}. Such query is tested by the predicate
+ * given along with the query (like the {@link QueryCompiler compiled query} of the scanner) instead of the tree.<br>
+ * The first matched resources can be found without evaluating the query over all candidates:
+ * the candidates are tested only until the required number of the resources is matched.<br>
+ * Several queries can be evaluated together: the queries evaluable by the index entirely are evaluated by the
+ * bitmap operations only, the other queries are tested by their predicates in one pass over the union of their candidates.
+ *
+ * @author Alik
+ * @see QueryNode
+ * @see OrdinalBitmap
+ */
+public final class BitmapQueryEvaluator {
+
+    private final InvertedIndex index;
+
+    /**
+     * Constructs the evaluator over the given index.
+     *
+     * @param index index of the resources; cannot be {@code null}.
+     */
+    public BitmapQueryEvaluator(final InvertedIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Evaluates the query over all resources of the index.
+     *
+     * @param query query tree; cannot be {@code null}.
+     * @return bitmap of the ordinals of the resources matched by the query; cannot be {@code null}.
+     */
+    public OrdinalBitmap evaluate(final QueryNode query) {
+        return evaluate(query, query);
+    }
+
+    /**
+     * Evaluates the query over all resources of the index; the resources tested by the whole query
+     * are tested by the given predicate.
+     *
+     * @param query     query tree; cannot be {@code null}.
+     * @param predicate predicate matching the same resources as the query; cannot be {@code null}.
+     * @return bitmap of the ordinals of the resources matched by the query; cannot be {@code null}.
+     */
+    public OrdinalBitmap evaluate(final QueryNode query, final Predicate<ClassPathResource> predicate) {
+        if (containsEvaluableByIndex(query)) {
+            return evaluate(query, this.index.ordinals());
+        }
+
+        return findCandidates(query).filter(ordinal -> predicate.test(this.index.resource(ordinal)));
+    }
+
+    /**
+     * Finds the given number of the first (by the ordinals) resources of the index matched by the query.
+     * If the query can't be evaluated by the index entirely, the candidates selected by the index are tested
+     * by the given predicate in the ascending order of the ordinals only until the required number of
+     * the resources is matched.
+     *
+     * @param query     query tree; cannot be {@code null}.
+     * @param predicate predicate matching the same resources as the query; cannot be {@code null}.
+     * @param limit     maximal number of the matched resources; cannot be negative.
+     * @return ordinals of the first matched resources in the ascending order; cannot be {@code null}.
+     */
+    public int[] evaluate(final QueryNode query, final Predicate<ClassPathResource> predicate, final int limit) {
+        if (limit == 0) {
+            return new int[0];
+        } else if (isEvaluableByIndexEntirely(query)) {
+            return evaluate(query).toArray(limit);
+        }
+
+        final var matched = new OrdinalsCollector();
+        findCandidatesByIndex(query).forEachWhile(ordinal -> {
+            if (predicate.test(this.index.resource(ordinal))) {
+                matched.add(ordinal);
+            }
+
+            return matched.size < limit;
+        });
+
+        return matched.toArray();
+    }
+
+    /**
+     * Evaluates several queries over all resources of the index. The resources which have to be tested
+     * by the queries are visited once in the ascending order of the ordinals: each resource is tested
+     * only by the queries for which the resource is a candidate by the required keys of the query.
+     *
+     * @param queries query trees; cannot be {@code null}.
+     * @return bitmaps of the ordinals of the resources matched by each query (in the order of the queries); cannot be {@code null}.
+     */
+    public List<OrdinalBitmap> evaluateAll(final List<QueryNode> queries) {
+        return evaluateAll(queries, queries);
+    }
+
+    /**
+     * Evaluates several queries over all resources of the index like {@link #evaluateAll(List)};
+     * the resources are tested by the given predicates of the queries.
+     *
+     * @param queries    query trees; cannot be {@code null}.
+     * @param predicates predicates matching the same resources as the queries (in the order of the queries); cannot be {@code null}.
+     * @return bitmaps of the ordinals of the resources matched by each query (in the order of the queries); cannot be {@code null}.
+     */
+    public List<OrdinalBitmap> evaluateAll(
+            final List<QueryNode> queries,
+            final List<? extends Predicate<ClassPathResource>> predicates
+    ) {
+        final var results = new OrdinalBitmap[queries.size()];
+        final List<Integer> testedQueries = new ArrayList<>();
+        final List<OrdinalBitmap> candidates = new ArrayList<>();
+
+        var allCandidates = OrdinalBitmap.empty();
+        for (int i = 0; i < queries.size(); i++) {
+            final var query = queries.get(i);
+            if (isEvaluableByIndexEntirely(query)) {
+                results[i] = evaluate(query);
+            } else {
+                final var queryCandidates = findCandidates(query);
+                testedQueries.add(i);
+                candidates.add(queryCandidates);
+                allCandidates = allCandidates.or(queryCandidates);
+            }
+        }
+
+        if (!testedQueries.isEmpty()) {
+            final var matched = new OrdinalsCollector[testedQueries.size()];
+            Arrays.setAll(matched, j -> new OrdinalsCollector());
+
+            allCandidates.forEach(ordinal -> {
+                final var resource = this.index.resource(ordinal);
+                for (int j = 0; j < matched.length; j++) {
+                    if (candidates.get(j).contains(ordinal) && predicates.get(testedQueries.get(j)).test(resource)) {
+                        matched[j].add(ordinal);
+                    }
+                }
+            });
+
+            for (int j = 0; j < matched.length; j++) {
+                results[testedQueries.get(j)] = matched[j].build();
+            }
+        }
+
+        return List.of(results);
+    }
+
+    private OrdinalBitmap evaluate(final QueryNode node, final OrdinalBitmap candidates) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        if (node instanceof AndNode andNode) {
+            return evaluateConjunction(andNode, candidates);
+        } else if (node instanceof OrNode orNode) {
+            return evaluateDisjunction(orNode, candidates);
+        } else if (node instanceof NotNode notNode) {
+            return candidates.andNot(evaluate(notNode.operand(), candidates));
+        } else if (isEvaluableByIndex(node)) {
+            return candidates.and(findByKeys(node.requiredIndexKeys()));
+        }
+
+        return candidates.filter(ordinal -> node.test(this.index.resource(ordinal)));
+    }
+
+    private OrdinalBitmap evaluateConjunction(final AndNode node, final OrdinalBitmap candidates) {
+        final List<QueryNode> operands = new ArrayList<>(node.operands().size());
+        for (final var operand : node.operands()) {
+            if (isEvaluableByIndex(operand)) {
+                operands.add(operand);
+            }
+        }
+
+        for (final var operand : node.operands()) {
+            if (!isEvaluableByIndex(operand)) {
+                operands.add(operand);
+            }
+        }
+
+        var result = candidates;
+        for (final var operand : operands) {
+            result = evaluate(operand, result);
+        }
+
+        return result;
+    }
+
+    private OrdinalBitmap evaluateDisjunction(final OrNode node, final OrdinalBitmap candidates) {
+        var result = OrdinalBitmap.empty();
+        var remaining = candidates;
+        for (final var operand : node.operands()) {
+            final var matched = evaluate(operand, remaining);
+            result = result.or(matched);
+            remaining = remaining.andNot(matched);
+        }
+
+        return result;
+    }
+
+    private OrdinalBitmap findCandidates(final QueryNode query) {
+        return this.index.hasPostings()
+                ? findByKeys(query.requiredIndexKeys()).and(this.index.ordinals())
+                : this.index.ordinals();
+    }
+
+    private OrdinalBitmap findCandidatesByIndex(final QueryNode query) {
+        var result = findCandidates(query);
+        if (query instanceof AndNode andNode) {
+            // the operands of the conjunction evaluable by the index narrow the candidates exactly
+            for (final var operand : andNode.operands()) {
+                if (isEvaluableByIndexEntirely(operand)) {
+                    result = evaluate(operand, result);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private OrdinalBitmap findByKeys(final List<Set<IndexKey>> requiredKeys) {
+        OrdinalBitmap result = null;
+        for (final var anyOfKeys : requiredKeys) {
+            var anyOfOrdinals = OrdinalBitmap.empty();
+            for (final var key : anyOfKeys) {
+                anyOfOrdinals = anyOfOrdinals.or(this.index.ordinals(key));
+            }
+
+            result = result == null ? anyOfOrdinals : result.and(anyOfOrdinals);
+        }
+
+        return result == null ? this.index.ordinals() : result;
+    }
+
+    private boolean isEvaluableByIndexEntirely(final QueryNode node) {
+        if (node instanceof AndNode andNode) {
+            return andNode.operands().stream().allMatch(this::isEvaluableByIndexEntirely);
+        } else if (node instanceof OrNode orNode) {
+            return orNode.operands().stream().allMatch(this::isEvaluableByIndexEntirely);
+        } else if (node instanceof NotNode notNode) {
+            return isEvaluableByIndexEntirely(notNode.operand());
+        }
+
+        return isEvaluableByIndex(node);
+    }
+
+    private boolean containsEvaluableByIndex(final QueryNode node) {
+        if (node instanceof AndNode andNode) {
+            return andNode.operands().stream().anyMatch(this::containsEvaluableByIndex);
+        } else if (node instanceof OrNode orNode) {
+            return orNode.operands().stream().anyMatch(this::containsEvaluableByIndex);
+        } else if (node instanceof NotNode notNode) {
+            return containsEvaluableByIndex(notNode.operand());
+        }
+
+        return isEvaluableByIndex(node);
+    }
+
+    private boolean isEvaluableByIndex(final QueryNode node) {
+        return this.index.hasPostings() && node instanceof ConditionNode condition && condition.evaluableByIndex();
+    }
+
+    private static final class OrdinalsCollector {
+
+        private int[] ordinals = new int[16];
+        private int size;
+
+        private void add(final int ordinal) {
+            if (this.size == this.ordinals.length) {
+                this.ordinals = Arrays.copyOf(this.ordinals, this.size * 2);
+            }
+
+            this.ordinals[this.size++] = ordinal;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(this.ordinals, this.size);
+        }
+
+        private OrdinalBitmap build() {
+            return OrdinalBitmap.of(toArray());
+        }
+    }
+}
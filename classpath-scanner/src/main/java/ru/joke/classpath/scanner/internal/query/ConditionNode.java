@@ -0,0 +1,223 @@
+package ru.joke.classpath.scanner.internal.query;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.services.IndexKey;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * A leaf of the query tree: the condition of the scanner builder with its arguments.<br>
+ * The conditions are compared by the operation and the arguments, so the conditions created with
+ * the equal arguments are equal; the arrays of the arguments are compared by their content,
+ * the {@link Operation#FILTER custom filters} are compared by the identity of the filter.
+ *
+ * @author Alik
+ * @see Operation
+ * @see QueryNode
+ */
+public final class ConditionNode implements QueryNode {
+
+    private static final ConditionNode ALL = new ConditionNode(Operation.ALL, List.of(), r -> true, List.of());
+
+    private final Operation operation;
+    private final List<Object> arguments;
+    private final Predicate<ClassPathResource> predicate;
+    private final List<Set<IndexKey>> requiredIndexKeys;
+    private final boolean evaluableByIndex;
+
+    /**
+     * Constructs the condition which can't be evaluated by the inverted index only.
+     *
+     * @param operation         operation of the condition; cannot be {@code null}.
+     * @param arguments         arguments of the operation; cannot be {@code null}; the arrays are copied to the lists.
+     * @param predicate         predicate evaluating the condition; cannot be {@code null}.
+     * @param requiredIndexKeys required keys of the inverted index; cannot be {@code null}.
+     */
+    public ConditionNode(
+            final Operation operation,
+            final List<?> arguments,
+            final Predicate<ClassPathResource> predicate,
+            final List<Set<IndexKey>> requiredIndexKeys
+    ) {
+        this(operation, arguments, predicate, requiredIndexKeys, false);
+    }
+
+    /**
+     * Constructs the condition.
+     *
+     * @param operation         operation of the condition; cannot be {@code null}.
+     * @param arguments         arguments of the operation; cannot be {@code null}; the arrays are copied to the lists.
+     * @param predicate         predicate evaluating the condition; cannot be {@code null}.
+     * @param requiredIndexKeys required keys of the inverted index; cannot be {@code null}.
+     * @param exactIndexKeys    whether the resource is matched by the condition if and only if it has the required keys.
+     */
+    public ConditionNode(
+            final Operation operation,
+            final List<?> arguments,
+            final Predicate<ClassPathResource> predicate,
+            final List<Set<IndexKey>> requiredIndexKeys,
+            final boolean exactIndexKeys
+    ) {
+        this.operation = Objects.requireNonNull(operation, "operation");
+        this.arguments = copyArguments(arguments);
+        this.predicate = Objects.requireNonNull(predicate, "predicate");
+        this.requiredIndexKeys = List.copyOf(requiredIndexKeys);
+        this.evaluableByIndex = exactIndexKeys && !requiredIndexKeys.isEmpty();
+    }
+
+    /**
+     * Returns the condition matching all resources.
+     *
+     * @return condition matching all resources; cannot be {@code null}.
+     */
+    public static ConditionNode all() {
+        return ALL;
+    }
+
+    /**
+     * Returns the condition of the custom filter.
+     *
+     * @param filter custom filter; cannot be {@code null}.
+     * @return condition of the filter; cannot be {@code null}.
+     */
+    public static ConditionNode filter(final Predicate<ClassPathResource> filter) {
+        return new ConditionNode(Operation.FILTER, List.of(filter), filter, List.of());
+    }
+
+    /**
+     * Returns the operation of the condition.
+     *
+     * @return operation; cannot be {@code null}.
+     */
+    public Operation operation() {
+        return this.operation;
+    }
+
+    /**
+     * Returns the arguments of the operation in the order of their declaration in the builder method.
+     * The varargs arguments are represented as the lists, the elements can be {@code null}.
+     *
+     * @return arguments of the operation; cannot be {@code null}.
+     */
+    public List<Object> arguments() {
+        return this.arguments;
+    }
+
+    @Override
+    public List<Set<IndexKey>> requiredIndexKeys() {
+        return this.requiredIndexKeys;
+    }
+
+    /**
+     * Returns whether the resource is matched by the condition if and only if it has the required keys,
+     * so the condition can be evaluated by the inverted index without testing the resources.
+     *
+     * @return {@code true} if the condition can be evaluated by the index, {@code false} otherwise.
+     */
+    public boolean evaluableByIndex() {
+        return this.evaluableByIndex;
+    }
+
+    @Override
+    public boolean test(ClassPathResource resource) {
+        return this.predicate.test(resource);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        return o instanceof ConditionNode that
+                && this.operation == that.operation
+                && this.arguments.equals(that.arguments);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.operation.hashCode() + this.arguments.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.operation + this.arguments.toString();
+    }
+
+    static boolean isAll(final QueryNode node) {
+        return node instanceof ConditionNode condition && condition.operation == Operation.ALL;
+    }
+
+    private static List<Object> copyArguments(final List<?> arguments) {
+        final List<Object> result = new ArrayList<>(arguments.size());
+        for (final var argument : arguments) {
+            result.add(argument instanceof Object[] array ? Collections.unmodifiableList(Arrays.asList(array.clone())) : argument);
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Operations of the conditions; each operation corresponds to the method of the scanner builder.
+     *
+     * @see ru.joke.classpath.scanner.ClassPathScannerBuilder.Begin
+     */
+    public enum Operation {
+
+        INCLUDE_PACKAGE,
+        INCLUDE_PACKAGES,
+        INCLUDE_PACKAGES_PATTERN,
+        EXCLUDE_PACKAGE,
+        EXCLUDE_PACKAGES,
+        EXCLUDE_PACKAGES_PATTERN,
+
+        INCLUDE_MODULE,
+        INCLUDE_MODULES,
+        INCLUDE_MODULES_PATTERN,
+        EXCLUDE_MODULE,
+        EXCLUDE_MODULES,
+        EXCLUDE_MODULES_PATTERN,
+
+        ANNOTATED_BY,
+        ANNOTATED_BY_ANY_OF,
+        ANNOTATED_BY_ALL_OF,
+
+        WITH_ALIAS,
+        WITH_ANY_OF_ALIASES,
+        WITH_ALL_OF_ALIASES,
+        WITH_ANY_OF_ALIASES_PATTERN,
+        WITH_ALL_OF_ALIASES_PATTERN,
+
+        IMPLEMENTS_INTERFACE,
+        IMPLEMENTS_ANY_OF_INTERFACES,
+        IMPLEMENTS_ALL_OF_INTERFACES,
+
+        EXTENDS_BY,
+        EXTENDS_BY_ANY_OF,
+
+        INCLUDE_RESOURCE_TYPE,
+        INCLUDE_RESOURCE_TYPES,
+        EXCLUDE_RESOURCE_TYPE,
+        EXCLUDE_RESOURCE_TYPES,
+
+        HAS_MODIFIER,
+        HAS_ANY_OF_MODIFIERS,
+        HAS_ALL_OF_MODIFIERS,
+
+        INCLUDE_CLASS_KIND,
+        INCLUDE_CLASS_KINDS,
+        EXCLUDE_CLASS_KIND,
+        EXCLUDE_CLASS_KINDS,
+
+        /**
+         * Custom filter, the only argument is the filter.
+         */
+        FILTER,
+
+        /**
+         * Matches all resources, has no arguments.
+         */
+        ALL
+    }
+}
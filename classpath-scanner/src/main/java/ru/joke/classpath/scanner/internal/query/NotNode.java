@@ -0,0 +1,33 @@
+package ru.joke.classpath.scanner.internal.query;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.services.IndexKey;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Negation of the query node: the resource is matched if it isn't matched by the operand.
+ *
+ * @param operand negated node; cannot be {@code null}.
+ *
+ * @author Alik
+ * @see QueryNode#not(QueryNode)
+ */
+public record NotNode(QueryNode operand) implements QueryNode {
+
+    @Override
+    public boolean test(ClassPathResource resource) {
+        return !this.operand.test(resource);
+    }
+
+    /**
+     * Returns an empty collection: the keys of the negated node aren't required by the matched resources.
+     *
+     * @return required keys of the inverted index; cannot be {@code null}.
+     */
+    @Override
+    public List<Set<IndexKey>> requiredIndexKeys() {
+        return List.of();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.joke.classpath.scanner.internal.query;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.services.IndexKey;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Disjunction of the query nodes: the resource is matched if it's matched by at least one of the operands.
+ * The operands are evaluated in the order of their declaration.
+ *
+ * @param operands operands of the disjunction; cannot be {@code null} or empty.
+ *
+ * @author Alik
+ * @see QueryNode#or(QueryNode, QueryNode)
+ */
+public record OrNode(List<QueryNode> operands) implements QueryNode {
+
+    public OrNode {
+        operands = List.copyOf(operands);
+    }
+
+    @Override
+    public boolean test(ClassPathResource resource) {
+        for (final var operand : this.operands) {
+            if (operand.test(resource)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the union of the required keys of the operands if each operand requires a single
+     * disjunction of the keys; otherwise the disjunction can't be expressed via the keys and
+     * an empty collection is returned.
+     *
+     * @return required keys of the inverted index; cannot be {@code null}.
+     */
+    @Override
+    public List<Set<IndexKey>> requiredIndexKeys() {
+        final Set<IndexKey> result = new HashSet<>();
+        for (final var operand : this.operands) {
+            final var operandKeys = operand.requiredIndexKeys();
+            if (operandKeys.size() != 1) {
+                return List.of();
+            }
+
+            result.addAll(operandKeys.get(0));
+        }
+
+        return List.of(Set.copyOf(result));
+    }
+}
@@ -0,0 +1,171 @@
+package ru.joke.classpath.scanner.internal.query;
+
+import ru.joke.classpath.ClassPathResource;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Compiles the query tree into one predicate backed by the fused {@link MethodHandle}.<br>
+ * Evaluated by the tree, the query calls the operands through the interface {@link QueryNode#test(Object)}
+ * at each level; these calls become megamorphic once many scanners are evaluated, so the JIT can't inline them.
+ * The compiled predicate composes the method handles instead: the conjunction and the disjunction are the chains
+ * of the {@link MethodHandles#guardWithTest(MethodHandle, MethodHandle, MethodHandle) guards} with the
+ * short-circuiting of the operands in the order of their declaration, the negation is the filter of the result,
+ * and the frequent conditions (by the type, modifier, alias, package or module of the resource) are specialised
+ * to the direct checks with the bound argument instead of the calls of the lambdas. The other conditions
+ * call their predicates.<br>
+ * The compiled predicate holds the handle in the field, so the handle isn't a constant for the JIT and isn't
+ * inlined into the callers of the predicate. The lambda forms of the handle invoked repeatedly are customized
+ * by the JVM for this handle, only after that the composed conditions are compiled together; so the compilation
+ * pays off for the scanners testing many resources (the scanners of the stateless engine, the residual tests of the
+ * stateful engine, see {@link BitmapQueryEvaluator}), not for the single tests.<br>
+ * The compiled predicate matches exactly the same resources as the query.
+ *
+ * @author Alik
+ * @see QueryNode
+ */
+public final class QueryCompiler {
+
+    private static final MethodType CONDITION_TYPE = MethodType.methodType(boolean.class, ClassPathResource.class);
+
+    private static final MethodHandle TRUE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0, ClassPathResource.class);
+    private static final MethodHandle FALSE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0, ClassPathResource.class);
+    private static final MethodHandle NOT;
+    private static final MethodHandle CONDITION_TEST;
+    private static final MethodHandle HAS_TYPE;
+    private static final MethodHandle HAS_NOT_TYPE;
+    private static final MethodHandle HAS_MODIFIER;
+    private static final MethodHandle HAS_ALIAS;
+    private static final MethodHandle IN_PACKAGE;
+    private static final MethodHandle IN_MODULE;
+
+    static {
+        final var lookup = MethodHandles.lookup();
+        try {
+            NOT = lookup.findStatic(QueryCompiler.class, "not", MethodType.methodType(boolean.class, boolean.class));
+            CONDITION_TEST = lookup.findVirtual(ConditionNode.class, "test", CONDITION_TYPE);
+            HAS_TYPE = findCheck(lookup, "hasType", ClassPathResource.Type.class);
+            HAS_NOT_TYPE = findCheck(lookup, "hasNotType", ClassPathResource.Type.class);
+            HAS_MODIFIER = findCheck(lookup, "hasModifier", ClassPathResource.Modifier.class);
+            HAS_ALIAS = findCheck(lookup, "hasAlias", String.class);
+            IN_PACKAGE = findCheck(lookup, "inPackage", String.class);
+            IN_MODULE = findCheck(lookup, "inModule", String.class);
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private QueryCompiler() {
+    }
+
+    /**
+     * Compiles the query tree into the predicate.
+     *
+     * @param query query tree; cannot be {@code null}.
+     * @return compiled predicate matching the same resources as the query; cannot be {@code null}.
+     */
+    public static Predicate<ClassPathResource> compile(final QueryNode query) {
+        return new CompiledQuery(query, compileNode(query));
+    }
+
+    private static MethodHandle compileNode(final QueryNode node) {
+        if (node instanceof AndNode andNode) {
+            return compileChain(andNode.operands(), true);
+        } else if (node instanceof OrNode orNode) {
+            return compileChain(orNode.operands(), false);
+        } else if (node instanceof NotNode notNode) {
+            return MethodHandles.filterReturnValue(compileNode(notNode.operand()), NOT);
+        }
+
+        return compileCondition((ConditionNode) node);
+    }
+
+    private static MethodHandle compileChain(final List<QueryNode> operands, final boolean conjunction) {
+        var result = compileNode(operands.get(operands.size() - 1));
+        for (int i = operands.size() - 2; i >= 0; i--) {
+            final var operand = compileNode(operands.get(i));
+            result = conjunction
+                    ? MethodHandles.guardWithTest(operand, result, FALSE)
+                    : MethodHandles.guardWithTest(operand, TRUE, result);
+        }
+
+        return result;
+    }
+
+    private static MethodHandle compileCondition(final ConditionNode condition) {
+        final var arguments = condition.arguments();
+        return switch (condition.operation()) {
+            case ALL -> TRUE;
+            case INCLUDE_RESOURCE_TYPE -> MethodHandles.insertArguments(HAS_TYPE, 0, arguments.get(0));
+            case EXCLUDE_RESOURCE_TYPE -> MethodHandles.insertArguments(HAS_NOT_TYPE, 0, arguments.get(0));
+            case HAS_MODIFIER -> MethodHandles.insertArguments(HAS_MODIFIER, 0, arguments.get(0));
+            case WITH_ALIAS -> MethodHandles.insertArguments(HAS_ALIAS, 0, arguments.get(0));
+            case INCLUDE_MODULE -> MethodHandles.insertArguments(IN_MODULE, 0, arguments.get(0));
+            case INCLUDE_PACKAGE ->
+                    Boolean.TRUE.equals(arguments.get(0))
+                            ? MethodHandles.insertArguments(IN_PACKAGE, 0, arguments.get(1))
+                            : CONDITION_TEST.bindTo(condition);
+            default -> CONDITION_TEST.bindTo(condition);
+        };
+    }
+
+    private static MethodHandle findCheck(
+            final MethodHandles.Lookup lookup,
+            final String name,
+            final Class<?> argumentType
+    ) throws NoSuchMethodException, IllegalAccessException {
+        return lookup.findStatic(QueryCompiler.class, name, MethodType.methodType(boolean.class, argumentType, ClassPathResource.class));
+    }
+
+    private static boolean not(final boolean value) {
+        return !value;
+    }
+
+    private static boolean hasType(final ClassPathResource.Type type, final ClassPathResource resource) {
+        return resource.type() == type;
+    }
+
+    private static boolean hasNotType(final ClassPathResource.Type type, final ClassPathResource resource) {
+        return resource.type() != type;
+    }
+
+    private static boolean hasModifier(final ClassPathResource.Modifier modifier, final ClassPathResource resource) {
+        return resource.modifiers().contains(modifier);
+    }
+
+    private static boolean hasAlias(final String alias, final ClassPathResource resource) {
+        return resource.aliases().contains(alias);
+    }
+
+    private static boolean inPackage(final String packageName, final ClassPathResource resource) {
+        return resource.packageName().equals(packageName);
+    }
+
+    private static boolean inModule(final String moduleName, final ClassPathResource resource) {
+        return resource.module().equals(moduleName);
+    }
+
+    private record CompiledQuery(QueryNode query, MethodHandle handle) implements Predicate<ClassPathResource> {
+
+        @Override
+        public boolean test(final ClassPathResource resource) {
+            try {
+                return (boolean) this.handle.invokeExact(resource);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                // the conditions don't throw the checked exceptions
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.query.toString();
+        }
+    }
+}
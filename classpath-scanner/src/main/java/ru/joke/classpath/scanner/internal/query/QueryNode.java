@@ -0,0 +1,89 @@
+package ru.joke.classpath.scanner.internal.query;
+
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.services.IndexKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A node of the immutable query tree built by the scanner builder.<br>
+ * The leaves of the tree are {@link ConditionNode conditions} and the inner nodes are the logical
+ * operations {@link AndNode}, {@link OrNode} and {@link NotNode}. Unlike the chain of the predicates,
+ * the tree can be inspected by the engines to push the conditions down to the indexes, to reorder
+ * them or to use the query as a key of the cache: the nodes are compared structurally.
+ *
+ * @author Alik
+ * @see ConditionNode
+ * @see ru.joke.classpath.scanner.internal.PredicateBasedClassPathScanner#query()
+ */
+public sealed interface QueryNode extends Predicate<ClassPathResource> permits ConditionNode, AndNode, OrNode, NotNode {
+
+    /**
+     * Returns the keys of the inverted index which each resource matched to the query has:
+     * a conjunction of the disjunctions of the keys. If the query can't be expressed via the keys,
+     * an empty collection is returned.
+     *
+     * @return required keys of the inverted index; cannot be {@code null}.
+     */
+    List<Set<IndexKey>> requiredIndexKeys();
+
+    /**
+     * Returns the conjunction of the given nodes. The nested conjunctions are flattened
+     * and the {@link ConditionNode.Operation#ALL} conditions are skipped.
+     *
+     * @param first  first operand; cannot be {@code null}.
+     * @param second second operand; cannot be {@code null}.
+     * @return conjunction of the nodes; cannot be {@code null}.
+     */
+    static QueryNode and(final QueryNode first, final QueryNode second) {
+        if (ConditionNode.isAll(first)) {
+            return second;
+        } else if (ConditionNode.isAll(second)) {
+            return first;
+        }
+
+        final List<QueryNode> operands = new ArrayList<>();
+        for (final var operand : List.of(first, second)) {
+            if (operand instanceof AndNode andNode) {
+                operands.addAll(andNode.operands());
+            } else {
+                operands.add(operand);
+            }
+        }
+
+        return new AndNode(operands);
+    }
+
+    /**
+     * Returns the disjunction of the given nodes. The nested disjunctions are flattened.
+     *
+     * @param first  first operand; cannot be {@code null}.
+     * @param second second operand; cannot be {@code null}.
+     * @return disjunction of the nodes; cannot be {@code null}.
+     */
+    static QueryNode or(final QueryNode first, final QueryNode second) {
+        final List<QueryNode> operands = new ArrayList<>();
+        for (final var operand : List.of(first, second)) {
+            if (operand instanceof OrNode orNode) {
+                operands.addAll(orNode.operands());
+            } else {
+                operands.add(operand);
+            }
+        }
+
+        return new OrNode(operands);
+    }
+
+    /**
+     * Returns the negation of the given node. The double negation is eliminated.
+     *
+     * @param operand negated node; cannot be {@code null}.
+     * @return negation of the node; cannot be {@code null}.
+     */
+    static QueryNode not(final QueryNode operand) {
+        return operand instanceof NotNode notNode ? notNode.operand() : new NotNode(operand);
+    }
+}
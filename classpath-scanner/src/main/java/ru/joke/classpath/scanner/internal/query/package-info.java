@@ -0,0 +1,7 @@
+/**
+ * Contains the immutable query tree built by the scanner builder.
+ *
+ * @see ru.joke.classpath.scanner.internal.query.QueryNode
+ * @see ru.joke.classpath.scanner.internal.query.ConditionNode
+ */
+package ru.joke.classpath.scanner.internal.query;
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -84,6 +85,36 @@ class ClassPathScannerEngineConfigurationTest {
         assertEquals(defaultScope, config.defaultScopeFilter().get(), "Default scope filter must be equal");
     }
 
+    @Test
+    void testScanResultsCacheSize() {
+        assertEquals(
+                ClassPathScannerEngineConfiguration.DEFAULT_SCAN_RESULTS_CACHE_SIZE,
+                ClassPathScannerEngineConfiguration.defaultConfig().scanResultsCacheSize(),
+                "Size of the cache must be equal"
+        );
+
+        final var config = ClassPathScannerEngineConfiguration.builder()
+                                                                .scanResultsCacheSize(16)
+                                                              .build();
+        assertEquals(16, config.scanResultsCacheSize(), "Size of the cache must be equal");
+        assertThrows(InvalidApiUsageException.class, () -> ClassPathScannerEngineConfiguration.builder().scanResultsCacheSize(-1));
+    }
+
+    @Test
+    void testExecutor() {
+        final var defaultExecutor = ClassPathScannerEngineConfiguration.defaultExecutor();
+        assertNotNull(defaultExecutor, "Default executor must be not null");
+        assertSame(defaultExecutor, ClassPathScannerEngineConfiguration.defaultConfig().executor(), "Default executor must be used by default");
+        assertSame(defaultExecutor, ClassPathScannerEngineConfiguration.builder().build().executor(), "Default executor must be used by default");
+
+        final Executor executor = Runnable::run;
+        final var config = ClassPathScannerEngineConfiguration.builder()
+                                                                .executor(executor)
+                                                              .build();
+        assertSame(executor, config.executor(), "Executor must be same");
+        assertThrows(InvalidApiUsageException.class, () -> ClassPathScannerEngineConfiguration.builder().executor(null));
+    }
+
     private void makeChecks(
             final ClassPathScannerEngineConfiguration config,
             final boolean shouldBeStateful,
@@ -6,6 +6,12 @@ import ru.joke.classpath.ClassPathIndexed;
 import ru.joke.classpath.ClassPathResource;
 import ru.joke.classpath.ClassResource;
 import ru.joke.classpath.scanner.ClassPathScannerBuilder;
+import ru.joke.classpath.scanner.internal.query.AndNode;
+import ru.joke.classpath.scanner.internal.query.ConditionNode;
+import ru.joke.classpath.scanner.internal.query.ConditionNode.Operation;
+import ru.joke.classpath.scanner.internal.query.NotNode;
+import ru.joke.classpath.scanner.internal.query.OrNode;
+import ru.joke.classpath.services.IndexKey;
 
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
@@ -370,6 +376,19 @@ class DefaultClassPathScannerBuilderTest {
         checkFilterNotMatch(scanner, resource);
     }
 
+    @Test
+    void testImplementsInterfaceWithNotInternedNames() {
+        final var scanner = (PredicateBasedClassPathScanner) filter.implementsInterface(Runnable.class).build();
+        final var resource = mock(ClassResource.class);
+        final var ref = mock(ClassPathResource.ClassReference.class);
+        when(ref.canonicalName()).thenReturn(new String(Runnable.class.getCanonicalName()));
+        when(resource.interfaces()).thenReturn(Set.of(ref));
+        checkFilterMatch(scanner, resource);
+
+        when(ref.canonicalName()).thenReturn(new String(Comparable.class.getCanonicalName()));
+        checkFilterNotMatch(scanner, resource);
+    }
+
     @Test
     void testAnnotatedByAnyOf() {
         @SuppressWarnings("unchecked")
@@ -892,6 +911,129 @@ class DefaultClassPathScannerBuilderTest {
         checkFilterNotMatch(scanner, resource);
     }
 
+    @Test
+    void testRequiredIndexKeysOfConjunction() {
+        final var scanner = (PredicateBasedClassPathScanner) filter.annotatedBy(Documented.class)
+                                                                        .and()
+                                                                    .includeResourceTypes(ClassPathResource.Type.CLASS, ClassPathResource.Type.METHOD)
+                                                                        .and()
+                                                                    .implementsAllOfInterfaces(Serializable.class, Constable.class)
+                                                                .build();
+
+        final var expectedKeys = List.of(
+                Set.of(IndexKey.ofClass(IndexKey.Kind.ANNOTATION, Documented.class)),
+                Set.of(IndexKey.ofType(ClassPathResource.Type.CLASS), IndexKey.ofType(ClassPathResource.Type.METHOD)),
+                Set.of(IndexKey.ofClass(IndexKey.Kind.INTERFACE, Serializable.class)),
+                Set.of(IndexKey.ofClass(IndexKey.Kind.INTERFACE, Constable.class))
+        );
+        assertEquals(expectedKeys, scanner.requiredIndexKeys(), "Required keys must be equal");
+    }
+
+    @Test
+    void testRequiredIndexKeysOfDisjunction() {
+        final var scanner = (PredicateBasedClassPathScanner) filter.withAlias("a")
+                                                                        .or()
+                                                                    .begin()
+                                                                        .extendsBy(Number.class)
+                                                                    .end()
+                                                                .build();
+
+        final var expectedKeys = List.of(
+                Set.of(new IndexKey(IndexKey.Kind.ALIAS, "a"), IndexKey.ofClass(IndexKey.Kind.SUPERCLASS, Number.class))
+        );
+        assertEquals(expectedKeys, scanner.requiredIndexKeys(), "Required keys must be equal");
+    }
+
+    @Test
+    void testRequiredIndexKeysWhenConditionNotIndexed() {
+        final var negatedScanner = (PredicateBasedClassPathScanner) filter.not().withAlias("a").build();
+        assertTrue(negatedScanner.requiredIndexKeys().isEmpty(), "Negated condition must not require keys");
+
+        final var disjunctionScanner = (PredicateBasedClassPathScanner) new DefaultClassPathScannerBuilder().begin()
+                                                                                                                .withAlias("a")
+                                                                                                                    .or()
+                                                                                                                .includeResourcesInPackage(false, "ru")
+                                                                                                            .build();
+        assertTrue(disjunctionScanner.requiredIndexKeys().isEmpty(), "Disjunction with not indexed condition must not require keys");
+
+        final var conjunctionScanner = (PredicateBasedClassPathScanner) new DefaultClassPathScannerBuilder().begin()
+                                                                                                                .includeClassKind(ClassResource.Kind.ENUM)
+                                                                                                                    .and()
+                                                                                                                .includeResourcesInModule("m")
+                                                                                                            .build();
+        assertEquals(List.of(Set.of(new IndexKey(IndexKey.Kind.MODULE, "m"))), conjunctionScanner.requiredIndexKeys(), "Required keys must be equal");
+    }
+
+    @Test
+    void testQueryTree() {
+        final var scanner = (PredicateBasedClassPathScanner) filter.includeResourceType(ClassPathResource.Type.CLASS)
+                                                                    .and()
+                                                                   .begin()
+                                                                        .annotatedBy(Documented.class)
+                                                                            .or()
+                                                                        .not()
+                                                                        .includeResourcesInPackage(true, "ru")
+                                                                   .end()
+                                                                   .build();
+
+        final var expectedQuery = new AndNode(List.of(
+                new ConditionNode(Operation.INCLUDE_RESOURCE_TYPE, List.of(ClassPathResource.Type.CLASS), r -> true, List.of()),
+                new OrNode(List.of(
+                        new ConditionNode(Operation.ANNOTATED_BY, List.of(Documented.class), r -> true, List.of()),
+                        new NotNode(new ConditionNode(Operation.INCLUDE_PACKAGE, List.of(true, "ru"), r -> true, List.of()))
+                ))
+        ));
+        assertEquals(expectedQuery, scanner.query(), "Query tree must be equal");
+    }
+
+    @Test
+    void testQueryTreesOfEqualScannersAreEqual() {
+        final var firstScanner = (PredicateBasedClassPathScanner) new DefaultClassPathScannerBuilder().begin()
+                                                                                                            .withAnyOfAliases("a", "b")
+                                                                                                                .and()
+                                                                                                            .hasAnyOfModifiers(ClassPathResource.Modifier.PUBLIC)
+                                                                                                        .build();
+        final var secondScanner = (PredicateBasedClassPathScanner) new DefaultClassPathScannerBuilder().begin()
+                                                                                                            .withAnyOfAliases("a", "b")
+                                                                                                                .and()
+                                                                                                            .hasAnyOfModifiers(ClassPathResource.Modifier.PUBLIC)
+                                                                                                        .build();
+        final var thirdScanner = (PredicateBasedClassPathScanner) new DefaultClassPathScannerBuilder().begin()
+                                                                                                            .withAnyOfAliases("a", "c")
+                                                                                                                .and()
+                                                                                                            .hasAnyOfModifiers(ClassPathResource.Modifier.PUBLIC)
+                                                                                                        .build();
+
+        assertEquals(firstScanner.query(), secondScanner.query(), "Query trees must be equal");
+        assertEquals(firstScanner.query().hashCode(), secondScanner.query().hashCode(), "Hash codes of query trees must be equal");
+        assertNotEquals(firstScanner.query(), thirdScanner.query(), "Query trees must be not equal");
+    }
+
+    @Test
+    void testRequiredIndexKeysOfModifiers() {
+        final var anyOfScanner = (PredicateBasedClassPathScanner) new DefaultClassPathScannerBuilder().begin()
+                                                                                                            .hasAnyOfModifiers(ClassPathResource.Modifier.PUBLIC, ClassPathResource.Modifier.STATIC)
+                                                                                                        .build();
+        final var expectedAnyOfKeys = List.of(
+                Set.of(IndexKey.ofModifier(ClassPathResource.Modifier.PUBLIC), IndexKey.ofModifier(ClassPathResource.Modifier.STATIC))
+        );
+        assertEquals(expectedAnyOfKeys, anyOfScanner.requiredIndexKeys(), "Required keys must be equal");
+
+        final var allOfScanner = (PredicateBasedClassPathScanner) new DefaultClassPathScannerBuilder().begin()
+                                                                                                            .hasAllOfModifiers(ClassPathResource.Modifier.PUBLIC, ClassPathResource.Modifier.STATIC)
+                                                                                                        .build();
+        final var expectedAllOfKeys = List.of(
+                Set.of(IndexKey.ofModifier(ClassPathResource.Modifier.PUBLIC)),
+                Set.of(IndexKey.ofModifier(ClassPathResource.Modifier.STATIC))
+        );
+        assertEquals(expectedAllOfKeys, allOfScanner.requiredIndexKeys(), "Required keys must be equal");
+
+        final var emptyAnyOfScanner = (PredicateBasedClassPathScanner) new DefaultClassPathScannerBuilder().begin()
+                                                                                                                .hasAnyOfModifiers()
+                                                                                                            .build();
+        assertTrue(emptyAnyOfScanner.requiredIndexKeys().isEmpty(), "Empty set of modifiers must not require keys");
+    }
+
     private void makeAppendedConditionResultCheck(ClassPathScannerBuilder.LogicalOperations ops) {
         assertNotNull(ops, "Builder should return next object to chain operations");
     }
@@ -0,0 +1,92 @@
+package ru.joke.classpath.scanner.internal.engines;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.ClassPathResources;
+import ru.joke.classpath.IndexedClassPathResources;
+import ru.joke.classpath.scanner.ClassPathScanner;
+import ru.joke.classpath.scanner.internal.PredicateBasedClassPathScanner;
+import ru.joke.classpath.scanner.internal.query.QueryNode;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanResultsCacheTest {
+
+    @Test
+    void testResultsOfEqualQueriesAreShared() {
+        final var cache = new ScanResultsCache(2);
+        final var computations = new AtomicInteger();
+        final Supplier<ClassPathResources> supplier = () -> {
+            computations.incrementAndGet();
+            return new IndexedClassPathResources();
+        };
+
+        final var first = cache.computeIfAbsent(query("a"), false, supplier);
+        final var second = cache.computeIfAbsent(query("a"), false, supplier);
+        final var third = cache.computeIfAbsent(query("a"), true, supplier);
+
+        assertSame(first, second, "Results of equal queries must be same");
+        assertNotSame(first, third, "Results of queries with different scope overriding must be not same");
+        assertEquals(2, computations.get(), "Count of computations must be equal");
+        assertThrows(UnsupportedOperationException.class, () -> first.add(null), "Cached result must be unmodifiable");
+    }
+
+    @Test
+    void testLeastRecentlyUsedResultIsEvicted() {
+        final var cache = new ScanResultsCache(2);
+
+        final var a = cache.computeIfAbsent(query("a"), false, IndexedClassPathResources::new);
+        final var b = cache.computeIfAbsent(query("b"), false, IndexedClassPathResources::new);
+        assertSame(a, cache.computeIfAbsent(query("a"), false, IndexedClassPathResources::new), "Result must be cached");
+
+        cache.computeIfAbsent(query("c"), false, IndexedClassPathResources::new);
+
+        assertEquals(2, cache.size(), "Size of cache must be bounded");
+        assertSame(a, cache.computeIfAbsent(query("a"), false, IndexedClassPathResources::new), "Recently used result must be cached");
+        assertNotSame(b, cache.computeIfAbsent(query("b"), false, IndexedClassPathResources::new), "Least recently used result must be evicted");
+    }
+
+    @Test
+    void testDisabledCache() {
+        final var cache = new ScanResultsCache(0);
+
+        final var first = cache.computeIfAbsent(query("a"), false, IndexedClassPathResources::new);
+        final var second = cache.computeIfAbsent(query("a"), false, IndexedClassPathResources::new);
+
+        assertNotSame(first, second, "Results must not be cached");
+        assertEquals(0, cache.size(), "Cache must be empty");
+        assertInstanceOf(IndexedClassPathResources.class, first, "Result of disabled cache must be modifiable");
+    }
+
+    @Test
+    void testQueryWithCustomFilterIsNotCached() {
+        final var cache = new ScanResultsCache(2);
+        final var scanner = ClassPathScanner.builder()
+                                                .begin()
+                                                    .withAlias("a")
+                                                    .and()
+                                                    .filter(r -> true)
+                                                .end()
+                                            .build();
+        final var query = ((PredicateBasedClassPathScanner) scanner).query();
+
+        final var first = cache.computeIfAbsent(query, false, IndexedClassPathResources::new);
+        final var second = cache.computeIfAbsent(query, false, IndexedClassPathResources::new);
+
+        assertNotSame(first, second, "Results of query with custom filter must not be cached");
+        assertNull(cache.get(query, false), "Result of query with custom filter must not be cached");
+        assertEquals(0, cache.size(), "Cache must be empty");
+        assertInstanceOf(IndexedClassPathResources.class, first, "Result of not cached query must be modifiable");
+    }
+
+    private QueryNode query(final String alias) {
+        final var scanner = ClassPathScanner.builder()
+                                                .begin()
+                                                    .withAlias(alias)
+                                                .end()
+                                            .build();
+        return ((PredicateBasedClassPathScanner) scanner).query();
+    }
+}
@@ -2,18 +2,24 @@ package ru.joke.classpath.scanner.internal.engines;
 
 import org.junit.jupiter.api.Test;
 import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.ClassPathResources;
 import ru.joke.classpath.IndexedClassPathResources;
 import ru.joke.classpath.scanner.ClassPathScanner;
 import ru.joke.classpath.scanner.ClassPathScannerEngine;
 import ru.joke.classpath.scanner.ClassPathScannerEngineConfiguration;
+import ru.joke.classpath.scanner.InvalidApiUsageException;
 import ru.joke.classpath.scanner.internal.PredicateBasedClassPathScanner;
+import ru.joke.classpath.scanner.internal.query.ConditionNode;
+import ru.joke.classpath.scanner.internal.query.QueryNode;
 import ru.joke.classpath.services.ClassPathResourcesService;
 import ru.joke.classpath.services.IndexedClassPathLocation;
 
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -56,6 +62,372 @@ class StatefulClassPathScannerEngineTest extends AbsClassPathScannerEngineTest {
         );
     }
 
+    @Test
+    void testScanByIndexKeys() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final var engine = createEngine(
+                ClassPathScannerEngineConfiguration.builder()
+                                                        .withClassLoaders(targetClassLoaders)
+        );
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var packageResource = createResource(ClassPathResource.Type.PACKAGE, ClassPathResource.Modifier.PUBLIC);
+            final var moduleResource = createResource(ClassPathResource.Type.MODULE, ClassPathResource.Modifier.PUBLIC);
+            final var privatePackageResource = createResource(ClassPathResource.Type.PACKAGE);
+            final var storedResources = new IndexedClassPathResources();
+            storedResources.addAll(List.of(packageResource, moduleResource, privatePackageResource));
+
+            final var expectedLocation = IndexedClassPathLocation.relativeLocation(targetClassLoaders);
+            when(mockResourcesService.read(eq(expectedLocation), any())).thenReturn(storedResources);
+
+            final var scanner =
+                    (PredicateBasedClassPathScanner) ClassPathScanner.builder()
+                                                                        .begin()
+                                                                            .includeResourceType(ClassPathResource.Type.PACKAGE)
+                                                                            .and()
+                                                                            .hasModifier(ClassPathResource.Modifier.PUBLIC)
+                                                                        .end()
+                                                                     .build();
+            final List<ClassPathResource> testedResources = new ArrayList<>();
+            final var trackingQuery = QueryNode.and(
+                    scanner.query(),
+                    ConditionNode.filter(r -> testedResources.add(r))
+            );
+            final var trackingScanner = new PredicateBasedClassPathScanner() {
+                @Override
+                public boolean test(ClassPathResource resource) {
+                    return trackingQuery.test(resource);
+                }
+
+                @Override
+                public boolean overrideDefaultEngineScope() {
+                    return scanner.overrideDefaultEngineScope();
+                }
+
+                @Override
+                public QueryNode query() {
+                    return trackingQuery;
+                }
+            };
+
+            final var result = engine.scan(trackingScanner);
+
+            assertEquals(Set.of(packageResource), result, "Resources must be equal");
+            assertEquals(List.of(packageResource), testedResources, "Only candidates from the index must be tested");
+        }
+    }
+
+    @Test
+    void testShortCircuitingOperations() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final var engine = createEngine(
+                ClassPathScannerEngineConfiguration.builder()
+                                                        .withClassLoaders(targetClassLoaders)
+        );
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var packageResources = List.of(
+                    createResource(ClassPathResource.Type.PACKAGE),
+                    createResource(ClassPathResource.Type.PACKAGE),
+                    createResource(ClassPathResource.Type.PACKAGE)
+            );
+            final var storedResources = new IndexedClassPathResources();
+            storedResources.addAll(packageResources);
+            storedResources.add(createResource(ClassPathResource.Type.MODULE));
+            when(mockResourcesService.read(any(), any())).thenReturn(storedResources);
+
+            final var classesScanner =
+                    ClassPathScanner.builder()
+                                        .begin()
+                                            .includeResourceType(ClassPathResource.Type.CLASS)
+                                        .end()
+                                    .build();
+
+            assertEquals(3, engine.count(createPackagesScanner()), "Count must be equal");
+            assertEquals(0, engine.count(classesScanner), "Count must be equal");
+            assertTrue(engine.exists(createPackagesScanner()), "Packages must exist");
+            assertFalse(engine.exists(classesScanner), "Classes must not exist");
+            assertTrue(packageResources.contains(engine.findAny(createPackagesScanner()).orElseThrow()), "Package must be found");
+            assertTrue(engine.findAny(classesScanner).isEmpty(), "Class must not be found");
+
+            final var limitedResult = engine.scan(createPackagesScanner(), 2);
+            assertEquals(2, limitedResult.size(), "Limited resources count must be equal");
+            assertTrue(packageResources.containsAll(limitedResult), "Limited resources must be packages");
+            assertTrue(engine.scan(createPackagesScanner(), 0).isEmpty(), "Resources must be empty");
+            assertThrows(InvalidApiUsageException.class, () -> engine.scan(createPackagesScanner(), -1));
+
+            // the operations must use the cached result of the equal query
+            final var fullResult = engine.scan(createPackagesScanner());
+            assertEquals(3, engine.count(createPackagesScanner()), "Count must be equal");
+            assertTrue(fullResult.containsAll(engine.scan(createPackagesScanner(), 2)), "Limited resources must be taken from cached result");
+        }
+    }
+
+    @Test
+    void testScanAll() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final var engine = createEngine(
+                ClassPathScannerEngineConfiguration.builder()
+                                                        .withClassLoaders(targetClassLoaders)
+        );
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var packageResource = createResource(ClassPathResource.Type.PACKAGE);
+            final var moduleResource = createResource(ClassPathResource.Type.MODULE, ClassPathResource.Modifier.PUBLIC);
+            final var storedResources = new IndexedClassPathResources();
+            storedResources.addAll(List.of(packageResource, moduleResource));
+            when(mockResourcesService.read(any(), any())).thenReturn(storedResources);
+
+            final var cachedResult = engine.scan(createPackagesScanner());
+            final var packagesScanner = createPackagesScanner();
+            final var publicScanner =
+                    ClassPathScanner.builder()
+                                        .begin()
+                                            .filter(r -> r.modifiers().contains(ClassPathResource.Modifier.PUBLIC))
+                                        .end()
+                                    .build();
+
+            final var result = engine.scanAll(List.of(packagesScanner, publicScanner));
+
+            assertEquals(List.of(packagesScanner, publicScanner), List.copyOf(result.keySet()), "Results must be in the order of the scanners");
+            assertSame(cachedResult, result.get(packagesScanner), "Cached result must be used");
+            assertEquals(Set.of(moduleResource), result.get(publicScanner), "Resources must be equal");
+            assertNotSame(result.get(publicScanner), engine.scanAll(List.of(publicScanner)).get(publicScanner), "Result of query with custom filter must not be cached");
+            assertTrue(engine.scanAll(List.of()).isEmpty(), "Results must be empty");
+            assertThrows(InvalidApiUsageException.class, () -> engine.scanAll(null));
+            verify(mockResourcesService, times(1)).read(any(), any());
+        }
+    }
+
+    @Test
+    void testRepeatedScansReturnCachedResultUntilReload() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final var engine = createEngine(
+                ClassPathScannerEngineConfiguration.builder()
+                                                        .withClassLoaders(targetClassLoaders)
+        );
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var storedResources = new IndexedClassPathResources();
+            storedResources.add(createResource(ClassPathResource.Type.PACKAGE));
+            final var expectedLocation = IndexedClassPathLocation.relativeLocation(targetClassLoaders);
+            when(mockResourcesService.read(eq(expectedLocation), any())).thenReturn(storedResources);
+
+            final var firstResult = engine.scan(createPackagesScanner());
+            final var secondResult = engine.scan(createPackagesScanner());
+
+            assertSame(firstResult, secondResult, "Results of equal scanners must be same");
+            assertEquals(storedResources, firstResult, "Resources must be equal");
+            assertThrows(UnsupportedOperationException.class, firstResult::clear, "Cached result must be unmodifiable");
+
+            engine.reload();
+
+            final var resultAfterReload = engine.scan(createPackagesScanner());
+            assertNotSame(firstResult, resultAfterReload, "Cache must be invalidated by reload");
+            assertEquals(storedResources, resultAfterReload, "Resources must be equal");
+            verify(mockResourcesService, times(2)).read(eq(expectedLocation), any());
+        }
+    }
+
+    @Test
+    void testScansUsePreviousSnapshotDuringReload() throws Exception {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final var engine = createEngine(
+                ClassPathScannerEngineConfiguration.builder()
+                                                        .withClassLoaders(targetClassLoaders)
+        );
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var oldResources = new IndexedClassPathResources();
+            oldResources.add(createResource(ClassPathResource.Type.PACKAGE));
+            final var newResources = new IndexedClassPathResources();
+            newResources.add(createResource(ClassPathResource.Type.PACKAGE));
+
+            final List<ClassPathResources> resultsDuringReload = new ArrayList<>();
+            when(mockResourcesService.read(any(), any()))
+                    .thenReturn(oldResources)
+                    .thenAnswer(invocation -> {
+                        // scans from the other threads must not wait for the reload
+                        final var scanDuringReload = CompletableFuture.supplyAsync(() -> engine.scan(createPackagesScanner()));
+                        resultsDuringReload.add(scanDuringReload.get(5, TimeUnit.SECONDS));
+                        return newResources;
+                    });
+
+            final var resultBeforeReload = engine.scan(createPackagesScanner());
+            engine.reload();
+
+            assertEquals(List.of(resultBeforeReload), resultsDuringReload, "Scan during reload must use previous snapshot");
+            assertSame(resultBeforeReload, resultsDuringReload.get(0), "Scan during reload must use previous snapshot");
+            assertEquals(newResources, engine.scan(createPackagesScanner()), "Scan after reload must use new snapshot");
+        }
+    }
+
+    @Test
+    void testEagerInitializationOnExecutor() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final List<Runnable> tasks = new ArrayList<>();
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var storedResources = new IndexedClassPathResources();
+            storedResources.add(createResource(ClassPathResource.Type.PACKAGE));
+            when(mockResourcesService.read(any(), any())).thenReturn(storedResources);
+
+            final var engine = createEngine(
+                    ClassPathScannerEngineConfiguration.builder()
+                                                            .enableEagerStatefulEngineInitialization()
+                                                            .executor(tasks::add)
+                                                            .withClassLoaders(targetClassLoaders)
+            );
+
+            assertEquals(1, tasks.size(), "Initialization must be submitted to the executor");
+            verify(mockResourcesService, never()).read(any(), any());
+
+            tasks.get(0).run();
+            verify(mockResourcesService).read(any(), any());
+
+            assertEquals(storedResources, engine.scan(createPackagesScanner()), "Resources must be equal");
+            verify(mockResourcesService).read(any(), any());
+        }
+    }
+
+    @Test
+    void testEagerInitializationRejectedByExecutor() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var storedResources = new IndexedClassPathResources();
+            storedResources.add(createResource(ClassPathResource.Type.PACKAGE));
+            when(mockResourcesService.read(any(), any())).thenReturn(storedResources);
+
+            final var engine = createEngine(
+                    ClassPathScannerEngineConfiguration.builder()
+                                                            .enableEagerStatefulEngineInitialization()
+                                                            .executor(task -> {
+                                                                throw new RejectedExecutionException();
+                                                            })
+                                                            .withClassLoaders(targetClassLoaders)
+            );
+
+            verify(mockResourcesService, never()).read(any(), any());
+            assertEquals(storedResources, engine.scan(createPackagesScanner()), "Resources must be loaded lazily");
+            verify(mockResourcesService).read(any(), any());
+        }
+    }
+
+    @Test
+    void testEagerInitializationFailed() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final List<Runnable> tasks = new ArrayList<>();
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var storedResources = new IndexedClassPathResources();
+            storedResources.add(createResource(ClassPathResource.Type.PACKAGE));
+            when(mockResourcesService.read(any(), any()))
+                    .thenThrow(new IllegalStateException("test"))
+                    .thenReturn(storedResources);
+
+            final var engine = createEngine(
+                    ClassPathScannerEngineConfiguration.builder()
+                                                            .enableEagerStatefulEngineInitialization()
+                                                            .executor(tasks::add)
+                                                            .withClassLoaders(targetClassLoaders)
+            );
+
+            assertEquals(1, tasks.size(), "Initialization must be submitted to the executor");
+            assertDoesNotThrow(() -> tasks.get(0).run(), "Failure of initialization must be handled");
+
+            assertEquals(storedResources, engine.scan(createPackagesScanner()), "Resources must be loaded by the first scan");
+            verify(mockResourcesService, times(2)).read(any(), any());
+        }
+    }
+
+    @Test
+    void testScanAsync() throws Exception {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final List<Runnable> tasks = new ArrayList<>();
+        final var engine = createEngine(
+                ClassPathScannerEngineConfiguration.builder()
+                                                        .executor(tasks::add)
+                                                        .withClassLoaders(targetClassLoaders)
+        );
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var storedResources = new IndexedClassPathResources();
+            storedResources.add(createResource(ClassPathResource.Type.PACKAGE));
+            when(mockResourcesService.read(any(), any())).thenReturn(storedResources);
+
+            final var result = engine.scanAsync(createPackagesScanner());
+            assertFalse(result.isDone(), "Scan must be executed on the executor");
+            assertEquals(1, tasks.size(), "Scan must be submitted to the executor");
+
+            tasks.get(0).run();
+            assertEquals(storedResources, result.get(5, TimeUnit.SECONDS), "Resources must be equal");
+            assertThrows(InvalidApiUsageException.class, () -> engine.scanAsync(null));
+        }
+    }
+
+    @Test
+    void testReloadAsync() throws Exception {
+        final var engine = createEngine(ClassPathScannerEngineConfiguration.builder());
+
+        final var reload = engine.reloadAsync();
+
+        assertNotNull(reload, "Future must be not null");
+        assertNull(reload.get(5, TimeUnit.SECONDS), "Reload must be completed");
+    }
+
+    @Test
+    void testScanWhenResultsCacheDisabled() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final var engine = createEngine(
+                ClassPathScannerEngineConfiguration.builder()
+                                                        .scanResultsCacheSize(0)
+                                                        .withClassLoaders(targetClassLoaders)
+        );
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var storedResources = new IndexedClassPathResources();
+            storedResources.add(createResource(ClassPathResource.Type.PACKAGE));
+            when(mockResourcesService.read(any(), any())).thenReturn(storedResources);
+
+            final var firstResult = engine.scan(createPackagesScanner());
+            final var secondResult = engine.scan(createPackagesScanner());
+
+            assertNotSame(firstResult, secondResult, "Results must not be cached");
+            assertEquals(firstResult, secondResult, "Resources must be equal");
+        }
+    }
+
     private void executeTest(
             ClassPathScannerEngineConfiguration.Builder configBuilder,
             boolean overrideDefaultEngineScopeInScanner
@@ -92,6 +464,29 @@ class StatefulClassPathScannerEngineTest extends AbsClassPathScannerEngineTest {
         return new StatefulClassPathScannerEngine(configurationBuilder.stateful().build());
     }
 
+    private ClassPathScanner createPackagesScanner() {
+        return ClassPathScanner.builder()
+                                    .begin()
+                                        .includeResourceType(ClassPathResource.Type.PACKAGE)
+                                    .end()
+                                .build();
+    }
+
+    private ClassPathResource createResource(
+            final ClassPathResource.Type type,
+            final ClassPathResource.Modifier... modifiers
+    ) {
+        final var resource = mock(ClassPathResource.class);
+        when(resource.type()).thenReturn(type);
+        when(resource.packageName()).thenReturn("");
+        when(resource.module()).thenReturn("");
+        when(resource.aliases()).thenReturn(Set.of());
+        when(resource.modifiers()).thenReturn(Set.of(modifiers));
+        when(resource.annotations()).thenReturn(Set.of());
+
+        return resource;
+    }
+
     private PredicateBasedClassPathScanner createDefaultEngineScope() {
         return (PredicateBasedClassPathScanner) ClassPathScanner.builder()
                                                                     .begin()
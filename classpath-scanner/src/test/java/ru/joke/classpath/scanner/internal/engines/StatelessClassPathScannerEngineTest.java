@@ -6,14 +6,20 @@ import ru.joke.classpath.IndexedClassPathResources;
 import ru.joke.classpath.scanner.ClassPathScanner;
 import ru.joke.classpath.scanner.ClassPathScannerEngine;
 import ru.joke.classpath.scanner.ClassPathScannerEngineConfiguration;
+import ru.joke.classpath.scanner.InvalidApiUsageException;
 import ru.joke.classpath.scanner.internal.PredicateBasedClassPathScanner;
 import ru.joke.classpath.services.ClassPathResourcesService;
+import ru.joke.classpath.services.IndexKey;
 import ru.joke.classpath.services.IndexedClassPathLocation;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -64,6 +70,124 @@ class StatelessClassPathScannerEngineTest extends AbsClassPathScannerEngineTest
         );
     }
 
+    @Test
+    void testScanByIndexKeys() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final var engine = createEngine(
+                ClassPathScannerEngineConfiguration.builder()
+                                                        .defaultScopeFilter(createDefaultEngineScope())
+                                                        .withClassLoaders(targetClassLoaders)
+        );
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var scanner =
+                    ClassPathScanner.builder()
+                                        .begin()
+                                            .includeResourceType(ClassPathResource.Type.PACKAGE)
+                                        .end()
+                                    .build();
+
+            final var expectedLocation = IndexedClassPathLocation.relativeLocation(targetClassLoaders);
+            final var expectedResources = new IndexedClassPathResources();
+            final var expectedKeys = List.of(Set.of(IndexKey.ofType(ClassPathResource.Type.PACKAGE)));
+            when(mockResourcesService.read(eq(expectedLocation), eq(expectedKeys), any())).thenReturn(expectedResources);
+
+            final var result = engine.scan(scanner);
+
+            assertSame(expectedResources, result, "Resources must be same");
+            verify(mockResourcesService, never()).read(any(), any());
+        }
+    }
+
+    @Test
+    void testShortCircuitingOperations() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final var engine = createEngine(
+                ClassPathScannerEngineConfiguration.builder()
+                                                        .withClassLoaders(targetClassLoaders)
+        );
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var resources = List.of(mock(ClassPathResource.class), mock(ClassPathResource.class), mock(ClassPathResource.class));
+            final var expectedLocation = IndexedClassPathLocation.relativeLocation(targetClassLoaders);
+            final var takenResources = new AtomicInteger();
+            when(mockResourcesService.stream(eq(expectedLocation), any()))
+                    .thenAnswer(invocation -> resources.stream().peek(r -> takenResources.incrementAndGet()));
+
+            final var scanner =
+                    ClassPathScanner.builder()
+                                        .begin()
+                                            .all()
+                                        .end()
+                                    .build();
+
+            assertEquals(Optional.of(resources.get(0)), engine.findAny(scanner), "Resource must be found");
+            assertEquals(1, takenResources.get(), "Stream must be stopped after the first resource");
+
+            assertTrue(engine.exists(scanner), "Resource must exist");
+            assertEquals(3, engine.count(scanner), "Count must be equal");
+
+            takenResources.set(0);
+            assertEquals(Set.copyOf(resources.subList(0, 2)), engine.scan(scanner, 2), "Limited resources must be equal");
+            assertEquals(2, takenResources.get(), "Stream must be stopped after the limit");
+            verify(mockResourcesService, never()).read(any(), any());
+        }
+    }
+
+    @Test
+    void testScanAllInOnePass() {
+        final var targetClassLoaders = Set.of(getClass().getClassLoader());
+        final var engine = createEngine(
+                ClassPathScannerEngineConfiguration.builder()
+                                                        .withClassLoaders(targetClassLoaders)
+        );
+
+        try (final var mockedStatic = mockStatic(ClassPathResourcesService.class, UUID.randomUUID().toString())) {
+            final var mockResourcesService = mock(ClassPathResourcesService.class);
+            mockedStatic.when(ClassPathResourcesService::getInstance).thenReturn(mockResourcesService);
+
+            final var packageResource = mock(ClassPathResource.class);
+            when(packageResource.type()).thenReturn(ClassPathResource.Type.PACKAGE);
+            final var moduleResource = mock(ClassPathResource.class);
+            when(moduleResource.type()).thenReturn(ClassPathResource.Type.MODULE);
+
+            final var expectedLocation = IndexedClassPathLocation.relativeLocation(targetClassLoaders);
+            when(mockResourcesService.stream(eq(expectedLocation), any()))
+                    .thenAnswer(invocation -> List.of(packageResource, moduleResource).stream());
+
+            final var packagesScanner = createScanner(ClassPathResource.Type.PACKAGE);
+            final var modulesScanner = createScanner(ClassPathResource.Type.MODULE);
+            final var classesScanner = createScanner(ClassPathResource.Type.CLASS);
+
+            final var result = engine.scanAll(List.of(packagesScanner, modulesScanner, classesScanner));
+
+            assertEquals(List.of(packagesScanner, modulesScanner, classesScanner), List.copyOf(result.keySet()), "Results must be in the order of the scanners");
+            assertEquals(Set.of(packageResource), result.get(packagesScanner), "Resources must be equal");
+            assertEquals(Set.of(moduleResource), result.get(modulesScanner), "Resources must be equal");
+            assertTrue(result.get(classesScanner).isEmpty(), "Resources must be empty");
+            verify(mockResourcesService, times(1)).stream(eq(expectedLocation), any());
+            verify(mockResourcesService, never()).read(any(), any());
+
+            final List<ClassPathScanner> scannersWithNull = new ArrayList<>();
+            scannersWithNull.add(null);
+            assertThrows(InvalidApiUsageException.class, () -> engine.scanAll(scannersWithNull));
+        }
+    }
+
+    private ClassPathScanner createScanner(final ClassPathResource.Type type) {
+        return ClassPathScanner.builder()
+                                    .begin()
+                                        .filter(r -> r.type() == type)
+                                    .end()
+                                .build();
+    }
+
     @Override
     protected ClassPathScannerEngine createEngine(ClassPathScannerEngineConfiguration.Builder configurationBuilder) {
         return new StatelessClassPathScannerEngine(configurationBuilder.stateless().build());
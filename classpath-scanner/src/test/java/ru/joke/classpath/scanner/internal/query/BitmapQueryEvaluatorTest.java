@@ -0,0 +1,245 @@
+package ru.joke.classpath.scanner.internal.query;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.scanner.ClassPathScanner;
+import ru.joke.classpath.scanner.internal.PredicateBasedClassPathScanner;
+import ru.joke.classpath.services.InvertedIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BitmapQueryEvaluatorTest {
+
+    @Test
+    void testEvaluationByIndex() {
+        final var resources = createResources();
+        final var evaluator = new BitmapQueryEvaluator(InvertedIndex.of(resources));
+
+        final var query = query(
+                ClassPathScanner.builder()
+                                    .begin()
+                                        .includeResourceType(ClassPathResource.Type.PACKAGE)
+                                            .or()
+                                        .begin()
+                                            .withAlias("a2")
+                                                .and()
+                                            .not()
+                                            .hasModifier(ClassPathResource.Modifier.STATIC)
+                                        .end()
+                                    .end()
+                                .build()
+        );
+
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, evaluator.evaluate(query).toArray(), "Ordinals must be equal");
+    }
+
+    @Test
+    void testConditionsNotEvaluableByIndexTestOnlyCandidates() {
+        final var resources = createResources();
+        final var evaluator = new BitmapQueryEvaluator(InvertedIndex.of(resources));
+
+        final List<ClassPathResource> testedResources = new ArrayList<>();
+        final Predicate<ClassPathResource> trackingFilter = r -> testedResources.add(r) && r.aliases().contains("a1");
+        final var query = query(
+                ClassPathScanner.builder()
+                                    .begin()
+                                        .filter(trackingFilter)
+                                            .and()
+                                        .hasModifier(ClassPathResource.Modifier.PUBLIC)
+                                    .end()
+                                .build()
+        );
+
+        assertArrayEquals(new int[] { 0, 4 }, evaluator.evaluate(query).toArray(), "Ordinals must be equal");
+        assertEquals(List.of(resources.get(0), resources.get(2), resources.get(4)), testedResources, "Only candidates must be tested");
+    }
+
+    @Test
+    void testEvaluationOfSeveralQueriesInOnePass() {
+        final var resources = createResources();
+        final var evaluator = new BitmapQueryEvaluator(InvertedIndex.of(resources));
+
+        final List<ClassPathResource> testedResources = new ArrayList<>();
+        final Predicate<ClassPathResource> firstFilter = r -> testedResources.add(r) && r.aliases().contains("a1");
+        final Predicate<ClassPathResource> secondFilter = r -> r.aliases().contains("a2");
+        final var queries = List.of(
+                query(
+                        ClassPathScanner.builder()
+                                            .begin()
+                                                .filter(firstFilter)
+                                                    .and()
+                                                .hasModifier(ClassPathResource.Modifier.PUBLIC)
+                                            .end()
+                                        .build()
+                ),
+                query(
+                        ClassPathScanner.builder()
+                                            .begin()
+                                                .includeResourceType(ClassPathResource.Type.MODULE)
+                                            .end()
+                                        .build()
+                ),
+                query(
+                        ClassPathScanner.builder()
+                                            .begin()
+                                                .filter(secondFilter)
+                                            .end()
+                                        .build()
+                )
+        );
+
+        final var result = evaluator.evaluateAll(queries);
+
+        assertEquals(3, result.size(), "Results count must be equal");
+        assertArrayEquals(new int[] { 0, 4 }, result.get(0).toArray(), "Ordinals of first query must be equal");
+        assertArrayEquals(new int[] { 3, 4, 5 }, result.get(1).toArray(), "Ordinals of second query must be equal");
+        assertArrayEquals(new int[] { 1, 3, 5 }, result.get(2).toArray(), "Ordinals of third query must be equal");
+        assertEquals(List.of(resources.get(0), resources.get(2), resources.get(4)), testedResources, "Only candidates of the query must be tested");
+
+        for (int i = 0; i < queries.size(); i++) {
+            assertArrayEquals(evaluator.evaluate(queries.get(i)).toArray(), result.get(i).toArray(), "Results of the batch and the single evaluation must be equal");
+        }
+    }
+
+    @Test
+    void testQueriesNotEvaluableByIndexTestedByPredicates() {
+        final var resources = createResources();
+        final var evaluator = new BitmapQueryEvaluator(InvertedIndex.of(resources));
+
+        final var query = query(
+                ClassPathScanner.builder()
+                                    .begin()
+                                        .filter(r -> r.aliases().contains("a2"))
+                                    .end()
+                                .build()
+        );
+        final var indexQuery = query(
+                ClassPathScanner.builder()
+                                    .begin()
+                                        .hasModifier(ClassPathResource.Modifier.PUBLIC)
+                                    .end()
+                                .build()
+        );
+
+        final List<ClassPathResource> testedResources = new ArrayList<>();
+        final Predicate<ClassPathResource> predicate = r -> testedResources.add(r) && query.test(r);
+        final Predicate<ClassPathResource> failingPredicate = r -> {
+            throw new AssertionError("Query evaluable by index must not be tested by predicate");
+        };
+
+        assertArrayEquals(new int[] { 1, 3, 5 }, evaluator.evaluate(query, predicate).toArray(), "Ordinals must be equal");
+        assertEquals(resources, testedResources, "Resources must be tested by the predicate of the query");
+        assertArrayEquals(new int[] { 0, 2, 4 }, evaluator.evaluate(indexQuery, failingPredicate).toArray(), "Ordinals must be equal");
+
+        testedResources.clear();
+        final var result = evaluator.evaluateAll(List.of(query, indexQuery), List.of(predicate, failingPredicate));
+        assertArrayEquals(new int[] { 1, 3, 5 }, result.get(0).toArray(), "Ordinals of first query must be equal");
+        assertArrayEquals(new int[] { 0, 2, 4 }, result.get(1).toArray(), "Ordinals of second query must be equal");
+        assertEquals(resources, testedResources, "Resources must be tested by the predicate of the query");
+    }
+
+    @Test
+    void testFirstMatchedResourcesFoundWithoutTestingRemainingCandidates() {
+        final var resources = createResources();
+        final var evaluator = new BitmapQueryEvaluator(InvertedIndex.of(resources));
+
+        final var query = query(
+                ClassPathScanner.builder()
+                                    .begin()
+                                        .filter(r -> r.aliases().contains("a2"))
+                                    .end()
+                                .build()
+        );
+        final var mixedQuery = query(
+                ClassPathScanner.builder()
+                                    .begin()
+                                        .filter(r -> r.aliases().contains("a2"))
+                                            .and()
+                                        .hasModifier(ClassPathResource.Modifier.STATIC)
+                                    .end()
+                                .build()
+        );
+        final var indexQuery = query(
+                ClassPathScanner.builder()
+                                    .begin()
+                                        .hasModifier(ClassPathResource.Modifier.PUBLIC)
+                                    .end()
+                                .build()
+        );
+
+        final List<ClassPathResource> testedResources = new ArrayList<>();
+        final Predicate<ClassPathResource> failingPredicate = r -> {
+            throw new AssertionError("Query evaluable by index must not be tested by predicate");
+        };
+
+        assertArrayEquals(new int[] { 1 }, evaluator.evaluate(query, r -> testedResources.add(r) && query.test(r), 1), "Ordinals must be equal");
+        assertEquals(resources.subList(0, 2), testedResources, "Candidates after the first match must not be tested");
+
+        testedResources.clear();
+        assertArrayEquals(new int[] { 1, 3 }, evaluator.evaluate(query, r -> testedResources.add(r) && query.test(r), 2), "Ordinals must be equal");
+        assertEquals(resources.subList(0, 4), testedResources, "Candidates after the last required match must not be tested");
+
+        testedResources.clear();
+        assertArrayEquals(new int[] { 5 }, evaluator.evaluate(mixedQuery, r -> testedResources.add(r) && mixedQuery.test(r), 1), "Ordinals must be equal");
+        assertEquals(List.of(resources.get(2), resources.get(5)), testedResources, "Only candidates selected by the index must be tested");
+
+        assertArrayEquals(new int[] { 0, 2 }, evaluator.evaluate(indexQuery, failingPredicate, 2), "Ordinals must be equal");
+        assertArrayEquals(new int[0], evaluator.evaluate(query, failingPredicate, 0), "Ordinals must be empty");
+    }
+
+    @Test
+    void testEvaluationWithoutPostings() {
+        final var resources = createResources();
+        final var evaluator = new BitmapQueryEvaluator(new InvertedIndex(resources.toArray(new ClassPathResource[0]), null));
+
+        final var query = query(
+                ClassPathScanner.builder()
+                                    .begin()
+                                        .not()
+                                        .includeResourceType(ClassPathResource.Type.PACKAGE)
+                                    .end()
+                                .build()
+        );
+
+        assertArrayEquals(new int[] { 3, 4, 5 }, evaluator.evaluate(query).toArray(), "Ordinals must be equal");
+    }
+
+    private QueryNode query(final ClassPathScanner scanner) {
+        return ((PredicateBasedClassPathScanner) scanner).query();
+    }
+
+    private List<ClassPathResource> createResources() {
+        return List.of(
+                createResource(ClassPathResource.Type.PACKAGE, "a1", ClassPathResource.Modifier.PUBLIC),
+                createResource(ClassPathResource.Type.PACKAGE, "a2"),
+                createResource(ClassPathResource.Type.PACKAGE, "a3", ClassPathResource.Modifier.PUBLIC, ClassPathResource.Modifier.STATIC),
+                createResource(ClassPathResource.Type.MODULE, "a2"),
+                createResource(ClassPathResource.Type.MODULE, "a1", ClassPathResource.Modifier.PUBLIC),
+                createResource(ClassPathResource.Type.MODULE, "a2", ClassPathResource.Modifier.STATIC)
+        );
+    }
+
+    private ClassPathResource createResource(
+            final ClassPathResource.Type type,
+            final String alias,
+            final ClassPathResource.Modifier... modifiers
+    ) {
+        final var resource = mock(ClassPathResource.class);
+        when(resource.type()).thenReturn(type);
+        when(resource.packageName()).thenReturn("");
+        when(resource.module()).thenReturn("");
+        when(resource.aliases()).thenReturn(Set.of(alias));
+        when(resource.modifiers()).thenReturn(Set.of(modifiers));
+        when(resource.annotations()).thenReturn(Set.of());
+
+        return resource;
+    }
+}
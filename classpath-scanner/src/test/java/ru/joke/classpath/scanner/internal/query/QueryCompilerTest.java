@@ -0,0 +1,128 @@
+package ru.joke.classpath.scanner.internal.query;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.scanner.ClassPathScanner;
+import ru.joke.classpath.scanner.internal.DefaultClassPathScannerBuilder;
+import ru.joke.classpath.scanner.internal.PredicateBasedClassPathScanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryCompilerTest {
+
+    @Test
+    void testCompiledQueryMatchesSameResources() {
+        final var resources = createResources();
+        final List<QueryNode> queries = List.of(
+                query(createBuilder().begin().all().end().build()),
+                query(createBuilder().begin().includeResourceType(ClassPathResource.Type.MODULE).end().build()),
+                query(createBuilder().begin().excludeResourceType(ClassPathResource.Type.MODULE).end().build()),
+                query(createBuilder().begin().not().hasModifier(ClassPathResource.Modifier.PUBLIC).end().build()),
+                query(createBuilder().begin().withAlias("a2").or().includeResourcesInModule("m1").end().build()),
+                query(createBuilder().begin().includeResourcesInPackage(true, "p1").and().includeResourcesInPackage(false, "p").end().build()),
+                query(
+                        createBuilder()
+                                .begin()
+                                    .begin()
+                                        .includeResourceType(ClassPathResource.Type.PACKAGE)
+                                            .or()
+                                        .withAnyOfAliases(Pattern.compile("a[13]"))
+                                    .end()
+                                    .and()
+                                    .not()
+                                    .begin()
+                                        .hasModifier(ClassPathResource.Modifier.STATIC)
+                                            .and()
+                                        .filter(r -> r.module().equals("m2"))
+                                    .end()
+                                .end()
+                                .build()
+                )
+        );
+
+        for (final var query : queries) {
+            final var compiled = QueryCompiler.compile(query);
+            for (final var resource : resources) {
+                assertEquals(query.test(resource), compiled.test(resource), "Compiled query must match the same resources: " + query);
+            }
+        }
+    }
+
+    @Test
+    void testCompiledQueryShortCircuitsOperands() {
+        final var resources = createResources();
+        final List<String> testedOperands = new ArrayList<>();
+        final Predicate<ClassPathResource> first = r -> testedOperands.add("first") && r.type() == ClassPathResource.Type.PACKAGE;
+        final Predicate<ClassPathResource> second = r -> testedOperands.add("second");
+        final Predicate<ClassPathResource> third = r -> testedOperands.add("third");
+
+        final var conjunction = QueryCompiler.compile(query(createBuilder().begin().filter(first).and().filter(second).end().build()));
+        assertEquals(false, conjunction.test(resources.get(3)), "Resource must not be matched");
+        assertEquals(List.of("first"), testedOperands, "Conjunction must be stopped after the first false operand");
+
+        testedOperands.clear();
+        final var disjunction = QueryCompiler.compile(query(createBuilder().begin().filter(second).or().filter(third).end().build()));
+        assertEquals(true, disjunction.test(resources.get(0)), "Resource must be matched");
+        assertEquals(List.of("second"), testedOperands, "Disjunction must be stopped after the first true operand");
+    }
+
+    @Test
+    void testExceptionOfConditionIsPropagated() {
+        final var exception = new IllegalArgumentException();
+        final var compiled = QueryCompiler.compile(query(createBuilder().begin().filter(r -> { throw exception; }).end().build()));
+
+        try {
+            compiled.test(createResources().get(0));
+        } catch (IllegalArgumentException ex) {
+            assertEquals(exception, ex, "Exception must be same");
+            return;
+        }
+
+        throw new AssertionError("Exception must be thrown");
+    }
+
+    private DefaultClassPathScannerBuilder createBuilder() {
+        return new DefaultClassPathScannerBuilder(false);
+    }
+
+    private QueryNode query(final ClassPathScanner scanner) {
+        return ((PredicateBasedClassPathScanner) scanner).query();
+    }
+
+    private List<ClassPathResource> createResources() {
+        return List.of(
+                createResource(ClassPathResource.Type.PACKAGE, "p1", "m1", "a1", ClassPathResource.Modifier.PUBLIC),
+                createResource(ClassPathResource.Type.PACKAGE, "p2", "m2", "a2"),
+                createResource(ClassPathResource.Type.PACKAGE, "p1", "m2", "a3", ClassPathResource.Modifier.PUBLIC, ClassPathResource.Modifier.STATIC),
+                createResource(ClassPathResource.Type.MODULE, "", "m1", "a2"),
+                createResource(ClassPathResource.Type.MODULE, "", "m2", "a1", ClassPathResource.Modifier.PUBLIC),
+                createResource(ClassPathResource.Type.CLASS, "p1", "m2", "a2", ClassPathResource.Modifier.STATIC)
+        );
+    }
+
+    private ClassPathResource createResource(
+            final ClassPathResource.Type type,
+            final String packageName,
+            final String module,
+            final String alias,
+            final ClassPathResource.Modifier... modifiers
+    ) {
+        final var resource = mock(ClassPathResource.class);
+        when(resource.type()).thenReturn(type);
+        when(resource.packageName()).thenReturn(packageName);
+        when(resource.module()).thenReturn(module);
+        when(resource.aliases()).thenReturn(Set.of(alias));
+        when(resource.modifiers()).thenReturn(Set.of(modifiers));
+        when(resource.annotations()).thenReturn(Set.of());
+
+        return resource;
+    }
+}
@@ -0,0 +1,95 @@
+package ru.joke.classpath.scanner.internal.query;
+
+import org.junit.jupiter.api.Test;
+import ru.joke.classpath.ClassPathResource;
+import ru.joke.classpath.services.IndexKey;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class QueryNodeTest {
+
+    private static final IndexKey KEY_A = new IndexKey(IndexKey.Kind.ALIAS, "a");
+    private static final IndexKey KEY_B = new IndexKey(IndexKey.Kind.ALIAS, "b");
+    private static final IndexKey KEY_C = new IndexKey(IndexKey.Kind.ALIAS, "c");
+
+    @Test
+    void testAndFlattensNestedConjunctionsAndSkipsAll() {
+        final var a = condition("a", true, KEY_A);
+        final var b = condition("b", true, KEY_B);
+        final var c = condition("c", true, KEY_C);
+
+        assertSame(a, QueryNode.and(ConditionNode.all(), a), "Condition matching all resources must be skipped");
+        assertSame(a, QueryNode.and(a, ConditionNode.all()), "Condition matching all resources must be skipped");
+        assertEquals(new AndNode(List.of(a, b, c)), QueryNode.and(QueryNode.and(a, b), c), "Conjunction must be flattened");
+    }
+
+    @Test
+    void testOrFlattensNestedDisjunctions() {
+        final var a = condition("a", true, KEY_A);
+        final var b = condition("b", true, KEY_B);
+        final var c = condition("c", true, KEY_C);
+
+        assertEquals(new OrNode(List.of(a, b, c)), QueryNode.or(a, QueryNode.or(b, c)), "Disjunction must be flattened");
+    }
+
+    @Test
+    void testNotEliminatesDoubleNegation() {
+        final var a = condition("a", true, KEY_A);
+
+        assertEquals(new NotNode(a), QueryNode.not(a), "Negation must be equal");
+        assertSame(a, QueryNode.not(QueryNode.not(a)), "Double negation must be eliminated");
+    }
+
+    @Test
+    void testEvaluation() {
+        final var resource = mock(ClassPathResource.class);
+        final var matched = condition("a", true, KEY_A);
+        final var notMatched = condition("b", false, KEY_B);
+
+        assertTrue(QueryNode.and(matched, matched).test(resource), "Conjunction must match");
+        assertFalse(QueryNode.and(matched, notMatched).test(resource), "Conjunction must not match");
+        assertTrue(QueryNode.or(notMatched, matched).test(resource), "Disjunction must match");
+        assertFalse(QueryNode.or(notMatched, notMatched).test(resource), "Disjunction must not match");
+        assertTrue(QueryNode.not(notMatched).test(resource), "Negation must match");
+        assertTrue(ConditionNode.all().test(resource), "Condition must match all resources");
+    }
+
+    @Test
+    void testRequiredIndexKeys() {
+        final var a = condition("a", true, KEY_A);
+        final var b = condition("b", true, KEY_B);
+        final var notIndexed = new ConditionNode(ConditionNode.Operation.INCLUDE_PACKAGES_PATTERN, List.of("x"), r -> true, List.of());
+
+        assertEquals(List.of(Set.of(KEY_A), Set.of(KEY_B)), QueryNode.and(a, b).requiredIndexKeys(), "Keys of conjunction must be equal");
+        assertEquals(List.of(Set.of(KEY_A)), QueryNode.and(a, notIndexed).requiredIndexKeys(), "Keys of conjunction must be equal");
+        assertEquals(List.of(Set.of(KEY_A, KEY_B)), QueryNode.or(a, b).requiredIndexKeys(), "Keys of disjunction must be equal");
+        assertTrue(QueryNode.or(a, notIndexed).requiredIndexKeys().isEmpty(), "Disjunction with not indexed condition must not require keys");
+        assertTrue(QueryNode.or(a, QueryNode.and(a, b)).requiredIndexKeys().isEmpty(), "Disjunction with conjunction of keys must not require keys");
+        assertTrue(QueryNode.not(a).requiredIndexKeys().isEmpty(), "Negation must not require keys");
+    }
+
+    @Test
+    void testConditionEquality() {
+        final var first = new ConditionNode(ConditionNode.Operation.WITH_ANY_OF_ALIASES, List.of((Object) new String[] { "a", "b" }), r -> true, List.of());
+        final var second = new ConditionNode(ConditionNode.Operation.WITH_ANY_OF_ALIASES, List.of((Object) new String[] { "a", "b" }), r -> false, List.of());
+        final var third = new ConditionNode(ConditionNode.Operation.WITH_ALL_OF_ALIASES, List.of((Object) new String[] { "a", "b" }), r -> true, List.of());
+
+        assertEquals(first, second, "Conditions with equal arguments must be equal");
+        assertEquals(first.hashCode(), second.hashCode(), "Hash codes of conditions must be equal");
+        assertNotEquals(first, third, "Conditions of different operations must be not equal");
+        assertEquals(List.of(List.of("a", "b")), first.arguments(), "Array arguments must be represented as lists");
+
+        final Predicate<ClassPathResource> filter = r -> true;
+        assertEquals(ConditionNode.filter(filter), ConditionNode.filter(filter), "Conditions of the same filter must be equal");
+        assertNotEquals(ConditionNode.filter(filter), ConditionNode.filter(r -> true), "Conditions of different filters must be not equal");
+    }
+
+    private ConditionNode condition(final String alias, final boolean result, final IndexKey key) {
+        return new ConditionNode(ConditionNode.Operation.WITH_ALIAS, List.of(alias), r -> result, List.of(Set.of(key)));
+    }
+}